@@ -330,6 +330,7 @@ public class AnalyzerTexWriter {
     /* make sure the model is up to date */
     final var modelIsUpdating = model.getOutputExpressions().updatesEnabled();
     model.getOutputExpressions().enableUpdates();
+    model.getOutputExpressions().finishPendingMinimizations();
     try (PrintStream out = new PrintStream(file)) {
       /*
        * We start to create the document header section with all required packages
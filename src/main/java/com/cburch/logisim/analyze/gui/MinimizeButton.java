@@ -66,27 +66,9 @@ public class MinimizeButton  extends JButton {
     doneButton.setVisible(false);
     infoPanel.setLocationRelativeTo(parent);
     infoPanel.pack();
-    final var dialogThread = new Thread(
-          new Runnable() {
-              void done() {
-                infoPanel.dispose();
-              }
-
-              public void run() {
-                doneButton.addActionListener(Event -> done());
-                infoPanel.setVisible(true);
-              }
-          }
-    );
-    dialogThread.start();
-    final var optimizeThread = new Thread(
-        new Runnable() {
-            public void run() {
-                model.getOutputExpressions().forcedOptimize(info, format);
-                doneButton.setVisible(true);
-            }
-        }
-    );
-    optimizeThread.start();
+    doneButton.addActionListener(event -> infoPanel.dispose());
+    // the minimization runs in the background and reports here while the dialog is shown
+    model.getOutputExpressions().forcedOptimize(info, format, () -> doneButton.setVisible(true));
+    infoPanel.setVisible(true);
   }
 }
@@ -15,11 +15,17 @@ import java.util.List;
 
 public class AnalyzerModel {
   public static final int MAX_INPUTS = 20;
+  // circuits with more inputs can only be analyzed symbolically, see Analyze.computeBdd
+  public static final int MAX_SYMBOLIC_INPUTS = Bdd.MAX_VARIABLES;
   public static final int MAX_OUTPUTS = 256;
 
   public static final int FORMAT_SUM_OF_PRODUCTS = 0;
   public static final int FORMAT_PRODUCT_OF_SUMS = 1;
 
+  public static final int MINIMIZER_AUTOMATIC = 0;
+  public static final int MINIMIZER_EXACT = 1;
+  public static final int MINIMIZER_HEURISTIC = 2;
+
   private final VariableList inputs = new VariableList(MAX_INPUTS);
   private final VariableList outputs = new VariableList(MAX_OUTPUTS);
   private final TruthTable table;
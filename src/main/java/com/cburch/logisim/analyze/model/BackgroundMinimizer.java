@@ -0,0 +1,123 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import com.cburch.logisim.util.UniquelyNamedThread;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Computes minimal forms of output columns on a shared pool of background threads and remembers
+ * the most recent results by the contents of the column, so undoing an edit or switching between
+ * formats does not minimize the same function again.
+ *
+ * <p>A {@link Job} works on a snapshot of the column, hence it never touches the model itself. The
+ * results are remembered under a {@link Key} that only holds a digest of the column. A job is
+ * cancelled by interrupting its thread; the minimizers check for that regularly.
+ */
+final class BackgroundMinimizer {
+
+  static final int MAX_CACHED_RESULTS = 128;
+
+  /** Everything the result of a minimization depends on. */
+  record Key(int format, int minimizer, int nrOfInputs, String columnDigest) {}
+
+  /** A minimization to do, with a snapshot of the column to minimize. */
+  record Job(Key key, PackedColumn column) {}
+
+  private static final Map<Key, List<Implicant>> cache =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, List<Implicant>> eldest) {
+          return size() > MAX_CACHED_RESULTS;
+        }
+      };
+
+  private static final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          Runtime.getRuntime().availableProcessors(),
+          runnable -> {
+            final var thread = new UniquelyNamedThread(runnable, "AnalyzerMinimizer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private BackgroundMinimizer() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /** Creates the job for the current contents of an output, or null if there is no such output. */
+  static Job createJob(int format, int minimizer, AnalyzerModel model, String output) {
+    final var outputIndex = model.getOutputs().bits.indexOf(output);
+    if (outputIndex < 0) return null;
+    final var table = model.getTruthTable();
+    final var column = table.getOutputColumnCopy(outputIndex);
+    return new Job(
+        new Key(format, minimizer, table.getInputColumnCount(), column.digest()), column);
+  }
+
+  /** Returns the remembered result of the job, or null if it has to be computed. */
+  static List<Implicant> getCached(Job job) {
+    synchronized (cache) {
+      return cache.get(job.key);
+    }
+  }
+
+  /**
+   * Computes the minimal form in the calling thread. Without a log the remembered result is used
+   * when there is one; with a log the minimization is always done, so the log is filled.
+   *
+   * @throws CancellationException when the thread is interrupted
+   */
+  static List<Implicant> compute(Job job, String variable, StringBuilder log) {
+    if (log == null) {
+      final var cached = getCached(job);
+      if (cached != null) return cached;
+    }
+    final var key = job.key;
+    final var ret =
+        Implicant.computeMinimal(
+            key.format, key.minimizer, job.column, key.nrOfInputs, variable, log);
+    // empty results are not worth the memory: they are found quickly or skipped for their size
+    if (!ret.isEmpty()) {
+      synchronized (cache) {
+        cache.put(key, ret);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Computes the minimal form in the background and hands the result to {@code done} in the event
+   * dispatch thread. With a log the minimization is always done, see {@link #compute}. Nothing is
+   * handed over when the job is cancelled.
+   */
+  static Future<?> submit(
+      Job job, String variable, StringBuilder log, Consumer<List<Implicant>> done) {
+    return executor.submit(
+        () -> {
+          try {
+            final var result = compute(job, variable, log);
+            if (!Thread.currentThread().isInterrupted()) {
+              SwingUtilities.invokeLater(() -> done.accept(result));
+            }
+          } catch (CancellationException e) {
+            // the column changed again, a newer job takes over
+          }
+        });
+  }
+}
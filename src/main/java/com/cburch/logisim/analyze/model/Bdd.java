@@ -0,0 +1,417 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Reduced ordered binary decision diagrams over a fixed number of variables. Contrary to a {@link
+ * TruthTable} the size of a diagram does not grow with the number of rows but with the structure
+ * of the function, so functions of up to {@link #MAX_VARIABLES} inputs can be represented, compared
+ * and minimized.
+ *
+ * <p>A function is identified by the index of its root node. Nodes are shared between all
+ * functions of the same instance, hence two functions of the same instance are equal if and only
+ * if their node indices are equal. Variable {@code i} is tested before variable {@code i + 1}; when
+ * converting to and from truth tables the first variable is the most significant bit of the row
+ * index. An instance is not thread-safe.
+ */
+public final class Bdd {
+
+  public static final int ZERO = 0;
+  public static final int ONE = 1;
+  public static final int MAX_VARIABLES = 64;
+  public static final int MAX_NODES = 1 << 22;
+
+  private static final int MIN_CACHE_SIZE = 1 << 8;
+  private static final int MAX_CACHE_SIZE = 1 << 16;
+
+  /** Thrown when a function needs more nodes than the limit of the instance. */
+  public static class TooLargeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    TooLargeException(int maxNodes) {
+      super("decision diagram exceeds " + maxNodes + " nodes");
+    }
+  }
+
+  private final int nrOfVariables;
+  private final int maxNodes;
+  private int[] level;
+  private int[] low;
+  private int[] high;
+  private int size;
+  /* open addressing table of the non-terminal nodes; 0 marks an empty slot */
+  private int[] buckets;
+  /* direct-mapped cache of if-then-else results, sized after the node limit */
+  private final int[] cacheF;
+  private final int[] cacheG;
+  private final int[] cacheH;
+  private final int[] cacheResult;
+
+  public Bdd(int nrOfVariables) {
+    this(nrOfVariables, MAX_NODES);
+  }
+
+  public Bdd(int nrOfVariables, int maxNodes) {
+    if (nrOfVariables < 0 || nrOfVariables > MAX_VARIABLES) {
+      throw new IllegalArgumentException("unsupported number of variables " + nrOfVariables);
+    }
+    this.nrOfVariables = nrOfVariables;
+    this.maxNodes = Math.min(maxNodes, MAX_NODES);
+    level = new int[1024];
+    low = new int[1024];
+    high = new int[1024];
+    buckets = new int[2048];
+    final var cacheSize =
+        Math.max(MIN_CACHE_SIZE, Math.min(MAX_CACHE_SIZE, Integer.highestOneBit(this.maxNodes)));
+    cacheF = new int[cacheSize];
+    cacheG = new int[cacheSize];
+    cacheH = new int[cacheSize];
+    cacheResult = new int[cacheSize];
+    Arrays.fill(cacheF, -1);
+    // the terminals are below all variables
+    level[ZERO] = level[ONE] = nrOfVariables;
+    high[ONE] = low[ONE] = ONE;
+    size = 2;
+  }
+
+  public int getVariableCount() {
+    return nrOfVariables;
+  }
+
+  /** Returns the number of nodes created so far. */
+  public int getNodeCount() {
+    return size;
+  }
+
+  public int variable(int index) {
+    if (index < 0 || index >= nrOfVariables) {
+      throw new IllegalArgumentException("no variable " + index);
+    }
+    return makeNode(index, ZERO, ONE);
+  }
+
+  public int not(int f) {
+    return ite(f, ZERO, ONE);
+  }
+
+  public int and(int f, int g) {
+    return ite(f, g, ZERO);
+  }
+
+  public int or(int f, int g) {
+    return ite(f, ONE, g);
+  }
+
+  public int xor(int f, int g) {
+    return ite(f, not(g), g);
+  }
+
+  /** Returns the function "if f then g else h". */
+  public int ite(int f, int g, int h) {
+    if (f == ONE) return g;
+    if (f == ZERO) return h;
+    if (g == h) return g;
+    if (g == ONE && h == ZERO) return f;
+    final var slot = (int) (hash(f, g, h) & (cacheF.length - 1));
+    if (cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h) return cacheResult[slot];
+    final var top = Math.min(level[f], Math.min(level[g], level[h]));
+    final var lo = ite(cofactor(f, top, false), cofactor(g, top, false), cofactor(h, top, false));
+    final var hi = ite(cofactor(f, top, true), cofactor(g, top, true), cofactor(h, top, true));
+    final var ret = makeNode(top, lo, hi);
+    cacheF[slot] = f;
+    cacheG[slot] = g;
+    cacheH[slot] = h;
+    cacheResult[slot] = ret;
+    return ret;
+  }
+
+  private int cofactor(int f, int var, boolean value) {
+    if (level[f] != var) return f;
+    return value ? high[f] : low[f];
+  }
+
+  private static long hash(int a, int b, int c) {
+    var h = a * 0x9E3779B97F4A7C15L;
+    h = (h ^ b) * 0xC2B2AE3D27D4EB4FL;
+    h = (h ^ c) * 0x165667B19E3779F9L;
+    return h ^ (h >>> 29);
+  }
+
+  private int makeNode(int var, int lo, int hi) {
+    if (lo == hi) return lo;
+    var mask = buckets.length - 1;
+    var slot = (int) hash(var, lo, hi) & mask;
+    for (var node = buckets[slot]; node != 0; node = buckets[slot]) {
+      if (level[node] == var && low[node] == lo && high[node] == hi) return node;
+      slot = (slot + 1) & mask;
+    }
+    if (size >= maxNodes) throw new TooLargeException(maxNodes);
+    if (size == level.length) {
+      final var capacity = Math.min(2 * size, maxNodes);
+      level = Arrays.copyOf(level, capacity);
+      low = Arrays.copyOf(low, capacity);
+      high = Arrays.copyOf(high, capacity);
+    }
+    final var node = size++;
+    level[node] = var;
+    low[node] = lo;
+    high[node] = hi;
+    buckets[slot] = node;
+    if (2 * size > buckets.length) rehash();
+    return node;
+  }
+
+  private void rehash() {
+    buckets = new int[2 * buckets.length];
+    final var mask = buckets.length - 1;
+    for (var node = 2; node < size; node++) {
+      var slot = (int) hash(level[node], low[node], high[node]) & mask;
+      while (buckets[slot] != 0) slot = (slot + 1) & mask;
+      buckets[slot] = node;
+    }
+  }
+
+  /**
+   * Builds the function of an expression, where {@code variables.get(i)} is variable {@code i}.
+   *
+   * @throws IllegalArgumentException if the expression uses a variable that is not in the list
+   * @throws TooLargeException if the function needs too many nodes
+   */
+  public int fromExpression(Expression expr, List<String> variables) {
+    final var index = new HashMap<String, Integer>();
+    for (var i = 0; i < variables.size(); i++) index.put(variables.get(i), i);
+    return expr.visit(
+        new Expression.Visitor<Integer>() {
+          @Override
+          public Integer visitAnd(Expression a, Expression b) {
+            return and(a.visit(this), b.visit(this));
+          }
+
+          @Override
+          public Integer visitConstant(int value) {
+            return (value & 1) != 0 ? ONE : ZERO;
+          }
+
+          @Override
+          public Integer visitNot(Expression a) {
+            return not(a.visit(this));
+          }
+
+          @Override
+          public Integer visitOr(Expression a, Expression b) {
+            return or(a.visit(this), b.visit(this));
+          }
+
+          @Override
+          public Integer visitVariable(String name) {
+            final var i = index.get(name);
+            if (i == null) throw new IllegalArgumentException("unknown variable " + name);
+            return variable(i);
+          }
+
+          @Override
+          public Integer visitXor(Expression a, Expression b) {
+            return xor(a.visit(this), b.visit(this));
+          }
+
+          @Override
+          public Integer visitXnor(Expression a, Expression b) {
+            return not(xor(a.visit(this), b.visit(this)));
+          }
+
+          @Override
+          public Integer visitEq(Expression a, Expression b) {
+            return visitXnor(a, b);
+          }
+        });
+  }
+
+  public boolean evaluate(int f, boolean[] assignment) {
+    while (f > ONE) f = assignment[level[f]] ? high[f] : low[f];
+    return f == ONE;
+  }
+
+  /**
+   * Returns an assignment for which the function is true, with the variables that do not matter
+   * set to false, or null if the function is never true.
+   */
+  public boolean[] findSatisfying(int f) {
+    if (f == ZERO) return null;
+    final var ret = new boolean[nrOfVariables];
+    while (f > ONE) {
+      if (low[f] != ZERO) {
+        f = low[f];
+      } else {
+        ret[level[f]] = true;
+        f = high[f];
+      }
+    }
+    return ret;
+  }
+
+  /** Returns the number of nodes of a function, the terminals included. */
+  public int countNodes(int f) {
+    final var seen = new boolean[size];
+    final var stack = new ArrayList<Integer>();
+    stack.add(f);
+    var ret = 0;
+    while (!stack.isEmpty()) {
+      final int node = stack.remove(stack.size() - 1);
+      if (seen[node]) continue;
+      seen[node] = true;
+      ret++;
+      if (node > ONE) {
+        stack.add(low[node]);
+        stack.add(high[node]);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Returns the function as truth table column, 64 rows per word in the layout of {@link
+   * Expression#evaluateAll}. Rows in which a path skips a variable are filled with whole words or
+   * array copies, so the cost depends on the diagram rather than on the number of rows.
+   */
+  long[] toBits(int f) {
+    if (nrOfVariables > 30) throw new IllegalStateException("too many variables for a table");
+    final var ret = new long[Math.max(1, (1 << nrOfVariables) >>> 6)];
+    final var memo = new HashMap<Long, Long>();
+    if (nrOfVariables <= 6) ret[0] = toWord(f, 0, memo);
+    else fill(f, 0, 0, ret, memo);
+    return ret;
+  }
+
+  /* fills the words of the rows in which variables 0 .. var - 1 are fixed */
+  private void fill(int f, int var, int firstWord, long[] words, HashMap<Long, Long> memo) {
+    if (f == ZERO) return;
+    final var count = 1 << (nrOfVariables - var - 6);
+    if (f == ONE) {
+      Arrays.fill(words, firstWord, firstWord + count, -1L);
+    } else if (count == 1) {
+      words[firstWord] = toWord(f, var, memo);
+    } else if (level[f] == var) {
+      fill(low[f], var + 1, firstWord, words, memo);
+      fill(high[f], var + 1, firstWord + count / 2, words, memo);
+    } else {
+      fill(f, var + 1, firstWord, words, memo);
+      System.arraycopy(words, firstWord, words, firstWord + count / 2, count / 2);
+    }
+  }
+
+  /* returns the bits of the at most 64 rows in which variables 0 .. var - 1 are fixed */
+  private long toWord(int f, int var, HashMap<Long, Long> memo) {
+    final var rows = 1 << (nrOfVariables - var);
+    if (f == ZERO) return 0L;
+    if (f == ONE) return rows == 64 ? -1L : (1L << rows) - 1;
+    final var key = ((long) f << 7) | var;
+    final var cached = memo.get(key);
+    if (cached != null) return cached;
+    final var lo = cofactor(f, var, false);
+    final var hi = cofactor(f, var, true);
+    // the first variable is the most significant bit of the row index
+    final var ret = toWord(lo, var + 1, memo) | (toWord(hi, var + 1, memo) << (rows / 2));
+    memo.put(key, ret);
+    return ret;
+  }
+
+  /* a product term: the variables in mask, with the values in values */
+  private record Cube(long mask, long values) {}
+
+  private record Cover(List<Cube> cubes, int function) {}
+
+  /**
+   * Returns an irredundant sum of products of the function, computed with the algorithm of Minato
+   * and Morreale directly on the diagram. The result is not necessarily minimal, but no product
+   * and no literal can be removed from it, and it is found without enumerating the rows.
+   */
+  public Expression toSumOfProducts(int f, List<String> variables) {
+    return toSumOfProducts(f, variables, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns an irredundant sum of products of the function, or null if it needs more than {@code
+   * maxProducts} products, as some functions (parity, for instance) do exponentially many.
+   */
+  public Expression toSumOfProducts(int f, List<String> variables, int maxProducts) {
+    final var cover = isop(f, f, maxProducts, new HashMap<>());
+    if (cover == null) return null;
+    if (cover.cubes.isEmpty()) return Expressions.constant(0);
+    var terms = new ArrayList<Expression>(cover.cubes.size());
+    for (final var cube : cover.cubes) {
+      Expression product = null;
+      for (var var = 0; var < nrOfVariables; var++) {
+        final var bit = 1L << var;
+        if ((cube.mask & bit) == 0) continue;
+        var literal = Expressions.variable(variables.get(var));
+        if ((cube.values & bit) == 0) literal = Expressions.not(literal);
+        product = Expressions.and(product, literal);
+      }
+      terms.add(product == null ? Expressions.constant(1) : product);
+    }
+    // combine the products pairwise, so large covers do not give deeply nested expressions
+    while (terms.size() > 1) {
+      final var next = new ArrayList<Expression>((terms.size() + 1) / 2);
+      for (var i = 0; i + 1 < terms.size(); i += 2) {
+        next.add(Expressions.or(terms.get(i), terms.get(i + 1)));
+      }
+      if ((terms.size() & 1) != 0) next.add(terms.get(terms.size() - 1));
+      terms = next;
+    }
+    return terms.get(0);
+  }
+
+  /*
+   * a cover of a function between lower and upper, i.e. lower implies it and it implies upper;
+   * null if it has more than maxCubes cubes
+   */
+  private Cover isop(int lower, int upper, int maxCubes, HashMap<Long, Cover> memo) {
+    if (lower == ZERO) return new Cover(Collections.emptyList(), ZERO);
+    if (upper == ONE) return new Cover(List.of(new Cube(0L, 0L)), ONE);
+    final var key = ((long) lower << 32) | upper;
+    final var cached = memo.get(key);
+    if (cached != null) return cached;
+    final var var = Math.min(level[lower], level[upper]);
+    final var lower0 = cofactor(lower, var, false);
+    final var lower1 = cofactor(lower, var, true);
+    final var upper0 = cofactor(upper, var, false);
+    final var upper1 = cofactor(upper, var, true);
+    // the parts that need the literal, then the rest that can do without
+    final var cover0 = isop(and(lower0, not(upper1)), upper0, maxCubes, memo);
+    if (cover0 == null) return null;
+    final var cover1 = isop(and(lower1, not(upper0)), upper1, maxCubes, memo);
+    if (cover1 == null) return null;
+    final var rest =
+        or(and(lower0, not(cover0.function)), and(lower1, not(cover1.function)));
+    final var coverBoth = isop(rest, and(upper0, upper1), maxCubes, memo);
+    if (coverBoth == null
+        || (long) cover0.cubes.size() + cover1.cubes.size() + coverBoth.cubes.size() > maxCubes) {
+      return null;
+    }
+
+    final var bit = 1L << var;
+    final var cubes = new ArrayList<Cube>();
+    for (final var cube : cover0.cubes) cubes.add(new Cube(cube.mask | bit, cube.values));
+    for (final var cube : cover1.cubes) cubes.add(new Cube(cube.mask | bit, cube.values | bit));
+    cubes.addAll(coverBoth.cubes);
+    final var x = makeNode(var, ZERO, ONE);
+    final var function =
+        or(ite(x, cover1.function, cover0.function), coverBoth.function);
+    final var ret = new Cover(cubes, function);
+    memo.put(key, ret);
+    return ret;
+  }
+}
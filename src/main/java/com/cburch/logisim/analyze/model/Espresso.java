@@ -0,0 +1,225 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import static com.cburch.logisim.analyze.Strings.S;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Heuristic two-level minimizer in the spirit of Espresso. Contrary to the exact Quine-McCluskey
+ * method in {@link Implicant#computeMinimal} it never enumerates all primes; it starts from a
+ * cover of prime cubes and improves it with a bounded number of reduce/expand/irredundant passes.
+ * The result is a near-minimal cover that is found in a time proportional to the size of the
+ * truth table, also for functions with many inputs.
+ *
+ * <p>A cube is stored like an {@link Implicant}: a mask of the inputs that are not part of the
+ * cube ({@code unknowns}) and the values of the other inputs ({@code values}).
+ */
+final class Espresso {
+
+  static final int MAX_ITERATIONS = 8;
+
+  private static final byte OFF = 0;
+  private static final byte ON = 1;
+  private static final byte DONT_CARE = 2;
+
+  private record Cube(int values, int unknowns) {}
+
+  private static final Comparator<Cube> SMALLEST_FIRST =
+      Comparator.comparingInt(cube -> Integer.bitCount(cube.unknowns));
+
+  private final int nrOfInputs;
+  private final byte[] kind;
+  /* number of cubes of the current cover that contain each row */
+  private final int[] coverCount;
+
+  private Espresso(PackedColumn column, int nrOfInputs, Entry desiredTerm, Entry skippedTerm) {
+    this.nrOfInputs = nrOfInputs;
+    final var rows = column.size();
+    kind = new byte[rows];
+    coverCount = new int[rows];
+    for (var row = 0; row < rows; row++) {
+      final var entry = column.get(row);
+      kind[row] = entry == desiredTerm ? ON : entry == skippedTerm ? OFF : DONT_CARE;
+    }
+  }
+
+  /**
+   * Computes a near-minimal cover of the rows of the given output column that contain the
+   * desired term. Rows with the skipped term are never covered, all other rows are don't cares.
+   *
+   * @throws java.util.concurrent.CancellationException when the thread is interrupted
+   */
+  static List<Implicant> minimize(
+      PackedColumn column, int nrOfInputs, Entry desiredTerm, Entry skippedTerm,
+      StringBuilder log) {
+    return new Espresso(column, nrOfInputs, desiredTerm, skippedTerm).minimize(log);
+  }
+
+  private List<Implicant> minimize(StringBuilder log) {
+    var cover = new ArrayList<Cube>();
+    for (var row = 0; row < kind.length; row++) {
+      if (kind[row] == ON && coverCount[row] == 0) {
+        Implicant.checkCancelled();
+        cover.add(add(expand(row, 0)));
+      }
+    }
+    irredundant(cover);
+    var best = cover;
+    var bestCost = cost(cover);
+    report(log, 0, cover, bestCost);
+    for (var iteration = 1; iteration <= MAX_ITERATIONS; iteration++) {
+      Implicant.checkCancelled();
+      final var next = reduceAndExpand(best);
+      irredundant(next);
+      final var cost = cost(next);
+      report(log, iteration, next, cost);
+      if (cost >= bestCost) break;
+      best = next;
+      bestCost = cost;
+    }
+    final var ret = new ArrayList<Implicant>(best.size());
+    for (final var cube : best) ret.add(new Implicant(cube.unknowns, cube.values));
+    Collections.sort(ret);
+    return ret;
+  }
+
+  /**
+   * Removes each cube in turn, shrinks it to the smallest cube containing the rows that no other
+   * cube covers and expands that again. Cubes that cover nothing on their own are dropped.
+   */
+  private ArrayList<Cube> reduceAndExpand(List<Cube> cover) {
+    final var order = new ArrayList<>(cover);
+    order.sort(SMALLEST_FIRST.reversed());
+    final var ret = new ArrayList<Cube>(order.size());
+    for (final var cube : order) {
+      remove(cube);
+      var and = -1;
+      var or = 0;
+      var sub = 0;
+      do {
+        final var row = cube.values | sub;
+        if (kind[row] == ON && coverCount[row] == 0) {
+          and &= row;
+          or |= row;
+        }
+        sub = (sub - cube.unknowns) & cube.unknowns;
+      } while (sub != 0);
+      if (and == -1) continue;
+      ret.add(add(expand(and, and ^ or)));
+    }
+    return ret;
+  }
+
+  /** Raises literals of the cube one at a time, as long as it does not cover an excluded row. */
+  private Cube expand(int values, int unknowns) {
+    var free = ((1 << nrOfInputs) - 1) & ~unknowns;
+    while (free != 0) {
+      var bestBit = 0;
+      var bestGain = -1;
+      for (var bits = free; bits != 0; bits &= bits - 1) {
+        final var bit = bits & -bits;
+        final var gain = gain((values ^ bit) & ~unknowns, unknowns);
+        if (gain < 0) {
+          // a larger cube would contain the same excluded row
+          free &= ~bit;
+        } else if (gain > bestGain) {
+          bestGain = gain;
+          bestBit = bit;
+        }
+      }
+      if (bestBit == 0) break;
+      unknowns |= bestBit;
+      values &= ~bestBit;
+      free &= ~bestBit;
+    }
+    return new Cube(values & ~unknowns, unknowns);
+  }
+
+  /**
+   * Returns -1 if the cube contains an excluded row, otherwise a score for the desired rows it
+   * contains, where rows that are not yet covered count double.
+   */
+  private int gain(int values, int unknowns) {
+    var gain = 0;
+    var sub = 0;
+    do {
+      final var row = values | sub;
+      switch (kind[row]) {
+        case OFF -> {
+          return -1;
+        }
+        case ON -> gain += coverCount[row] == 0 ? 2 : 1;
+        default -> {
+          // don't care
+        }
+      }
+      sub = (sub - unknowns) & unknowns;
+    } while (sub != 0);
+    return gain;
+  }
+
+  /** Removes cubes of which every desired row is also covered by another cube. */
+  private void irredundant(List<Cube> cover) {
+    final var order = new ArrayList<>(cover);
+    order.sort(SMALLEST_FIRST);
+    for (final var cube : order) {
+      var redundant = true;
+      var sub = 0;
+      do {
+        final var row = cube.values | sub;
+        if (kind[row] == ON && coverCount[row] < 2) {
+          redundant = false;
+          break;
+        }
+        sub = (sub - cube.unknowns) & cube.unknowns;
+      } while (sub != 0);
+      if (redundant) {
+        remove(cube);
+        cover.remove(cube);
+      }
+    }
+  }
+
+  private Cube add(Cube cube) {
+    var sub = 0;
+    do {
+      coverCount[cube.values | sub]++;
+      sub = (sub - cube.unknowns) & cube.unknowns;
+    } while (sub != 0);
+    return cube;
+  }
+
+  private void remove(Cube cube) {
+    var sub = 0;
+    do {
+      coverCount[cube.values | sub]--;
+      sub = (sub - cube.unknowns) & cube.unknowns;
+    } while (sub != 0);
+  }
+
+  /* the number of cubes first, then the number of literals */
+  private long cost(List<Cube> cover) {
+    var literals = 0L;
+    for (final var cube : cover) literals += nrOfInputs - Integer.bitCount(cube.unknowns);
+    return ((long) cover.size() << 32) | literals;
+  }
+
+  private static void report(StringBuilder log, int iteration, List<Cube> cover, long cost) {
+    if (log == null) return;
+    log.append(
+        String.format(
+            "\n%s", S.fmt("implicantHeuristicPass", iteration, cover.size(), cost & 0xFFFFFFFFL)));
+  }
+}
@@ -14,6 +14,7 @@ import static com.cburch.logisim.analyze.Strings.S;
 import com.cburch.logisim.analyze.data.Range;
 import com.cburch.logisim.analyze.model.Var.Bit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
@@ -139,6 +140,95 @@ public abstract class Expression {
     return (ret & 1) != 0;
   }
 
+  /* the row index bit patterns of the six least significant inputs */
+  private static final long[] LOW_INPUT_PATTERNS = {
+    0xAAAAAAAAAAAAAAAAL,
+    0xCCCCCCCCCCCCCCCCL,
+    0xF0F0F0F0F0F0F0F0L,
+    0xFF00FF00FF00FF00L,
+    0xFFFF0000FFFF0000L,
+    0xFFFFFFFF00000000L
+  };
+
+  /**
+   * Evaluates the expression for all rows of a truth table at once, 64 rows per word. Bit {@code
+   * i % 64} of word {@code i / 64} of the result is the value of the expression in row {@code i},
+   * where the first of the given inputs is the most significant bit of the row index. Bits beyond
+   * the last row are undefined.
+   */
+  public long[] evaluateAll(final List<String> inputs) {
+    final var words = ((1 << inputs.size()) + 63) >>> 6;
+    return visit(
+        new Visitor<long[]>() {
+          @Override
+          public long[] visitAnd(Expression a, Expression b) {
+            final var ret = a.visit(this);
+            final var other = b.visit(this);
+            for (var w = 0; w < words; w++) ret[w] &= other[w];
+            return ret;
+          }
+
+          @Override
+          public long[] visitConstant(int value) {
+            final var ret = new long[words];
+            if ((value & 1) != 0) Arrays.fill(ret, -1L);
+            return ret;
+          }
+
+          @Override
+          public long[] visitNot(Expression a) {
+            final var ret = a.visit(this);
+            for (var w = 0; w < words; w++) ret[w] = ~ret[w];
+            return ret;
+          }
+
+          @Override
+          public long[] visitOr(Expression a, Expression b) {
+            final var ret = a.visit(this);
+            final var other = b.visit(this);
+            for (var w = 0; w < words; w++) ret[w] |= other[w];
+            return ret;
+          }
+
+          @Override
+          public long[] visitVariable(String name) {
+            final var ret = new long[words];
+            final var index = inputs.indexOf(name);
+            if (index < 0) return ret;
+            final var bit = inputs.size() - 1 - index;
+            if (bit < LOW_INPUT_PATTERNS.length) {
+              Arrays.fill(ret, LOW_INPUT_PATTERNS[bit]);
+            } else {
+              for (var w = 0; w < words; w++) {
+                if (((w >>> (bit - 6)) & 1) != 0) ret[w] = -1L;
+              }
+            }
+            return ret;
+          }
+
+          @Override
+          public long[] visitXor(Expression a, Expression b) {
+            final var ret = a.visit(this);
+            final var other = b.visit(this);
+            for (var w = 0; w < words; w++) ret[w] ^= other[w];
+            return ret;
+          }
+
+          @Override
+          public long[] visitXnor(Expression a, Expression b) {
+            final var ret = a.visit(this);
+            final var other = b.visit(this);
+            for (var w = 0; w < words; w++) ret[w] = ~(ret[w] ^ other[w]);
+            return ret;
+          }
+
+          @Override
+          public long[] visitEq(Expression a, Expression b) {
+            return visitXnor(a, b);
+          }
+        });
+  }
+
   public enum Notation {
     MATHEMATICAL(0),
     LOGIC(1),
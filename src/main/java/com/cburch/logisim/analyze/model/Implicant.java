@@ -20,8 +20,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
-
-import javax.swing.JTextArea;
+import java.util.concurrent.CancellationException;
 
 public class Implicant implements Comparable<Implicant> {
   private static class TermIterator implements Iterable<Implicant>, Iterator<Implicant> {
@@ -71,7 +70,11 @@ public class Implicant implements Comparable<Implicant> {
     return nrOfOnes;
   }
 
-  private static void report(JTextArea out, String info) {
+  static void checkCancelled() {
+    if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+  }
+
+  private static void report(StringBuilder out, String info) {
     if (out != null) out.append(info);
   }
 
@@ -89,14 +92,55 @@ public class Implicant implements Comparable<Implicant> {
     return result.toString();
   }
 
-  static List<Implicant> computeMinimal(int format, AnalyzerModel model, String variable, JTextArea outputArea) {
+  /** Computes a minimal form of the current contents of an output of the model. */
+  static List<Implicant> computeMinimal(int format, int minimizer, AnalyzerModel model, String variable, StringBuilder outputArea) {
     final var table = model.getTruthTable();
     final var outputVariableIndex = model.getOutputs().bits.indexOf(variable);
     if (outputVariableIndex < 0) return Collections.emptyList();
+    return computeMinimal(format, minimizer, table.getOutputColumnCopy(outputVariableIndex),
+        table.getInputColumnCount(), variable, outputArea);
+  }
+
+  /**
+   * Computes a minimal sum of products or product of sums for an output.
+   *
+   * <p>Only the given column is read, so this can run on any thread while the truth table is
+   * edited. The computation stops with a {@link CancellationException} when the thread is
+   * interrupted.
+   *
+   * @param minimizer one of the {@code AnalyzerModel.MINIMIZER_*} constants
+   * @param column a snapshot of the output column of the truth table
+   * @param variable the name of the output, used in the report
+   * @param outputArea receives the progress report; when it is {@code null} the minimization is
+   *     automatic: the automatic minimizer uses the heuristic for functions with more than {@link
+   *     #MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM} inputs, the exact one does not minimize them,
+   *     and the heuristic does not minimize functions with more than {@link
+   *     #MAXIMAL_NR_OF_INPUTS_FOR_AUTO_HEURISTIC_FORM} inputs
+   */
+  static List<Implicant> computeMinimal(int format, int minimizer, PackedColumn column, int nrOfInputs, String variable, StringBuilder outputArea) {
     // first we do some house keeping
     final var desiredTerm = format == AnalyzerModel.FORMAT_SUM_OF_PRODUCTS ? Entry.ONE : Entry.ZERO;
     final var skippedTerm = desiredTerm == Entry.ONE ? Entry.ZERO : Entry.ONE;
-    final var nrOfInputs = table.getInputColumnCount();
+    final var automatic = outputArea == null;
+    final var useHeuristic = minimizer == AnalyzerModel.MINIMIZER_HEURISTIC
+        || (minimizer == AnalyzerModel.MINIMIZER_AUTOMATIC
+            && nrOfInputs > (automatic
+                ? MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM
+                : MAXIMAL_NR_OF_INPUTS_FOR_EXACT_MINIMAL_FORM));
+    // In case the number of inputs is bigger than approx. 8 inputs, Quine-McCluskey
+    // takes a long time. To prevent "freezing" of logisim, we only perform an exact
+    // optimization for systems with more than 6 inputs on user request. The heuristic
+    // has a limit of its own. Otherwise we exit here and return the set of min/maxterms
+    final var maxAutoInputs = useHeuristic
+        ? MAXIMAL_NR_OF_INPUTS_FOR_AUTO_HEURISTIC_FORM
+        : MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM;
+    if (automatic && nrOfInputs > maxAutoInputs) {
+      return Collections.emptyList();
+    }
+    if (useHeuristic) {
+      report(outputArea, String.format("\n%s\n", S.fmt("implicantOutputName", variable)));
+      return Espresso.minimize(column, nrOfInputs, desiredTerm, skippedTerm, outputArea);
+    }
     final var oneHotTable = new HashSet<Integer>();
     var mask = 1;
     for (var bitIndex = 0; bitIndex < nrOfInputs; bitIndex++) {
@@ -116,8 +160,8 @@ public class Implicant implements Comparable<Implicant> {
     // the set of prime covers that cover the key
     final var termsToCover = new HashMap<Implicant, ArrayList<Implicant>>();
     var allDontCare = true;
-    for (var inputCombination = 0; inputCombination < table.getRowCount(); inputCombination++) {
-      final var term = table.getOutputEntry(inputCombination, outputVariableIndex);
+    for (var inputCombination = 0; inputCombination < column.size(); inputCombination++) {
+      final var term = column.get(inputCombination);
       if (term == skippedTerm) {
         allDontCare = false;
         continue;
@@ -138,18 +182,12 @@ public class Implicant implements Comparable<Implicant> {
     }
 
     if (allDontCare) return Collections.emptyList();
-    // In case the number of inputs is bigger than approx. 8 inputs, this
-    // algorithm takes a long time. To prevent "freezing" of logisim, we
-    // only perform an optimization for systems with more than 6 inputs on
-    // user request. Otherwise we exit here and return the set of min/maxterms
-    if ((nrOfInputs > MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM) && (outputArea == null)) {
-      return Collections.emptyList();
-    }
     report(outputArea, String.format("\n%s\n", S.fmt("implicantOutputName", variable)));
     // Here the real work starts, we determine all primes
     var couldMerge = false;
     var groupSize = 2;
     do {
+      checkCancelled();
       report(outputArea, String.format("\n%s", S.fmt("implicantGroupSize", groupSize)));
       var nrOfPrimes = 0L;
       couldMerge = false;
@@ -224,6 +262,7 @@ public class Implicant implements Comparable<Implicant> {
     report(outputArea, String.format("\n%s", S.get("implicantColumRowReduction")));
     var nrEssentialPrimes = 0L;
     do {
+      checkCancelled();
       couldDoRowReduction = false;
       couldDoColumnReduction = false;
       final var termsToRemove = new ArrayList<Implicant>();
@@ -311,6 +350,7 @@ public class Implicant implements Comparable<Implicant> {
       }
       
       do {
+        checkCancelled();
         for (int i = 0; i < simplificationExpression.size(); i++) {
           final var first = simplificationExpression.get(i);
           if (i + 1 >= simplificationExpression.size()) { // If there is only one left, skip it
@@ -407,13 +447,17 @@ public class Implicant implements Comparable<Implicant> {
   static final Implicant MINIMAL_IMPLICANT = new Implicant(0, -1);
   static final List<Implicant> MINIMAL_LIST = Collections.singletonList(MINIMAL_IMPLICANT);
   public static final int MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM = 6;
+  // above this, automatic minimization uses the heuristic minimizer instead of Quine-McCluskey
+  public static final int MAXIMAL_NR_OF_INPUTS_FOR_EXACT_MINIMAL_FORM = 10;
+  // the heuristic works on every row of the table, above this it is only run on user request
+  public static final int MAXIMAL_NR_OF_INPUTS_FOR_AUTO_HEURISTIC_FORM = 16;
 
   final int unknowns;
   final int values;
   final boolean isDontCare;
   boolean isPrime = true;
 
-  private Implicant(int unknowns, int values) {
+  Implicant(int unknowns, int values) {
     this.unknowns = unknowns;
     this.values = values;
     isDontCare = false;
@@ -11,10 +11,11 @@ package com.cburch.logisim.analyze.model;
 
 import com.cburch.logisim.util.CollectionUtil;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import javax.swing.JTextArea;
 
 public class OutputExpressions {
@@ -28,14 +29,14 @@ public class OutputExpressions {
     @Override
     public void cellsChanged(TruthTableEvent event) {
       final var output = model.getOutputs().bits.get(event.getColumn());
-      invalidate(output);
+      invalidateLater(output);
     }
 
     private void inputsChanged(VariableListEvent event) {
       final var v = event.getVariable();
       final var type = event.getType();
       if (type == VariableListEvent.ALL_REPLACED && !outputData.isEmpty()) {
-        outputData.clear();
+        clearOutputData();
         fireModelChanged(OutputExpressionsEvent.ALL_VARIABLES_REPLACED);
       } else if (type == VariableListEvent.REMOVE) {
         for (final var input : v) {
@@ -57,13 +58,13 @@ public class OutputExpressions {
           }
           if (v.width < newVar.width) {
             final var data = getOutputData(output, false);
-            if (data != null) data.invalidate(false, false, null);
+            if (data != null) data.invalidateLater(false);
           }
         }
       } else if (type == VariableListEvent.MOVE || type == VariableListEvent.ADD) {
         for (final var output : outputData.keySet()) {
           final var data = getOutputData(output, false);
-          if (data != null) data.invalidate(false, false, null);
+          if (data != null) data.invalidateLater(false);
         }
       }
     }
@@ -77,10 +78,13 @@ public class OutputExpressions {
     private void outputsChanged(VariableListEvent event) {
       final var type = event.getType();
       if (type == VariableListEvent.ALL_REPLACED && !outputData.isEmpty()) {
-        outputData.clear();
+        clearOutputData();
         fireModelChanged(OutputExpressionsEvent.ALL_VARIABLES_REPLACED);
       } else if (type == VariableListEvent.REMOVE) {
-        for (final var bit : event.getVariable()) outputData.remove(bit);
+        for (final var bit : event.getVariable()) {
+          final var data = outputData.remove(bit);
+          if (data != null) data.cancelPending();
+        }
       } else if (type == VariableListEvent.REPLACE) {
         Var oldVar = event.getVariable();
         Var newVar = model.getOutputs().vars.get(event.getIndex());
@@ -94,7 +98,8 @@ public class OutputExpressions {
           }
         }
         for (var b = newVar.width; b < oldVar.width; b++) {
-          outputData.remove(oldVar.bitName(b));
+          final var data = outputData.remove(oldVar.bitName(b));
+          if (data != null) data.cancelPending();
         }
       }
     }
@@ -108,32 +113,47 @@ public class OutputExpressions {
   private class OutputData {
     String output;
     int format;
+    int minimizer = AnalyzerModel.MINIMIZER_AUTOMATIC;
     Expression expr = null;
     String exprString = null;
     List<Implicant> minimalImplicants = null;
     Expression minimalExpr = null;
 
     private boolean invalidating = false;
+    /* the background minimization of the current column, if any */
+    private Future<?> pending = null;
+    /* incremented on each invalidation, so the results of older jobs can be recognized */
+    private int generation = 0;
+    /* expr stands in for the minimal form that is still being computed, and is replaced by it */
+    private boolean exprIsPlaceholder = false;
+    /* the format changed since the last minimal form, so expr is replaced by the next one */
+    private boolean formatChanged = false;
 
     OutputData(String output) {
       this.output = output;
-      invalidate(true, false, null);
+      invalidateLater(true);
     }
 
+    /**
+     * Returns the current expression. While the minimal form is computed in the background this is
+     * the previous one; the new one is announced by an OUTPUT_EXPRESSION event.
+     */
     Expression getExpression() {
       return expr;
     }
 
     String getExpressionString() {
-      if (exprString == null) {
-        if (expr == null) invalidate(false, false, null);
-        exprString = expr == null ? "" : expr.toString();
-      }
+      // without an expression the first minimal form is still being computed
+      if (expr == null) return "";
+      if (exprString == null) exprString = expr.toString();
       return exprString;
     }
 
+    /**
+     * Returns the last computed minimal form, or a placeholder derived from it after a change of the
+     * inputs. The new minimal form is announced by an OUTPUT_MINIMAL event.
+     */
     Expression getMinimalExpression() {
-      if (minimalExpr == null) invalidate(false, false, null);
       return minimalExpr;
     }
 
@@ -145,13 +165,66 @@ public class OutputExpressions {
       return format;
     }
 
-    private void invalidate(boolean initializing, boolean formatChanged, JTextArea outputArea) {
+    int getMinimizer() {
+      return minimizer;
+    }
+
+    /**
+     * Recomputes the minimal form in the background. Until the result arrives the previous minimal
+     * form is kept; a later change of the column cancels the computation. A result that is known
+     * already is used right away, without events when {@code initializing}.
+     */
+    private void invalidateLater(boolean initializing) {
+      if (invalidating) return;
+      cancelPending();
+      final var job = BackgroundMinimizer.createJob(format, minimizer, model, output);
+      final var cached =
+          job == null ? Collections.<Implicant>emptyList() : BackgroundMinimizer.getCached(job);
+      if (cached != null) {
+        setMinimalImplicants(cached, initializing);
+        return;
+      }
+      final var jobGeneration = generation;
+      pending =
+          BackgroundMinimizer.submit(
+              job,
+              output,
+              null,
+              implicants -> {
+                if (jobGeneration != generation || outputData.get(output) != this) return;
+                pending = null;
+                setMinimalImplicants(implicants, false);
+              });
+    }
+
+    private void cancelPending() {
+      generation++;
+      if (pending != null) {
+        pending.cancel(true);
+        pending = null;
+      }
+    }
+
+    /**
+     * Makes sure the minimal form corresponds to the current truth table, by computing it in the
+     * calling thread if it is still being computed in the background.
+     */
+    void finishPending() {
+      if (pending == null) return;
+      cancelPending();
+      final var job = BackgroundMinimizer.createJob(format, minimizer, model, output);
+      setMinimalImplicants(
+          job == null ? Collections.emptyList() : BackgroundMinimizer.compute(job, output, null),
+          false);
+    }
+
+    private void setMinimalImplicants(List<Implicant> implicants, boolean initializing) {
       if (invalidating) return;
       invalidating = true;
       try {
         final var oldImplicants = minimalImplicants;
         final var oldMinExpr = minimalExpr;
-        minimalImplicants = Implicant.computeMinimal(format, model, output, outputArea);
+        minimalImplicants = implicants;
         minimalExpr = Implicant.toExpression(format, model, minimalImplicants);
         final var minChanged = !implicantsSame(oldImplicants, minimalImplicants);
 
@@ -161,14 +234,17 @@ public class OutputExpressions {
           final var table = model.getTruthTable();
           final var outputColumn = computeColumn(model.getTruthTable(), expr);
           final var outputIndex = model.getOutputs().bits.indexOf(output);
-          final var currentColumn = table.getOutputColumn(outputIndex);
-          if (!columnsMatch(currentColumn, outputColumn)
-              || isAllUndefined(outputColumn)
-              || formatChanged) {
+          final var currentColumn = table.getPackedOutputColumn(outputIndex);
+          if (!currentColumn.matches(outputColumn)
+              || outputColumn.isAllUndefined()
+              || formatChanged
+              || exprIsPlaceholder) {
             // if not, then we need to change the expression to
             // maintain consistency
             final var exprChanged = expr != oldMinExpr || minChanged;
             expr = minimalExpr;
+            exprIsPlaceholder = false;
+            formatChanged = false;
             if (exprChanged) {
               exprString = null;
               if (!initializing) {
@@ -191,9 +267,10 @@ public class OutputExpressions {
     }
 
     private void removeInput(String input) {
-      Expression oldMinExpr = minimalExpr;
+      final var oldMinExpr = minimalExpr;
       minimalImplicants = null;
-      minimalExpr = null;
+      // keep showing the old minimal form without the input until the new one is computed
+      minimalExpr = oldMinExpr == null ? null : oldMinExpr.removeVariable(input);
 
       if (exprString != null) {
         exprString = null; // invalidate it so it recomputes
@@ -202,31 +279,34 @@ public class OutputExpressions {
         final var oldExpr = expr;
         Expression newExpr;
         if (oldExpr == oldMinExpr) {
-          newExpr = getMinimalExpression();
-          expr = newExpr;
+          newExpr = minimalExpr;
+          exprIsPlaceholder = true;
         } else {
           newExpr = expr.removeVariable(input);
         }
+        expr = newExpr;
         if (newExpr == null || !newExpr.equals(oldExpr)) {
-          expr = newExpr;
           fireModelChanged(OutputExpressionsEvent.OUTPUT_EXPRESSION, output, expr);
         }
       }
       fireModelChanged(OutputExpressionsEvent.OUTPUT_MINIMAL, output, minimalExpr);
+      invalidateLater(false);
     }
 
     private void replaceInput(String input, String newName) {
-      minimalExpr = null;
+      // the implicants refer to the inputs by position, only the names change
+      final var oldMinExpr = minimalExpr;
+      if (minimalExpr != null) minimalExpr = minimalExpr.replaceVariable(input, newName);
 
       if (exprString != null) {
         exprString = Parser.replaceVariable(exprString, input, newName);
       }
       if (expr != null) {
-        Expression newExpr = expr.replaceVariable(input, newName);
-        if (!newExpr.equals(expr)) {
-          expr = newExpr;
-          fireModelChanged(OutputExpressionsEvent.OUTPUT_EXPRESSION, output);
-        }
+        final var newExpr =
+            expr == oldMinExpr ? minimalExpr : expr.replaceVariable(input, newName);
+        final var exprChanged = !newExpr.equals(expr);
+        expr = newExpr;
+        if (exprChanged) fireModelChanged(OutputExpressionsEvent.OUTPUT_EXPRESSION, output);
       } else {
         fireModelChanged(OutputExpressionsEvent.OUTPUT_EXPRESSION, output);
       }
@@ -236,6 +316,7 @@ public class OutputExpressions {
     void setExpression(Expression newExpr, String newExprString) {
       expr = newExpr;
       exprString = newExprString;
+      exprIsPlaceholder = false;
 
       if (expr != minimalExpr) { // for efficiency to avoid recomputation
         final var values = computeColumn(model.getTruthTable(), expr);
@@ -254,39 +335,37 @@ public class OutputExpressions {
     void setMinimizedFormat(int value) {
       if (format != value) {
         format = value;
-        this.invalidate(false, true, null);
+        formatChanged = true;
+        this.invalidateLater(false);
       }
     }
-  }
 
-  private static boolean columnsMatch(Entry[] a, Entry[] b) {
-    if (a.length != b.length) return false;
-    for (var i = 0; i < a.length; i++) {
-      if (a[i] != b[i]) {
-        final var bothDefined =
-            (a[i] == Entry.ZERO || a[i] == Entry.ONE) && (b[i] == Entry.ZERO || b[i] == Entry.ONE);
-        if (bothDefined) return false;
+    void setMinimizer(int value) {
+      if (minimizer != value) {
+        minimizer = value;
+        this.invalidateLater(false);
       }
     }
-    return true;
   }
 
-  private static Entry[] computeColumn(TruthTable table, Expression expr) {
+  /* smaller tables are evaluated row-wise, building a decision diagram does not pay off */
+  private static final int BDD_MIN_INPUTS = 14;
+
+  private static PackedColumn computeColumn(TruthTable table, Expression expr) {
     final var rows = table.getRowCount();
-    final var cols = table.getInputColumnCount();
-    final var values = new Entry[rows];
-    if (expr == null) {
-      Arrays.fill(values, Entry.DONT_CARE);
-    } else {
-      final var assn = new Assignments();
-      for (var i = 0; i < rows; i++) {
-        for (var j = 0; j < cols; j++) {
-          assn.put(table.getInputHeader(j), TruthTable.isInputSet(i, j, cols));
-        }
-        values[i] = expr.evaluate(assn) ? Entry.ONE : Entry.ZERO;
-      }
+    if (expr == null) return new PackedColumn(rows, Entry.DONT_CARE);
+    final var inputs = new ArrayList<String>();
+    for (var j = 0; j < table.getInputColumnCount(); j++) inputs.add(table.getInputHeader(j));
+    if (inputs.size() < BDD_MIN_INPUTS) return PackedColumn.ofBits(rows, expr.evaluateAll(inputs));
+    long[] bits;
+    try {
+      // a diagram larger than the table is no faster than evaluating the expression row-wise
+      final var bdd = new Bdd(inputs.size(), rows);
+      bits = bdd.toBits(bdd.fromExpression(expr, inputs));
+    } catch (Bdd.TooLargeException | IllegalArgumentException e) {
+      bits = expr.evaluateAll(inputs);
     }
-    return values;
+    return PackedColumn.ofBits(rows, bits);
   }
 
   private static boolean implicantsSame(List<Implicant> a, List<Implicant> b) {
@@ -302,13 +381,6 @@ public class OutputExpressions {
     return true;
   }
 
-  private static boolean isAllUndefined(Entry[] a) {
-    for (final var entry : a) {
-      if (entry == Entry.ZERO || entry == Entry.ONE) return false;
-    }
-    return true;
-  }
-
   private final MyListener myListener = new MyListener();
 
   private final AnalyzerModel model;
@@ -326,11 +398,60 @@ public class OutputExpressions {
     model.getTruthTable().addTruthTableListener(myListener);
   }
 
-  public void forcedOptimize(JTextArea outtextArea, int format) {
-    for (final var output : outputData.keySet()) {
-      final var data = outputData.get(output);
-      data.setMinimizedFormat(format);
-      data.invalidate(false, false, outtextArea);
+  /* appends the reports of a forced minimization in the order of the outputs */
+  private static final class ForcedReports {
+    private final JTextArea area;
+    private final StringBuilder[] reports;
+    private final boolean[] finished;
+    private final Runnable done;
+    private int next = 0;
+
+    ForcedReports(JTextArea area, int count, Runnable done) {
+      this.area = area;
+      this.reports = new StringBuilder[count];
+      for (var i = 0; i < count; i++) reports[i] = new StringBuilder();
+      this.finished = new boolean[count];
+      this.done = done;
+      if (count == 0) done.run();
+    }
+
+    void finish(int index) {
+      finished[index] = true;
+      while (next < reports.length && finished[next]) area.append(reports[next++].toString());
+      if (next == reports.length) done.run();
+    }
+  }
+
+  /**
+   * Minimizes all outputs in the background, also those with too many inputs for automatic
+   * minimization. This has to be called in the event dispatch thread; the results are applied
+   * there as they come in, the reports are appended to the text area in the order of the outputs
+   * and {@code done} runs after the last one.
+   */
+  public void forcedOptimize(JTextArea outtextArea, int format, Runnable done) {
+    final var outputs = new ArrayList<>(outputData.values());
+    final var reports = new ForcedReports(outtextArea, outputs.size(), done);
+    for (var i = 0; i < outputs.size(); i++) {
+      final var data = outputs.get(i);
+      final var index = i;
+      data.cancelPending();
+      final var jobGeneration = data.generation;
+      final Consumer<List<Implicant>> apply =
+          implicants -> {
+            // a result for a column that changed since is only reported
+            if (data.generation == jobGeneration && outputData.get(data.output) == data) {
+              if (data.format != format) {
+                data.format = format;
+                data.formatChanged = true;
+              }
+              data.setMinimalImplicants(implicants, false);
+            }
+            reports.finish(index);
+          };
+      final var job =
+          BackgroundMinimizer.createJob(format, data.getMinimizer(), model, data.output);
+      if (job == null) apply.accept(Collections.emptyList());
+      else BackgroundMinimizer.submit(job, data.output, reports.reports[index], apply);
     }
   }
 
@@ -395,6 +516,15 @@ public class OutputExpressions {
     }
   }
 
+  public int getMinimizer(String output) {
+    if (output == null) return AnalyzerModel.MINIMIZER_AUTOMATIC;
+    try {
+      return getOutputData(output, true).getMinimizer();
+    } catch (Exception e) {
+      return AnalyzerModel.MINIMIZER_AUTOMATIC;
+    }
+  }
+
   public int getMinimizedFormat(String output) {
     if (output == null) return AnalyzerModel.FORMAT_SUM_OF_PRODUCTS;
     try {
@@ -417,24 +547,43 @@ public class OutputExpressions {
     return ret;
   }
 
-  private void invalidate(String output) {
+  private void clearOutputData() {
+    for (final var data : outputData.values()) data.cancelPending();
+    outputData.clear();
+  }
+
+  private void invalidateLater(String output) {
     final var data = getOutputData(output, false);
     if (data != null) {
       if (!allowUpdates) {
         outputData.remove(output);
+        data.cancelPending();
       } else {
-        data.invalidate(false, false, null);
+        data.invalidateLater(false);
       }
     }
   }
 
+  /**
+   * Makes sure the minimal forms of all outputs correspond to the current truth table. Those that
+   * are still being computed in the background are computed in the calling thread, so this is
+   * meant for exports and not for the event dispatch thread.
+   */
+  public void finishPendingMinimizations() {
+    for (final var data : outputData.values()) data.finishPending();
+  }
+
+  /**
+   * Returns whether some output has a non-empty minimal form. This does not wait for the
+   * minimizations in the background; an output whose first minimal form is still being computed
+   * does not count.
+   */
   public boolean hasExpressions() {
-    var returnValue = false;
-    for (final var output : outputData.keySet()) {
-      final var data = outputData.get(output);
-      returnValue |= data.getMinimalImplicants().size() != 0;
+    for (final var data : outputData.values()) {
+      final var implicants = data.getMinimalImplicants();
+      if (implicants != null && !implicants.isEmpty()) return true;
     }
-    return returnValue;
+    return false;
   }
 
   public boolean isExpressionMinimal(String output) {
@@ -459,7 +608,12 @@ public class OutputExpressions {
     final var oldFormat = getMinimizedFormat(output);
     if (format != oldFormat) {
       getOutputData(output, true).setMinimizedFormat(format);
-      invalidate(output);
+    }
+  }
+
+  public void setMinimizer(String output, int minimizer) {
+    if (minimizer != getMinimizer(output)) {
+      getOutputData(output, true).setMinimizer(minimizer);
     }
   }
 
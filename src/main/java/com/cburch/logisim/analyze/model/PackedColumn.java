@@ -0,0 +1,199 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * An output column of a truth table, stored with two bits per row. The bits of a row live in two
+ * bit planes, where bit {@code idx % 64} of word {@code idx / 64} belongs to row {@code idx}:
+ *
+ * <pre>
+ *   undefined value  entry
+ *       0       0    ZERO
+ *       0       1    ONE
+ *       1       0    DONT_CARE
+ *       1       1    BUS_ERROR or OSCILLATE_ERROR
+ * </pre>
+ *
+ * <p>The rare oscillation errors are remembered in a separate sparse set.
+ */
+final class PackedColumn {
+
+  private final int size;
+  private final long[] values;
+  private final long[] undefined;
+  private BitSet oscillations = null;
+  // the entries as an array, only kept once someone asked for them, see view()
+  private Entry[] view = null;
+
+  PackedColumn(int size, Entry fill) {
+    this.size = size;
+    this.values = new long[words(size)];
+    this.undefined = new long[words(size)];
+    if (fill == Entry.ONE || fill.isError()) fillWords(values);
+    if (fill != Entry.ZERO && fill != Entry.ONE) fillWords(undefined);
+    if (fill == Entry.OSCILLATE_ERROR) {
+      oscillations = new BitSet();
+      oscillations.set(0, size);
+    }
+  }
+
+  private void fillWords(long[] words) {
+    for (var w = 0; w < words.length; w++) words[w] = validMask(w);
+  }
+
+  private PackedColumn(int size, long[] values, long[] undefined) {
+    this.size = size;
+    this.values = values;
+    this.undefined = undefined;
+  }
+
+  private static int words(int size) {
+    return (size + 63) >>> 6;
+  }
+
+  static PackedColumn of(Entry[] entries) {
+    final var ret = new PackedColumn(entries.length, Entry.ZERO);
+    for (var i = 0; i < entries.length; i++) ret.set(i, entries[i]);
+    return ret;
+  }
+
+  /**
+   * Creates a completely defined column, where the rows whose bit is set in {@code bits} are
+   * {@link Entry#ONE} and all others are {@link Entry#ZERO}.
+   */
+  static PackedColumn ofBits(int size, long[] bits) {
+    final var values = Arrays.copyOf(bits, words(size));
+    final var rest = size & 63;
+    if (rest != 0) values[values.length - 1] &= (1L << rest) - 1;
+    return new PackedColumn(size, values, new long[values.length]);
+  }
+
+  PackedColumn copy() {
+    final var ret = new PackedColumn(size, values.clone(), undefined.clone());
+    if (oscillations != null) ret.oscillations = (BitSet) oscillations.clone();
+    return ret;
+  }
+
+  int size() {
+    return size;
+  }
+
+  Entry get(int idx) {
+    final var word = idx >>> 6;
+    final var bit = 1L << idx;
+    final var isSet = (values[word] & bit) != 0;
+    if ((undefined[word] & bit) == 0) return isSet ? Entry.ONE : Entry.ZERO;
+    if (!isSet) return Entry.DONT_CARE;
+    return oscillations != null && oscillations.get(idx) ? Entry.OSCILLATE_ERROR : Entry.BUS_ERROR;
+  }
+
+  void set(int idx, Entry value) {
+    final var word = idx >>> 6;
+    final var bit = 1L << idx;
+    if (value == Entry.ONE || value.isError()) values[word] |= bit;
+    else values[word] &= ~bit;
+    if (value == Entry.ZERO || value == Entry.ONE) undefined[word] &= ~bit;
+    else undefined[word] |= bit;
+    if (value == Entry.OSCILLATE_ERROR) {
+      if (oscillations == null) oscillations = new BitSet();
+      oscillations.set(idx);
+    } else if (oscillations != null) {
+      oscillations.clear(idx);
+    }
+    if (view != null) view[idx] = value;
+  }
+
+  boolean sameEntry(int idx1, int idx2) {
+    return get(idx1) == get(idx2);
+  }
+
+  /** Returns whether no row of this column is {@link Entry#ZERO} or {@link Entry#ONE}. */
+  boolean isAllUndefined() {
+    for (var w = 0; w < undefined.length; w++) {
+      if ((~undefined[w] & validMask(w)) != 0) return false;
+    }
+    return true;
+  }
+
+  /** Returns whether no row is defined in both columns with different values. */
+  boolean matches(PackedColumn other) {
+    if (size != other.size) return false;
+    for (var w = 0; w < values.length; w++) {
+      final var defined = ~undefined[w] & ~other.undefined[w] & validMask(w);
+      if (((values[w] ^ other.values[w]) & defined) != 0) return false;
+    }
+    return true;
+  }
+
+  private long validMask(int word) {
+    final var rest = size - (word << 6);
+    return rest >= 64 ? -1L : (1L << rest) - 1;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return (other instanceof PackedColumn o)
+           ? size == o.size
+               && Arrays.equals(values, o.values)
+               && Arrays.equals(undefined, o.undefined)
+               && Objects.equals(getOscillations(), o.getOscillations())
+           : false;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * size + Arrays.hashCode(values)) + Arrays.hashCode(undefined);
+  }
+
+  /**
+   * Returns a SHA-256 digest of the rows, where the two kinds of errors are not told apart. It
+   * stands in for the column where only its contents matter and a copy would take too much memory.
+   */
+  String digest() {
+    final var buffer = ByteBuffer.allocate(Integer.BYTES + 2 * Long.BYTES * values.length);
+    buffer.putInt(size);
+    for (final var word : values) buffer.putLong(word);
+    for (final var word : undefined) buffer.putLong(word);
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder().encodeToString(digest.digest(buffer.array()));
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private BitSet getOscillations() {
+    return oscillations == null || oscillations.isEmpty() ? null : oscillations;
+  }
+
+  /**
+   * Returns the entries as an array that follows the later changes of this column. It is built on
+   * the first call and kept from then on, it must not be modified.
+   */
+  Entry[] view() {
+    if (view == null) view = toArray();
+    return view;
+  }
+
+  Entry[] toArray() {
+    final var ret = new Entry[size];
+    for (var i = 0; i < size; i++) ret[i] = get(i);
+    return ret;
+  }
+}
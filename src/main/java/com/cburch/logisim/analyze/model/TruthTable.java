@@ -10,7 +10,6 @@
 package com.cburch.logisim.analyze.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -25,7 +24,7 @@ public class TruthTable {
 
   private final AnalyzerModel model;
   private ArrayList<Row> rows = new ArrayList<>(); // visible input rows
-  private final ArrayList<Entry[]> columns = new ArrayList<>(); // output columns
+  private final ArrayList<PackedColumn> columns = new ArrayList<>(); // output columns
   private static final CompareInputs sortByInputs = new CompareInputs();
 
   private static class Row implements Iterable<Integer> {
@@ -187,9 +186,9 @@ public class TruthTable {
         final var value = Entry.parse("" + val.charAt(col));
         var column = columns.get(col);
         if (column == null && value == DEFAULT_ENTRY) continue;
-        else if (column == null) column = getOutputColumn(col);
+        else if (column == null) column = getPackedOutputColumn(col);
         for (Integer idx : r) {
-          column[idx] = value;
+          column.set(idx, value);
         }
       }
     }
@@ -201,6 +200,11 @@ public class TruthTable {
 
   public void setOutputColumn(int col, Entry[] values) {
     if (values.length != getRowCount()) throw new IllegalArgumentException("bad column length");
+    setOutputColumn(col, PackedColumn.of(values));
+  }
+
+  void setOutputColumn(int col, PackedColumn values) {
+    if (values.size() != getRowCount()) throw new IllegalArgumentException("bad column length");
     final var oldValues = columns.set(col, values);
     if (oldValues == values) return;
     // Expand rows as dictated by column inconsistencies
@@ -208,12 +212,11 @@ public class TruthTable {
     for (var i = rows.size() - 1; i >= 0; i--) {
       final var r = rows.get(i);
       final var base = r.baseIndex();
-      final var v = values[base];
       var split = true;
       while (split) {
         split = false;
         for (final var idx : r) {
-          if (v != values[idx]) {
+          if (!values.sameEntry(base, idx)) {
             splitRow(r, idx);
             rowsChanged = true;
             split = true;
@@ -254,15 +257,15 @@ public class TruthTable {
   public Entry getOutputEntry(int idx, int col) {
     if (idx < 0 || col < 0) return DEFAULT_ENTRY;
     final var column = columns.get(col);
-    return (column == null ? DEFAULT_ENTRY : idx < column.length ? column[idx] : DEFAULT_ENTRY);
+    return (column == null ? DEFAULT_ENTRY : idx < column.size() ? column.get(idx) : DEFAULT_ENTRY);
   }
 
   public String getVisibleOutputs(int row) {
     final var r = rows.get(row);
     final var idx = r.baseIndex();
     final var s = new StringBuilder();
-    for (Entry[] column : columns) {
-      s.append((column == null ? DEFAULT_ENTRY : column[idx]).getDescription());
+    for (final var column : columns) {
+      s.append((column == null ? DEFAULT_ENTRY : column.get(idx)).getDescription());
     }
     return s.toString();
   }
@@ -297,13 +300,27 @@ public class TruthTable {
     return (idx & (1 << (inputs - col - 1))) != 0;
   }
 
+  /**
+   * Returns an output column. The array belongs to the table and follows its later changes; use
+   * {@link #setOutputColumn(int, Entry[])} or {@link #setOutputEntry} to change it.
+   */
   public Entry[] getOutputColumn(int col) {
+    return getPackedOutputColumn(col).view();
+  }
+
+  /** Returns a copy of the storage of an output column that is not affected by later edits. */
+  PackedColumn getOutputColumnCopy(int col) {
+    final var column = columns.get(col);
+    return column == null ? new PackedColumn(getRowCount(), DEFAULT_ENTRY) : column.copy();
+  }
+
+  /** Returns the storage of an output column, creating it if needed. */
+  PackedColumn getPackedOutputColumn(int col) {
     var column = columns.get(col);
     if (column == null) {
       if (col < 0 || col >= getOutputColumnCount())
         throw new IndexOutOfBoundsException("bad output column index");
-      column = new Entry[getRowCount()];
-      Arrays.fill(column, DEFAULT_ENTRY);
+      column = new PackedColumn(getRowCount(), DEFAULT_ENTRY);
       columns.set(col, column);
     }
     return column;
@@ -313,7 +330,7 @@ public class TruthTable {
     if (idx1 == idx2) return true;
     for (final var column : columns) {
       if (column == null) continue;
-      if (column[idx1] != column[idx2]) return false;
+      if (!column.sameEntry(idx1, idx2)) return false;
     }
     return true;
   }
@@ -323,8 +340,8 @@ public class TruthTable {
     for (var col = 0; col < columns.size(); col++) {
       final var column = columns.get(col);
       if (column == null) continue;
-      if (column[idx1] != column[idx2]) {
-        column[idx2] = column[idx1];
+      if (!column.sameEntry(idx1, idx2)) {
+        column.set(idx2, column.get(idx1));
         changed[col] = true;
       }
     }
@@ -388,12 +405,12 @@ public class TruthTable {
     final var r = rows.get(row);
     var column = columns.get(col);
     if (column == null && value == DEFAULT_ENTRY) return;
-    else if (column == null) column = getOutputColumn(col);
+    else if (column == null) column = getPackedOutputColumn(col);
     var changed = false;
     for (Integer idx : r) {
-      if (column[idx] == value) continue;
+      if (column.get(idx) == value) continue;
       changed = true;
-      column[idx] = value;
+      column.set(idx, value);
     }
     if (changed) fireCellsChanged(col);
   }
@@ -479,8 +496,8 @@ public class TruthTable {
         final var value = values[ni + col];
         var column = columns.get(col);
         if (column == null && value == DEFAULT_ENTRY) continue;
-        else if (column == null) column = getOutputColumn(col);
-        for (final var idx : r) column[idx] = value;
+        else if (column == null) column = getPackedOutputColumn(col);
+        for (final var idx : r) column.set(idx, value);
       }
     }
     fireRowsChanged();
@@ -492,9 +509,9 @@ public class TruthTable {
   public void setOutputEntry(int idx, int col, Entry value) {
     var column = columns.get(col);
     if (column == null && value == DEFAULT_ENTRY) return;
-    else if (column == null) column = getOutputColumn(col);
-    if (column[idx] == value) return;
-    column[idx] = value;
+    else if (column == null) column = getPackedOutputColumn(col);
+    if (column.get(idx) == value) return;
+    column.set(idx, value);
     final var r = findRow(idx);
     if (r.duplicity() > 1) {
       splitRow(r, idx);
@@ -668,7 +685,7 @@ public class TruthTable {
       rows = ret;
     }
 
-    private Entry[] inputsChangedForOutput(Entry[] column, VariableListEvent event) {
+    private PackedColumn inputsChangedForOutput(PackedColumn column, VariableListEvent event) {
       final var v = event.getVariable();
       final var action = event.getType();
       if (action == VariableListEvent.ADD) {
@@ -706,52 +723,53 @@ public class TruthTable {
       return column;
     }
 
-    private Entry[] moveInputForOutput(Entry[] old, int oldIndex, int newIndex) {
+    private PackedColumn moveInputForOutput(PackedColumn old, int oldIndex, int newIndex) {
       final var inputs = getInputColumnCount();
       oldIndex = inputs - 1 - oldIndex;
       newIndex = inputs - 1 - newIndex;
-      final var ret = new Entry[old.length];
+      final var ret = new PackedColumn(old.size(), DEFAULT_ENTRY);
       final var sameMask =
-          (old.length - 1)
+          (old.size() - 1)
               ^ ((1 << (1 + Math.max(oldIndex, newIndex))) - 1)
               ^ ((1 << Math.min(oldIndex, newIndex)) - 1); // bits that don't change
       final var moveMask = 1 << oldIndex; // bit that moves
       final var moveDist = Math.abs(newIndex - oldIndex);
       final var moveLeft = newIndex > oldIndex;
-      final var blockMask = (old.length - 1) ^ sameMask ^ moveMask; // bits that move by one
-      for (var i = 0; i < old.length; i++) {
+      final var blockMask = (old.size() - 1) ^ sameMask ^ moveMask; // bits that move by one
+      for (var i = 0; i < old.size(); i++) {
         int j; // new index
         if (moveLeft) {
           j = (i & sameMask) | ((i & moveMask) << moveDist) | ((i & blockMask) >> 1);
         } else {
           j = (i & sameMask) | ((i & moveMask) >> moveDist) | ((i & blockMask) << 1);
         }
-        ret[j] = old[i];
+        ret.set(j, old.get(i));
       }
       return ret;
     }
 
-    private Entry[] removeInputForOutput(Entry[] old, int index, int oldCount) {
-      var ret = new Entry[old.length / 2];
+    private PackedColumn removeInputForOutput(PackedColumn old, int index, int oldCount) {
+      final var ret = new PackedColumn(old.size() / 2, DEFAULT_ENTRY);
       var j = 0;
       final var mask = 1 << (oldCount - 1 - index);
-      for (var i = 0; i < old.length; i++) {
+      for (var i = 0; i < old.size(); i++) {
         if ((i & mask) == 0) {
-          Entry e0 = old[i];
-          Entry e1 = old[i | mask];
-          ret[j++] = (e0 == e1 ? e0 : Entry.DONT_CARE);
+          final var e0 = old.get(i);
+          final var e1 = old.get(i | mask);
+          ret.set(j++, e0 == e1 ? e0 : Entry.DONT_CARE);
         }
       }
       return ret;
     }
 
-    private Entry[] addInputForOutput(Entry[] old, int index, int oldCount) {
-      final var ret = new Entry[2 * old.length];
+    private PackedColumn addInputForOutput(PackedColumn old, int index, int oldCount) {
+      final var ret = new PackedColumn(2 * old.size(), DEFAULT_ENTRY);
       final var b = 1 << (oldCount - index); // _0001000
       final var mask = b - 1; // _0000111
-      for (var i = 0; i < old.length; i++) {
-        ret[((i & ~mask) << 1) | 0 | (i & mask)] = old[i]; // xxxx0yyy
-        ret[((i & ~mask) << 1) | b | (i & mask)] = old[i]; // xxxx1yyy
+      for (var i = 0; i < old.size(); i++) {
+        final var value = old.get(i);
+        ret.set(((i & ~mask) << 1) | 0 | (i & mask), value); // xxxx0yyy
+        ret.set(((i & ~mask) << 1) | b | (i & mask), value); // xxxx1yyy
       }
       return ret;
     }
@@ -12,6 +12,7 @@ package com.cburch.logisim.circuit;
 import static com.cburch.logisim.circuit.Strings.S;
 
 import com.cburch.logisim.analyze.model.AnalyzerModel;
+import com.cburch.logisim.analyze.model.Bdd;
 import com.cburch.logisim.analyze.model.Entry;
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
@@ -29,6 +30,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -102,14 +105,14 @@ public class Analyze {
     return null;
   }
 
-  //
-  // computeExpression
-  //
-  /**
-   * Computes the expression corresponding to the given circuit, or raises ComputeException if
-   * difficulties arise.
-   */
-  public static void computeExpression(AnalyzerModel model, Circuit circuit, Map<Instance, String> pinNames) throws AnalyzeException {
+  /** The state after propagating the expressions of the input pins through a circuit. */
+  private record Propagation(
+      ExpressionMap expressions,
+      List<Var> inputVars,
+      List<Var> outputVars,
+      List<Instance> outputPins) {}
+
+  private static Propagation propagateExpressions(Circuit circuit, Map<Instance, String> pinNames) throws AnalyzeException {
     final var expressionMap = new ExpressionMap(circuit);
 
     final var inputVars = new ArrayList<Var>();
@@ -149,17 +152,95 @@ public class Analyze {
       final var expr = checkForCircularExpressions(expressionMap);
       if (expr != null) throw new AnalyzeException.Circular();
     }
+    return new Propagation(expressionMap, inputVars, outputVars, outputPins);
+  }
 
-    model.setVariables(inputVars, outputVars);
-    for (final var pin : outputPins) {
+  //
+  // computeExpression
+  //
+  /**
+   * Computes the expression corresponding to the given circuit, or raises ComputeException if
+   * difficulties arise.
+   */
+  public static void computeExpression(AnalyzerModel model, Circuit circuit, Map<Instance, String> pinNames) throws AnalyzeException {
+    final var propagation = propagateExpressions(circuit, pinNames);
+    model.setVariables(propagation.inputVars, propagation.outputVars);
+    for (final var pin : propagation.outputPins) {
       final var label = pinNames.get(pin);
       final var width = pin.getAttributeValue(StdAttr.WIDTH).getWidth();
       for (var b = 0; b < width; b++) {
         final var loc = new LocationBit(pin.getLocation(), b);
         final var name = (width > 1 ? label + "[" + b + "]" : label);
-        model.getOutputExpressions().setExpression(name, expressionMap.get(loc));
+        model.getOutputExpressions().setExpression(name, propagation.expressions.get(loc));
+      }
+    }
+  }
+
+  //
+  // computeBdd
+  //
+  /**
+   * Marks an output bit that nothing drives in the results of {@link #computeBdd}. Such an output
+   * floats, it has no value that a diagram could represent.
+   */
+  public static final int NO_DRIVER = -1;
+
+  /**
+   * The outputs of a circuit as decision diagrams.
+   *
+   * @param inputs the names of the input bits, variable {@code i} of the diagrams is {@code
+   *     inputs.get(i)}
+   * @param outputs the diagram of each output bit by name, in the order of the truth table columns,
+   *     or {@link #NO_DRIVER}
+   */
+  public record BddFunctions(Bdd bdd, List<String> inputs, Map<String, Integer> outputs) {}
+
+  /**
+   * Computes the outputs of the circuit as decision diagrams over its input bits. Like {@link
+   * #computeExpression} this follows the structure of the circuit instead of simulating every
+   * input combination, so it also handles circuits with too many inputs for a truth table.
+   */
+  public static BddFunctions computeBdd(Circuit circuit, Map<Instance, String> pinNames) throws AnalyzeException {
+    final var propagation = propagateExpressions(circuit, pinNames);
+    final var inputs = new ArrayList<String>();
+    for (final var variable : propagation.inputVars) {
+      for (final var name : variable) inputs.add(name);
+    }
+    if (inputs.size() > Bdd.MAX_VARIABLES) {
+      throw new AnalyzeException(S.get("analyzeTooManyInputsError", Bdd.MAX_VARIABLES));
+    }
+    final var bdd = new Bdd(inputs.size());
+    return new BddFunctions(bdd, inputs, toBdd(propagation, pinNames, bdd, inputs));
+  }
+
+  /**
+   * Computes the outputs of the circuit as decision diagrams of an existing instance, where
+   * variable {@code i} is the input bit {@code inputs.get(i)}. This allows to compare the outputs
+   * of circuits with the same inputs.
+   *
+   * @return the diagram of each output bit by name, in the order of the truth table columns, or
+   *     {@link #NO_DRIVER}
+   */
+  public static Map<String, Integer> computeBdd(Circuit circuit, Map<Instance, String> pinNames, Bdd bdd, List<String> inputs) throws AnalyzeException {
+    return toBdd(propagateExpressions(circuit, pinNames), pinNames, bdd, inputs);
+  }
+
+  private static Map<String, Integer> toBdd(Propagation propagation, Map<Instance, String> pinNames, Bdd bdd, List<String> inputs) throws AnalyzeException {
+    final var outputs = new LinkedHashMap<String, Integer>();
+    try {
+      for (final var pin : propagation.outputPins) {
+        final var label = pinNames.get(pin);
+        final var width = pin.getAttributeValue(StdAttr.WIDTH).getWidth();
+        for (var b = width - 1; b >= 0; b--) {
+          final var expr = propagation.expressions.get(new LocationBit(pin.getLocation(), b));
+          final var name = (width > 1 ? label + "[" + b + "]" : label);
+          outputs.put(name, expr == null ? NO_DRIVER : bdd.fromExpression(expr, inputs));
+        }
       }
+    } catch (Bdd.TooLargeException e) {
+      throw new AnalyzeException(S.get("analyzeBddTooLargeError", Bdd.MAX_NODES));
     }
+    return outputs;
   }
 
   //
@@ -56,6 +56,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -104,6 +105,7 @@ public class Circuit {
   private class MyComponentListener implements ComponentListener {
     @Override
     public void componentInvalidated(ComponentEvent e) {
+      index.invalidate(e.getSource());
       fireEvent(CircuitEvent.ACTION_INVALIDATE, e.getSource());
     }
 
@@ -117,6 +119,7 @@ public class Circuit {
       final var toAdd = toMap(e.getData());
       final var xn = new EndChangedTransaction(comp, toRemove, toAdd);
       locker.execute(xn);
+      index.invalidate(comp);
       fireEvent(CircuitEvent.ACTION_INVALIDATE, comp);
     }
 
@@ -228,6 +231,7 @@ public class Circuit {
   private final EventSourceWeakSupport<CircuitListener> listeners = new EventSourceWeakSupport<>();
   private LinkedHashSet<Component> comps = new LinkedHashSet<>(); // doesn't include wires
   CircuitWires wires = new CircuitWires();
+  private final ComponentIndex index = new ComponentIndex();
   private final List<Component> clocks = new ArrayList<>();
   private final CircuitLocker locker;
 
@@ -516,8 +520,12 @@ public class Circuit {
     context.setGraphics(gCopy);
     wires.draw(context, hidden);
 
+    // only visit the components in the area being repainted
+    final var clip = g.getClipBounds();
+    final Collection<Component> visible =
+        clip == null ? comps : getNonWiresIntersecting(Bounds.create(clip));
     if (CollectionUtil.isNullOrEmpty(hidden)) {
-      for (final var c : comps) {
+      for (final var c : visible) {
         final var gNew = g.create();
         context.setGraphics(gNew);
         gCopy.dispose();
@@ -526,7 +534,7 @@ public class Circuit {
         c.draw(context);
       }
     } else {
-      for (final var c : comps) {
+      for (final var c : visible) {
         if (!hidden.contains(c)) {
           final var gNew = g.create();
           context.setGraphics(gNew);
@@ -546,6 +554,16 @@ public class Circuit {
     gCopy.dispose();
   }
 
+  /** Draws the wires only, the caller takes care of the other components; see {@link #draw}. */
+  public void drawWires(ComponentDrawContext context, Collection<Component> hidden) {
+    final var g = context.getGraphics();
+    final var gCopy = g.create();
+    context.setGraphics(gCopy);
+    wires.draw(context, hidden);
+    context.setGraphics(g);
+    gCopy.dispose();
+  }
+
   private void fireEvent(CircuitEvent event) {
     for (final var l : listeners) {
       l.circuitChanged(event);
@@ -560,35 +578,42 @@ public class Circuit {
     fireEvent(CircuitEvent.ACTION_DISPLAY_CHANGE, null);
   }
 
+  /**
+   * Returns the components other than wires that may be visible in the given area, in the order
+   * in which they were added to the circuit. The result may contain components that lie just
+   * outside the area.
+   */
+  public List<Component> getNonWiresIntersecting(Bounds area) {
+    final var ret = new ArrayList<Component>();
+    index.query(area, true, ret);
+    return ret;
+  }
+
   public Collection<Component> getAllContaining(Location pt) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
-      if (comp.contains(pt)) ret.add(comp);
-    }
+    index.query(Bounds.create(pt), false, ret);
+    ret.removeIf(comp -> !comp.contains(pt));
     return ret;
   }
 
   public Collection<Component> getAllContaining(Location pt, Graphics g) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
-      if (comp.contains(pt, g)) ret.add(comp);
-    }
+    index.query(Bounds.create(pt), false, ret);
+    ret.removeIf(comp -> !comp.contains(pt, g));
     return ret;
   }
 
   public Collection<Component> getAllWithin(Bounds bds) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
-      if (bds.contains(comp.getBounds())) ret.add(comp);
-    }
+    index.query(bds, false, ret);
+    ret.removeIf(comp -> !bds.contains(comp.getBounds()));
     return ret;
   }
 
   public Collection<Component> getAllWithin(Bounds bds, Graphics g) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
-      if (bds.contains(comp.getBounds(g))) ret.add(comp);
-    }
+    index.query(bds, false, ret);
+    ret.removeIf(comp -> !bds.contains(comp.getBounds(g)));
     return ret;
   }
 
@@ -814,39 +839,52 @@ public class Circuit {
   }
 
   void mutatorAdd(Component c) {
+    mutatorAddAll(List.of(c));
+  }
+
+  /**
+   * Adds the components in one pass: the wire and point indexes are updated once for all of them,
+   * and duplicate labels are looked up in a single set of the labels in use. The components are
+   * added in the order given and a single event is fired once all are in place: ACTION_ADD for one
+   * component and ACTION_ADD_ALL for several of them.
+   */
+  void mutatorAddAll(Collection<? extends Component> toAdd) {
     locker.checkForWritePermission("add", this);
 
     isAnnotated = false;
     myNetList.clear();
-    if (c instanceof Wire wire) {
-      if (wire.getEnd0().equals(wire.getEnd1())) return;
-      var added = wires.add(wire);
-      if (!added) return;
-    } else {
+    final var candidates = new LinkedHashSet<Component>();
+    for (final var c : toAdd) {
+      if (c instanceof Wire wire) {
+        if (!wire.getEnd0().equals(wire.getEnd1())) candidates.add(c);
+      } else if (!comps.contains(c)) {
+        candidates.add(c);
+      }
+    }
+    final var added = wires.addAll(candidates);
+    Set<String> labels = null;
+    final var factoryNames = new LinkedHashSet<String>();
+    for (final var c : added) {
+      index.add(c);
+      factoryNames.add(c.getFactory().getName());
+      if (c instanceof Wire) continue;
       // add it into the circuit
-      var added = comps.add(c);
-      if (!added) return;
+      comps.add(c);
       socSim.registerComponent(c);
       // Here we check for duplicated labels and clear the label
       // if it already exists in the circuit
       if (c.getAttributeSet().containsAttribute(StdAttr.LABEL)
           && !(c.getFactory() instanceof Tunnel)) {
-        final var labels = new HashSet<String>();
-        for (final var comp : comps) {
-          if (comp.equals(c) || comp.getFactory() instanceof Tunnel) continue;
-          if (comp.getAttributeSet().containsAttribute(StdAttr.LABEL)) {
-            final var label = comp.getAttributeSet().getValue(StdAttr.LABEL);
-            if (StringUtil.isNotEmpty(label)) labels.add(label.toUpperCase());
-          }
-        }
-        /* we also have to check for the entity name */
-        if (getName() != null && !getName().isEmpty()) labels.add(getName());
+        if (labels == null) labels = getLabelsInUse(added);
         final var label = c.getAttributeSet().getValue(StdAttr.LABEL);
-        if (StringUtil.isNotEmpty(label) && labels.contains(label.toUpperCase())) {
-          c.getAttributeSet().setValue(StdAttr.LABEL, "");
+        if (StringUtil.isNotEmpty(label)) {
+          if (labels.contains(label.toUpperCase())) {
+            c.getAttributeSet().setValue(StdAttr.LABEL, "");
+          } else {
+            labels.add(label.toUpperCase());
+          }
         }
       }
-      wires.add(c);
       final var factory = c.getFactory();
       if (factory instanceof Clock) {
         clocks.add(c);
@@ -861,8 +899,27 @@ public class Circuit {
       }
       c.addComponentListener(myComponentListener);
     }
-    removeWrongLabels(c.getFactory().getName());
-    fireEvent(CircuitEvent.ACTION_ADD, c);
+    for (final var name : factoryNames) {
+      removeWrongLabels(name);
+    }
+    fireEvent(CircuitEvent.ACTION_ADD, CircuitEvent.ACTION_ADD_ALL, added);
+  }
+
+  /* the labels of the components, other than tunnels and those being added, and the circuit name */
+  private Set<String> getLabelsInUse(Collection<Component> beingAdded) {
+    final var skip = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+    skip.addAll(beingAdded);
+    final var labels = new HashSet<String>();
+    for (final var comp : comps) {
+      if (skip.contains(comp) || comp.getFactory() instanceof Tunnel) continue;
+      if (comp.getAttributeSet().containsAttribute(StdAttr.LABEL)) {
+        final var label = comp.getAttributeSet().getValue(StdAttr.LABEL);
+        if (StringUtil.isNotEmpty(label)) labels.add(label.toUpperCase());
+      }
+    }
+    /* we also have to check for the entity name */
+    if (getName() != null && !getName().isEmpty()) labels.add(getName());
+    return labels;
   }
 
   public void mutatorClear() {
@@ -871,6 +928,7 @@ public class Circuit {
     final var oldComps = comps;
     comps = new LinkedHashSet<>();
     wires = new CircuitWires();
+    index.clear();
     clocks.clear();
     myNetList.clear();
     isAnnotated = false;
@@ -883,14 +941,24 @@ public class Circuit {
   }
 
   void mutatorRemove(Component c) {
+    mutatorRemoveAll(List.of(c));
+  }
+
+  /**
+   * Removes the components in one pass, the wire and point indexes are updated once for all of
+   * them. A single event is fired once all are gone: ACTION_REMOVE for one component and
+   * ACTION_REMOVE_ALL for several of them.
+   */
+  void mutatorRemoveAll(Collection<? extends Component> toRemove) {
     locker.checkForWritePermission("remove", this);
 
     isAnnotated = false;
     myNetList.clear();
-    if (c instanceof Wire) {
-      wires.remove(c);
-    } else {
-      wires.remove(c);
+    final var removed = new ArrayList<Component>(new LinkedHashSet<>(toRemove));
+    wires.removeAll(removed);
+    for (final var c : removed) {
+      index.remove(c);
+      if (c instanceof Wire) continue;
       comps.remove(c);
       socSim.removeComponent(c);
       final var factory = c.getFactory();
@@ -902,7 +970,16 @@ public class Circuit {
       }
       c.removeComponentListener(myComponentListener);
     }
-    fireEvent(CircuitEvent.ACTION_REMOVE, c);
+    fireEvent(CircuitEvent.ACTION_REMOVE, CircuitEvent.ACTION_REMOVE_ALL, removed);
+  }
+
+  /* fires the event of a single component, or the aggregated event of several of them */
+  private void fireEvent(int single, int aggregated, List<Component> comps) {
+    if (comps.size() == 1) {
+      fireEvent(single, comps.get(0));
+    } else if (!comps.isEmpty()) {
+      fireEvent(aggregated, Collections.unmodifiableList(comps));
+    }
   }
 
   private void removeWrongLabels(String label) {
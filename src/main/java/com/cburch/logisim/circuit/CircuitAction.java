@@ -36,6 +36,11 @@ public class CircuitAction extends Action {
     return name.toString();
   }
 
+  @Override
+  public long getRetainedSize() {
+    return forward.getRetainedSize() + (reverse == null ? 0 : reverse.getRetainedSize());
+  }
+
   @Override
   public void undo(Project proj) {
     if (reverse != null) {
@@ -12,6 +12,7 @@ package com.cburch.logisim.circuit;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Action;
 import com.cburch.logisim.std.wiring.Pin;
 import com.cburch.logisim.vhdl.base.VhdlEntity;
 import java.util.Collection;
@@ -76,6 +77,11 @@ public class CircuitChange {
 
   static final int SET_FOR_CIRCUIT = 7;
 
+  // rough sizes in bytes, for estimating the memory held by the undo history
+  private static final long CHANGE_SIZE = 48;
+  private static final long COMPONENT_SIZE = 400;
+  private static final long REPLACEMENT_SIZE = 200;
+
   private final Circuit circuit;
   private final int type;
   private final Component comp;
@@ -193,6 +199,11 @@ public class CircuitChange {
     return circuit;
   }
 
+  /* the components of a CLEAR, ADD_ALL or REMOVE_ALL change */
+  Collection<? extends Component> getComponents() {
+    return comps;
+  }
+
   public Component getComponent() {
     return comp;
   }
@@ -219,6 +230,26 @@ public class CircuitChange {
     };
   }
 
+  long getRetainedSize() {
+    return CHANGE_SIZE
+        + switch (type) {
+          case ADD, REMOVE -> COMPONENT_SIZE;
+          case SET -> COMPONENT_SIZE + getValuesSize();
+          case SET_FOR_CIRCUIT -> getValuesSize();
+          case CLEAR, ADD_ALL, REMOVE_ALL -> comps == null ? 0 : comps.size() * COMPONENT_SIZE;
+          case REPLACE -> {
+            final var repl = (ReplacementMap) newValue;
+            yield (repl.getRemovals().size() + repl.getAdditions().size())
+                * (COMPONENT_SIZE + REPLACEMENT_SIZE);
+          }
+          default -> 0;
+        };
+  }
+
+  private long getValuesSize() {
+    return Action.getValueSize(oldValue) + Action.getValueSize(newValue);
+  }
+
   public int getType() {
     return type;
   }
@@ -9,7 +9,10 @@
 
 package com.cburch.logisim.circuit;
 
+import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.util.LineBuffer;
+import java.util.Collection;
+import java.util.List;
 
 // NOTE: silly members' names are mostly to avoid refactoring of the whole codebase due to record's
 // getters not using Bean naming convention (so i.e. `foo()` instead of `getFoo()`. We may change
@@ -26,17 +29,34 @@ public record CircuitEvent(int getAction, Circuit getCircuit, Object getData) {
   public static final int CHANGE_DEFAULT_BOX_APPEARANCE = 7;
   public static final int ACTION_CHECK_NAME = 8;
   public static final int ACTION_DISPLAY_CHANGE = 9; // viewed/haloed status change
+  public static final int ACTION_ADD_ALL = 10; // several components added at once
+  public static final int ACTION_REMOVE_ALL = 11; // several components removed at once
 
   public CircuitTransactionResult getResult() {
     return (CircuitTransactionResult) getData;
   }
 
+  /**
+   * Returns the components added or removed by an ACTION_ADD, ACTION_REMOVE, ACTION_ADD_ALL or
+   * ACTION_REMOVE_ALL event, and an empty collection for the other events.
+   */
+  @SuppressWarnings("unchecked")
+  public Collection<Component> getComponents() {
+    return switch (getAction) {
+      case ACTION_ADD, ACTION_REMOVE -> List.of((Component) getData);
+      case ACTION_ADD_ALL, ACTION_REMOVE_ALL -> (Collection<Component>) getData;
+      default -> List.of();
+    };
+  }
+
   @Override
   public String toString() {
     final var s = switch (getAction) {
       case ACTION_SET_NAME -> "ACTION_SET_NAME";
       case ACTION_ADD -> "ACTION_ADD";
       case ACTION_REMOVE -> "ACTION_REMOVE";
+      case ACTION_ADD_ALL -> "ACTION_ADD_ALL";
+      case ACTION_REMOVE_ALL -> "ACTION_REMOVE_ALL";
       case ACTION_INVALIDATE -> "ACTION_INVALIDATE";
       case ACTION_CLEAR -> "ACTION_CLEAR";
       case TRANSACTION_DONE -> "TRANSACTION_DONE";
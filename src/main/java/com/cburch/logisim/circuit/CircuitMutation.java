@@ -98,6 +98,84 @@ public final class CircuitMutation extends CircuitTransaction {
     return accessMap;
   }
 
+  /**
+   * Rewrites the changes into an equivalent, more compact form for keeping them in the undo
+   * history: runs of additions or removals of a circuit become a single list of components, and so
+   * do the replacement maps that only add or only remove components. A replacement map is only
+   * rewritten where {@link #run} starts with an empty map for its circuit, which is when the
+   * circuit differs from the one of the previous change.
+   */
+  void compact() {
+    final var compacted = new ArrayList<CircuitChange>(changes.size());
+    Circuit lastCircuit = null;
+    var listType = -1;
+    ArrayList<Component> list = null;
+    for (final var change : changes) {
+      final var circuit = change.getCircuit();
+      final var freshMap = circuit != lastCircuit;
+      final var type = getListType(change, freshMap);
+      if (type >= 0 && type == listType && !freshMap) {
+        addComponents(list, change);
+      } else {
+        if (list != null) compacted.add(toListChange(lastCircuit, listType, list));
+        list = null;
+        listType = type;
+        if (type >= 0) {
+          list = new ArrayList<>();
+          addComponents(list, change);
+        } else {
+          compacted.add(change);
+        }
+      }
+      lastCircuit = circuit;
+    }
+    if (list != null) compacted.add(toListChange(lastCircuit, listType, list));
+    changes.clear();
+    changes.addAll(compacted);
+  }
+
+  /* returns ADD_ALL or REMOVE_ALL if the change can be part of such a list, -1 otherwise */
+  private static int getListType(CircuitChange change, boolean freshMap) {
+    return switch (change.getType()) {
+      case CircuitChange.ADD, CircuitChange.ADD_ALL -> CircuitChange.ADD_ALL;
+      case CircuitChange.REMOVE, CircuitChange.REMOVE_ALL -> CircuitChange.REMOVE_ALL;
+      case CircuitChange.REPLACE -> {
+        final var repl = (ReplacementMap) change.getNewValue();
+        if (freshMap && repl.isAdditionOnly()) yield CircuitChange.ADD_ALL;
+        if (freshMap && repl.isRemovalOnly()) yield CircuitChange.REMOVE_ALL;
+        yield -1;
+      }
+      default -> -1;
+    };
+  }
+
+  private static void addComponents(ArrayList<Component> list, CircuitChange change) {
+    switch (change.getType()) {
+      case CircuitChange.ADD, CircuitChange.REMOVE -> list.add(change.getComponent());
+      case CircuitChange.ADD_ALL, CircuitChange.REMOVE_ALL -> list.addAll(change.getComponents());
+      default -> {
+        final var repl = (ReplacementMap) change.getNewValue();
+        list.addAll(repl.isAdditionOnly() ? repl.getAdditions() : repl.getRemovals());
+      }
+    }
+  }
+
+  private static CircuitChange toListChange(Circuit circuit, int type, ArrayList<Component> list) {
+    list.trimToSize();
+    return type == CircuitChange.ADD_ALL
+        ? CircuitChange.addAll(circuit, list)
+        : CircuitChange.removeAll(circuit, list);
+  }
+
+  @Override
+  public long getRetainedSize() {
+    var ret = 0L;
+    for (final var change : changes) {
+      ret += change.getRetainedSize();
+    }
+    return ret;
+  }
+
   public boolean isEmpty() {
     return changes.isEmpty();
   }
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 
 class CircuitMutatorImpl implements CircuitMutator {
   private final ArrayList<CircuitChange> log;
@@ -40,6 +41,20 @@ class CircuitMutatorImpl implements CircuitMutator {
     circuit.mutatorAdd(comp);
   }
 
+  @Override
+  public void addAll(Circuit circuit, Collection<? extends Component> comps) {
+    if (comps.isEmpty()) return;
+    final var toAdd = List.copyOf(comps);
+    modified.add(circuit);
+    log.add(CircuitChange.addAll(circuit, toAdd));
+
+    final var repl = new ReplacementMap();
+    for (final var comp : toAdd) repl.add(comp);
+    getMap(circuit).append(repl);
+
+    circuit.mutatorAddAll(toAdd);
+  }
+
   @Override
   public void clear(Circuit circuit) {
     final var comps = new HashSet<>(circuit.getNonWires());
@@ -77,6 +92,7 @@ class CircuitMutatorImpl implements CircuitMutator {
     for (var i = log.size() - 1; i >= 0; i--) {
       ret.change(log.get(i).getReverseChange());
     }
+    ret.compact();
     return ret;
   }
 
@@ -98,6 +114,23 @@ class CircuitMutatorImpl implements CircuitMutator {
     }
   }
 
+  @Override
+  public void removeAll(Circuit circuit, Collection<? extends Component> comps) {
+    final var toRemove = new ArrayList<Component>();
+    for (final var comp : comps) {
+      if (circuit.contains(comp)) toRemove.add(comp);
+    }
+    if (toRemove.isEmpty()) return;
+    modified.add(circuit);
+    log.add(CircuitChange.removeAll(circuit, toRemove));
+
+    final var repl = new ReplacementMap();
+    for (final var comp : toRemove) repl.remove(comp);
+    getMap(circuit).append(repl);
+
+    circuit.mutatorRemoveAll(toRemove);
+  }
+
   @Override
   public void replace(Circuit circuit, Component prev, Component next) {
     replace(circuit, new ReplacementMap(prev, next));
@@ -112,12 +145,8 @@ class CircuitMutatorImpl implements CircuitMutator {
       repl.freeze();
       getMap(circuit).append(repl);
 
-      for (final var component : repl.getRemovals()) {
-        circuit.mutatorRemove(component);
-      }
-      for (final var component : repl.getAdditions()) {
-        circuit.mutatorAdd(component);
-      }
+      circuit.mutatorRemoveAll(repl.getRemovals());
+      circuit.mutatorAddAll(repl.getAdditions());
     }
   }
 
@@ -18,6 +18,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 class CircuitPoints {
@@ -55,7 +56,32 @@ class CircuitPoints {
     if (endData != null) addSub(endData.getLocation(), comp, endData);
   }
 
+  /* adds the components, checking the widths at each location only once */
+  void addAll(Collection<? extends Component> comps) {
+    final var touched = new HashMap<Location, LocationData>();
+    for (final var comp : comps) {
+      if (comp instanceof Wire w) {
+        touched.put(w.getEnd0(), addEnd(w.getEnd0(), w, null));
+        touched.put(w.getEnd1(), addEnd(w.getEnd1(), w, null));
+      } else {
+        for (final var endData : comp.getEnds()) {
+          if (endData != null) {
+            final var loc = endData.getLocation();
+            touched.put(loc, addEnd(loc, comp, endData));
+          }
+        }
+      }
+    }
+    for (final var entry : touched.entrySet()) {
+      computeIncompatibilityData(entry.getKey(), entry.getValue());
+    }
+  }
+
   private void addSub(Location loc, Component comp, EndData endData) {
+    computeIncompatibilityData(loc, addEnd(loc, comp, endData));
+  }
+
+  private LocationData addEnd(Location loc, Component comp, EndData endData) {
     var locData = map.get(loc);
     if (locData == null) {
       locData = new LocationData();
@@ -63,7 +89,7 @@ class CircuitPoints {
     }
     locData.components.add(comp);
     locData.ends.add(endData);
-    computeIncompatibilityData(loc, locData);
+    return locData;
   }
 
   private void computeIncompatibilityData(Location loc, LocationData locData) {
@@ -209,6 +235,24 @@ class CircuitPoints {
     if (endData != null) removeSub(endData.getLocation(), comp);
   }
 
+  /* removes the components, checking the widths at each remaining location only once */
+  void removeAll(Collection<? extends Component> comps) {
+    final var touched = new HashMap<Location, LocationData>();
+    for (final var comp : comps) {
+      if (comp instanceof Wire w) {
+        removeEnd(w.getEnd0(), w, touched);
+        removeEnd(w.getEnd1(), w, touched);
+      } else {
+        for (final var endData : comp.getEnds()) {
+          if (endData != null) removeEnd(endData.getLocation(), comp, touched);
+        }
+      }
+    }
+    for (final var entry : touched.entrySet()) {
+      computeIncompatibilityData(entry.getKey(), entry.getValue());
+    }
+  }
+
   private void removeSub(Location loc, Component comp) {
     final var locData = map.get(loc);
     if (locData == null) return;
@@ -225,4 +269,23 @@ class CircuitPoints {
       computeIncompatibilityData(loc, locData);
     }
   }
+
+  /* removes one end, remembering the location if it still holds other ends */
+  private void removeEnd(Location loc, Component comp, Map<Location, LocationData> touched) {
+    final var locData = map.get(loc);
+    if (locData == null) return;
+
+    int index = locData.components.indexOf(comp);
+    if (index < 0) return;
+
+    if (locData.components.size() == 1) {
+      map.remove(loc);
+      incompatibilityData.remove(loc);
+      touched.remove(loc);
+    } else {
+      locData.components.remove(index);
+      locData.ends.remove(index);
+      touched.put(loc, locData);
+    }
+  }
 }
@@ -13,6 +13,7 @@ import com.cburch.logisim.circuit.Propagator.SetData;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.comp.ComponentState;
+import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.instance.Instance;
@@ -25,6 +26,7 @@ import com.cburch.logisim.std.memory.Ram;
 import com.cburch.logisim.std.memory.RamState;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
@@ -40,41 +42,25 @@ public class CircuitState implements InstanceData {
     public void circuitChanged(CircuitEvent event) {
       int action = event.getAction();
 
-      if (action == CircuitEvent.ACTION_ADD) {
-        /* Component was added */
-        final var comp = (Component) event.getData();
-        if (comp instanceof Wire wire) {
-          markPointAsDirty(wire.getEnd0());
-          markPointAsDirty(wire.getEnd1());
-        } else {
-          markComponentAsDirty(comp);
-        }
-      } else if (action == CircuitEvent.ACTION_REMOVE) {
-        /* Component was removed */
-        final var comp = (Component) event.getData();
-        if (comp == temporaryClock) temporaryClock = null;
-        if (comp.getFactory() instanceof Clock) {
-          knownClocks = false; // just in case, will be recomputed by simulator
-        }
-        if (comp.getFactory() instanceof SubcircuitFactory) {
-          knownClocks = false; // just in case, will be recomputed by simulator
-          // disconnect from tree
-          final var subState = (CircuitState) getData(comp);
-          if (subState != null && subState.parentComp == comp) {
-            subStates.remove(subState);
-            subState.parentState = null;
-            subState.parentComp = null;
-            subState.reset();
+      if (action == CircuitEvent.ACTION_ADD || action == CircuitEvent.ACTION_ADD_ALL) {
+        /* Components were added, the dirty sets are copied on write so they are filled at once */
+        final var points = new ArrayList<Location>();
+        final var comps = new ArrayList<Component>();
+        for (final var comp : event.getComponents()) {
+          if (comp instanceof Wire wire) {
+            points.add(wire.getEnd0());
+            points.add(wire.getEnd1());
+          } else {
+            comps.add(comp);
           }
-        } else if (getData(comp) instanceof ComponentDataGuiProvider guiProvider) {
-          guiProvider.destroy();
         }
-        if (comp instanceof Wire w) {
-          markPointAsDirty(w.getEnd0());
-          markPointAsDirty(w.getEnd1());
-        } else {
-          if (base != null) base.checkComponentEnds(CircuitState.this, comp);
-          dirtyComponents.remove(comp);
+        dirtyPoints.addAll(points);
+        markComponentsDirty(comps);
+      } else if (action == CircuitEvent.ACTION_REMOVE
+          || action == CircuitEvent.ACTION_REMOVE_ALL) {
+        /* Components were removed */
+        for (final var comp : event.getComponents()) {
+          componentRemoved(comp);
         }
       } else if (action == CircuitEvent.ACTION_CLEAR) {
         /* Whole circuit was cleared */
@@ -125,6 +111,33 @@ public class CircuitState implements InstanceData {
         }
       }
     }
+
+    private void componentRemoved(Component comp) {
+      if (comp == temporaryClock) temporaryClock = null;
+      if (comp.getFactory() instanceof Clock) {
+        knownClocks = false; // just in case, will be recomputed by simulator
+      }
+      if (comp.getFactory() instanceof SubcircuitFactory) {
+        knownClocks = false; // just in case, will be recomputed by simulator
+        // disconnect from tree
+        final var subState = (CircuitState) getData(comp);
+        if (subState != null && subState.parentComp == comp) {
+          subStates.remove(subState);
+          subState.parentState = null;
+          subState.parentComp = null;
+          subState.reset();
+        }
+      } else if (getData(comp) instanceof ComponentDataGuiProvider guiProvider) {
+        guiProvider.destroy();
+      }
+      if (comp instanceof Wire w) {
+        markPointAsDirty(w.getEnd0());
+        markPointAsDirty(w.getEnd1());
+      } else {
+        if (base != null) base.checkComponentEnds(CircuitState.this, comp);
+        dirtyComponents.remove(comp);
+      }
+    }
   }
 
   private final MyCircuitListener myCircuitListener = new MyCircuitListener();
@@ -143,6 +156,14 @@ public class CircuitState implements InstanceData {
   private CopyOnWriteArraySet<Component> dirtyComponents = new CopyOnWriteArraySet<>();
   private final CopyOnWriteArraySet<Location> dirtyPoints = new CopyOnWriteArraySet<>();
   final HashMap<Location, SetData> causes = new HashMap<>();
+  // whether the area in which values change is collected, see setChangedBoundsTracked
+  private volatile boolean changedBoundsTracked = false;
+  // the area in which values changed since the last call of takeChangedBounds; like the values it
+  // is only touched by the thread that propagates, hence the plain fields
+  private int changedMinX = Integer.MAX_VALUE;
+  private int changedMinY = Integer.MAX_VALUE;
+  private int changedMaxX = Integer.MIN_VALUE;
+  private int changedMaxY = Integer.MIN_VALUE;
 
   private static int lastId = 0;
   private final int id = lastId++;
@@ -316,6 +337,56 @@ public class CircuitState implements InstanceData {
     dirtyPoints.add(pt);
   }
 
+  private void addChangedBounds(Bounds bds) {
+    if (bds == Bounds.EMPTY_BOUNDS) return;
+    changedMinX = Math.min(changedMinX, bds.getX());
+    changedMinY = Math.min(changedMinY, bds.getY());
+    changedMaxX = Math.max(changedMaxX, bds.getX() + bds.getWidth());
+    changedMaxY = Math.max(changedMaxY, bds.getY() + bds.getHeight());
+  }
+
+  public boolean isChangedBoundsTracked() {
+    return changedBoundsTracked;
+  }
+
+  /**
+   * Enables or disables collecting the area in which values change, for this state and its
+   * substates. The canvas enables it for the state it shows; for all other states the propagation
+   * does not spend any time on it.
+   */
+  public void setChangedBoundsTracked(boolean value) {
+    if (changedBoundsTracked == value) return;
+    changedBoundsTracked = value;
+    final var subs = new CircuitState[subStates.size()];
+    for (final var substate : subStates.toArray(subs)) {
+      if (substate != null) substate.setChangedBoundsTracked(value);
+    }
+  }
+
+  /**
+   * Returns the area of the circuit in which values changed or components were propagated since
+   * the previous call, {@link Bounds#EMPTY_BOUNDS} if there is none. A change within a subcircuit
+   * counts for the whole subcircuit component, as its appearance may show the inner state.
+   */
+  public Bounds takeChangedBounds() {
+    var ret =
+        changedMinX > changedMaxX
+            ? Bounds.EMPTY_BOUNDS
+            : Bounds.create(
+                changedMinX, changedMinY, changedMaxX - changedMinX, changedMaxY - changedMinY);
+    changedMinX = changedMinY = Integer.MAX_VALUE;
+    changedMaxX = changedMaxY = Integer.MIN_VALUE;
+    final var subs = new CircuitState[subStates.size()];
+    for (final var substate : subStates.toArray(subs)) {
+      if (substate != null
+          && substate.takeChangedBounds() != Bounds.EMPTY_BOUNDS
+          && substate.parentComp != null) {
+        ret = ret.add(substate.parentComp.getBounds());
+      }
+    }
+    return ret;
+  }
+
   void processDirtyComponents() {
     if (!dirtyComponents.isEmpty()) {
       // This seeming wasted copy is to avoid ConcurrentModifications
@@ -336,8 +407,10 @@ public class CircuitState implements InstanceData {
         }
       }
       dirtyComponents.clear();
+      final var tracked = changedBoundsTracked;
       for (final var compObj : toProcess) {
         if (compObj instanceof Component comp) {
+          if (tracked) addChangedBounds(comp.getBounds());
           comp.propagate(this);
           if (comp.getFactory() instanceof Pin && parentState != null) {
             // should be propagated in superstate
@@ -404,6 +477,7 @@ public class CircuitState implements InstanceData {
     dirtyPoints.clear();
     causes.clear();
     markAllComponentsDirty();
+    if (changedBoundsTracked) addChangedBounds(circuit.getBounds());
 
     for (CircuitState sub : subStates) {
       sub.reset();
@@ -422,6 +496,7 @@ public class CircuitState implements InstanceData {
           subStates.remove(oldState);
           oldState.parentState = null;
           oldState.parentComp = null;
+          oldState.setChangedBoundsTracked(false);
           oldState.reset();
         }
         if (newState != null && newState.parentState != this) {
@@ -430,6 +505,7 @@ public class CircuitState implements InstanceData {
           newState.base = this.base;
           newState.parentState = this;
           newState.parentComp = comp;
+          newState.setChangedBoundsTracked(changedBoundsTracked);
           newState.markAllComponentsDirty();
         }
       }
@@ -457,7 +533,9 @@ public class CircuitState implements InstanceData {
     }
     if (changed) {
       var found = false;
+      final var tracked = changedBoundsTracked;
       for (final var comp : circuit.getComponents(p)) {
+        if (tracked) addChangedBounds(comp.getBounds());
         if (!(comp instanceof Wire) && !(comp instanceof Splitter)) {
           found = true;
           markComponentAsDirty(comp);
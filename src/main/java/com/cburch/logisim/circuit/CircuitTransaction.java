@@ -9,12 +9,18 @@
 
 package com.cburch.logisim.circuit;
 
+import com.cburch.logisim.proj.Action;
 import java.util.Map;
 
 public abstract class CircuitTransaction {
   public static final Integer READ_ONLY = 1;
   public static final Integer READ_WRITE = 2;
 
+  /** Returns an estimate of the memory held by the transaction, see {@link Action}. */
+  public long getRetainedSize() {
+    return Action.DEFAULT_RETAINED_SIZE;
+  }
+
   public final CircuitTransactionResult execute() {
     final var mutator = new CircuitMutatorImpl();
     final var locks = CircuitLocker.acquireLocks(this, mutator);
@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import javax.swing.SwingUtilities;
@@ -191,6 +192,26 @@ class CircuitWires {
   // NOTE: this could be made much more efficient in most cases to
   // avoid voiding the bundle map.
   /*synchronized*/ boolean add(Component comp) {
+    final var added = register(comp);
+    if (added) {
+      points.add(comp);
+      voidBundleMap();
+    }
+    return added;
+  }
+
+  /* adds the components and returns those that were not present yet */
+  /*synchronized*/ List<Component> addAll(Collection<? extends Component> comps) {
+    final var added = new ArrayList<Component>(comps.size());
+    for (final var comp : comps) {
+      if (register(comp)) added.add(comp);
+    }
+    points.addAll(added);
+    voidBundleMap();
+    return added;
+  }
+
+  private boolean register(Component comp) {
     var added = true;
     if (comp instanceof Wire wire) {
       added = addWire(wire);
@@ -206,10 +227,6 @@ class CircuitWires {
         comp.getAttributeSet().addAttributeListener(tunnelListener);
       }
     }
-    if (added) {
-      points.add(comp);
-      voidBundleMap();
-    }
     return added;
   }
 
@@ -782,6 +799,20 @@ class CircuitWires {
   }
 
   /*synchronized*/ void remove(Component comp) {
+    unregister(comp);
+    points.remove(comp);
+    voidBundleMap();
+  }
+
+  /*synchronized*/ void removeAll(Collection<? extends Component> comps) {
+    for (final var comp : comps) {
+      unregister(comp);
+    }
+    points.removeAll(comps);
+    voidBundleMap();
+  }
+
+  private void unregister(Component comp) {
     if (comp instanceof Wire wire) {
       removeWire(wire);
     } else if (comp instanceof Splitter) {
@@ -796,8 +827,6 @@ class CircuitWires {
         comp.getAttributeSet().removeAttributeListener(tunnelListener);
       }
     }
-    points.remove(comp);
-    voidBundleMap();
   }
 
   /*synchronized*/ void remove(Component comp, EndData end) {
@@ -0,0 +1,247 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.AttributeEvent;
+import com.cburch.logisim.data.AttributeListener;
+import com.cburch.logisim.data.Bounds;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Uniform grid over the components of a circuit, used to answer hit-tests and to find the
+ * components that intersect the visible part of the canvas without visiting every component.
+ *
+ * <p>Each component is registered in all cells its bounds overlap. The bounds used include the
+ * label of the component (computed with a scratch graphics context) plus a small margin, so the
+ * index returns a superset of the components that match an exact query; callers still apply their
+ * own exact test on the candidates. Components whose attributes change are re-bucketed lazily on
+ * the next query, as their bounds may have changed (facing, size, label, ...).
+ *
+ * <p>The entries of each cell are kept in paint order (non-wires first, then in the order in
+ * which the components were added), so a query merges the sorted cells instead of sorting its
+ * result.
+ */
+class ComponentIndex {
+
+  private static final int CELL_SHIFT = 7; // 128 pixel cells
+  private static final int MARGIN = 10;
+  private static final long WIRE_RANK = 1L << 62;
+
+  private final HashMap<Long, ArrayList<Entry>> cells = new HashMap<>();
+  private final HashMap<Component, Entry> entries = new HashMap<>();
+  private final LinkedHashSet<Entry> stale = new LinkedHashSet<>();
+  private long nextSeq = 0;
+  private Graphics scratchGraphics = null;
+
+  // scratch state of query, guarded by this
+  private final ArrayList<ArrayList<Entry>> mergeCells = new ArrayList<>();
+  private int[] mergePos = new int[0];
+  private int[] mergeHeap = new int[0];
+  private long queryStamp = 0;
+
+  private class Entry implements AttributeListener {
+    private final Component comp;
+    private final boolean isWire;
+    private final long rank; // paint order
+    private Bounds indexed = null;
+    private long stamp = 0; // last query that visited this entry
+
+    Entry(Component comp) {
+      this.comp = comp;
+      this.isWire = comp instanceof Wire;
+      this.rank = (isWire ? WIRE_RANK : 0) + nextSeq++;
+    }
+
+    @Override
+    public void attributeValueChanged(AttributeEvent e) {
+      invalidate(comp);
+    }
+
+    @Override
+    public void attributeListChanged(AttributeEvent e) {
+      invalidate(comp);
+    }
+  }
+
+  private Graphics getScratchGraphics() {
+    if (scratchGraphics == null) {
+      scratchGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    }
+    return scratchGraphics;
+  }
+
+  private static long key(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  synchronized void add(Component comp) {
+    if (entries.containsKey(comp)) return;
+    final var entry = new Entry(comp);
+    entries.put(comp, entry);
+    // wires are immutable, other components may change their bounds through their attributes
+    if (!entry.isWire) comp.getAttributeSet().addAttributeListener(entry);
+    stale.add(entry);
+  }
+
+  synchronized void remove(Component comp) {
+    final var entry = entries.remove(comp);
+    if (entry == null) return;
+    if (!entry.isWire) comp.getAttributeSet().removeAttributeListener(entry);
+    stale.remove(entry);
+    unbucket(entry);
+  }
+
+  synchronized void invalidate(Component comp) {
+    final var entry = entries.get(comp);
+    if (entry != null) stale.add(entry);
+  }
+
+  synchronized void clear() {
+    for (final var entry : entries.values()) {
+      if (!entry.isWire) entry.comp.getAttributeSet().removeAttributeListener(entry);
+    }
+    entries.clear();
+    cells.clear();
+    stale.clear();
+  }
+
+  /**
+   * Adds the components whose bounds may intersect the given area to out, non-wires first and each
+   * group in the order in which the components were added.
+   *
+   * @param nonWiresOnly stop at the first wire
+   */
+  synchronized void query(Bounds area, boolean nonWiresOnly, Collection<Component> out) {
+    refresh();
+    final var x0 = area.getX() >> CELL_SHIFT;
+    final var y0 = area.getY() >> CELL_SHIFT;
+    final var x1 = (area.getX() + area.getWidth()) >> CELL_SHIFT;
+    final var y1 = (area.getY() + area.getHeight()) >> CELL_SHIFT;
+    for (var cx = x0; cx <= x1; cx++) {
+      for (var cy = y0; cy <= y1; cy++) {
+        final var cell = cells.get(key(cx, cy));
+        if (cell != null) mergeCells.add(cell);
+      }
+    }
+    final var stamp = ++queryStamp;
+    final var count = mergeCells.size();
+    if (mergePos.length < count) {
+      mergePos = new int[count];
+      mergeHeap = new int[count];
+    }
+    // k-way merge of the cells, the heap holds the cells ordered by their next entry
+    var size = 0;
+    for (var i = 0; i < count; i++) {
+      mergePos[i] = 0;
+      mergeHeap[size++] = i;
+    }
+    for (var i = size / 2 - 1; i >= 0; i--) siftDown(i, size);
+    while (size > 0) {
+      final var top = mergeHeap[0];
+      final var cell = mergeCells.get(top);
+      final var entry = cell.get(mergePos[top]++);
+      if (nonWiresOnly && entry.isWire) break;
+      if (entry.stamp != stamp) {
+        // an entry spanning several cells is seen once per cell
+        entry.stamp = stamp;
+        if (intersects(entry.indexed, area)) out.add(entry.comp);
+      }
+      if (mergePos[top] == cell.size()) mergeHeap[0] = mergeHeap[--size];
+      if (size > 0) siftDown(0, size);
+    }
+    mergeCells.clear();
+  }
+
+  private long nextRank(int cell) {
+    return mergeCells.get(cell).get(mergePos[cell]).rank;
+  }
+
+  private void siftDown(int index, int size) {
+    final var cell = mergeHeap[index];
+    final var rank = nextRank(cell);
+    while (true) {
+      var child = 2 * index + 1;
+      if (child >= size) break;
+      if (child + 1 < size && nextRank(mergeHeap[child + 1]) < nextRank(mergeHeap[child])) child++;
+      if (nextRank(mergeHeap[child]) >= rank) break;
+      mergeHeap[index] = mergeHeap[child];
+      index = child;
+    }
+    mergeHeap[index] = cell;
+  }
+
+  /* inserts the entry in a cell in paint order */
+  private static void insert(ArrayList<Entry> cell, Entry entry) {
+    var lo = 0;
+    var hi = cell.size();
+    while (lo < hi) {
+      final var mid = (lo + hi) >>> 1;
+      if (cell.get(mid).rank < entry.rank) lo = mid + 1;
+      else hi = mid;
+    }
+    cell.add(lo, entry);
+  }
+
+  private static boolean intersects(Bounds a, Bounds b) {
+    return a.getX() <= b.getX() + b.getWidth()
+        && b.getX() <= a.getX() + a.getWidth()
+        && a.getY() <= b.getY() + b.getHeight()
+        && b.getY() <= a.getY() + a.getHeight();
+  }
+
+  private void refresh() {
+    if (stale.isEmpty()) return;
+    for (final var entry : stale) {
+      unbucket(entry);
+      var bds = entry.comp.getBounds();
+      if (bds == null) bds = Bounds.create(entry.comp.getLocation());
+      if (!entry.isWire) {
+        final var withLabel = entry.comp.getBounds(getScratchGraphics());
+        if (withLabel != null) bds = bds.add(withLabel);
+      }
+      entry.indexed = bds.expand(MARGIN);
+      forEachCell(
+          entry.indexed, key -> insert(cells.computeIfAbsent(key, k -> new ArrayList<>()), entry));
+    }
+    stale.clear();
+  }
+
+  private void unbucket(Entry entry) {
+    if (entry.indexed == null) return;
+    forEachCell(
+        entry.indexed,
+        key -> {
+          final var cell = cells.get(key);
+          if (cell == null) return;
+          cell.remove(entry);
+          if (cell.isEmpty()) cells.remove(key);
+        });
+    entry.indexed = null;
+  }
+
+  private static void forEachCell(Bounds bds, LongConsumer action) {
+    final var x0 = bds.getX() >> CELL_SHIFT;
+    final var y0 = bds.getY() >> CELL_SHIFT;
+    final var x1 = (bds.getX() + bds.getWidth()) >> CELL_SHIFT;
+    final var y1 = (bds.getY() + bds.getHeight()) >> CELL_SHIFT;
+    for (var cx = x0; cx <= x1; cx++) {
+      for (var cy = y0; cy <= y1; cy++) {
+        action.accept(key(cx, cy));
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.circuit.Strings.S;
+
+import com.cburch.logisim.analyze.model.Bdd;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.std.wiring.Pin;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formal equivalence check of two combinational circuits whose pins have the same labels and
+ * widths. The outputs of both circuits are built as decision diagrams over the same input
+ * variables; for each output the exclusive or of both versions (a miter) is either constant zero,
+ * or every assignment that makes it one is an input vector for which the circuits differ. Contrary
+ * to simulating every row of the truth table this does not grow exponentially with the number of
+ * inputs for the usual datapath circuits.
+ */
+public final class EquivalenceChecker {
+
+  /**
+   * The outcome of a check.
+   *
+   * @param inputs the names of the input bits
+   * @param counterexample the values of the inputs for which the circuits differ, or null if they
+   *     are equivalent
+   * @param differingOutputs the value of each output bit that differs for the counterexample, as
+   *     computed by the circuit; the reference computes the opposite value
+   */
+  public record Result(
+      List<String> inputs, boolean[] counterexample, Map<String, Boolean> differingOutputs) {
+
+    public boolean isEquivalent() {
+      return counterexample == null;
+    }
+
+    /** Returns a readable report of the outcome. */
+    public String describe() {
+      if (isEquivalent()) return S.get("equivalenceHolds");
+      final var ret = new StringBuilder(S.get("equivalenceFails"));
+      for (var i = 0; i < inputs.size(); i++) {
+        ret.append("\n  ").append(inputs.get(i)).append(" = ");
+        ret.append(counterexample[i] ? '1' : '0');
+      }
+      for (final var output : differingOutputs.entrySet()) {
+        final var value = output.getValue();
+        ret.append("\n")
+            .append(S.get("equivalenceOutputDiffers", output.getKey(), value ? "1" : "0",
+                value ? "0" : "1"));
+      }
+      return ret.toString();
+    }
+  }
+
+  private EquivalenceChecker() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /**
+   * Checks whether the circuit computes the same outputs as the reference for all inputs.
+   *
+   * @throws AnalyzeException if the pins do not match or if an output cannot be expressed as a
+   *     combinational function of the inputs
+   */
+  public static Result check(Circuit circuit, Circuit reference) throws AnalyzeException {
+    final var pinNames = Analyze.getPinLabels(circuit);
+    final var referencePinNames = Analyze.getPinLabels(reference);
+    final var interfaceOf = getInterface(pinNames);
+    final var referenceInterface = getInterface(referencePinNames);
+    for (final var pin : interfaceOf.entrySet()) {
+      if (!pin.getValue().equals(referenceInterface.get(pin.getKey()))) {
+        throw new AnalyzeException(S.get("equivalencePinMismatch", pin.getKey()));
+      }
+    }
+    for (final var label : referenceInterface.keySet()) {
+      if (!interfaceOf.containsKey(label)) {
+        throw new AnalyzeException(S.get("equivalencePinMismatch", label));
+      }
+    }
+
+    final var inputs = new ArrayList<String>();
+    for (final var entry : pinNames.entrySet()) {
+      if (!Pin.FACTORY.isInputPin(entry.getKey())) continue;
+      final var width = entry.getKey().getAttributeValue(StdAttr.WIDTH).getWidth();
+      for (var b = width - 1; b >= 0; b--) {
+        inputs.add(width > 1 ? entry.getValue() + "[" + b + "]" : entry.getValue());
+      }
+    }
+    if (inputs.size() > Bdd.MAX_VARIABLES) {
+      throw new AnalyzeException(S.get("analyzeTooManyInputsError", Bdd.MAX_VARIABLES));
+    }
+
+    final var bdd = new Bdd(inputs.size());
+    final var outputs = Analyze.computeBdd(circuit, pinNames, bdd, inputs);
+    final var referenceOutputs = Analyze.computeBdd(reference, referencePinNames, bdd, inputs);
+    return compare(bdd, inputs, outputs, referenceOutputs);
+  }
+
+  /**
+   * Compares the outputs of two circuits, given as diagrams of the same instance by output name.
+   *
+   * @throws AnalyzeException if an output is {@link Analyze#NO_DRIVER} in either circuit, a
+   *     floating output cannot be compared
+   */
+  static Result compare(
+      Bdd bdd,
+      List<String> inputs,
+      Map<String, Integer> outputs,
+      Map<String, Integer> referenceOutputs)
+      throws AnalyzeException {
+    for (final var output : outputs.entrySet()) {
+      if (output.getValue() == Analyze.NO_DRIVER
+          || referenceOutputs.get(output.getKey()) == Analyze.NO_DRIVER) {
+        throw new AnalyzeException(S.get("equivalenceNoDriverError", output.getKey()));
+      }
+    }
+    boolean[] counterexample = null;
+    try {
+      for (final var output : outputs.entrySet()) {
+        final var miter = bdd.xor(output.getValue(), referenceOutputs.get(output.getKey()));
+        if (miter != Bdd.ZERO) {
+          counterexample = bdd.findSatisfying(miter);
+          break;
+        }
+      }
+    } catch (Bdd.TooLargeException e) {
+      throw new AnalyzeException(S.get("analyzeBddTooLargeError", Bdd.MAX_NODES));
+    }
+    if (counterexample == null) return new Result(inputs, null, Collections.emptyMap());
+
+    final var differing = new LinkedHashMap<String, Boolean>();
+    for (final var output : outputs.entrySet()) {
+      final var value = bdd.evaluate(output.getValue(), counterexample);
+      if (value != bdd.evaluate(referenceOutputs.get(output.getKey()), counterexample)) {
+        differing.put(output.getKey(), value);
+      }
+    }
+    return new Result(inputs, counterexample, differing);
+  }
+
+  /* the direction and width of each pin, by label */
+  private static Map<String, String> getInterface(Map<Instance, String> pinNames) {
+    final var ret = new LinkedHashMap<String, String>();
+    for (final var entry : pinNames.entrySet()) {
+      final var pin = entry.getKey();
+      final var width = pin.getAttributeValue(StdAttr.WIDTH).getWidth();
+      ret.put(entry.getValue(), (Pin.FACTORY.isInputPin(pin) ? "in" : "out") + width);
+    }
+    return ret;
+  }
+}
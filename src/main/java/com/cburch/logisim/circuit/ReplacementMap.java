@@ -111,6 +111,24 @@ public class ReplacementMap {
     return inverse.get(b);
   }
 
+  /* returns whether the map only adds components, each of them replacing nothing */
+  boolean isAdditionOnly() {
+    if (!map.isEmpty()) return false;
+    for (final var replaced : inverse.values()) {
+      if (!replaced.isEmpty()) return false;
+    }
+    return true;
+  }
+
+  /* returns whether the map only removes components, each of them replaced by nothing */
+  boolean isRemovalOnly() {
+    if (!inverse.isEmpty()) return false;
+    for (final var replacements : map.values()) {
+      if (!replacements.isEmpty()) return false;
+    }
+    return true;
+  }
+
   ReplacementMap getInverseMap() {
     return new ReplacementMap(inverse, map);
   }
@@ -0,0 +1,184 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit.appear;
+
+import com.cburch.draw.model.CanvasObject;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.data.Bounds;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.gui.generic.TikZWriter;
+import com.cburch.logisim.instance.InstancePainter;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps the shapes of a circuit appearance that do not depend on the circuit state as images, one
+ * set per facing and scale. A subcircuit used many times then paints its vector art once per zoom
+ * level; only the dynamic elements are painted for every instance. The images are rendered in
+ * device pixels, so they are only used when the graphics is scaled uniformly and draws to the
+ * screen or an image; printing and the vector exports paint the shapes themselves.
+ */
+class AppearanceRenderCache {
+  private static final int MAX_ENTRIES = 16;
+  private static final int MAX_PIXELS = 1 << 22;
+  // extra space around the shapes, in circuit units, for strokes and text not in their bounds
+  private static final int MARGIN = 4;
+
+  private record Key(Direction facing, double scale) {}
+
+  /* either an image of a run of static shapes, or a dynamic element painted for each instance */
+  private record Layer(BufferedImage image, int x, int y, DynamicElement element) {}
+
+  private final CircuitAppearance appearance;
+  private final HashMap<Key, List<Layer>> layers = new HashMap<>();
+  private final BufferedImage discardImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+  AppearanceRenderCache(CircuitAppearance appearance) {
+    this.appearance = appearance;
+  }
+
+  synchronized void clear() {
+    layers.clear();
+  }
+
+  /**
+   * Paints the appearance using the cached images and returns true, or returns false without
+   * painting anything if the images cannot be used for this graphics.
+   */
+  boolean paint(InstancePainter painter, Graphics g, Direction facing) {
+    if (painter.isPrintView() || g instanceof TikZWriter || !(g instanceof Graphics2D g2)) {
+      return false;
+    }
+    final var transform = g2.getTransform();
+    final var allowed = AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE;
+    if ((transform.getType() & ~allowed) != 0 || transform.getScaleX() <= 0) return false;
+    final var rendered = getLayers(new Key(facing, transform.getScaleX()), g2);
+    if (rendered == null) return false;
+
+    CircuitState state = null;
+    if (painter.getShowState()) {
+      try {
+        state = (CircuitState) painter.getData();
+      } catch (UnsupportedOperationException ignored) {
+        // Do nothing.
+      }
+    }
+    final var origin = transform.transform(new Point2D.Double(0, 0), null);
+    final var x = (int) Math.round(origin.getX());
+    final var y = (int) Math.round(origin.getY());
+    final var offset = appearance.findAnchorLocation();
+    for (final var layer : rendered) {
+      if (layer.image() != null) {
+        final var device = (Graphics2D) g2.create();
+        device.setTransform(new AffineTransform());
+        device.drawImage(layer.image(), x + layer.x(), y + layer.y(), null);
+        device.dispose();
+      } else {
+        final var dup = (Graphics2D) g2.create();
+        dup.rotate(getRotation(facing));
+        dup.translate(-offset.getX(), -offset.getY());
+        layer.element().paintDynamic(dup, state);
+        if (layer.element() instanceof DynamicElementWithPoker dynElWithPoker) {
+          dynElWithPoker.setAnchor(offset);
+        }
+        dup.dispose();
+      }
+    }
+    return true;
+  }
+
+  private synchronized List<Layer> getLayers(Key key, Graphics2D target) {
+    if (layers.containsKey(key)) return layers.get(key);
+    if (layers.size() >= MAX_ENTRIES) layers.clear();
+    final var ret = new ArrayList<Layer>();
+    final var run = new ArrayList<CanvasObject>();
+    for (final var shape : appearance.getObjectsFromBottom()) {
+      if (shape instanceof AppearanceElement) continue;
+      if (shape instanceof DynamicElement dynEl) {
+        if (!addImage(ret, run, key, target)) return cacheFailure(key);
+        ret.add(new Layer(null, 0, 0, dynEl));
+      } else {
+        run.add(shape);
+      }
+    }
+    if (!addImage(ret, run, key, target)) return cacheFailure(key);
+    ret.trimToSize();
+    layers.put(key, ret);
+    return ret;
+  }
+
+  /* remembers that this appearance is painted without images at this facing and scale */
+  private List<Layer> cacheFailure(Key key) {
+    layers.put(key, null);
+    return null;
+  }
+
+  /* renders the run of static shapes into an image and clears the run */
+  private boolean addImage(List<Layer> ret, List<CanvasObject> run, Key key, Graphics2D target) {
+    if (run.isEmpty()) return true;
+    final var offset = appearance.findAnchorLocation();
+    final var transform = AffineTransform.getScaleInstance(key.scale(), key.scale());
+    transform.rotate(getRotation(key.facing()));
+    transform.translate(-offset.getX(), -offset.getY());
+
+    // labels only know their size once they have been painted
+    final var dry = discardImage.createGraphics();
+    dry.setFont(target.getFont());
+    paintShapes(dry, run);
+    dry.dispose();
+    var bds = Bounds.EMPTY_BOUNDS;
+    for (final var shape : run) {
+      bds = bds.add(shape.getBounds());
+    }
+    bds = bds.expand(MARGIN);
+    final Rectangle area =
+        transform
+            .createTransformedShape(
+                new Rectangle(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight()))
+            .getBounds();
+    if ((long) area.width * area.height > MAX_PIXELS) return false;
+    if (area.isEmpty()) {
+      run.clear();
+      return true;
+    }
+
+    final var image = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB);
+    final var g = image.createGraphics();
+    g.setRenderingHints(target.getRenderingHints());
+    g.setFont(target.getFont());
+    g.translate(-area.x, -area.y);
+    g.transform(transform);
+    paintShapes(g, run);
+    g.dispose();
+    ret.add(new Layer(image, area.x, area.y, null));
+    run.clear();
+    return true;
+  }
+
+  private static void paintShapes(Graphics g, List<CanvasObject> shapes) {
+    for (final var shape : shapes) {
+      final var dup = g.create();
+      shape.paint(dup, null);
+      dup.dispose();
+    }
+  }
+
+  private double getRotation(Direction facing) {
+    final var defaultFacing = appearance.getFacing();
+    return facing == defaultFacing ? 0.0 : defaultFacing.toRadians() - facing.toRadians();
+  }
+}
@@ -57,6 +57,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
   private final PortManager portManager;
   private final CircuitPins circuitPins;
   private final MyListener myListener;
+  private final AppearanceRenderCache renderCache;
   private final ArrayList<CanvasObject> defaultCanvasObjects;
   private boolean suppressRecompute;
   private List<CanvasObject> defaultCustomAppearance;
@@ -67,6 +68,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
     portManager = new PortManager(this);
     circuitPins = new CircuitPins(portManager);
     myListener = new MyListener();
+    renderCache = new AppearanceRenderCache(this);
     suppressRecompute = false;
     addCanvasModelListener(myListener);
     if (circuit != null) circuit.getStaticAttributes().addAttributeListener(this);
@@ -191,12 +193,13 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
     return null;
   }
 
-  private Location findAnchorLocation() {
+  Location findAnchorLocation() {
     final var anchor = findAnchor();
     return (anchor == null) ? Location.create(100, 100, true) : anchor.getLocation();
   }
 
   void fireCircuitAppearanceChanged(int affected) {
+    renderCache.clear();
     final var event = new CircuitAppearanceEvent(circuit, affected);
     for (final var listener : listeners) {
       listener.circuitAppearanceChanged(event);
@@ -295,6 +298,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
   }
 
   public void paintSubcircuit(InstancePainter painter, Graphics g, Direction facing) {
+    if (renderCache.paint(painter, g, facing)) return;
     final var defaultFacing = getFacing();
     var rotate = 0.0D;
     if (facing != defaultFacing && g instanceof Graphics2D g2d) {
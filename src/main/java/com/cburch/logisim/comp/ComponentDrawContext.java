@@ -21,8 +21,25 @@ import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.GraphicsUtil;
 import java.awt.Color;
 import java.awt.Graphics;
+import java.util.List;
 
 public class ComponentDrawContext {
+  /**
+   * The part of the drawing of a component that is carried out, see {@link #setLayer}. The canvas
+   * keeps the components whose appearance does not depend on the circuit state in a retained image,
+   * so that only their pins, which show the values at the ports, are drawn again when the values
+   * change.
+   */
+  public enum Layer {
+    /** The complete component. */
+    ALL,
+    /**
+     * Everything but the pin markers. The locations of the markers are collected instead, see
+     * {@link #setLayer} and {@link #drawPinMarkers}.
+     */
+    STATIC
+  }
+
   private static final int PIN_OFFS = 2;
   private static final int PIN_RAD = 4;
 
@@ -36,6 +53,9 @@ public class ComponentDrawContext {
   private final boolean printView;
   private WireSet highlightedWires;
   private final InstancePainter instancePainter;
+  private Layer layer = Layer.ALL;
+  private List<Location> skippedPins = null;
+  private boolean stateAccessed = false;
 
   public ComponentDrawContext(
       java.awt.Component dest,
@@ -139,6 +159,10 @@ public class ComponentDrawContext {
 
 
   protected void drawPinMarker(int x, int y) {
+    drawPinMarker(g, x, y);
+  }
+
+  private void drawPinMarker(Graphics g, int x, int y) {
     String appearance = AppPreferences.PinAppearance.get();
     int radius = 4;
     int offset = 2;
@@ -162,11 +186,12 @@ public class ComponentDrawContext {
   public void drawPin(Component comp, int i) {
     final var e = comp.getEnd(i);
     final var pt = e.getLocation();
+    if (skipPin(pt)) return;
     final var curColor = g.getColor();
     g.setColor(getShowState()
-            ? getCircuitState().getValue(pt).getColor()
+            ? circuitState.getValue(pt).getColor()
             : new Color(AppPreferences.COMPONENT_COLOR.get()));
-    drawPinMarker(pt.getX(), pt.getY());
+    drawPinMarker(g, pt.getX(), pt.getY());
     g.setColor(curColor);
   }
 
@@ -177,12 +202,14 @@ public class ComponentDrawContext {
     final var pt = e.getLocation();
     int x = pt.getX();
     int y = pt.getY();
-    if (getShowState()) {
-      g.setColor(getCircuitState().getValue(pt).getColor());
-    } else {
-      g.setColor(Color.BLACK);
+    if (!skipPin(pt)) {
+      if (getShowState()) {
+        g.setColor(circuitState.getValue(pt).getColor());
+      } else {
+        g.setColor(Color.BLACK);
+      }
+      drawPinMarker(g, x, y);
     }
-    drawPinMarker(x, y);
     g.setColor(curColor);
     if (dir == Direction.EAST) {
       GraphicsUtil.drawText(g, label, x + 3, y, GraphicsUtil.H_LEFT, GraphicsUtil.V_CENTER);
@@ -199,12 +226,13 @@ public class ComponentDrawContext {
     final var curColor = g.getColor();
     for (final var e : comp.getEnds()) {
       final var pt = e.getLocation();
+      if (skipPin(pt)) continue;
       if (getShowState()) {
-        g.setColor(getCircuitState().getValue(pt).getColor());
+        g.setColor(circuitState.getValue(pt).getColor());
       } else {
         g.setColor(Color.BLACK);
       }
-      drawPinMarker(pt.getX(), pt.getY());
+      drawPinMarker(g, pt.getX(), pt.getY());
     }
     g.setColor(curColor);
   }
@@ -256,6 +284,7 @@ public class ComponentDrawContext {
   }
 
   public CircuitState getCircuitState() {
+    stateAccessed = true;
     return circuitState;
   }
 
@@ -279,6 +308,31 @@ public class ComponentDrawContext {
     return instancePainter;
   }
 
+  public Layer getLayer() {
+    return layer;
+  }
+
+  /* returns true if the marker of the pin is left out on this layer */
+  private boolean skipPin(Location pt) {
+    if (layer != Layer.STATIC) return false;
+    if (skippedPins != null) skippedPins.add(pt);
+    return true;
+  }
+
+  /** Draws the markers of the pins that were left out on the {@link Layer#STATIC} layer. */
+  public void drawPinMarkers(List<Location> pins) {
+    final var curColor = g.getColor();
+    for (final var pt : pins) {
+      if (getShowState()) {
+        g.setColor(circuitState.getValue(pt).getColor());
+      } else {
+        g.setColor(Color.BLACK);
+      }
+      drawPinMarker(g, pt.getX(), pt.getY());
+    }
+    g.setColor(curColor);
+  }
+
   public boolean getShowState() {
     return !printView && showState;
   }
@@ -287,10 +341,31 @@ public class ComponentDrawContext {
     return printView;
   }
 
+  /**
+   * Returns whether the circuit state was requested since the last call of {@link
+   * #clearStateAccessed}. The pin markers do not count, see {@link Layer#STATIC}.
+   */
+  public boolean isStateAccessed() {
+    return stateAccessed;
+  }
+
+  public void clearStateAccessed() {
+    stateAccessed = false;
+  }
+
   public void setGraphics(Graphics g) {
     this.g = g;
   }
 
+  /**
+   * Selects the part of the components that is drawn; for {@link Layer#STATIC} the locations of the
+   * pin markers that are left out are added to skippedPins, unless it is null.
+   */
+  public void setLayer(Layer value, List<Location> skippedPins) {
+    this.layer = value;
+    this.skippedPins = skippedPins;
+  }
+
   public void setHighlightedWires(WireSet value) {
     this.highlightedWires = value == null ? WireSet.EMPTY : value;
   }
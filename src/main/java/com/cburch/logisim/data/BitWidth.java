@@ -68,7 +68,6 @@ public class BitWidth implements Comparable<BitWidth> {
   }
 
   public static BitWidth create(int width) {
-    ensurePrefab();
     if (width < 0) {
       throw new IllegalArgumentException("width " + width + " must be positive");
     } else if (width >= prefab.length) {
@@ -77,15 +76,15 @@ public class BitWidth implements Comparable<BitWidth> {
     return prefab[width];
   }
 
-  private static void ensurePrefab() {
-    if (prefab == null) {
-      prefab = new BitWidth[MAXWIDTH + 1];
-      prefab[0] = UNKNOWN;
-      prefab[1] = ONE;
-      for (int i = 2; i < prefab.length; i++) {
-        prefab[i] = new BitWidth(i);
-      }
+  // built with the class, so that widths can be created from several threads
+  private static BitWidth[] createPrefab() {
+    final var ret = new BitWidth[MAXWIDTH + 1];
+    ret[0] = UNKNOWN;
+    ret[1] = ONE;
+    for (var i = 2; i < ret.length; i++) {
+      ret[i] = new BitWidth(i);
     }
+    return ret;
   }
 
   public static BitWidth parse(String str) {
@@ -103,7 +102,7 @@ public class BitWidth implements Comparable<BitWidth> {
   public static final int MAXWIDTH = Value.MAX_WIDTH;
   public static final int MINWIDTH = 1;
 
-  private static BitWidth[] prefab = null;
+  private static final BitWidth[] prefab = createPrefab();
 
   final int width;
 
@@ -0,0 +1,190 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.util.XmlUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+/**
+ * Journal of incremental autosaves. The autosave file itself is a full snapshot of the project;
+ * each later autosave appends a record to a journal file next to it instead of rewriting the
+ * snapshot. A record is a complete project document (libraries, options, toolbar, ...) in which
+ * every circuit that did not change since it was last written is replaced by a placeholder
+ * {@code <circuit name="..." journal="unchanged"/>}. Records are stored in the {@link
+ * BinaryProjectFormat}.
+ *
+ * <p>After {@link #MAX_RECORDS} records the journal is compacted, i.e. a new snapshot is written
+ * and the journal is removed. On recovery {@link #replay} folds the records into the snapshot.
+ */
+class AutosaveJournal {
+
+  static final String JOURNAL_SUFFIX = ".journal";
+  static final int MAX_RECORDS = 32;
+  private static final String PLACEHOLDER_ATTR = "journal";
+  private static final String PLACEHOLDER_VALUE = "unchanged";
+
+  private final File snapshot;
+  private final File journal;
+  /* the name under which the last version of each circuit is stored */
+  private Map<Circuit, String> journaledCircuits = new HashMap<>();
+  private int records = 0;
+
+  AutosaveJournal(File snapshot, Collection<Circuit> circuits) {
+    this.snapshot = snapshot;
+    this.journal = getJournalFile(snapshot);
+    for (final var circ : circuits) journaledCircuits.put(circ, circ.getName());
+  }
+
+  static File getJournalFile(File snapshot) {
+    return new File(snapshot.getParentFile(), snapshot.getName() + JOURNAL_SUFFIX);
+  }
+
+  static Element createPlaceholder(Document doc, Circuit circ) {
+    final var ret = doc.createElement("circuit");
+    ret.setAttribute("name", circ.getName());
+    ret.setAttribute(PLACEHOLDER_ATTR, PLACEHOLDER_VALUE);
+    return ret;
+  }
+
+  private static boolean isPlaceholder(Element elt) {
+    return PLACEHOLDER_VALUE.equals(elt.getAttribute(PLACEHOLDER_ATTR));
+  }
+
+  File getSnapshot() {
+    return snapshot;
+  }
+
+  boolean needsCompaction() {
+    return records >= MAX_RECORDS || !snapshot.exists();
+  }
+
+  /**
+   * Returns whether the circuit can be stored as a placeholder if it did not change, i.e. whether
+   * the previous record holds it under its current name.
+   */
+  boolean isJournaled(Circuit circ) {
+    return circ.getName().equals(journaledCircuits.get(circ));
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @param written the circuits contained in the record, with the name they are stored under
+   */
+  void append(Document record, Map<Circuit, String> written) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(record, bytes);
+    try (final var out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journal, true)))) {
+      out.writeInt(bytes.size());
+      bytes.writeTo(out);
+    }
+    records++;
+    journaledCircuits = written;
+  }
+
+  void delete() {
+    journal.delete();
+  }
+
+  static void delete(File snapshot) {
+    getJournalFile(snapshot).delete();
+  }
+
+  static boolean exists(File snapshot) {
+    return getJournalFile(snapshot).exists();
+  }
+
+  /**
+   * Reads the snapshot and applies the journal records on top of it.
+   *
+   * @return the project as it was at the last autosave
+   */
+  static Document replay(File snapshot) throws IOException, SAXException {
+    Document current;
+    try (final var in = new BufferedInputStream(new FileInputStream(snapshot))) {
+      if (BinaryProjectFormat.isBinary(in)) {
+        current = BinaryProjectFormat.read(in);
+      } else {
+        final var factory = XmlUtil.getHardenedBuilderFactory();
+        factory.setNamespaceAware(true);
+        current = factory.newDocumentBuilder().parse(in);
+      }
+    } catch (ParserConfigurationException e) {
+      throw new IOException(e);
+    }
+    final var circuits = new HashMap<String, Element>();
+    collectCircuits(current, circuits);
+
+    final var journal = getJournalFile(snapshot);
+    try (final var in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+      while (true) {
+        final int length;
+        try {
+          length = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        final var bytes = in.readNBytes(length);
+        // A record that was cut off by the crash is dropped, the previous state is kept
+        if (bytes.length != length) break;
+        final Document record;
+        try {
+          record = BinaryProjectFormat.read(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+          break;
+        }
+        final var root = record.getDocumentElement();
+        final var toResolve = new ArrayList<Element>();
+        for (final var circ : XmlIterator.forChildElements(root, "circuit")) {
+          if (isPlaceholder(circ)) {
+            toResolve.add(circ);
+          }
+        }
+        for (final var placeholder : toResolve) {
+          final var name = placeholder.getAttribute("name");
+          final var last = circuits.get(name);
+          if (last == null) throw new IOException("Autosave journal misses circuit " + name);
+          root.replaceChild(record.importNode(last, true), placeholder);
+        }
+        circuits.clear();
+        collectCircuits(record, circuits);
+        current = record;
+      }
+    }
+    return current;
+  }
+
+  private static void collectCircuits(Document doc, HashMap<String, Element> circuits) {
+    for (final var circ : XmlIterator.forChildElements(doc.getDocumentElement(), "circuit")) {
+      circuits.put(circ.getAttribute("name"), circ);
+    }
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import com.cburch.logisim.util.XmlUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Compact binary container for a project. It stores the same document tree as the XML file
+ * written by {@link XmlWriter}, so that both representations can be converted into each other
+ * without loss.
+ *
+ * <p>Layout: the magic number and a format version, a string table holding every element name,
+ * attribute name, attribute value and text exactly once, followed by a directory of deflated
+ * sections. Section 0 contains the project element; each {@code <circuit>} element is stored in
+ * a section of its own and is only referenced from section 0. The directory also names the circuit
+ * of each section. Reading a project still inflates every section.
+ */
+public final class BinaryProjectFormat {
+
+  private static final byte[] MAGIC = {'L', 'G', 'S', 'B'};
+  public static final int VERSION = 1;
+
+  private static final int NODE_ELEMENT = 1;
+  private static final int NODE_TEXT = 2;
+  private static final int NODE_CDATA = 3;
+  private static final int NODE_COMMENT = 4;
+  private static final int NODE_SECTION = 5;
+
+  private BinaryProjectFormat() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /**
+   * Checks whether the given stream starts with a binary project. The stream must support {@link
+   * InputStream#mark(int)}; its position is left unchanged.
+   */
+  public static boolean isBinary(InputStream in) throws IOException {
+    if (!in.markSupported()) return false;
+    in.mark(MAGIC.length);
+    try {
+      final var header = in.readNBytes(MAGIC.length);
+      return Arrays.equals(header, MAGIC);
+    } finally {
+      in.reset();
+    }
+  }
+
+  public static Document read(InputStream in) throws IOException {
+    return Container.read(in).toDocument();
+  }
+
+  public static void write(Document doc, OutputStream out) throws IOException {
+    final var strings = new LinkedHashMap<String, Integer>();
+    final var sections = new ArrayList<byte[]>();
+    final var circuitNames = new ArrayList<Integer>();
+    sections.add(null);
+    final var root = encodeSection(doc.getDocumentElement(), strings, sections, circuitNames);
+    sections.set(0, root);
+
+    final var data = new DataOutputStream(out);
+    data.write(MAGIC);
+    data.writeShort(VERSION);
+    writeVarInt(data, strings.size());
+    for (final var str : strings.keySet()) {
+      final var bytes = str.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(data, bytes.length);
+      data.write(bytes);
+    }
+    writeVarInt(data, sections.size());
+    for (var i = 0; i < sections.size(); i++) {
+      // the directory names the circuit of each section, section 0 is the project itself
+      writeVarInt(data, i == 0 ? 0 : circuitNames.get(i - 1) + 1);
+      final var compressed = deflate(sections.get(i));
+      writeVarInt(data, sections.get(i).length);
+      writeVarInt(data, compressed.length);
+      data.write(compressed);
+    }
+    data.flush();
+  }
+
+  /** The decoded header of a binary project, its sections are inflated when decoded. */
+  public static final class Container {
+    private final String[] strings;
+    private final byte[][] sections;
+    private final int[] sectionSizes;
+
+    private Container(String[] strings, byte[][] sections, int[] sectionSizes) {
+      this.strings = strings;
+      this.sections = sections;
+      this.sectionSizes = sectionSizes;
+    }
+
+    public static Container read(InputStream in) throws IOException {
+      final var data = new DataInputStream(in);
+      final var magic = data.readNBytes(MAGIC.length);
+      if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a binary Logisim project");
+      final var version = data.readUnsignedShort();
+      if (version > VERSION) {
+        throw new IOException("Unsupported binary project version " + version);
+      }
+      final var strings = new String[readVarInt(data)];
+      for (var i = 0; i < strings.length; i++) {
+        strings[i] = new String(readBytes(data, readVarInt(data)), StandardCharsets.UTF_8);
+      }
+      final var count = readVarInt(data);
+      final var sizes = new int[count];
+      final var sections = new byte[count][];
+      for (var i = 0; i < count; i++) {
+        readVarInt(data); // the name of the circuit in the section
+        sizes[i] = readVarInt(data);
+        sections[i] = readBytes(data, readVarInt(data));
+      }
+      return new Container(strings, sections, sizes);
+    }
+
+    /** Decodes the complete project, the result is identical to the XML document. */
+    public Document toDocument() throws IOException {
+      final Document doc;
+      try {
+        doc = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().newDocument();
+      } catch (ParserConfigurationException e) {
+        throw new IOException(e);
+      }
+      doc.appendChild(decodeSection(doc, 0, true));
+      return doc;
+    }
+
+    private Node decodeSection(Document doc, int section, boolean resolve) throws IOException {
+      final var inflater = new Inflater();
+      final var bytes = new byte[sectionSizes[section]];
+      try {
+        inflater.setInput(sections[section]);
+        var done = 0;
+        while (done < bytes.length && !inflater.finished()) {
+          final var count = inflater.inflate(bytes, done, bytes.length - done);
+          if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            throw new EOFException("Truncated section " + section);
+          }
+          done += count;
+        }
+      } catch (DataFormatException e) {
+        throw new IOException(e);
+      } finally {
+        inflater.end();
+      }
+      final var data = new DataInputStream(new ByteArrayInputStream(bytes));
+      return decodeNode(doc, data, resolve);
+    }
+
+    private Node decodeNode(Document doc, DataInputStream data, boolean resolve)
+        throws IOException {
+      final var type = data.readUnsignedByte();
+      switch (type) {
+        case NODE_ELEMENT -> {
+          final var elt = doc.createElement(string(data));
+          final var attrs = readVarInt(data);
+          for (var i = 0; i < attrs; i++) {
+            elt.setAttribute(string(data), string(data));
+          }
+          final var children = readVarInt(data);
+          for (var i = 0; i < children; i++) {
+            final var child = decodeNode(doc, data, resolve);
+            if (child != null) elt.appendChild(child);
+          }
+          return elt;
+        }
+        case NODE_TEXT -> {
+          return doc.createTextNode(string(data));
+        }
+        case NODE_CDATA -> {
+          return doc.createCDATASection(string(data));
+        }
+        case NODE_COMMENT -> {
+          return doc.createComment(string(data));
+        }
+        case NODE_SECTION -> {
+          final var section = readVarInt(data);
+          if (section <= 0 || section >= sections.length) {
+            throw new IOException("Invalid section reference " + section);
+          }
+          return resolve ? decodeSection(doc, section, false) : null;
+        }
+        default -> throw new IOException("Invalid node type " + type);
+      }
+    }
+
+    private String string(DataInputStream data) throws IOException {
+      final var index = readVarInt(data);
+      if (index >= strings.length) throw new IOException("Invalid string index " + index);
+      return strings[index];
+    }
+  }
+
+  private static byte[] encodeSection(
+      Element elt,
+      Map<String, Integer> strings,
+      List<byte[]> sections,
+      List<Integer> circuitNames)
+      throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    final var data = new DataOutputStream(bytes);
+    encodeNode(elt, data, strings, sections, circuitNames, sections.size() == 1);
+    data.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void encodeNode(
+      Node node,
+      DataOutputStream data,
+      Map<String, Integer> strings,
+      List<byte[]> sections,
+      List<Integer> circuitNames,
+      boolean isProject)
+      throws IOException {
+    switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE -> {
+        final var elt = (Element) node;
+        data.writeByte(NODE_ELEMENT);
+        writeString(data, strings, elt.getTagName());
+        final var attrs = elt.getAttributes();
+        writeVarInt(data, attrs.getLength());
+        for (var i = 0; i < attrs.getLength(); i++) {
+          final var attr = attrs.item(i);
+          writeString(data, strings, attr.getNodeName());
+          writeString(data, strings, attr.getNodeValue());
+        }
+        final var children = new ArrayList<Node>();
+        for (var child = elt.getFirstChild(); child != null; child = child.getNextSibling()) {
+          if (isSupported(child)) children.add(child);
+        }
+        writeVarInt(data, children.size());
+        for (final var child : children) {
+          if (isProject && child instanceof Element sub && "circuit".equals(sub.getTagName())) {
+            final var index = sections.size();
+            sections.add(null);
+            circuitNames.add(stringIndex(strings, sub.getAttribute("name")));
+            sections.set(index, encodeSection(sub, strings, sections, circuitNames));
+            data.writeByte(NODE_SECTION);
+            writeVarInt(data, index);
+          } else {
+            encodeNode(child, data, strings, sections, circuitNames, false);
+          }
+        }
+      }
+      case Node.TEXT_NODE -> {
+        data.writeByte(NODE_TEXT);
+        writeString(data, strings, node.getNodeValue());
+      }
+      case Node.CDATA_SECTION_NODE -> {
+        data.writeByte(NODE_CDATA);
+        writeString(data, strings, node.getNodeValue());
+      }
+      case Node.COMMENT_NODE -> {
+        data.writeByte(NODE_COMMENT);
+        writeString(data, strings, node.getNodeValue());
+      }
+      default -> throw new IOException("Unsupported node type " + node.getNodeType());
+    }
+  }
+
+  private static boolean isSupported(Node node) {
+    return switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE, Node.TEXT_NODE, Node.CDATA_SECTION_NODE, Node.COMMENT_NODE -> true;
+      default -> false;
+    };
+  }
+
+  private static int stringIndex(Map<String, Integer> strings, String value) {
+    return strings.computeIfAbsent(value, k -> strings.size());
+  }
+
+  private static void writeString(DataOutputStream data, Map<String, Integer> strings, String value)
+      throws IOException {
+    writeVarInt(data, stringIndex(strings, value));
+  }
+
+  private static byte[] deflate(byte[] data) {
+    final var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    final var out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+    final var buffer = new byte[8192];
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+    } finally {
+      deflater.end();
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] readBytes(DataInputStream data, int length) throws IOException {
+    final var bytes = data.readNBytes(length);
+    if (bytes.length != length) throw new EOFException();
+    return bytes;
+  }
+
+  static void writeVarInt(DataOutputStream data, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      data.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data.writeByte(value);
+  }
+
+  static int readVarInt(DataInputStream data) throws IOException {
+    var value = 0;
+    for (var shift = 0; shift < 32; shift += 7) {
+      final var b = data.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+}
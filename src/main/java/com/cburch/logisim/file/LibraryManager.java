@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.regex.Pattern;
@@ -30,8 +32,19 @@ public final class LibraryManager {
   public static final LibraryManager instance = new LibraryManager();
 
   public static final char DESC_SEP = '#';
+  /** Number of recently used libraries that are kept in memory after no project uses them. */
+  private static final int MAX_CACHED_LIBRARIES = 64;
   private final HashMap<LibraryDescriptor, WeakReference<LoadedLibrary>> fileMap;
   private final WeakHashMap<LoadedLibrary, LibraryDescriptor> invMap;
+  private final HashMap<LibraryDescriptor, FileStamp> stamps;
+  private final LinkedHashMap<LibraryDescriptor, LoadedLibrary> recentlyUsed;
+
+  /** Identifies the version of a library file that was loaded. */
+  private record FileStamp(long lastModified, long length) {
+    static FileStamp of(File file) {
+      return new FileStamp(file.lastModified(), file.length());
+    }
+  }
 
   private static class JarDescriptor implements LibraryDescriptor {
     private final File file;
@@ -47,6 +60,11 @@ public final class LibraryManager {
       return file.equals(query);
     }
 
+    @Override
+    public File getFile() {
+      return file;
+    }
+
     @Override
     public boolean equals(Object other) {
       return (other instanceof JarDescriptor o)
@@ -73,6 +91,8 @@ public final class LibraryManager {
   private interface LibraryDescriptor {
     boolean concernsFile(File query);
 
+    File getFile();
+
     void setBase(Loader loader, LoadedLibrary lib) throws LoadFailedException;
 
     String toDescriptor(Loader loader);
@@ -90,6 +110,11 @@ public final class LibraryManager {
       return file.equals(query);
     }
 
+    @Override
+    public File getFile() {
+      return file;
+    }
+
     @Override
     public boolean equals(Object other) {
       return (other instanceof LogisimProjectDescriptor o)
@@ -116,6 +141,14 @@ public final class LibraryManager {
   private LibraryManager() {
     fileMap = new HashMap<>();
     invMap = new WeakHashMap<>();
+    stamps = new HashMap<>();
+    recentlyUsed =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<LibraryDescriptor, LoadedLibrary> eldest) {
+            return size() > MAX_CACHED_LIBRARIES;
+          }
+        };
     ProjectsDirty.initialize();
   }
 
@@ -151,21 +184,43 @@ public final class LibraryManager {
 
 
   public void fileSaved(Loader loader, File dest, File oldFile, LogisimFile file) {
-    final var old = findKnown(oldFile);
+    final var old = oldFile == null ? null : findLoaded(new LogisimProjectDescriptor(oldFile));
     if (old != null) {
       old.setDirty(false);
     }
 
-    final var lib = findKnown(dest);
+    final var desc = new LogisimProjectDescriptor(dest);
+    final var lib = findLoaded(desc);
     if (lib != null) {
       final var clone = file.cloneLogisimFile(loader);
       clone.setName(file.getName());
       clone.setDirty(false);
       lib.setBase(clone);
+      stamps.put(desc, FileStamp.of(dest));
+    }
+  }
+
+  /**
+   * Returns the library that was loaded before for the given descriptor. Libraries stay known as
+   * long as a project uses them, and the most recently used ones are kept even after that, such
+   * that reopening a project does not parse its libraries again. A library whose file was modified
+   * since it was loaded is forgotten.
+   */
+  private LoadedLibrary findKnown(LibraryDescriptor key) {
+    final var retLib = findLoaded(key);
+    if (retLib == null) return null;
+    final var stamp = stamps.get(key);
+    if (stamp != null && !stamp.equals(FileStamp.of(key.getFile()))) {
+      fileMap.remove(key);
+      stamps.remove(key);
+      recentlyUsed.remove(key);
+      return null;
     }
+    recentlyUsed.put(key, retLib);
+    return retLib;
   }
 
-  private LoadedLibrary findKnown(Object key) {
+  private LoadedLibrary findLoaded(LibraryDescriptor key) {
     final var retLibRef = fileMap.get(key);
     if (retLibRef == null) {
       return null;
@@ -173,6 +228,7 @@ public final class LibraryManager {
       final var retLib = retLibRef.get();
       if (retLib == null) {
         fileMap.remove(key);
+        stamps.remove(key);
         return null;
       } else {
         return retLib;
@@ -180,6 +236,13 @@ public final class LibraryManager {
     }
   }
 
+  private void addKnown(LibraryDescriptor desc, FileStamp stamp, LoadedLibrary lib) {
+    fileMap.put(desc, new WeakReference<>(lib));
+    invMap.put(lib, desc);
+    stamps.put(desc, stamp);
+    recentlyUsed.put(desc, lib);
+  }
+
   public Library findReference(LogisimFile file, File query) {
     for (final var lib : file.getLibraries()) {
       final var desc = invMap.get(lib);
@@ -225,6 +288,7 @@ public final class LibraryManager {
     var ret = findKnown(jarDescriptor);
     if (ret != null) return ret;
 
+    final var stamp = FileStamp.of(toRead);
     try {
       ret = new LoadedLibrary(loader.loadJarFile(toRead, className));
     } catch (LoadFailedException e) {
@@ -232,8 +296,7 @@ public final class LibraryManager {
       return null;
     }
 
-    fileMap.put(jarDescriptor, new WeakReference<>(ret));
-    invMap.put(ret, jarDescriptor);
+    addKnown(jarDescriptor, stamp, ret);
     return ret;
   }
 
@@ -314,9 +377,11 @@ public final class LibraryManager {
   }
 
   public LoadedLibrary loadLogisimLibrary(Loader loader, File toRead) {
-    var ret = findKnown(toRead);
+    final var desc = new LogisimProjectDescriptor(toRead);
+    var ret = findKnown(desc);
     if (ret != null) return ret;
 
+    final var stamp = FileStamp.of(toRead);
     try {
       ret = new LoadedLibrary(loader.loadLogisimFile(toRead));
     } catch (LoadFailedException e) {
@@ -324,9 +389,7 @@ public final class LibraryManager {
       return null;
     }
 
-    final var desc = new LogisimProjectDescriptor(toRead);
-    fileMap.put(desc, new WeakReference<>(ret));
-    invMap.put(ret, desc);
+    addKnown(desc, stamp, ret);
     return ret;
   }
 
@@ -336,7 +399,9 @@ public final class LibraryManager {
       loader.showError(S.get("unknownLibraryFileError", lib.getDisplayName()));
     } else {
       try {
+        final var stamp = FileStamp.of(descriptor.getFile());
         descriptor.setBase(loader, lib);
+        stamps.put(descriptor, stamp);
       } catch (LoadFailedException e) {
         loader.showError(e.getMessage());
       }
@@ -344,7 +409,8 @@ public final class LibraryManager {
   }
 
   void setDirty(File file, boolean dirty) {
-    final var lib = findKnown(file);
+    if (file == null) return;
+    final var lib = findLoaded(new LogisimProjectDescriptor(file));
     if (lib != null) {
       lib.setDirty(dirty);
     }
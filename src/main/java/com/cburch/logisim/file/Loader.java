@@ -11,6 +11,7 @@ package com.cburch.logisim.file;
 
 import static com.cburch.logisim.file.Strings.S;
 
+import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.std.Builtin;
 import com.cburch.logisim.tools.Library;
@@ -36,6 +37,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.filechooser.FileFilter;
+import javax.xml.parsers.ParserConfigurationException;
 
 public class Loader implements LibraryLoader {
   private static class JarFileFilter extends FileFilter {
@@ -77,7 +79,7 @@ public class Loader implements LibraryLoader {
   private static class LogisimFileFilter extends FileFilter {
     @Override
     public boolean accept(File f) {
-      return f.isDirectory() || f.getName().endsWith(LOGISIM_EXTENSION);
+      return f.isDirectory() || f.getName().endsWith(LOGISIM_EXTENSION) || isBinaryProjectFile(f);
     }
 
     @Override
@@ -111,6 +113,7 @@ public class Loader implements LibraryLoader {
   }
 
   public static final String LOGISIM_EXTENSION = ".circ";
+  public static final String LOGISIM_BINARY_EXTENSION = ".circb";
   public static final String LOGISIM_LIBRARY_DIR = "library";
   public static final String LOGISIM_CIRCUIT_DIR = "circuit";
   public static final String LOGISIM_UNNAMED_AUTOSAVE_PREFIX = ".logisim-unnamed-autosave_";
@@ -127,6 +130,7 @@ public class Loader implements LibraryLoader {
   // to be cleared with each new file
   private File mainFile = null;
   private File autosaveFile = null;
+  private AutosaveJournal autosaveJournal = null;
   private final Stack<File> filesOpening = new Stack<>();
   private Map<File, File> substitutions = new HashMap<>();
 
@@ -137,10 +141,7 @@ public class Loader implements LibraryLoader {
 
   private static File determineBackupName(File base) {
     final var dir = base.getParentFile();
-    var name = base.getName();
-    if (name.endsWith(LOGISIM_EXTENSION)) {
-      name = name.substring(0, name.length() - LOGISIM_EXTENSION.length());
-    }
+    final var name = stripExtension(base.getName());
     for (var i = 1; i <= 20; i++) {
       final var ext = i == 1 ? ".bak" : (".bak" + i);
       final var candidate = new File(dir, name + ext);
@@ -159,12 +160,27 @@ public class Loader implements LibraryLoader {
       if (!candidate.exists()) return candidate;
       return null;
     }
-    if (!base.getName().endsWith(LOGISIM_EXTENSION)) return null;
+    if (!base.getName().endsWith(LOGISIM_EXTENSION) && !isBinaryProjectFile(base)) return null;
     final var dir = base.getParentFile();
     final var name = "." + base.getName() + ".autosave";
     return new File(dir, name);
   }
 
+  /**
+   * Returns whether the project is to be stored in the compact binary format rather than as XML;
+   * this is decided by the extension of the file. Reading detects the format from the content.
+   */
+  public static boolean isBinaryProjectFile(File file) {
+    return file.getName().endsWith(LOGISIM_BINARY_EXTENSION);
+  }
+
+  private static String stripExtension(String name) {
+    for (final var ext : new String[] {LOGISIM_EXTENSION, LOGISIM_BINARY_EXTENSION}) {
+      if (name.endsWith(ext)) return name.substring(0, name.length() - ext.length());
+    }
+    return name;
+  }
+
   static Optional<File> findAutosaveFile(File base) {
     final var as = determineAutosaveName(base);
     if (as == null || !as.exists()) return Optional.empty();
@@ -459,6 +475,10 @@ public class Loader implements LibraryLoader {
    * Method to perform autosaves. Essentially does the same as save()
    * but without any failsafes, if saving fails it simply fails.
    *
+   * <p>The first autosave writes a full snapshot of the project, later ones only append the
+   * circuits that changed to the {@link AutosaveJournal}, until the journal is compacted into a
+   * new snapshot.
+   *
    * @param file The file that should be autosaved
    *
    * @return True if writing was successful, else false;
@@ -469,6 +489,30 @@ public class Loader implements LibraryLoader {
     if (autosaveFile == null) {
       return false;
     }
+    final var changed = file.takeAutosaveChangedCircuits();
+    final var journal = autosaveJournal;
+    if (journal != null && journal.getSnapshot().equals(autosaveFile) && !journal.needsCompaction()) {
+      final var written = new HashMap<Circuit, String>();
+      try {
+        final var record =
+            XmlWriter.toJournalRecord(
+                file,
+                this,
+                autosaveFile,
+                circ -> {
+                  written.put(circ, circ.getName());
+                  return changed.contains(circ) || !journal.isJournaled(circ);
+                });
+        journal.append(record, written);
+        return true;
+      } catch (ParserConfigurationException | IOException e) {
+        // fall back to a full snapshot
+      }
+    }
+    // the old journal must never be replayed on top of the new snapshot
+    autosaveJournal = null;
+    AutosaveJournal.delete(autosaveFile);
+    final var circuits = file.getCircuits();
     FileOutputStream fwrite = null;
     try {
       fwrite = new FileOutputStream(autosaveFile);
@@ -477,8 +521,10 @@ public class Loader implements LibraryLoader {
     } catch (IOException e) {
       return false;
     }
+    autosaveJournal = new AutosaveJournal(autosaveFile, circuits);
     if (oldAutosave != null && !oldAutosave.equals(autosaveFile)) {
       oldAutosave.delete();
+      AutosaveJournal.delete(oldAutosave);
     }
     return true;
   }
@@ -490,7 +536,13 @@ public class Loader implements LibraryLoader {
    *     false if the file is null or deletion failed
    */
   public boolean deleteAutosave() {
-    return autosaveFile != null ? autosaveFile.delete() : false;
+    if (autosaveJournal != null) {
+      autosaveJournal.delete();
+      autosaveJournal = null;
+    }
+    if (autosaveFile == null) return false;
+    AutosaveJournal.delete(autosaveFile);
+    return autosaveFile.delete();
   }
 
   private void setMainFile(File value) {
@@ -567,11 +619,7 @@ public class Loader implements LibraryLoader {
   }
 
   private String toProjectName(File file) {
-    final var ret = file.getName();
-
-    return (ret.endsWith(LOGISIM_EXTENSION))
-        ? ret.substring(0, ret.length() - LOGISIM_EXTENSION.length())
-        : ret;
+    return stripExtension(file.getName());
   }
 
   public String vhdlImportChooser(Component window) {
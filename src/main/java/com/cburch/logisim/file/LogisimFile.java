@@ -16,7 +16,11 @@ import com.cburch.logisim.circuit.CircuitAttributes;
 import com.cburch.logisim.circuit.CircuitEvent;
 import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.circuit.appear.CircuitAppearanceEvent;
+import com.cburch.logisim.circuit.appear.CircuitAppearanceListener;
 import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.data.AttributeEvent;
+import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
@@ -43,6 +47,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import javax.swing.JOptionPane;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
@@ -114,6 +119,30 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
     }
   }
 
+  private class AutosaveTracker
+      implements CircuitListener, CircuitAppearanceListener, AttributeListener {
+    private final Circuit circuit;
+
+    AutosaveTracker(Circuit circuit) {
+      this.circuit = circuit;
+    }
+
+    @Override
+    public void circuitChanged(CircuitEvent event) {
+      if (event.getAction() != CircuitEvent.ACTION_DISPLAY_CHANGE) markAutosaveChanged(circuit);
+    }
+
+    @Override
+    public void circuitAppearanceChanged(CircuitAppearanceEvent event) {
+      markAutosaveChanged(circuit);
+    }
+
+    @Override
+    public void attributeValueChanged(AttributeEvent e) {
+      markAutosaveChanged(circuit);
+    }
+  }
+
   private final EventSourceWeakSupport<LibraryListener> listeners = new EventSourceWeakSupport<>();
   private final LinkedList<String> messages = new LinkedList<>();
   private final Options options = new Options();
@@ -126,6 +155,10 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
   private boolean isAutosaveDirty = false;
   private AutosaveThread autosaveThread = null;
   private boolean autosaveLoaded = false;
+  // circuits modified since the last autosave, guarded by itself
+  private final HashSet<Circuit> autosaveChangedCircuits = new HashSet<>();
+  // circuit and appearance listeners are weak, the trackers are kept alive here
+  private final List<AutosaveTracker> autosaveTrackers = new ArrayList<>();
 
   LogisimFile(Loader loader) {
     this.loader = loader;
@@ -193,6 +226,7 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
   public static LogisimFile createNew(Loader loader, Project proj) {
     final var ret = new LogisimFile(loader);
     ret.main = new Circuit("main", ret, proj);
+    ret.trackAutosaveChanges(ret.main);
     // The name will be changed in LogisimPreferences
     ret.tools.add(new AddTool(ret.main.getSubcircuitFactory()));
     return ret;
@@ -232,12 +266,26 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
         autosaveLoading = true; // Also set this to true to remember an autosave was loaded
       } else if (res == 1) {
         autosave.get().delete();
+        AutosaveJournal.delete(autosave.get());
       }
     }
 
     LogisimFile result = null;
-    FileInputStream inputStream = new FileInputStream(loadFile);
     Throwable firstExcept = null;
+    if (autosaveLoading && AutosaveJournal.exists(loadFile)) {
+      // The autosave is a snapshot followed by a journal of incremental autosaves
+      try {
+        final var xmlReader = new XmlReader(loader, file);
+        result = xmlReader.readLibrary(AutosaveJournal.replay(loadFile), null);
+        result.loader = loader;
+        result.autosaveLoaded = true;
+        return result;
+      } catch (SAXException e) {
+        loader.showError(S.get("xmlFormatError", e.toString()));
+        return null;
+      }
+    }
+    FileInputStream inputStream = new FileInputStream(loadFile);
     try {
       result = loadSub(inputStream, loader, file);
     } catch (Throwable t) {
@@ -310,6 +358,7 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
 
   public void addCircuit(Circuit circuit, int index) {
     circuit.addCircuitListener(this);
+    trackAutosaveChanges(circuit);
     final var tool = new AddTool(circuit.getSubcircuitFactory());
     tools.add(index, tool);
     if (tools.size() == 1) setMainCircuit(circuit);
@@ -658,6 +707,32 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
     }
   }
 
+  private void trackAutosaveChanges(Circuit circuit) {
+    final var tracker = new AutosaveTracker(circuit);
+    autosaveTrackers.add(tracker);
+    circuit.addCircuitListener(tracker);
+    circuit.getAppearance().addCircuitAppearanceListener(tracker);
+    circuit.getStaticAttributes().addAttributeListener(tracker);
+  }
+
+  private void markAutosaveChanged(Circuit circuit) {
+    synchronized (autosaveChangedCircuits) {
+      autosaveChangedCircuits.add(circuit);
+    }
+  }
+
+  /**
+   * Returns the circuits that were modified since the last call, these must be written in full by
+   * the next incremental autosave.
+   */
+  Set<Circuit> takeAutosaveChangedCircuits() {
+    synchronized (autosaveChangedCircuits) {
+      final var ret = new HashSet<>(autosaveChangedCircuits);
+      autosaveChangedCircuits.clear();
+      return ret;
+    }
+  }
+
   public void setMainCircuit(Circuit circuit) {
     if (circuit == null) return;
     this.main = circuit;
@@ -687,7 +762,7 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
       loader.showError("internal error configuring transformer");
     } catch (ParserConfigurationException e) {
       loader.showError("internal error configuring parser");
-    } catch (TransformerException e) {
+    } catch (TransformerException | IOException e) {
       final var msg = e.getMessage();
       var err = S.get("xmlConversionError");
       if (msg == null) err += ": " + msg;
@@ -12,6 +12,8 @@ package com.cburch.logisim.file;
 import static com.cburch.logisim.file.Strings.S;
 
 import com.cburch.logisim.data.Attribute;
+import com.cburch.logisim.data.AttributeEvent;
+import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.data.AttributeOption;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.AttributeSets;
@@ -43,11 +45,22 @@ public class Options {
   private final AttributeSet attrs;
   private final MouseMappings mmappings;
   private final ToolbarData toolbar;
+  // read by every gate evaluation, so it is kept apart from the attribute set
+  private volatile boolean gateUndefinedError;
 
   public Options() {
     attrs = AttributeSets.fixedSet(ATTRIBUTES, DEFAULTS);
     mmappings = new MouseMappings();
     toolbar = new ToolbarData();
+    attrs.addAttributeListener(
+        new AttributeListener() {
+          @Override
+          public void attributeValueChanged(AttributeEvent e) {
+            if (e.getAttribute() == ATTR_GATE_UNDEFINED) {
+              gateUndefinedError = e.getValue() == GATE_UNDEFINED_ERROR;
+            }
+          }
+        });
   }
 
   public void copyFrom(Options other, LogisimFile dest) {
@@ -67,4 +80,9 @@ public class Options {
   public ToolbarData getToolbarData() {
     return toolbar;
   }
+
+  /** Returns whether gates with an unconnected input output an error. */
+  public boolean isGateUndefinedError() {
+    return gateUndefinedError;
+  }
 }
@@ -19,14 +19,20 @@ import com.cburch.logisim.circuit.CircuitTransaction;
 import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.circuit.appear.AppearanceSvgReader;
 import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
+import com.cburch.logisim.std.arith.ArithmeticLibrary;
 import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.gates.GatesLibrary;
 import com.cburch.logisim.std.memory.Mem;
 import com.cburch.logisim.std.memory.Ram;
 import com.cburch.logisim.std.memory.RamAttributes;
+import com.cburch.logisim.std.plexers.PlexersLibrary;
+import com.cburch.logisim.std.wiring.WiringLibrary;
 import com.cburch.logisim.tools.AddTool;
+import com.cburch.logisim.tools.Library;
 import com.cburch.logisim.util.CollectionUtil;
 import com.cburch.logisim.util.StringUtil;
 import java.util.ArrayList;
@@ -34,6 +40,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import org.w3c.dom.Element;
 
 public class XmlCircuitReader extends CircuitTransaction {
@@ -66,8 +73,17 @@ public class XmlCircuitReader extends CircuitTransaction {
   static Component getComponent(
       Element elt, XmlReader.ReadContext reader, boolean isHolyCross, boolean isEvolution)
       throws XmlReaderException {
+    return getComponent(elt, getFactory(elt, reader), reader, isHolyCross, isEvolution);
+  }
 
-    // Determine the factory that creates this element
+  /**
+   * @param elt XML element to parse
+   * @param reader XML file reader
+   * @return the factory that creates the component described by the element
+   * @throws XmlReaderException
+   */
+  static ComponentFactory getFactory(Element elt, XmlReader.ReadContext reader)
+      throws XmlReaderException {
     final var name = elt.getAttribute("name");
     if (StringUtil.isNullOrEmpty(name)) {
       throw new XmlReaderException(S.get("compNameMissingError"));
@@ -88,10 +104,36 @@ public class XmlCircuitReader extends CircuitTransaction {
               : S.get("compAbsentError", name, libName);
       throw new XmlReaderException(msg);
     }
-    final var source = ((AddTool) tool).getFactory();
+    return ((AddTool) tool).getFactory();
+  }
 
+  private static Component getComponent(
+      Element elt,
+      ComponentFactory source,
+      XmlReader.ReadContext reader,
+      boolean isHolyCross,
+      boolean isEvolution)
+      throws XmlReaderException {
+    final var messages = new ArrayList<String>();
+    final var attrsDefined = reader.readAttributes(elt, messages);
+    return getComponent(
+        elt.getAttribute("loc"), attrsDefined, messages, source, reader, isHolyCross, isEvolution);
+  }
+
+  /**
+   * Builds a component from the location and the attribute values read from its element. The
+   * document is not accessed, so this may run concurrently for different components.
+   */
+  private static Component getComponent(
+      String locStr,
+      Map<String, String> attrsDefined,
+      List<String> messages,
+      ComponentFactory source,
+      XmlReader.ReadContext reader,
+      boolean isHolyCross,
+      boolean isEvolution)
+      throws XmlReaderException {
     // Determine attributes
-    final var locStr = elt.getAttribute("loc");
     final var attrs = source.createAttributeSet();
     var defaults = source;
     if (isHolyCross && source instanceof Ram) {
@@ -100,7 +142,7 @@ public class XmlCircuitReader extends CircuitTransaction {
       ramAttrs.updateAttributes();
       defaults = null;
     }
-    reader.initAttributeSet(elt, attrs, defaults, isHolyCross, isEvolution);
+    reader.initAttributeSet(attrsDefined, messages, attrs, defaults, isHolyCross, isEvolution);
 
     // Create component if location known
     if (StringUtil.isNullOrEmpty(locStr)) {
@@ -113,7 +155,85 @@ public class XmlCircuitReader extends CircuitTransaction {
     }
   }
 
-  void addWire(Circuit dest, CircuitMutator mutator, Element elt) throws XmlReaderException {
+  /**
+   * Builds the components of all circuits before their contents are committed. The document is
+   * only read on the calling thread: the factories are resolved there (tools load their factories
+   * lazily) and the location and attribute values of each element are copied into plain maps.
+   * The components are then created concurrently from these copies, which is only done for the
+   * libraries of {@link #isConcurrent}: their attributes are parsed from the value alone and their
+   * factories keep no state. Everything else, for instance memories whose contents may be read
+   * from a file, subcircuits and VHDL entities that register with what they instantiate, and
+   * components of JAR libraries, is left to {@link #buildCircuit}, which runs on the loading
+   * thread. Elements with any problem are skipped here; {@link #buildCircuit} retries them and
+   * reports the error.
+   */
+  static void loadKnownComponents(
+      XmlReader.ReadContext reader,
+      List<XmlReader.CircuitData> circuitsData,
+      boolean isHolyCross,
+      boolean isEvolution) {
+    final var owners = new ArrayList<XmlReader.CircuitData>();
+    final var elements = new ArrayList<Element>();
+    final var factories = new ArrayList<ComponentFactory>();
+    final var locations = new ArrayList<String>();
+    final var attributes = new ArrayList<Map<String, String>>();
+    for (final var circData : circuitsData) {
+      circData.knownComponents = new HashMap<>();
+      for (final var sub : XmlIterator.forChildElements(circData.circuitElement, "comp")) {
+        try {
+          if (!isConcurrent(reader.findLibrary(sub.getAttribute("lib")))) continue;
+          final var factory = getFactory(sub, reader);
+          if (factory == null) continue;
+          final var messages = new ArrayList<String>();
+          final var attrsDefined = reader.readAttributes(sub, messages);
+          if (!messages.isEmpty()) continue;
+          owners.add(circData);
+          elements.add(sub);
+          factories.add(factory);
+          locations.add(sub.getAttribute("loc"));
+          attributes.add(attrsDefined);
+        } catch (XmlReaderException ignored) {
+          // reported by buildCircuit
+        }
+      }
+    }
+
+    final var components = new Component[elements.size()];
+    IntStream.range(0, components.length)
+        .parallel()
+        .forEach(
+            i -> {
+              try {
+                components[i] =
+                    getComponent(
+                        locations.get(i),
+                        attributes.get(i),
+                        new ArrayList<>(),
+                        factories.get(i),
+                        reader,
+                        isHolyCross,
+                        isEvolution);
+              } catch (XmlReaderException ignored) {
+                // reported by buildCircuit
+              }
+            });
+
+    // commit in document order so that the result does not depend on the scheduling
+    for (var i = 0; i < components.length; i++) {
+      if (components[i] != null) owners.get(i).knownComponents.put(elements.get(i), components[i]);
+    }
+  }
+
+  /* whether the components of the library can be created concurrently, see loadKnownComponents */
+  private static boolean isConcurrent(Library lib) {
+    return lib instanceof GatesLibrary
+        || lib instanceof WiringLibrary
+        || lib instanceof PlexersLibrary
+        || lib instanceof ArithmeticLibrary;
+  }
+
+  /* returns the wire of the element, or null for a wire of zero length */
+  Wire createWire(Element elt) throws XmlReaderException {
     Location pt0;
     try {
       final var str = elt.getAttribute("from");
@@ -136,10 +256,8 @@ public class XmlCircuitReader extends CircuitTransaction {
       throw new XmlReaderException(S.get("wireEndInvalidError"));
     }
 
-    if (!pt0.equals(pt1)) {
-      // Avoid zero length wires
-      mutator.add(dest, Wire.create(pt0, pt1));
-    }
+    // Avoid zero length wires
+    return pt0.equals(pt1) ? null : Wire.create(pt0, pt1);
   }
 
   private void buildCircuit(XmlReader.CircuitData circData, CircuitMutator mutator) {
@@ -192,6 +310,8 @@ public class XmlCircuitReader extends CircuitTransaction {
       reader.addErrors(e, circData.circuit.getName() + ".static");
     }
 
+    // the components are added at once, so the indexes of the circuit are only updated once
+    final var toAdd = new ArrayList<Component>();
     final var componentsAt = new HashMap<Bounds, Component>();
     final var overlapComponents = new ArrayList<Component>();
     for (final var subElement : XmlIterator.forChildElements(element)) {
@@ -218,7 +338,7 @@ public class XmlCircuitReader extends CircuitTransaction {
               reader.addError(msg, circData.circuit.getName());
               overlapComponents.add(comp);
             } else {
-              mutator.add(dest, comp);
+              toAdd.add(comp);
               componentsAt.put(bds, comp);
             }
           }
@@ -229,7 +349,8 @@ public class XmlCircuitReader extends CircuitTransaction {
         }
       } else if ("wire".equals(subEltName)) {
         try {
-          addWire(dest, mutator, subElement);
+          final var wire = createWire(subElement);
+          if (wire != null) toAdd.add(wire);
         } catch (XmlReaderException e) {
           final var context =
               String.format(contextFmt, circData.circuit.getName(), toWireString(subElement));
@@ -251,8 +372,9 @@ public class XmlCircuitReader extends CircuitTransaction {
       final var attrs = (AttributeSet) comp.getAttributeSet().clone();
       comp = comp.getFactory().createComponent(loc, attrs);
       componentsAt.put(comp.getBounds(), comp);
-      mutator.add(dest, comp);
+      toAdd.add(comp);
     }
+    mutator.addAll(dest, toAdd);
   }
 
   private void buildDynamicAppearance(XmlReader.CircuitData circData) {
@@ -30,6 +30,7 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.memory.MemContentsCodec;
 import com.cburch.logisim.std.wiring.BitExtender;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
@@ -119,12 +120,20 @@ class XmlReader {
         boolean isHolyCross,
         boolean isEvolution)
         throws XmlReaderException {
-      List<String> messages = null;
+      final var messages = new ArrayList<String>();
+      final var attrsDefined = readAttributes(parent, messages);
+      if (attrs == null) return;
+      initAttributeSet(attrsDefined, messages, attrs, defaults, isHolyCross, isEvolution);
+    }
 
+    /**
+     * Reads the attribute values given by the "a" children of an element. Problems are appended to
+     * messages.
+     */
+    Map<String, String> readAttributes(Element parent, List<String> messages) {
       final var attrsDefined = new HashMap<String, String>();
       for (final var attrElt : XmlIterator.forChildElements(parent, "a")) {
         if (!attrElt.hasAttribute("name")) {
-          if (messages == null) messages = new ArrayList<>();
           messages.add(S.get("attrNameMissingError"));
         } else {
           final var attrName = attrElt.getAttribute("name");
@@ -141,13 +150,34 @@ class XmlReader {
             }
           } else {
             attrVal = attrElt.getTextContent();
+            /* De-relativize the path of an external memory image */
+            try {
+              attrVal =
+                  MemContentsCodec.resolveExternal(
+                      attrVal, srcFilePath == null ? null : new File(srcFilePath).getParent());
+            } catch (IOException e) {
+              messages.add(S.get("memContentsPathError", e.getMessage()));
+              continue;
+            }
           }
           attrsDefined.put(attrName, attrVal);
         }
       }
+      return attrsDefined;
+    }
 
-      if (attrs == null) return;
-
+    /**
+     * Applies attribute values read by {@link #readAttributes} to an attribute set. This does not
+     * touch the document, so it may run on any thread for a set that is not shared.
+     */
+    void initAttributeSet(
+        Map<String, String> attrsDefined,
+        List<String> messages,
+        AttributeSet attrs,
+        AttributeDefaultProvider defaults,
+        boolean isHolyCross,
+        boolean isEvolution)
+        throws XmlReaderException {
       LogisimVersion ver = sourceVersion;
       boolean setDefaults = defaults != null && !defaults.isAllDefaultValues(attrs, ver);
       // We need to process this in order, and we have to refetch the
@@ -183,12 +213,11 @@ class XmlReader {
             Object val = attr.parse(attrVal);
             attrs.setValue(attr, val);
           } catch (NumberFormatException e) {
-            if (messages == null) messages = new ArrayList<>();
             messages.add(S.get("attrValueInvalidError", attrVal, attrName));
           }
         }
       }
-      if (messages != null) {
+      if (!messages.isEmpty()) {
         throw new XmlReaderException(messages);
       }
     }
@@ -264,18 +293,6 @@ class XmlReader {
       }
     }
 
-    private Map<Element, Component> loadKnownComponents(Element elt, boolean isHolyCross, boolean isEvolution) {
-      final var known = new HashMap<Element, Component>();
-      for (final var sub : XmlIterator.forChildElements(elt, "comp")) {
-        try {
-          final var comp = XmlCircuitReader.getComponent(sub, this, isHolyCross, isEvolution);
-          if (comp != null) known.put(sub, comp);
-        } catch (XmlReaderException ignored) {
-        }
-      }
-      return known;
-    }
-
     void loadMap(Element board, String boardName, Circuit circ) {
       final var map = new HashMap<String, CircuitMapInfo>();
       for (final var cmap : XmlIterator.forChildElements(board, "mc")) {
@@ -475,17 +492,6 @@ class XmlReader {
             }
             final var circData = new CircuitData(circElt, new Circuit(name, file, proj));
             file.addCircuit(circData.circuit);
-            circData.knownComponents = loadKnownComponents(circElt, isHolyCrossFile,
-                isEvolutionFile);
-            for (Element appearElt : XmlIterator.forChildElements(circElt, "appear")) {
-              loadAppearance(appearElt, circData, name + ".appear");
-            }
-            for (final var boardMap : XmlIterator.forChildElements(circElt, "boardmap")) {
-              final var boardName = boardMap.getAttribute("boardname");
-              if (StringUtil.isNullOrEmpty(boardName))
-                continue;
-              loadMap(boardMap, boardName, circData.circuit);
-            }
             circuitsData.add(circData);
           }
           default -> {
@@ -494,6 +500,22 @@ class XmlReader {
         }
       }
 
+      // now that all subcircuit factories exist, construct the circuit contents concurrently
+      XmlCircuitReader.loadKnownComponents(this, circuitsData, isHolyCrossFile, isEvolutionFile);
+      for (final var circData : circuitsData) {
+        final var circElt = circData.circuitElement;
+        final var name = circData.circuit.getName();
+        for (Element appearElt : XmlIterator.forChildElements(circElt, "appear")) {
+          loadAppearance(appearElt, circData, name + ".appear");
+        }
+        for (final var boardMap : XmlIterator.forChildElements(circElt, "boardmap")) {
+          final var boardName = boardMap.getAttribute("boardname");
+          if (StringUtil.isNullOrEmpty(boardName))
+            continue;
+          loadMap(boardMap, boardName, circData.circuit);
+        }
+      }
+
       // third, process the other child elements
       for (Element sub_elt : XmlIterator.forChildElements(elt)) {
         final var name = sub_elt.getTagName();
@@ -1051,7 +1073,11 @@ class XmlReader {
   }
 
   LogisimFile readLibrary(InputStream is, Project proj) throws IOException, SAXException {
-    final var doc = loadXmlFrom(is);
+    final var doc = BinaryProjectFormat.isBinary(is) ? BinaryProjectFormat.read(is) : loadXmlFrom(is);
+    return readLibrary(doc, proj);
+  }
+
+  LogisimFile readLibrary(Document doc, Project proj) {
     var elt = doc.getDocumentElement();
     elt = ensureLogisimCompatibility(elt);
 
@@ -9,6 +9,8 @@
 
 package com.cburch.logisim.file;
 
+import static com.cburch.logisim.file.Strings.S;
+
 import com.cburch.draw.model.AbstractCanvasObject;
 import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitAttributes;
@@ -23,6 +25,8 @@ import com.cburch.logisim.generated.BuildInfo;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.std.memory.MemContentsCodec;
 import com.cburch.logisim.std.wiring.ProbeAttributes;
 import com.cburch.logisim.tools.Library;
 import com.cburch.logisim.tools.Tool;
@@ -35,6 +39,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
@@ -42,6 +47,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
@@ -174,25 +180,40 @@ final class XmlWriter {
     }
   }
 
-  static void write(LogisimFile file, OutputStream out, LibraryLoader loader, File destFile, String libraryHome)
-      throws ParserConfigurationException, TransformerException {
-
+  private static XmlWriter createContext(LogisimFile file, LibraryLoader loader, File destFile, String libraryHome)
+      throws ParserConfigurationException {
     final var docFactory = XmlUtil.getHardenedBuilderFactory();
     final var docBuilder = docFactory.newDocumentBuilder();
 
     final var doc = docBuilder.newDocument();
-    XmlWriter context;
     if (destFile != null) {
       var dstFilePath = destFile.getAbsolutePath();
       dstFilePath = dstFilePath.substring(0, dstFilePath.lastIndexOf(File.separator));
-      context = new XmlWriter(file, doc, loader, dstFilePath);
+      return new XmlWriter(file, doc, loader, dstFilePath);
     } else if (libraryHome != null) {
-      context = new XmlWriter(file, doc, loader, null, libraryHome);
-    } else {
-      context = new XmlWriter(file, doc, loader);
+      return new XmlWriter(file, doc, loader, null, libraryHome);
     }
+    return new XmlWriter(file, doc, loader);
+  }
+
+  /**
+   * Builds an autosave journal record: the complete project, except that the circuits for which
+   * {@code isChanged} does not hold are replaced by placeholders (see {@link AutosaveJournal}).
+   */
+  static Document toJournalRecord(LogisimFile file, LibraryLoader loader, File destFile, Predicate<Circuit> isChanged)
+      throws ParserConfigurationException {
+    final var context = createContext(file, loader, destFile, null);
+    context.fromLogisimFile(isChanged);
+    context.doc.normalize();
+    sort(context.doc);
+    return context.doc;
+  }
 
-    context.fromLogisimFile();
+  static void write(LogisimFile file, OutputStream out, LibraryLoader loader, File destFile, String libraryHome)
+      throws ParserConfigurationException, TransformerException, IOException {
+    final var context = createContext(file, loader, destFile, libraryHome);
+    final var doc = context.doc;
+    context.fromLogisimFile(circ -> true);
 
     final var tfFactory = TransformerFactory.newInstance();
     try {
@@ -211,6 +232,10 @@ final class XmlWriter {
 
     doc.normalize();
     sort(doc);
+    if (destFile != null && Loader.isBinaryProjectFile(destFile)) {
+      BinaryProjectFormat.write(doc, out);
+      return;
+    }
     Source src = new DOMSource(doc);
     Result dest = new StreamResult(out);
     tf.transform(src, dest);
@@ -226,8 +251,8 @@ final class XmlWriter {
       if (userModifiedOnly && (attrs.isReadOnly(attr) || attr.isHidden())) continue;
       if (attrs.isToSave(attr) && val != null) {
         final var dflt = source == null ? null : source.getDefaultAttributeValue(attr, BuildInfo.version);
-        final var defaultValue = dflt == null ? "" : attr.toStandardString(dflt);
-        var newValue = attr.toStandardString(val);
+        final var defaultValue = dflt == null ? "" : toStoredString(attr, dflt);
+        var newValue = toStoredString(attr, val);
         if (dflt == null || (!dflt.equals(val) && !defaultValue.equals(newValue))
             || (attr.equals(StdAttr.APPEARANCE) && !userModifiedOnly)
             || (attr.equals(ProbeAttributes.PROBEAPPEARANCE) && !userModifiedOnly && val.equals(ProbeAttributes.APPEAR_EVOLUTION_NEW))) {
@@ -242,7 +267,7 @@ final class XmlWriter {
             if (newValue.contains("\n")) {
               a.appendChild(doc.createTextNode(newValue));
             } else {
-              a.setAttribute("val", attr.toStandardString(val));
+              a.setAttribute("val", newValue);
             }
           }
           elt.appendChild(a);
@@ -251,6 +276,26 @@ final class XmlWriter {
     }
   }
 
+  /* the value as stored; memory contents in the format chosen in the preferences */
+  private String toStoredString(Attribute<Object> attr, Object value) {
+    if (!(value instanceof MemContents contents)) return attr.toStandardString(value);
+    final var storage = AppPreferences.MEMORY_CONTENTS_STORAGE.get();
+    if (storage.equals(AppPreferences.MEM_CONTENTS_TEXT)) return attr.toStandardString(value);
+    if (storage.equals(AppPreferences.MEM_CONTENTS_EXTERNAL)
+        && outFilePath != null
+        && !contents.isClear()) {
+      // a binary image next to the project file, or inline if that fails
+      final var baseDir = Paths.get(outFilePath);
+      try {
+        return MemContentsCodec.toExternalString(
+            contents, baseDir.resolve(file.getName() + "_memory"), baseDir);
+      } catch (IOException | InvalidPathException e) {
+        loader.showError(S.get("memContentsWriteError", e.getMessage()));
+      }
+    }
+    return MemContentsCodec.toCompressedString(contents);
+  }
+
   Library findLibrary(ComponentFactory source) {
     if (file.contains(source)) return file;
     for (final var lib : file.getLibraries()) {
@@ -431,7 +476,7 @@ final class XmlWriter {
     return ret;
   }
 
-  Element fromLogisimFile() {
+  Element fromLogisimFile(Predicate<Circuit> includeContents) {
     final var ret = doc.createElement("project");
     doc.appendChild(ret);
     ret.appendChild(
@@ -461,7 +506,7 @@ final class XmlWriter {
     ret.appendChild(fromToolbarData());
 
     for (final var circ : file.getCircuits()) {
-      ret.appendChild(fromCircuit(circ));
+      ret.appendChild(includeContents.test(circ) ? fromCircuit(circ) : AutosaveJournal.createPlaceholder(doc, circ));
     }
     for (final var vhdl : file.getVhdlContents()) {
       ret.appendChild(fromVhdl(vhdl));
@@ -92,7 +92,9 @@ public class Netlist {
   private final ClockTreeFactory myClockInformation = new ClockTreeFactory();
   private final Circuit myCircuit;
   private int drcStatus;
-  private final Set<Wire> wires = new HashSet<>();
+  /* lookup tables for myNets, see indexNets() */
+  private final Map<Location, Net> netAtLocation = new HashMap<>();
+  private final Map<Net, Integer> netIds = new HashMap<>();
   private ArrayList<String> currentHierarchyLevel;
   public static final int DRC_REQUIRED = 4;
   public static final int DRC_PASSED = 0;
@@ -126,6 +128,8 @@ public class Netlist {
     }
     drcStatus = DRC_REQUIRED;
     myNets.clear();
+    netAtLocation.clear();
+    netIds.clear();
     mySubCircuits.clear();
     myComponents.clear();
     myClockGenerators.clear();
@@ -541,10 +545,37 @@ public class Netlist {
   }
 
   private Net findConnectedNet(Location loc) {
-    for (final var current : myNets) {
-      if (current.contains(loc)) return current;
+    return netAtLocation.get(loc);
+  }
+
+  /*
+   * The nets never share a location, so each location maps to at most one net. This has to be
+   * called each time nets are added, merged or removed.
+   */
+  private void indexNets() {
+    netAtLocation.clear();
+    netIds.clear();
+    for (var id = 0; id < myNets.size(); id++) {
+      final var net = myNets.get(id);
+      netIds.put(net, id);
+      for (final var loc : net.getPoints()) netAtLocation.put(loc, net);
     }
-    return null;
+  }
+
+  private static int findRoot(int[] parents, int id) {
+    while (parents[id] != id) {
+      parents[id] = parents[parents[id]];
+      id = parents[id];
+    }
+    return id;
+  }
+
+  /* joins both sets; the root is always the highest id of the set */
+  private static void union(int[] parents, int id1, int id2) {
+    final var root1 = findRoot(parents, id1);
+    final var root2 = findRoot(parents, id2);
+    if (root1 < root2) parents[root1] = root2;
+    else if (root2 < root1) parents[root2] = root1;
   }
 
   private boolean generateNetlist() {
@@ -563,15 +594,27 @@ public class Netlist {
       progress.setString(S.get("NetListBuild", circuitName, 1));
     }
 
-    wires.clear();
-    wires.addAll(myCircuit.getWires());
     // FIRST PASS: In this pass we take all wire segments and see if they
     // are connected to other segments. If they are connected we build a net.
-    while (wires.size() != 0) {
-      final var newNet = new Net();
-      getNet(null, newNet);
-      if (!newNet.isEmpty()) myNets.add(newNet);
-    }
+    // The segments sharing an end are joined with a union-find, the nets are
+    // created in the order of their first segment.
+    final var wires = new ArrayList<>(new HashSet<>(myCircuit.getWires()));
+    final var wireSets = new int[wires.size()];
+    final var wireAtLocation = new HashMap<Location, Integer>();
+    for (var id = 0; id < wires.size(); id++) {
+      wireSets[id] = id;
+      for (final var end : new Location[] {wires.get(id).getEnd0(), wires.get(id).getEnd1()}) {
+        final var other = wireAtLocation.putIfAbsent(end, id);
+        if (other != null) union(wireSets, id, other);
+      }
+    }
+    final var netOfSet = new HashMap<Integer, Net>();
+    for (var id = 0; id < wires.size(); id++) {
+      final var net = netOfSet.computeIfAbsent(findRoot(wireSets, id), root -> new Net());
+      if (net.isEmpty()) myNets.add(net);
+      net.add(wires.get(id));
+    }
+    indexNets();
     // Here we start to detect direct input-output component connections, read we detect "hidden"
     // nets
     final var components = myCircuit.getNonWires();
@@ -631,10 +674,8 @@ public class Netlist {
         }
         /* Here we are going to mark the bitwidths on the nets */
         final var width = end.getWidth().getWidth();
-        final var loc = end.getLocation();
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(loc) && !thisNet.setWidth(width)) drc.get(1).addMarkComponents(thisNet.getWires());
-        }
+        final var thisNet = netAtLocation.get(end.getLocation());
+        if (thisNet != null && !thisNet.setWidth(width)) drc.get(1).addMarkComponents(thisNet.getWires());
       }
     }
     for (final var simpleDRCContainer : drc) {
@@ -662,14 +703,12 @@ public class Netlist {
         final var loc = end.getLocation();
         if (points.containsKey(loc)) {
           /* Found a connection already used */
-          var newNet = true;
-          for (final var net : myNets) {
-            if (net.contains(loc)) newNet = false;
-          }
-          if (newNet) {
+          if (!netAtLocation.containsKey(loc)) {
             final var bitWidth = points.get(loc);
             if (bitWidth == end.getWidth().getWidth()) {
-              myNets.add(new Net(loc, bitWidth));
+              final var newNet = new Net(loc, bitWidth);
+              netAtLocation.put(loc, newNet);
+              myNets.add(newNet);
             } else {
               drc.get(0).addMarkComponent(comp);
             }
@@ -696,38 +735,40 @@ public class Netlist {
     for (final var comp : tunnelList) {
       final var ends = comp.getEnds();
       for (final var end : ends) {
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(end.getLocation())) {
-            thisNet.addTunnel(comp.getAttributeSet().getValue(StdAttr.LABEL));
-            areTunnelsPresent = true;
-          }
+        final var thisNet = netAtLocation.get(end.getLocation());
+        if (thisNet != null) {
+          thisNet.addTunnel(comp.getAttributeSet().getValue(StdAttr.LABEL));
+          areTunnelsPresent = true;
         }
       }
     }
     drc.clear();
     drc.add(new SimpleDrcContainer(myCircuit, S.get("NetMerge_BitWidthError"), SimpleDrcContainer.LEVEL_FATAL, SimpleDrcContainer.MARK_WIRE));
     if (areTunnelsPresent) {
-      final var netIterator = myNets.listIterator();
-      while (netIterator.hasNext()) {
-        final var thisNet = netIterator.next();
-        if (thisNet.hasTunnel() && (myNets.indexOf(thisNet) < (myNets.size() - 1))) {
-          var merged = false;
-          final var searchIterator = myNets.listIterator(myNets.indexOf(thisNet) + 1);
-          while (searchIterator.hasNext() && !merged) {
-            final var searchNet = searchIterator.next();
-            for (final var name : thisNet.getTunnelNames()) {
-              if (searchNet.containsTunnel(name) && !merged) {
-                merged = true;
-                if (!searchNet.merge(thisNet)) {
-                  drc.get(0).addMarkComponents(searchNet.getWires());
-                  drc.get(0).addMarkComponents(thisNet.getWires());
-                }
-              }
-            }
-          }
-          if (merged) netIterator.remove();
+      // All nets sharing a tunnel name are merged into the last one of them
+      final var netSets = new int[myNets.size()];
+      final var netWithTunnel = new HashMap<String, Integer>();
+      for (var id = 0; id < myNets.size(); id++) {
+        netSets[id] = id;
+        for (final var name : myNets.get(id).getTunnelNames()) {
+          final var other = netWithTunnel.putIfAbsent(name, id);
+          if (other != null) union(netSets, id, other);
+        }
+      }
+      final var mergedNets = new ArrayList<Net>();
+      for (var id = 0; id < myNets.size(); id++) {
+        final var thisNet = myNets.get(id);
+        final var root = findRoot(netSets, id);
+        if (root == id) {
+          mergedNets.add(thisNet);
+        } else if (!myNets.get(root).merge(thisNet)) {
+          drc.get(0).addMarkComponents(myNets.get(root).getWires());
+          drc.get(0).addMarkComponents(thisNet.getWires());
         }
       }
+      myNets.clear();
+      myNets.addAll(mergedNets);
+      indexNets();
     }
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addError(drc.get(0));
@@ -792,6 +833,7 @@ public class Netlist {
         netIterator.remove();
       }
     }
+    indexNets();
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addWarning(drc.get(0));
     }
@@ -821,36 +863,10 @@ public class Netlist {
       }
       /* stupid situation first: the splitters bus connection is a single fanout */
       if (busWidth == maxFanoutWidth) {
-        Net busnet = null;
-        Net connectedNet = null;
-        final var busLoc = mySplitter.getEnd(0).getLocation();
-        final var connectedLoc = mySplitter.getEnd(index).getLocation();
         var issueWarning = false;
         /* here we search for the nets */
-        for (final var currentNet : myNets) {
-          if (currentNet.contains(busLoc)) {
-            if (busnet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple bus nets found for a single splitter\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              busnet = currentNet;
-            }
-          }
-          if (currentNet.contains(connectedLoc)) {
-            if (connectedNet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple nets found for a single splitter split connection\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              connectedNet = currentNet;
-            }
-          }
-        }
+        final var busnet = netAtLocation.get(mySplitter.getEnd(0).getLocation());
+        final var connectedNet = netAtLocation.get(mySplitter.getEnd(index).getLocation());
         if (connectedNet != null) {
           if (busnet != null) {
             /* we can merge both nets */
@@ -862,6 +878,10 @@ public class Netlist {
               return false;
             } else {
               myNets.remove(connectedNet);
+              for (final var loc : connectedNet.getPoints()) {
+                if (busnet == connectedNet) netAtLocation.remove(loc);
+                else netAtLocation.put(loc, busnet);
+              }
             }
           } else {
             issueWarning = true;
@@ -882,6 +902,7 @@ public class Netlist {
         mySplitIter.remove(); /* Does not exist anymore */
       }
     }
+    indexNets();
 
     if (progress != null) {
       progress.setValue(4);
@@ -897,15 +918,9 @@ public class Netlist {
       // Currently by definition end(0) is the combined end of the splitter
       final var ends = comp.getEnds();
       final var combinedEnd = ends.get(0);
-      var rootNet = -1;
       /* We search for the root net in the list of nets */
-      for (var i = 0; i < myNets.size() && rootNet < 0; i++) {
-        if (myNets.get(i).contains(combinedEnd.getLocation())) {
-          rootNet = i;
-          // FIXME: shouldn't we `break` once we found it?
-        }
-      }
-      if (rootNet < 0) {
+      final var rootNet = netAtLocation.get(combinedEnd.getLocation());
+      if (rootNet == null) {
         Reporter.report.addFatalErrorFmt(
             "BUG: Splitter without a bus connection\n ==> %s:%d\n",
             this.getClass().getName().replace(".", "/"),
@@ -915,35 +930,28 @@ public class Netlist {
       }
       // Now we process all the other ends to find the child busses/nets
       // of this root bus
-      final var connections = new ArrayList<Integer>();
+      final var connections = new ArrayList<Net>();
       for (var i = 1; i < ends.size(); i++) {
-        final var thisEnd = ends.get(i);
         /* Find the connected net */
-        var connectedNet = -1;
-        for (var j = 0; j < myNets.size() && connectedNet < 1; j++) {
-          if (myNets.get(j).contains(thisEnd.getLocation())) {
-            connectedNet = j;
-          }
-        }
-        connections.add(connectedNet);
+        connections.add(netAtLocation.get(ends.get(i).getLocation()));
       }
       var unconnectedEnds = false;
       var connectedUnknownEnds = false;
       final var sattrs = (SplitterAttributes) comp.getAttributeSet();
       for (var i = 1; i < ends.size(); i++) {
-        var connectedNet = connections.get(i - 1);
-        if (connectedNet >= 0) {
+        final var connectedNet = connections.get(i - 1);
+        if (connectedNet != null) {
           /* Has this end a connection to the root bus? */
           connectedUnknownEnds |= sattrs.isNoConnect(i);
           /* There is a net connected to this splitter's end point */
-          if (!myNets.get(connectedNet).setParent(myNets.get(rootNet))) {
-            myNets.get(connectedNet).forceRootNet();
+          if (!connectedNet.setParent(rootNet)) {
+            connectedNet.forceRootNet();
           }
           /* Here we have to process the inherited bits of the parent */
           final var busBitConnection = ((Splitter) comp).getEndpoints();
           for (byte b = 0; b < busBitConnection.length; b++) {
             if (busBitConnection[b] == i) {
-              myNets.get(connectedNet).addParentBit(b);
+              connectedNet.addParentBit(b);
             }
           }
         } else {
@@ -1027,13 +1035,10 @@ public class Netlist {
             // Currently by definition end(0) is the combined end of the splitter
             final var ends = comp.getEnds();
             final var combinedEnd = ends.get(0);
-            var connectedBus = -1;
             final var sattrs = (SplitterAttributes) comp.getAttributeSet();
             /* We search for the root net in the list of nets */
-            for (var i = 0; i < myNets.size() && connectedBus < 0; i++) {
-              if (myNets.get(i).contains(combinedEnd.getLocation())) connectedBus = i;
-            }
-            if (connectedBus < 0) {
+            final var connectedBus = netAtLocation.get(combinedEnd.getLocation());
+            if (connectedBus == null) {
               // This should never happen as we already checked in the first pass.
               Reporter.report.addFatalErrorFmt(
                   "BUG: This is embarasing as this should never happen\n ==> %s:%d\n",
@@ -1057,7 +1062,7 @@ public class Netlist {
                 }
                 byte connectedBusIndex = indexBits.get(bit);
                 // Figure out the rootbusid and rootbusindex
-                var rootBus = myNets.get(connectedBus);
+                var rootBus = connectedBus;
                 while (!rootBus.isRootNet()) {
                   connectedBusIndex = rootBus.getBit(connectedBusIndex);
                   rootBus = rootBus.getParent();
@@ -1137,7 +1142,7 @@ public class Netlist {
   private List<ConnectionPoint> getHiddenSinks(Net thisNet, Byte bitIndex, List<Component> splitters, Set<String> handledNets, Boolean isSourceNet) {
     final var result = new ArrayList<ConnectionPoint>();
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
+    final var netId = getNetId(thisNet) + "-" + bitIndex;
     if (handledNets.contains(netId)) return result;
     handledNets.add(netId);
 
@@ -1163,10 +1168,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = netAtLocation.get(ends.get(splitterEnd).getLocation());
             if (slaveNet != null)
               result.addAll(getHiddenSinks(slaveNet, netIndex, splitters, handledNets, false));
           } else {
@@ -1174,10 +1176,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = netAtLocation.get(currentSplitter.getEnd(0).getLocation());
             if (rootNet != null)
               result.addAll(getHiddenSinks(rootNet, rootIndices.get(bitIndex), splitters, handledNets, false));
           }
@@ -1252,28 +1251,8 @@ public class Netlist {
     return components;
   }
 
-  private void getNet(Wire wire, Net thisNet) {
-    final var myIterator = wires.iterator();
-    final var matchedWires = new ArrayList<Wire>();
-    var compWire = wire;
-    while (myIterator.hasNext()) {
-      final var thisWire = myIterator.next();
-      if (compWire == null) {
-        compWire = thisWire;
-        thisNet.add(thisWire);
-        myIterator.remove();
-      } else if (thisWire.sharesEnd(compWire)) {
-        matchedWires.add(thisWire);
-        thisNet.add(thisWire);
-        myIterator.remove();
-      }
-    }
-    for (final var matched : matchedWires) getNet(matched, thisNet);
-    matchedWires.clear();
-  }
-
   public Integer getNetId(Net selectedNet) {
-    return myNets.indexOf(selectedNet);
+    return netIds.getOrDefault(selectedNet, -1);
   }
 
   public ConnectionPoint getNetlistConnectionForSubCircuit(String label, int PortIndex, byte bitindex) {
@@ -1380,12 +1359,12 @@ public class Netlist {
     // If the source net not is null add it to the set of visited nets to prevent back-search on
     // this net
     if (srcNet != null) {
-      final var netId = myNets.indexOf(srcNet) + "-" + srcBitIndex;
+      final var netId = getNetId(srcNet) + "-" + srcBitIndex;
       if (handledNets.contains(netId)) return null;
       handledNets.add(netId);
     }
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
+    final var netId = getNetId(thisNet) + "-" + bitIndex;
     if (handledNets.contains(netId)) return null;
     handledNets.add(netId);
     segments.addAll(thisNet.getWires());
@@ -1418,10 +1397,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             /* Find the connected Net */
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = netAtLocation.get(ends.get(splitterEnd).getLocation());
             if (slaveNet != null) {
               final var ret = getHiddenSource(null, (byte) 0, slaveNet, netIndex, splitters, handledNets, segments, splitter);
               if (ret != null) return ret;
@@ -1431,10 +1407,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(splitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = netAtLocation.get(splitter.getEnd(0).getLocation());
             if (rootNet != null) {
               final var ret = getHiddenSource(null, (byte) 0, rootNet, rootIndices.get(bitIndex), splitters, handledNets, segments, splitter);
               if (ret != null) return ret;
@@ -1457,12 +1430,12 @@ public class Netlist {
     // If the fannout net not is null add it to the set of visited nets to prevent back-search on
     // this net
     if (fannoutNet != null) {
-      final var netId = myNets.indexOf(fannoutNet) + "-" + fannoutBitIndex;
+      final var netId = getNetId(fannoutNet) + "-" + fannoutBitIndex;
       if (handledNets.contains(netId)) return false;
       handledNets.add(netId);
     }
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(combinedNet) + "-" + combinedBitIndex;
+    final var netId = getNetId(combinedNet) + "-" + combinedBitIndex;
     if (handledNets.contains(netId)) return false;
     handledNets.add(netId);
     if (combinedNet.hasBitSource(combinedBitIndex)) return true;
@@ -1483,10 +1456,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = netAtLocation.get(ends.get(splitterEnd).getLocation());
             if (slaveNet != null && hasHiddenSource(null, (byte) 0, slaveNet, netIndex, splitterList, handledNets, currentSplitter))
               return true;
           } else {
@@ -1494,10 +1464,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = netAtLocation.get(currentSplitter.getEnd(0).getLocation());
             if (rootNet != null
                 && hasHiddenSource(null, (byte) 0, rootNet, rootIndices.get(combinedBitIndex), splitterList, handledNets, currentSplitter)) {
               return true;
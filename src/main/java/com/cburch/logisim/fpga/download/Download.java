@@ -261,7 +261,8 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
 
   private String download() throws IOException, InterruptedException {
     Reporter.report.clearConsole();
-    if (!downloadOnly || !downloader.readyForDownload()) {
+    // when nothing changed the kept sandbox holds the results of the same sources
+    if (!(downloadOnly || generationUnchanged) || !downloader.readyForDownload()) {
       for (var stages = 0; stages < downloader.getNumberOfStages(); stages++) {
         if (stopRequested) return S.get("FPGAInterrupted");
         final var currentStage = downloader.performStep(stages);
@@ -405,7 +406,7 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
     }
     downloader.setMapableResources(myMappableResources);
     /* Stage 4 Create Download Scripts */
-    return createDownloadScripts();
+    return finishGeneration(createDownloadScripts(), downloader::readyForDownload);
   }
 
   @Override
@@ -11,6 +11,7 @@ package com.cburch.logisim.fpga.download;
 
 import static com.cburch.logisim.fpga.Strings.S;
 
+import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.fpga.data.BoardInformation;
 import com.cburch.logisim.fpga.data.IoComponentTypes;
 import com.cburch.logisim.fpga.data.LedArrayDriving;
@@ -19,6 +20,7 @@ import com.cburch.logisim.fpga.data.SevenSegmentScanningDriving;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.file.FileWriter;
+import com.cburch.logisim.fpga.file.HdlManifest;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
@@ -35,9 +37,11 @@ import com.cburch.logisim.std.io.SevenSegmentScanningGenericHdlGenerator;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 public abstract class DownloadBase {
 
@@ -46,6 +50,8 @@ public abstract class DownloadBase {
   protected MappableResourcesContainer myMappableResources;
   protected double preMultiplier = 1.0;
   protected double preDivider = 1.0;
+  /* set by finishGeneration when no generated file changed, so the sandbox was kept */
+  protected boolean generationUnchanged = false;
   static final String[] HDLPaths = {
     HdlGeneratorFactory.VERILOG.toLowerCase(),
     HdlGeneratorFactory.VHDL.toLowerCase(),
@@ -163,7 +169,8 @@ public abstract class DownloadBase {
     }
     final var projectDir = getProjDir(selectedCircuit);
     final var rootSheet = myProject.getLogisimFile().getCircuit(selectedCircuit);
-    if (!cleanDirectory(projectDir)) {
+    final var manifest = HdlManifest.open(projectDir);
+    if (!cleanProjectDirectory(projectDir, manifest.isLoaded())) {
       Reporter.report.addFatalError(
           "Unable to cleanup old project files in directory: \"" + projectDir + "\"");
       return false;
@@ -180,6 +187,41 @@ public abstract class DownloadBase {
       }
     }
 
+    generationUnchanged = false;
+    HdlManifest.setActive(manifest);
+    if (!generateHdl(rootSheet, projectDir, frequency) || !manifest.awaitWrites()) {
+      finishGeneration(false, () -> false);
+      return false;
+    }
+    // the sources are listed for the download scripts, so the stale ones have to go now
+    manifest.removeStale(new File(projectDir, AppPreferences.HdlType.get().toLowerCase()));
+    return true;
+  }
+
+  /**
+   * Ends the generation started by {@link #writeHDL}, after the download scripts and constraints
+   * were written through the manifest as well. The sandbox of the vendor tools is only kept when
+   * none of the generated files changed and it holds their complete results; otherwise it is
+   * emptied, so the tools start from scratch.
+   */
+  protected boolean finishGeneration(boolean success, BooleanSupplier sandboxComplete) {
+    final var manifest = HdlManifest.getActive();
+    if (manifest == null) return success;
+    HdlManifest.setActive(null);
+    final var ok = manifest.finish(success);
+    generationUnchanged = ok && !manifest.hasChanges() && sandboxComplete.getAsBoolean();
+    if (!generationUnchanged) {
+      final var sandbox =
+          getDirectoryLocation(manifest.getProjectDirectory().getPath(), SANDBOX_PATH);
+      if (!cleanDirectory(sandbox) || !genDirectory(sandbox)) {
+        Reporter.report.addFatalError("Unable to cleanup directory: \"" + sandbox + "\"");
+        return false;
+      }
+    }
+    return ok;
+  }
+
+  private boolean generateHdl(Circuit rootSheet, String projectDir, Double frequency) {
     final var generatedHDLComponents = new HashSet<String>();
     var worker = rootSheet.getSubcircuitFactory().getHDLGenerator(rootSheet.getStaticAttributes());
     if (worker == null) {
@@ -373,6 +415,31 @@ public abstract class DownloadBase {
     return base + HDLPaths[identifier] + File.separator;
   }
 
+  /*
+   * Removes the files of an earlier generation. The generated files are kept when their manifest is
+   * known, so the files that do not change keep their time stamp; the manifest removes the files
+   * that are not generated again, and finishGeneration the sandbox when something changed.
+   */
+  private boolean cleanProjectDirectory(String projectDir, boolean keepFiles) {
+    if (!keepFiles) return cleanDirectory(projectDir);
+    try {
+      final var children = new File(projectDir).listFiles();
+      if (children == null) return true;
+      final var kept = new HashSet<>(Arrays.asList(HDLPaths));
+      kept.add(HdlManifest.FILE_NAME);
+      for (final var child : children) {
+        if (kept.contains(child.getName())) continue;
+        if (!(child.isDirectory() ? cleanDirectory(child.getPath()) : child.delete())) {
+          return false;
+        }
+      }
+      return true;
+    } catch (Exception e) {
+      Reporter.report.addFatalError("Could not remove directory tree :" + projectDir);
+      return false;
+    }
+  }
+
   private boolean cleanDirectory(String dir) {
     try {
       final var thisDir = new File(dir);
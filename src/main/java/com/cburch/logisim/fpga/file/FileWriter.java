@@ -14,8 +14,13 @@ import static com.cburch.logisim.fpga.Strings.S;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.generated.BuildInfo;
+import com.cburch.logisim.prefs.AppPreferences;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +28,16 @@ public class FileWriter {
 
   public static final String ENTITY_EXTENSION = "_entity";
   public static final String ARCHITECTURE_EXTENSION = "_behavior";
+  public static final String MEMORY_DIRECTORY = "memory";
+
+  /**
+   * Produces the contents of a file while it is being written, so large files never have to be
+   * held in memory completely.
+   */
+  @FunctionalInterface
+  public interface ContentsWriter {
+    void writeTo(Writer output) throws IOException;
+  }
 
   public static File getFilePointer(
       String targetDirectory, String componentName, boolean isEntity) {
@@ -36,10 +51,7 @@ public class FileWriter {
       }
       fileName.append(targetDirectory);
       if (!targetDirectory.endsWith(File.separator)) fileName.append(File.separator);
-      fileName.append(componentName);
-      if (isEntity && Hdl.isVhdl()) fileName.append(ENTITY_EXTENSION);
-      if (!isEntity && Hdl.isVhdl()) fileName.append(ARCHITECTURE_EXTENSION);
-      fileName.append(Hdl.isVhdl() ? ".vhd" : ".v");
+      fileName.append(getHdlFileName(componentName, isEntity));
       final var outFile = new File(fileName.toString());
       Reporter.report.addInfo(S.fmt("fileCreateHDLFile", fileName.toString()));
       if (outFile.exists()) {
@@ -66,6 +78,9 @@ public class FileWriter {
       if (!targetDirectory.endsWith(File.separator)) fileName.append(File.separator);
       fileName.append(name);
       final var outFile = new File(fileName.toString());
+      // the active manifest replaces the file of an earlier generation when it changed
+      final var manifest = HdlManifest.getActive();
+      if (manifest != null && manifest.contains(outFile)) return outFile;
       Reporter.report.addInfo(S.fmt("fileCreateScriptFile", fileName.toString()));
       if (outFile.exists()) {
         Reporter.report.addWarning(S.fmt("fileScriptFileExists", fileName.toString()));
@@ -133,21 +148,84 @@ public class FileWriter {
     return lines;
   }
 
+  /**
+   * Writes an entity or architecture. While a {@link HdlManifest} is active the file is only
+   * rewritten when its contents changed; otherwise the file must not exist yet.
+   */
+  public static boolean writeHdlContents(
+      String targetDirectory, String componentName, boolean isEntity, List<String> contents) {
+    final var manifest = HdlManifest.getActive();
+    if (manifest == null) {
+      final var outFile = getFilePointer(targetDirectory, componentName, isEntity);
+      if (outFile == null) return false;
+      return writeContents(outFile, contents);
+    }
+    final var outDir = new File(targetDirectory);
+    if (!outDir.exists() && !outDir.mkdirs()) {
+      Reporter.report.addFatalError(S.fmt("fileUnableToCreate", targetDirectory));
+      return false;
+    }
+    return manifest.write(new File(outDir, getHdlFileName(componentName, isEntity)), contents);
+  }
+
+  private static String getHdlFileName(String componentName, boolean isEntity) {
+    final var fileName = new StringBuilder(componentName);
+    if (isEntity && Hdl.isVhdl()) fileName.append(ENTITY_EXTENSION);
+    if (!isEntity && Hdl.isVhdl()) fileName.append(ARCHITECTURE_EXTENSION);
+    fileName.append(Hdl.isVhdl() ? ".vhd" : ".v");
+    return fileName.toString();
+  }
+
+  /**
+   * Writes a file. While a {@link HdlManifest} is active, a file in its project directory is only
+   * rewritten when its contents changed.
+   */
   public static boolean writeContents(File outfile, List<String> contents) {
-    try {
-      final var output = new FileOutputStream(outfile);
-      for (var thisLine : contents) {
-        if (!thisLine.isEmpty()) {
-          output.write(thisLine.getBytes());
-        }
-        output.write("\n".getBytes());
-      }
-      output.flush();
-      output.close();
+    final var manifest = HdlManifest.getActive();
+    if (manifest != null && manifest.contains(outfile)) return manifest.write(outfile, contents);
+    return writeContents(outfile, output -> writeLines(output, contents));
+  }
+
+  /** Writes a file, see {@link #writeContents(File, List)}. */
+  public static boolean writeContents(File outfile, ContentsWriter contents) {
+    final var manifest = HdlManifest.getActive();
+    if (manifest != null && manifest.contains(outfile)) return manifest.write(outfile, contents);
+    try (final var output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outfile)))) {
+      contents.writeTo(output);
       return true;
     } catch (Exception e) {
       Reporter.report.addFatalError(S.fmt("fileUnableToWrite", outfile.getAbsolutePath()));
       return false;
     }
   }
+
+  static void writeLines(Writer output, List<String> contents) throws IOException {
+    for (final var thisLine : contents) {
+      output.write(thisLine);
+      output.write('\n');
+    }
+  }
+
+  /**
+   * Writes a memory initialization file into the memory directory next to the HDL sources that are
+   * being generated.
+   *
+   * @return the absolute path of the file with forward slashes, as it can be used in HDL code, or
+   *     null if no HDL generation is going on or the file could not be written
+   */
+  public static String writeMemoryInitFile(String fileName, ContentsWriter contents) {
+    final var manifest = HdlManifest.getActive();
+    if (manifest == null) return null;
+    final var outDir =
+        new File(
+            manifest.getProjectDirectory(),
+            AppPreferences.HdlType.get().toLowerCase() + File.separator + MEMORY_DIRECTORY);
+    if (!outDir.exists() && !outDir.mkdirs()) {
+      Reporter.report.addFatalError(S.fmt("fileUnableToCreate", outDir.getPath()));
+      return null;
+    }
+    final var outFile = new File(outDir, fileName);
+    if (!manifest.write(outFile, contents)) return null;
+    return outFile.getAbsolutePath().replace('\\', '/');
+  }
 }
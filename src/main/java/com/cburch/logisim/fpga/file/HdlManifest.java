@@ -0,0 +1,295 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.file;
+
+import static com.cburch.logisim.fpga.Strings.S;
+
+import com.cburch.logisim.fpga.gui.Reporter;
+import com.cburch.logisim.util.UniquelyNamedThread;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Remembers the content hash of every HDL file, download script and constraint file generated into
+ * a project directory, so that a following generation only rewrites the files whose contents
+ * changed. Untouched files keep their time stamp, hence the vendor tools do not consider them
+ * modified.
+ *
+ * <p>The manifest is stored as {@link #FILE_NAME} in the project directory. While a manifest is
+ * {@linkplain #setActive active}, {@link FileWriter#writeHdlContents} and {@link
+ * FileWriter#writeContents} write through it; the files are written on a pool of background threads
+ * and {@link #awaitWrites} waits for them. Large files are streamed through a temporary file
+ * instead, see {@link #write(File, FileWriter.ContentsWriter)}.
+ */
+public final class HdlManifest {
+
+  public static final String FILE_NAME = "hdl_manifest.properties";
+
+  private static volatile HdlManifest active = null;
+
+  private static final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          Math.max(2, Runtime.getRuntime().availableProcessors()),
+          runnable -> {
+            final var thread = new UniquelyNamedThread(runnable, "HdlWriter");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final File projectDir;
+  private final Properties previous = new Properties();
+  private final Properties current = new Properties();
+  private final List<Future<Boolean>> pending = new ArrayList<>();
+  private final boolean loaded;
+  private boolean changed = false;
+
+  private HdlManifest(File projectDir) {
+    this.projectDir = projectDir;
+    final var file = new File(projectDir, FILE_NAME);
+    var ok = false;
+    if (file.isFile()) {
+      try (final var in = new FileInputStream(file)) {
+        previous.load(in);
+        ok = true;
+      } catch (IOException | IllegalArgumentException e) {
+        previous.clear();
+      }
+      // stored again by finish(), so an interrupted generation starts from scratch next time
+      file.delete();
+    }
+    loaded = ok;
+  }
+
+  /**
+   * Reads and removes the manifest of the project directory; a missing or broken one is empty.
+   */
+  public static HdlManifest open(String projectDir) {
+    return new HdlManifest(new File(projectDir));
+  }
+
+  /**
+   * Returns whether a manifest of an earlier generation was found. Without it nothing is known
+   * about the files already present, so they have to be removed.
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public File getProjectDirectory() {
+    return projectDir;
+  }
+
+  /** Returns whether the file lies in the project directory, so it can be written through this. */
+  public boolean contains(File file) {
+    return file.toPath().toAbsolutePath().normalize()
+        .startsWith(projectDir.toPath().toAbsolutePath().normalize());
+  }
+
+  /**
+   * Returns whether this generation wrote or removed a file, or nothing was known about the files
+   * of the earlier one. Only complete after {@link #finish}.
+   */
+  public synchronized boolean hasChanges() {
+    return !loaded || changed;
+  }
+
+  public static HdlManifest getActive() {
+    return active;
+  }
+
+  public static void setActive(HdlManifest manifest) {
+    active = manifest;
+  }
+
+  /**
+   * Writes the contents to the file, unless the file of the previous generation has the same
+   * contents. The file is written in the background.
+   */
+  public synchronized boolean write(File outFile, List<String> contents) {
+    final var key = getKey(outFile);
+    if (current.containsKey(key)) {
+      Reporter.report.addWarning(S.fmt("fileHDLFileExists", outFile.getPath()));
+      return false;
+    }
+    final var data = new ByteArrayOutputStream();
+    try (final var output = new OutputStreamWriter(data)) {
+      FileWriter.writeLines(output, contents);
+    } catch (IOException e) {
+      // cannot happen for an in-memory stream
+    }
+    final var bytes = data.toByteArray();
+    final var hash = bytes.length + ":" + toHex(newDigest().digest(bytes));
+    current.setProperty(key, hash);
+    if (isUnchanged(key, hash, outFile)) return true;
+    pending.add(
+        executor.submit(
+            () -> {
+              try (final var output = new FileOutputStream(outFile)) {
+                output.write(bytes);
+                return true;
+              } catch (IOException e) {
+                return false;
+              }
+            }));
+    return true;
+  }
+
+  /**
+   * Writes the contents to the file in the calling thread without holding them in memory. They go
+   * to a temporary file first, which only replaces the file when the contents changed.
+   */
+  public boolean write(File outFile, FileWriter.ContentsWriter contents) {
+    final var key = getKey(outFile);
+    synchronized (this) {
+      if (current.containsKey(key)) {
+        Reporter.report.addWarning(S.fmt("fileHDLFileExists", outFile.getPath()));
+        return false;
+      }
+      current.setProperty(key, "");
+    }
+    final var tempFile = new File(outFile.getPath() + ".tmp");
+    final var digest = newDigest();
+    try (final var output =
+        new BufferedWriter(
+            new OutputStreamWriter(
+                new DigestOutputStream(new FileOutputStream(tempFile), digest)))) {
+      contents.writeTo(output);
+    } catch (IOException e) {
+      tempFile.delete();
+      Reporter.report.addFatalError(S.fmt("fileUnableToWrite", outFile.getPath()));
+      return false;
+    }
+    final var hash = tempFile.length() + ":" + toHex(digest.digest());
+    synchronized (this) {
+      current.setProperty(key, hash);
+    }
+    if (isUnchanged(key, hash, outFile)) {
+      tempFile.delete();
+      return true;
+    }
+    try {
+      Files.move(tempFile.toPath(), outFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      return true;
+    } catch (IOException e) {
+      tempFile.delete();
+      Reporter.report.addFatalError(S.fmt("fileUnableToWrite", outFile.getPath()));
+      return false;
+    }
+  }
+
+  /* returns whether the previous generation wrote the same contents, and reports the outcome */
+  private boolean isUnchanged(String key, String hash, File outFile) {
+    final var length = Long.parseLong(hash.substring(0, hash.indexOf(':')));
+    if (hash.equals(previous.getProperty(key)) && outFile.length() == length) {
+      Reporter.report.addInfo(S.fmt("fileHDLFileUnchanged", outFile.getPath()));
+      return true;
+    }
+    Reporter.report.addInfo(S.fmt("fileCreateHDLFile", outFile.getPath()));
+    synchronized (this) {
+      changed = true;
+    }
+    return false;
+  }
+
+  /** Waits for the files written so far, so they can be listed. */
+  public synchronized boolean awaitWrites() {
+    var ok = true;
+    for (final var job : pending) {
+      try {
+        ok &= job.get();
+      } catch (InterruptedException | ExecutionException e) {
+        ok = false;
+      }
+    }
+    pending.clear();
+    if (!ok) Reporter.report.addFatalError(S.fmt("fileUnableToWrite", projectDir.getPath()));
+    return ok;
+  }
+
+  /**
+   * Removes the files of the previous generation in the directory that were not generated again.
+   * Meant for a directory that is listed before the generation finishes, once all its files are
+   * written.
+   */
+  public synchronized void removeStale(File directory) {
+    final var prefix = getKey(directory) + "/";
+    for (final var key : previous.stringPropertyNames()) {
+      if (key.startsWith(prefix) && !current.containsKey(key)) {
+        new File(projectDir, key).delete();
+        previous.remove(key);
+        changed = true;
+      }
+    }
+  }
+
+  /**
+   * Waits for all files to be written. When the generation succeeded the files of the previous
+   * generation that were not generated again are removed and the manifest is stored; otherwise the
+   * manifest is removed, so the next generation starts from scratch.
+   */
+  public synchronized boolean finish(boolean success) {
+    final var ok = awaitWrites();
+    final var file = new File(projectDir, FILE_NAME);
+    if (!success || !ok) {
+      changed = true;
+      file.delete();
+      return false;
+    }
+    for (final var key : previous.stringPropertyNames()) {
+      if (!current.containsKey(key)) {
+        new File(projectDir, key).delete();
+        changed = true;
+      }
+    }
+    try (final var out = new FileOutputStream(file)) {
+      current.store(out, null);
+    } catch (IOException e) {
+      file.delete();
+    }
+    return true;
+  }
+
+  private String getKey(File outFile) {
+    return projectDir.toPath().toAbsolutePath().relativize(outFile.toPath().toAbsolutePath())
+        .toString().replace(File.separatorChar, '/');
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    final var ret = new StringBuilder();
+    for (final var b : bytes) ret.append(String.format("%02x", b));
+    return ret.toString();
+  }
+}
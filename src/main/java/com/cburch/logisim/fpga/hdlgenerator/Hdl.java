@@ -419,9 +419,7 @@ public class Hdl {
       Reporter.report.addFatalError("INTERNAL ERROR: Empty entity description received!");
       return false;
     }
-    final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, true);
-    if (outFile == null) return false;
-    return FileWriter.writeContents(outFile, contents);
+    return FileWriter.writeHdlContents(targetDirectory, componentName, true, contents);
   }
 
   public static boolean writeArchitecture(String targetDirectory, List<String> contents, String componentName) {
@@ -430,9 +428,7 @@ public class Hdl {
       Reporter.report.addFatalErrorFmt("INTERNAL ERROR: Empty behavior description for Component '%s' received!", componentName);
       return false;
     }
-    final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, false);
-    if (outFile == null)  return false;
-    return FileWriter.writeContents(outFile, contents);
+    return FileWriter.writeHdlContents(targetDirectory, componentName, false, contents);
   }
 
   public static Map<String, String> getNetMap(String sourceName, boolean floatingPinTiedToGround,
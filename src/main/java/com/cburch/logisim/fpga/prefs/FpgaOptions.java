@@ -90,6 +90,7 @@ public class FpgaOptions extends OptionsPanel {
   private JCheckBox SupressGated;
   private JCheckBox SupressOpen;
   private JCheckBox vhdlKeywordUpperCase;
+  private final JCheckBox memoryInitFiles;
   private final PreferencesFrame frame;
   private final PrefOptionList HDL_Used;
 
@@ -112,6 +113,8 @@ public class FpgaOptions extends OptionsPanel {
               new PrefOption(HdlGeneratorFactory.VERILOG, S.getter("Verilog"))
             });
 
+    memoryInitFiles = ((PrefMonitorBoolean) AppPreferences.HdlMemoryInitFiles).getCheckBox();
+
     GridBagLayout layout = new GridBagLayout();
     GridBagConstraints gbc = new GridBagConstraints();
     setLayout(layout);
@@ -140,6 +143,9 @@ public class FpgaOptions extends OptionsPanel {
     gbc.gridwidth = 1;
     add(HDL_Used.getJComboBox(), gbc);
     gbc.gridx = 0;
+    gbc.gridy = 2;
+    gbc.gridwidth = 3;
+    add(memoryInitFiles, gbc);
     gbc.gridy = 3;
     gbc.gridwidth = 3;
     add(getVhdlOptions(), gbc);
@@ -270,6 +276,7 @@ public class FpgaOptions extends OptionsPanel {
     SupressGated.setText(S.get("SupressGatedClock"));
     SupressOpen.setText(S.get("SupressOpenInput"));
     vhdlKeywordUpperCase.setText(S.get("VhdlKeywordUpperCase"));
+    memoryInitFiles.setText(S.get("HdlMemoryInitFiles"));
     editPan.setBorder(BorderFactory.createTitledBorder(S.get("EditColors")));
     mapPan.setBorder(BorderFactory.createTitledBorder(S.get("MapColors")));
     ReportPan.setBorder(BorderFactory.createTitledBorder(S.get("ReporterOptions")));
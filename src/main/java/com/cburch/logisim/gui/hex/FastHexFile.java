@@ -0,0 +1,452 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.hex;
+
+import com.cburch.logisim.std.memory.MemContents;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and writes large memory images of the "Binary" formats with whole-byte words and of the
+ * "v3.0 hex words" formats without going through {@link BufferedLineReader} and the tokenizing
+ * reader of {@link HexFile}. The file is mapped into memory, cut into chunks that are decoded in
+ * parallel, and the decoded words are stored page by page with {@link MemContents#set(long,
+ * long[])} directly into the target memory.
+ *
+ * <p>The fast path gives up, returning null or false, whenever the regular reader would report a
+ * warning (an invalid digit, a word of more than 64 bits, data beyond the end of the memory, ...),
+ * so that the user gets to see those warnings exactly as before. It does so before storing
+ * anything, so the target is left untouched in that case.
+ */
+final class FastHexFile {
+
+  /* smaller inputs are decoded in the calling thread */
+  private static final int PARALLEL_THRESHOLD = 1 << 20;
+  private static final int CHUNK_WORDS = 1 << 12;
+  private static final int CHUNKS_PER_BATCH = 256;
+
+  private FastHexFile() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /**
+   * Loads the file into the given memory, replacing its contents. A null description asks for the
+   * format to be detected from the header, as {@link HexFile#open(MemContents, File)} does.
+   *
+   * @return whether the file was loaded, false if the regular reader has to be used
+   */
+  static boolean read(MemContents dst, File src, String desc) throws IOException {
+    final var fileSize = src.length();
+    if (fileSize == 0 || fileSize > Integer.MAX_VALUE) return false;
+    if (desc != null && desc.startsWith("Binary")) {
+      if (dst.getValueWidth() % 8 != 0) return false;
+      try (final var channel = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+        final var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        data.order(
+            desc.endsWith("little-endian") ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        return readBinary(dst, data);
+      }
+    }
+    if (desc != null && !desc.startsWith("v3.0 hex words")) return false;
+    try (final var channel = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+      final var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+      final var options = new HexFile.FormatOptions();
+      if (desc == null) {
+        final var header = firstLine(data, 0, true);
+        if (header == null) return false;
+        final var hdr = lineString(data, header[0], header[1]).trim();
+        if (options.parseHeader(hdr) != null) return false;
+        if (!options.tagged("radix", "hex") || !options.tagged("size", "words")) return false;
+      } else {
+        options.parseFormat(desc);
+      }
+      var start = 0;
+      final var first = firstLine(data, 0, false);
+      if (first == null) return false;
+      if (data.get(first[0]) == 'v') {
+        start = first[2];
+      }
+      final boolean addressed;
+      if (options.tags.containsKey("style")) {
+        addressed = options.tagged("style", "addressed");
+      } else {
+        final var line = firstLine(data, start, false);
+        if (line == null) return false;
+        addressed = lineString(data, line[0], line[1]).contains(":");
+      }
+      if (addressed) {
+        // the regular reader does not cut the first line of data at two spaces
+        final var line = firstLine(data, start, false);
+        if (line != null && lineString(data, line[3], line[1]).contains("  ")) return false;
+      }
+      return readHexWords(dst, data, start, addressed);
+    }
+  }
+
+  /**
+   * Writes the memory in the given format, preceded by the header.
+   *
+   * @return whether the format is handled here
+   */
+  static boolean write(File dst, MemContents src, String desc, String header) throws IOException {
+    if (desc.startsWith("Binary") && src.getWidth() % 8 == 0) {
+      final var order =
+          desc.endsWith("little-endian") ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+      writeBinary(dst, src, order);
+      return true;
+    }
+    if (desc.startsWith("v3.0 hex words")) {
+      writeHexWords(dst, src, header, desc.endsWith("addressed"));
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean readBinary(MemContents dst, ByteBuffer data) {
+    final var bytesPerWord = dst.getValueWidth() / 8;
+    final var size = data.capacity();
+    if (size % bytesPerWord != 0 || size / bytesPerWord > dst.getLastOffset() + 1) return false;
+    final var words = size / bytesPerWord;
+    dst.load(
+        mem ->
+            decodeChunks(
+                mem,
+                (words + CHUNK_WORDS - 1) / CHUNK_WORDS,
+                size >= PARALLEL_THRESHOLD,
+                chunk -> {
+                  final var first = chunk * CHUNK_WORDS;
+                  final var values = new long[Math.min(CHUNK_WORDS, words - first)];
+                  var nonZero = false;
+                  for (var i = 0; i < values.length; i++) {
+                    values[i] = getWord(data, (first + i) * bytesPerWord, bytesPerWord);
+                    nonZero |= values[i] != 0;
+                  }
+                  return nonZero ? values : null;
+                }));
+    return true;
+  }
+
+  /* absolute reads only, so that the buffer can be shared by the threads */
+  private static long getWord(ByteBuffer data, int index, int bytesPerWord) {
+    return switch (bytesPerWord) {
+      case 1 -> data.get(index) & 0xffL;
+      case 2 -> data.getShort(index) & 0xffffL;
+      case 4 -> data.getInt(index) & 0xffffffffL;
+      case 8 -> data.getLong(index);
+      default -> {
+        final var bigEndian = data.order() == ByteOrder.BIG_ENDIAN;
+        var value = 0L;
+        for (var i = 0; i < bytesPerWord; i++) {
+          final var b = data.get(index + i) & 0xffL;
+          value = bigEndian ? (value << 8) | b : value | (b << (8 * i));
+        }
+        yield value;
+      }
+    };
+  }
+
+  private interface ChunkDecoder {
+    /* returns the values of the chunk, or null if they are all zero */
+    long[] decode(int chunk);
+  }
+
+  /* decodes chunks of CHUNK_WORDS words in batches, and stores them in order */
+  private static void decodeChunks(
+      MemContents dst, int chunks, boolean parallel, ChunkDecoder decoder) {
+    for (var batch = 0; batch < chunks; batch += CHUNKS_PER_BATCH) {
+      var range = IntStream.range(batch, Math.min(chunks, batch + CHUNKS_PER_BATCH));
+      if (parallel) range = range.parallel();
+      final var decoded = range.mapToObj(decoder::decode).toArray(long[][]::new);
+      for (var i = 0; i < decoded.length; i++) {
+        if (decoded[i] != null) dst.set((long) (batch + i) * CHUNK_WORDS, decoded[i]);
+      }
+    }
+  }
+
+  /* the words of a part of a "v3.0 hex words" file, and for each line its address and first word */
+  private static class HexChunk {
+    long[] values = new long[CHUNK_WORDS];
+    int count;
+    final List<long[]> lines = new ArrayList<>();
+
+    void add(long value) {
+      if (count == values.length) {
+        final var grown = new long[2 * count];
+        System.arraycopy(values, 0, grown, 0, count);
+        values = grown;
+      }
+      values[count++] = value;
+    }
+  }
+
+  private static boolean readHexWords(
+      MemContents dst, MappedByteBuffer data, int start, boolean addressed) {
+    final var size = data.capacity();
+    final var parallel = size - start >= PARALLEL_THRESHOLD;
+    // cut at line ends, so that every chunk is a sequence of complete lines
+    final var bounds = new ArrayList<Integer>();
+    bounds.add(start);
+    final var parts = parallel ? 4 * Runtime.getRuntime().availableProcessors() : 1;
+    for (var i = 1; i < parts; i++) {
+      var pos = start + (int) ((long) (size - start) * i / parts);
+      pos = Math.max(pos, bounds.get(bounds.size() - 1));
+      while (pos < size && data.get(pos) != '\n' && data.get(pos) != '\r') pos++;
+      if (pos >= size) break;
+      bounds.add(pos);
+    }
+    bounds.add(size);
+    var range = IntStream.range(0, bounds.size() - 1);
+    if (parallel) range = range.parallel();
+    final var chunks =
+        range
+            .mapToObj(i -> parseHexWords(data, bounds.get(i), bounds.get(i + 1), addressed))
+            .toArray(HexChunk[]::new);
+
+    // check everything before the first store, so that the target is untouched when giving up
+    final var memEnd = dst.getLastOffset();
+    var words = 0L;
+    for (final var chunk : chunks) {
+      if (chunk == null) return false;
+      words += chunk.count;
+      if (!addressed) continue;
+      for (var i = 0; i < chunk.lines.size(); i++) {
+        final var line = chunk.lines.get(i);
+        final var count = lineEnd(chunk, i) - (int) line[1];
+        if (count > 0 && (line[0] < 0 || line[0] + count - 1 > memEnd)) return false;
+      }
+    }
+    if (!addressed && words - 1 > memEnd) return false;
+
+    dst.load(
+        mem -> {
+          var addr = 0L;
+          for (final var chunk : chunks) {
+            if (!addressed) {
+              setAll(mem, addr, chunk.values, 0, chunk.count);
+              addr += chunk.count;
+              continue;
+            }
+            for (var i = 0; i < chunk.lines.size(); i++) {
+              final var line = chunk.lines.get(i);
+              final var from = (int) line[1];
+              setAll(mem, line[0], chunk.values, from, lineEnd(chunk, i) - from);
+            }
+          }
+        });
+    return true;
+  }
+
+  /* the end, in the values of the chunk, of the words of the given line */
+  private static int lineEnd(HexChunk chunk, int line) {
+    return line + 1 < chunk.lines.size() ? (int) chunk.lines.get(line + 1)[1] : chunk.count;
+  }
+
+  private static void setAll(MemContents dst, long addr, long[] values, int from, int count) {
+    if (count == 0) return;
+    final var part = new long[count];
+    System.arraycopy(values, from, part, 0, count);
+    dst.set(addr, part);
+  }
+
+  /*
+   * Parses the lines between start and end the way the regular reader does, or returns null if
+   * that would produce a warning.
+   */
+  private static HexChunk parseHexWords(ByteBuffer data, int start, int end, boolean addressed) {
+    final var ret = new HexChunk();
+    var pos = start;
+    while (pos < end) {
+      var lineEnd = pos;
+      while (lineEnd < end && data.get(lineEnd) != '\n' && data.get(lineEnd) != '\r') {
+        // anything but plain ascii is reported by the regular reader
+        if (data.get(lineEnd) < 0) return null;
+        lineEnd++;
+      }
+      var last = lineEnd;
+      for (var i = pos; i < last; i++) {
+        if (data.get(i) == '#') last = i;
+      }
+      if (addressed) {
+        // anything after two spaces is ignored, like the ascii column of xxd
+        for (var i = pos; i + 1 < last; i++) {
+          if (data.get(i) == ' ' && data.get(i + 1) == ' ') last = i;
+        }
+      }
+      // String.trim() followed by split("\\s+")
+      var first = pos;
+      while (first < last && data.get(first) <= ' ') first++;
+      while (last > first && data.get(last - 1) <= ' ') last--;
+      var word = 0;
+      var foundColon = false;
+      var i = first;
+      while (i < last) {
+        var wordEnd = i;
+        while (wordEnd < last && !isWhitespace(data.get(wordEnd))) wordEnd++;
+        var from = i;
+        var to = wordEnd;
+        if (to - from >= 2 && data.get(from) == '0'
+            && (data.get(from + 1) == 'x' || data.get(from + 1) == 'X')) {
+          from += 2;
+        }
+        if (addressed && word == 0) {
+          foundColon = data.get(wordEnd - 1) == ':';
+          if (foundColon) to = Math.max(from, to - 1);
+          final var address = parseHex(data, from, to);
+          if (address == null) return null;
+          ret.lines.add(new long[] {address, ret.count});
+        } else if (!addressed || word != 1 || foundColon || wordEnd - i != 1
+            || data.get(i) != ':') {
+          final var value = parseHex(data, from, to);
+          if (value == null) return null;
+          ret.add(value);
+        }
+        word++;
+        i = wordEnd;
+        while (i < last && isWhitespace(data.get(i))) i++;
+      }
+      pos = lineEnd + 1;
+    }
+    return ret;
+  }
+
+  /* the characters matched by \s */
+  private static boolean isWhitespace(byte c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == 0x0b || c == '\f' || c == '\r';
+  }
+
+  private static Long parseHex(ByteBuffer data, int from, int to) {
+    var value = 0L;
+    for (var i = from; i < to; i++) {
+      final var c = data.get(i);
+      final int d;
+      if (c >= '0' && c <= '9') d = c - '0';
+      else if (c >= 'a' && c <= 'f') d = c - 'a' + 10;
+      else if (c >= 'A' && c <= 'F') d = c - 'A' + 10;
+      else return null;
+      // more than 64 bits, which the regular reader reports
+      if ((value >>> 60) != 0) return null;
+      value = (value << 4) + d;
+    }
+    return value;
+  }
+
+  /*
+   * returns {start, end, next line, line start} of the first line that is not empty after trimming,
+   * and after removing comments unless keepComments
+   */
+  private static int[] firstLine(ByteBuffer data, int pos, boolean keepComments) {
+    final var size = data.capacity();
+    while (pos < size) {
+      var end = pos;
+      while (end < size && data.get(end) != '\n' && data.get(end) != '\r') end++;
+      var stop = end;
+      if (!keepComments) {
+        for (var i = pos; i < stop; i++) {
+          if (data.get(i) == '#') stop = i;
+        }
+      }
+      var first = pos;
+      while (first < stop && data.get(first) <= ' ') first++;
+      var last = stop;
+      while (last > first && data.get(last - 1) <= ' ') last--;
+      if (first < last) return new int[] {first, last, end + 1, pos};
+      pos = end + 1;
+    }
+    return null;
+  }
+
+  private static String lineString(ByteBuffer data, int start, int end) {
+    final var bytes = new byte[end - start];
+    for (var i = 0; i < bytes.length; i++) bytes[i] = data.get(start + i);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  private static void writeBinary(File dst, MemContents src, ByteOrder order) throws IOException {
+    final var bytesPerWord = src.getWidth() / 8;
+    final var buffer = ByteBuffer.allocate(CHUNK_WORDS * bytesPerWord).order(order);
+    final var words = src.getLastOffset() + 1;
+    try (final var channel =
+        FileChannel.open(
+            dst.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (var addr = 0L; addr < words; addr += CHUNK_WORDS) {
+        buffer.clear();
+        for (final var value : src.get(addr, (int) Math.min(CHUNK_WORDS, words - addr))) {
+          switch (bytesPerWord) {
+            case 1 -> buffer.put((byte) value);
+            case 2 -> buffer.putShort((short) value);
+            case 4 -> buffer.putInt((int) value);
+            case 8 -> buffer.putLong(value);
+            default -> {
+              for (var i = 0; i < bytesPerWord; i++) {
+                final var shift = order == ByteOrder.BIG_ENDIAN ? bytesPerWord - 1 - i : i;
+                buffer.put((byte) (value >>> (8 * shift)));
+              }
+            }
+          }
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+      }
+    }
+  }
+
+  /* the same layout as HexFile.HexWriter.saveHexWords */
+  private static void writeHexWords(File dst, MemContents src, String header, boolean addressed)
+      throws IOException {
+    final var memEnd = src.getLastOffset();
+    final var digits = (src.getWidth() + 3) / 4;
+    final var columns = digits == 1 ? 32 : digits <= 4 ? 16 : 8;
+    final var addrDigits = Long.toHexString(memEnd).length();
+    final var line = new char[(addressed ? addrDigits + 2 : 0) + columns * (digits + 1)];
+    try (final var out = Files.newBufferedWriter(dst.toPath(), StandardCharsets.UTF_8)) {
+      out.write(header);
+      for (var addr = 0L; addr <= memEnd; addr += CHUNK_WORDS) {
+        final var values = src.get(addr, (int) Math.min(CHUNK_WORDS, memEnd - addr + 1));
+        // CHUNK_WORDS is a multiple of every column count, so lines do not span chunks
+        for (var first = 0; first < values.length; first += columns) {
+          var pos = 0;
+          if (addressed) {
+            pos = putHex(line, pos, addr + first, addrDigits);
+            line[pos++] = ':';
+            line[pos++] = ' ';
+          }
+          final var last = Math.min(values.length, first + columns);
+          for (var i = first; i < last; i++) {
+            if (i != first) line[pos++] = ' ';
+            pos = putHex(line, pos, values[i], digits);
+          }
+          line[pos++] = '\n';
+          out.write(line, 0, pos);
+        }
+      }
+    }
+  }
+
+  private static int putHex(char[] dst, int pos, long value, int digits) {
+    for (var i = digits - 1; i >= 0; i--) {
+      dst[pos + i] = Character.forDigit((int) (value & 0xf), 16);
+      value >>>= 4;
+    }
+    return pos + digits;
+  }
+}
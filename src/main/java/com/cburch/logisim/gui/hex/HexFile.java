@@ -257,6 +257,7 @@ public class HexFile {
   }
 
   protected static boolean open(MemContents dst, File src, String desc) throws IOException {
+    if (FastHexFile.read(dst, src, desc)) return true;
     final var in = BufferedLineReader.forFile(src);
     try {
       final var r = new HexReader(in, dst.getLogLength(), dst.getValueWidth());
@@ -337,6 +338,11 @@ public class HexFile {
   }
 
   public static void save(File f, MemContents src, String desc) throws IOException {
+    try {
+      if (FastHexFile.write(f, src, desc, headerForFormat(desc))) return;
+    } catch (IOException e) {
+      throw new IOException(S.get("hexFileWriteError", e.getMessage()));
+    }
     OutputStream out;
     try {
       out = new FileOutputStream(f);
@@ -989,6 +995,7 @@ public class HexFile {
       var n = s.length();
       for (var i = 0; i < n; i++) {
         final var d = hex2int(s.charAt(i));
+        if ((val >>> 60) != 0) throw new ArithmeticException("More than 64 bits: " + s);
         val = (val << 4) + d;
       }
       return val;
@@ -1340,6 +1347,7 @@ public class HexFile {
         int n = word.length();
         if (n >= 2 && (word.startsWith("0x") || word.startsWith("0X"))) i += 2;
         long v = 0;
+        var tooLong = false;
         for (; i < n; i++) {
           long d;
           try {
@@ -1348,8 +1356,13 @@ public class HexFile {
             warn("Character '%s' is not a hex digit.", OutputStreamEscaper.escape(word.charAt(i)));
             continue;
           }
+          tooLong |= (v >>> 60) != 0;
           v = (v << 4) | d;
         }
+        if (tooLong) {
+          warn("Data word \"%s\" has more than 64 bits.", OutputStreamEscaper.escape(word));
+          continue;
+        }
         set(offs++, v);
       }
     }
@@ -1439,6 +1452,9 @@ public class HexFile {
           long val;
           try {
             val = hex2ulong(word);
+          } catch (ArithmeticException e) {
+            warn("Data word \"%s\" has more than 64 bits.", OutputStreamEscaper.escape(word));
+            continue;
           } catch (Exception e) {
             warn("Data word \"%s\" contains non-hex characters.", OutputStreamEscaper.escape(word));
             continue;
@@ -97,6 +97,8 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
   private static final Font ERR_MSG_FONT = new Font("Sans Serif", Font.BOLD, 18);
   private static final Color TICK_RATE_COLOR = new Color(0, 0, 92, 92);
   private static final Font TICK_RATE_FONT = new Font("Monospaced", Font.PLAIN, 28);
+  // room for the pin markers and wire ends around the bounds of changed components
+  private static final int CHANGED_BOUNDS_MARGIN = 6;
   private static final Color SINGLE_STEP_MSG_COLOR = Color.BLUE;
   private static final Font SINGLE_STEP_MSG_FONT = new Font("Sans Serif", Font.BOLD, 12);
   public static final Color DEFAULT_ZOOM_BUTTON_COLOR = Color.WHITE;
@@ -548,12 +550,39 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
   @Override
   public void repaint() {
     if (inPaint) {
+      painter.invalidateStaticLayer();
       paintDirty = true;
     } else {
       super.repaint();
     }
   }
 
+  /* every repaint request ends up here, except for those of repaintValues */
+  @Override
+  public void repaint(long tm, int x, int y, int width, int height) {
+    // the Swing constructors repaint before the painter exists
+    if (painter != null) painter.invalidateStaticLayer();
+    super.repaint(tm, x, y, width, height);
+  }
+
+  /**
+   * Repaints the rectangle, given in circuit coordinates, for changed signal values; null stands
+   * for the whole canvas. Unlike the other repaint methods this keeps the retained image of the
+   * components whose drawing does not depend on the circuit state.
+   */
+  void repaintValues(Rectangle rect) {
+    if (rect == null) {
+      super.repaint(0, 0, 0, getWidth(), getHeight());
+    } else {
+      final var zoom = getZoomFactor();
+      final var x0 = (int) Math.floor(rect.x * zoom) - 1;
+      final var y0 = (int) Math.floor(rect.y * zoom) - 1;
+      final var x1 = (int) Math.ceil((rect.x + rect.width) * zoom) + 1;
+      final var y1 = (int) Math.ceil((rect.y + rect.height) * zoom) + 1;
+      super.repaint(0, x0, y0, x1 - x0, y1 - y0);
+    }
+  }
+
   @Override
   public void repaint(int x, int y, int width, int height) {
     final var zoom = getZoomFactor();
@@ -991,6 +1020,8 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
           AttributeListener,
           Simulator.Listener,
           Selection.Listener {
+    // whether the last value repaint covered the whole canvas
+    private boolean lastValueRepaintFull = true;
 
     @Override
     public void attributeValueChanged(AttributeEvent e) {
@@ -1006,9 +1037,9 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
     @Override
     public void circuitChanged(CircuitEvent event) {
       int act = event.getAction();
-      if (act == CircuitEvent.ACTION_REMOVE) {
-        final var c = (Component) event.getData();
-        if (c == painter.getHaloedComponent()) {
+      if (act == CircuitEvent.ACTION_REMOVE || act == CircuitEvent.ACTION_REMOVE_ALL) {
+        final var haloed = painter.getHaloedComponent();
+        if (haloed != null && event.getComponents().contains(haloed)) {
           proj.getFrame().viewComponentAttributes(null, null);
         }
       } else if (act == CircuitEvent.ACTION_CLEAR) {
@@ -1107,6 +1138,9 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
       } else if (act == ProjectEvent.ACTION_SET_STATE) {
         final var oldState = (CircuitState) event.getOldData();
         final var newState = (CircuitState) event.getData();
+        // only the shown state collects the area to repaint, see propagationCompleted
+        if (oldState != null) oldState.setChangedBoundsTracked(false);
+        if (newState != null) newState.setChangedBoundsTracked(true);
         if (oldState != null && newState != null) {
           final var oldProp = oldState.getPropagator();
           final var newProp = newState.getPropagator();
@@ -1130,7 +1164,30 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
 
     @Override
     public void propagationCompleted(Simulator.Event e) {
-      paintThread.requestRepaint();
+      final var sim = proj.getSimulator();
+      final var state = proj.getCircuitState();
+      // the changed area is taken in any case, so it does not pile up; it is unknown as long as
+      // the state was not tracked
+      final var changed =
+          state == null || !state.isChangedBoundsTracked() ? null : state.takeChangedBounds();
+      if (state != null) state.setChangedBoundsTracked(true);
+      final var full =
+          changed == null
+              || e.didSingleStep()
+              || sim.isOscillating()
+              || sim.isExceptionEncountered();
+      if (full || lastValueRepaintFull) {
+        // step points, oscillation markers and messages can be anywhere, also when they vanish
+        paintThread.requestValueRepaint();
+      } else if (changed != Bounds.EMPTY_BOUNDS) {
+        final var bds = changed.expand(CHANGED_BOUNDS_MARGIN);
+        paintThread.requestValueRepaint(
+            new Rectangle(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight()));
+      }
+      if (e.didTick() && AppPreferences.SHOW_TICK_RATE.getBoolean()) {
+        viewport.repaint(0, 0, viewport.getWidth(), TICK_RATE_FONT.getSize() + 20);
+      }
+      lastValueRepaintFull = full;
       if (e.didTick()) waitForRepaintDone();
     }
 
@@ -21,6 +21,7 @@ class CanvasPaintThread extends UniquelyNamedThread {
   private long nextRepaint;
   private boolean alive;
   private Rectangle repaintRectangle;
+  private boolean valuesOnly;
 
   public CanvasPaintThread(Canvas canvas) {
     super("CanvasPaintThread");
@@ -33,25 +34,51 @@ class CanvasPaintThread extends UniquelyNamedThread {
 
   public void requentRepaint(Rectangle rect) {
     synchronized (lock) {
-      if (repaintRequested) {
-        if (repaintRectangle != null) {
-          repaintRectangle.add(rect);
-        }
-      } else {
-        repaintRequested = true;
-        repaintRectangle = rect;
-        lock.notifyAll();
-      }
+      addRequest(rect);
+      valuesOnly = false;
     }
   }
 
   public void requestRepaint() {
     synchronized (lock) {
-      if (!repaintRequested) {
-        repaintRequested = true;
-        repaintRectangle = null;
-        lock.notifyAll();
+      addRequest(null);
+      valuesOnly = false;
+    }
+  }
+
+  /**
+   * Requests a repaint for changed signal values only, which lets the canvas reuse its image of the
+   * state-independent drawing; see {@link Canvas#repaintValues}.
+   */
+  public void requestValueRepaint() {
+    requestValueRepaint(null);
+  }
+
+  /**
+   * Requests a repaint for changed signal values within the rectangle, given in circuit
+   * coordinates; null stands for the whole canvas.
+   */
+  public void requestValueRepaint(Rectangle rect) {
+    synchronized (lock) {
+      if (!repaintRequested) valuesOnly = true;
+      addRequest(rect);
+    }
+  }
+
+  /* merges the rectangle into the pending request, must hold the lock */
+  private void addRequest(Rectangle rect) {
+    if (repaintRequested) {
+      if (repaintRectangle != null) {
+        if (rect == null) {
+          repaintRectangle = null;
+        } else {
+          repaintRectangle.add(rect);
+        }
       }
+    } else {
+      repaintRequested = true;
+      repaintRectangle = rect == null ? null : new Rectangle(rect);
+      lock.notifyAll();
     }
   }
 
@@ -65,6 +92,8 @@ class CanvasPaintThread extends UniquelyNamedThread {
   @Override
   public void run() {
     while (alive) {
+      boolean values;
+      Rectangle rect;
       long now = System.currentTimeMillis();
       synchronized (lock) {
         long wait = nextRepaint - now;
@@ -83,8 +112,16 @@ class CanvasPaintThread extends UniquelyNamedThread {
         if (!alive) break;
         repaintRequested = false;
         nextRepaint = now + REPAINT_TIMESPAN;
+        values = valuesOnly;
+        rect = repaintRectangle;
+      }
+      if (values) {
+        canvas.repaintValues(rect);
+      } else if (rect == null) {
+        canvas.repaint();
+      } else {
+        canvas.repaint(rect);
       }
-      canvas.repaint();
     }
   }
 }
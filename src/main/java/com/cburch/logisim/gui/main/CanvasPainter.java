@@ -10,9 +10,12 @@
 package com.cburch.logisim.gui.main;
 
 import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.circuit.WireSet;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
+import com.cburch.logisim.data.Bounds;
+import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.generic.GridPainter;
 import com.cburch.logisim.prefs.AppPreferences;
@@ -23,19 +26,46 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Paints the contents of the canvas. While only signal values change, the grid and the components
+ * whose drawing does not depend on the circuit state are taken from retained images of the visible
+ * area (the static layer): the grid is drawn first, then the wires, then a transparent image with
+ * the static components, so that wires stay under the components as in {@link Circuit#draw}. The
+ * pin markers, the remaining components and the decorations are drawn on top. The locations of the
+ * pin markers of the static components are collected when the images are built and kept with them.
+ * Every repaint request other than {@link Canvas#repaintValues} invalidates all of it.
+ */
 class CanvasPainter implements PropertyChangeListener {
   private static final Set<Component> NO_COMPONENTS = Collections.emptySet();
 
+  private record StaticLayerKey(
+      Circuit circuit, CircuitState state, double zoom, Rectangle view, int version) {}
+
   private final Canvas canvas;
   private final GridPainter grid;
   private Component haloedComponent = null;
   private Circuit haloedCircuit = null;
   private WireSet highlightedWires = WireSet.EMPTY;
+  private final AtomicInteger staticVersion = new AtomicInteger();
+  private int paintedVersion = -1;
+  private StaticLayerKey staticLayerKey = null;
+  private BufferedImage staticLayer = null;
+  private BufferedImage gridLayer = null;
+  // the components in the view that are not part of the static layer
+  private final Set<Component> dynamicComponents = new HashSet<>();
+  // the pin markers of the components that are part of the static layer
+  private final List<Location> staticPins = new ArrayList<>();
+  private final BufferedImage discardImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
 
   CanvasPainter(Canvas canvas) {
     this.canvas = canvas;
@@ -100,14 +130,17 @@ class CanvasPainter implements PropertyChangeListener {
     GraphicsUtil.switchToWidth(g, 1);
   }
 
-  private void drawWithUserState(Graphics base, Graphics g, Project proj) {
+  private Set<Component> getHiddenComponents() {
+    final var dragTool = canvas.getDragTool();
+    final var hidden = (dragTool == null) ? null : dragTool.getHiddenComponents(canvas);
+    return hidden == null ? NO_COMPONENTS : hidden;
+  }
+
+  private void drawWithUserState(
+      Graphics base, Graphics g, Project proj, Set<Component> hidden, BufferedImage staticImage) {
     final var circ = proj.getCurrentCircuit();
     final var sel = proj.getSelection();
     final var dragTool = canvas.getDragTool();
-    var hidden = (dragTool == null)
-            ? NO_COMPONENTS
-            : dragTool.getHiddenComponents(canvas);
-    if (hidden == null) hidden = NO_COMPONENTS;
 
     // draw halo around component whose attributes we are viewing
     final var showHalo = AppPreferences.ATTRIBUTE_HALO.getBoolean();
@@ -135,7 +168,11 @@ class CanvasPainter implements PropertyChangeListener {
     final var circState = proj.getCircuitState();
     final var context = new ComponentDrawContext(canvas, circ, circState, base, g, false);
     context.setHighlightedWires(highlightedWires);
-    circ.draw(context, hidden);
+    if (staticImage != null) {
+      drawOverlay(context, base, circ, staticImage);
+    } else {
+      circ.draw(context, hidden);
+    }
     sel.draw(context, hidden);
 
     // draw tool
@@ -148,6 +185,136 @@ class CanvasPainter implements PropertyChangeListener {
     }
   }
 
+  /* draws the wires under the static components, then the pin markers and dynamic components */
+  private void drawOverlay(
+      ComponentDrawContext context, Graphics base, Circuit circ, BufferedImage staticImage) {
+    final var g = context.getGraphics();
+    circ.drawWires(context, NO_COMPONENTS);
+    final var view = staticLayerKey.view();
+    base.drawImage(staticImage, view.x, view.y, view.width, view.height, null);
+    context.drawPinMarkers(staticPins);
+    if (dynamicComponents.isEmpty()) return;
+    for (final var c : circ.getNonWiresIntersecting(Bounds.create(g.getClipBounds()))) {
+      if (dynamicComponents.contains(c)) drawComponent(context, g, c);
+    }
+    context.setGraphics(g);
+  }
+
+  /* returns false if the component failed to draw itself */
+  private static boolean drawComponent(ComponentDrawContext context, Graphics g, Component c) {
+    final var gNew = g.create();
+    context.setGraphics(gNew);
+    try {
+      c.draw(context);
+      return true;
+    } catch (RuntimeException e) {
+      // this is a JAR developer error - display it and move on
+      e.printStackTrace();
+      return false;
+    } finally {
+      gNew.dispose();
+    }
+  }
+
+  /* a graphics with the same settings as the model whose drawing is thrown away */
+  private Graphics2D createDiscardGraphics(Graphics model) {
+    final var ret = discardImage.createGraphics();
+    if (model instanceof Graphics2D g2d) {
+      ret.setRenderingHints(g2d.getRenderingHints());
+      ret.setTransform(g2d.getTransform());
+      ret.setStroke(g2d.getStroke());
+    }
+    ret.setFont(model.getFont());
+    ret.setColor(model.getColor());
+    return ret;
+  }
+
+  /*
+   * Returns the static layer for the current view, or null if the contents are to be painted
+   * completely. The image is only built when nothing was invalidated since the previous paint, so
+   * that editing, which invalidates it all the time, does not pay for it.
+   */
+  private BufferedImage getStaticLayer(Graphics g, Project proj, double zoom) {
+    final var version = staticVersion.get();
+    final var previous = paintedVersion;
+    paintedVersion = version;
+    if (!(g instanceof Graphics2D g2d)) return null;
+    final var key =
+        new StaticLayerKey(
+            proj.getCurrentCircuit(), proj.getCircuitState(), zoom, canvas.getVisibleRect(), version);
+    if (key.equals(staticLayerKey)) return staticLayer;
+    staticLayerKey = null;
+    staticLayer = null;
+    gridLayer = null;
+    dynamicComponents.clear();
+    staticPins.clear();
+    if (previous != version || key.view().isEmpty()) return null;
+    staticLayer = createStaticLayer(g2d, key);
+    staticLayerKey = key;
+    return staticLayer;
+  }
+
+  /* paints the grid into gridLayer, and returns the static components on a transparent image */
+  private BufferedImage createStaticLayer(Graphics2D g, StaticLayerKey key) {
+    final var view = key.view();
+    // paint at the resolution of the device, which is scaled on high density screens
+    final var transform = g.getTransform();
+    final var scaleX = Math.max(transform.getScaleX(), 1.0);
+    final var scaleY = Math.max(transform.getScaleY(), 1.0);
+    final var width = (int) Math.ceil(view.width * scaleX);
+    final var height = (int) Math.ceil(view.height * scaleY);
+    gridLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final var gridGfx = createLayerGraphics(g, view, gridLayer, scaleX, scaleY);
+    gridGfx.setColor(canvas.getBackground());
+    gridGfx.fillRect(view.x, view.y, view.width, view.height);
+    grid.paintGrid(gridGfx);
+    gridGfx.dispose();
+
+    final var ret = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    final var gfx = createLayerGraphics(g, view, ret, scaleX, scaleY);
+    gfx.setColor(Color.black);
+    final var gfxScaled = (Graphics2D) gfx.create();
+    if (key.zoom() != 1.0) gfxScaled.scale(key.zoom(), key.zoom());
+    final var discard = createDiscardGraphics(gfxScaled);
+    final var context =
+        new ComponentDrawContext(canvas, key.circuit(), key.state(), gfx, gfxScaled);
+    final var clip = Bounds.create(gfxScaled.getClipBounds());
+    final var dynamicBounds = new ArrayList<Rectangle>();
+    for (final var c : key.circuit().getNonWiresIntersecting(clip)) {
+      // a dry run tells whether the drawing depends on the circuit state, and where its pins are
+      final var pinCount = staticPins.size();
+      context.setLayer(ComponentDrawContext.Layer.STATIC, staticPins);
+      context.clearStateAccessed();
+      final var bounds = c.getBounds(gfxScaled).toRectangle();
+      if (!drawComponent(context, discard, c)
+          || context.isStateAccessed()
+          // the dynamic components are drawn last, so one drawn earlier must stay below this one
+          || dynamicBounds.stream().anyMatch(bounds::intersects)) {
+        dynamicComponents.add(c);
+        dynamicBounds.add(bounds);
+        staticPins.subList(pinCount, staticPins.size()).clear();
+      } else {
+        context.setLayer(ComponentDrawContext.Layer.STATIC, null);
+        drawComponent(context, gfxScaled, c);
+      }
+    }
+    discard.dispose();
+    gfxScaled.dispose();
+    gfx.dispose();
+    return ret;
+  }
+
+  private static Graphics2D createLayerGraphics(
+      Graphics2D g, Rectangle view, BufferedImage image, double scaleX, double scaleY) {
+    final var ret = image.createGraphics();
+    ret.setRenderingHints(g.getRenderingHints());
+    ret.setFont(g.getFont());
+    ret.scale(scaleX, scaleY);
+    ret.translate(-view.x, -view.y);
+    ret.setClip(view);
+    return ret;
+  }
+
   private void exposeHaloedComponent(Graphics gfx) {
     final var comp = haloedComponent;
     if (comp == null) return;
@@ -174,6 +341,10 @@ class CanvasPainter implements PropertyChangeListener {
     return haloedComponent;
   }
 
+  void invalidateStaticLayer() {
+    staticVersion.incrementAndGet();
+  }
+
   //
   // painting methods
   //
@@ -185,14 +356,21 @@ class CanvasPainter implements PropertyChangeListener {
       clip = new Rectangle(0, 0, size.width, size.height);
     }
 
-    grid.paintGrid(g);
+    final var hidden = getHiddenComponents();
+    final var staticImage = hidden.isEmpty() ? getStaticLayer(g, proj, zoomFactor) : null;
+    if (staticImage == null) {
+      grid.paintGrid(g);
+    } else {
+      final var view = staticLayerKey.view();
+      g.drawImage(gridLayer, view.x, view.y, view.width, view.height, null);
+    }
     g.setColor(Color.black);
 
     final var gfxScaled = g.create();
     if (zoomFactor != 1.0 && gfxScaled instanceof Graphics2D g2d) {
       g2d.scale(zoomFactor, zoomFactor);
     }
-    drawWithUserState(g, gfxScaled, proj);
+    drawWithUserState(g, gfxScaled, proj, hidden, staticImage);
     drawWidthIncompatibilityData(g, gfxScaled, proj);
     final var circ = proj.getCurrentCircuit();
 
@@ -12,6 +12,7 @@ package com.cburch.logisim.gui.main;
 import static com.cburch.logisim.gui.Strings.S;
 
 import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.gui.generic.TikZWriter;
@@ -29,7 +30,12 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.imageio.ImageIO;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -170,6 +176,110 @@ public class ExportImage {
         .start();
   }
 
+  /**
+   * Writes the circuits into image files in the directory, each named after its circuit, without
+   * any user interface. The circuits are drawn concurrently; a worker writes each image to disk
+   * before it draws the next one, so no more than one image per worker is held in memory.
+   *
+   * @return the number of circuits that could not be written
+   */
+  public static int exportCircuits(
+      Project proj, List<Circuit> circuits, File dir, int format, double scale,
+      boolean printerView) {
+    final var filter = getFilter(format);
+    if (filter == null) return circuits.size();
+    final var workers = Math.min(circuits.size(), Runtime.getRuntime().availableProcessors());
+    final var executor = Executors.newFixedThreadPool(Math.max(1, workers));
+    final var files = new ArrayList<File>();
+    final var results = new ArrayList<Future<?>>();
+    for (final var circuit : circuits) {
+      // the project creates the circuit states on demand, so this is done before fanning out
+      final var circuitState = proj.getCircuitState(circuit);
+      final var where = new File(dir, circuit.getName() + filter.extensions[0]);
+      files.add(where);
+      results.add(
+          executor.submit(
+              () -> {
+                write(circuit, circuitState, null, where, format, scale, printerView, null);
+                return null;
+              }));
+    }
+    executor.shutdown();
+    var failures = 0;
+    for (var i = 0; i < results.size(); i++) {
+      try {
+        results.get(i).get();
+      } catch (ExecutionException e) {
+        logger.error("{} : {}", files.get(i).getName(), e.getCause().toString());
+        failures++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        executor.shutdownNow();
+        return failures + results.size() - i;
+      }
+    }
+    return failures;
+  }
+
+  /*
+   * Draws the circuit and writes it to the file. The destination component, if any, supplies the
+   * graphics that is used to measure the circuit; otherwise it is measured on an offscreen image.
+   */
+  private static void write(
+      Circuit circuit,
+      CircuitState circuitState,
+      java.awt.Component destination,
+      File where,
+      int format,
+      double scale,
+      boolean printerView,
+      ProgressMonitor monitor)
+      throws Exception {
+    final var measure =
+        destination == null || destination.getGraphics() == null
+            ? new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).getGraphics()
+            : destination.getGraphics();
+    final var bds = circuit.getBounds(measure).expand(BORDER_SIZE);
+    measure.dispose();
+    final var width = (int) Math.round(bds.getWidth() * scale);
+    final var height = (int) Math.round(bds.getHeight() * scale);
+    Graphics g;
+    Graphics base;
+    BufferedImage img = null;
+    if (format == FORMAT_TIKZ || format == FORMAT_SVG) {
+      base = new TikZWriter();
+      g = base.create();
+    } else {
+      img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      base = img.getGraphics();
+      g = base.create();
+      g.setColor(Color.white);
+      g.fillRect(0, 0, width, height);
+      g.setColor(Color.black);
+    }
+    if (!(g instanceof Graphics2D g2d)) throw new IOException(S.get("couldNotCreateImage"));
+    g2d.scale(scale, scale);
+    g.translate(-bds.getX(), -bds.getY());
+
+    final var context =
+        new ComponentDrawContext(destination, circuit, circuitState, base, g, printerView);
+    circuit.draw(context, null);
+
+    try {
+      switch (format) {
+        case FORMAT_GIF -> GifEncoder.toFile(img, where, monitor);
+        case FORMAT_PNG -> ImageIO.write(img, "PNG", where);
+        case FORMAT_JPG -> ImageIO.write(img, "JPEG", where);
+        case FORMAT_TIKZ -> ((TikZWriter) g).writeFile(where);
+        case FORMAT_SVG -> ((TikZWriter) g).writeSvg(width, height, where);
+        default -> throw new IOException("unknown image format " + format);
+      }
+    } finally {
+      g.dispose();
+      if (img != null) base.dispose();
+    }
+  }
+
   private static class ExportThread extends UniquelyNamedThread {
     final Frame frame;
     final Canvas canvas;
@@ -201,35 +311,6 @@ public class ExportImage {
     }
 
     private void export(Circuit circuit) {
-      final var bds = circuit.getBounds(canvas.getGraphics()).expand(BORDER_SIZE);
-      final var width = (int) Math.round(bds.getWidth() * scale);
-      final var height = (int) Math.round(bds.getHeight() * scale);
-      Graphics g;
-      Graphics base;
-      final var img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-      if (filter.type == FORMAT_TIKZ || filter.type == FORMAT_SVG) {
-        base = new TikZWriter();
-        g = base.create();
-      } else {
-        base = img.getGraphics();
-        g = base.create();
-        g.setColor(Color.white);
-        g.fillRect(0, 0, width, height);
-        g.setColor(Color.black);
-      }
-      if (g instanceof Graphics2D g2d) {
-        g2d.scale(scale, scale);
-        g.translate(-bds.getX(), -bds.getY());
-      } else {
-        OptionPane.showMessageDialog(frame, S.get("couldNotCreateImage"));
-        monitor.close();
-      }
-
-      final var circuitState = canvas.getProject().getCircuitState(circuit);
-      final var context =
-          new ComponentDrawContext(canvas, circuit, circuitState, base, g, printerView);
-      circuit.draw(context, null);
-
       final File where;
       if (dest.isDirectory()) {
         where = new File(dest, circuit.getName() + filter.extensions[0]);
@@ -239,21 +320,15 @@ public class ExportImage {
         String newName = dest.getName() + filter.extensions[0];
         where = new File(dest.getParentFile(), newName);
       }
+      final var circuitState = canvas.getProject().getCircuitState(circuit);
       try {
-        switch (filter.type) {
-          case FORMAT_GIF -> GifEncoder.toFile(img, where, monitor);
-          case FORMAT_PNG -> ImageIO.write(img, "PNG", where);
-          case FORMAT_JPG -> ImageIO.write(img, "JPEG", where);
-          case FORMAT_TIKZ -> ((TikZWriter) g).writeFile(where);
-          case FORMAT_SVG -> ((TikZWriter) g).writeSvg(width, height, where);
-        }
+        write(circuit, circuitState, canvas, where, filter.type, scale, printerView, monitor);
       } catch (Exception e) {
         OptionPane.showMessageDialog(frame, S.get("couldNotCreateFile"));
         e.printStackTrace();
         monitor.close();
         return;
       }
-      g.dispose();
       monitor.close();
     }
 
@@ -28,17 +28,34 @@ import com.cburch.logisim.std.base.Text;
 import com.cburch.logisim.tools.AddTool;
 import com.cburch.logisim.tools.Library;
 import com.cburch.logisim.vhdl.base.VhdlEntity;
+import java.awt.BorderLayout;
+import java.awt.Dialog.ModalityType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
 
 public class SelectionActions {
+  // number of components from which a paste makes its copies on a worker thread
+  private static final int LARGE_PASTE_SIZE = 2000;
+
   private SelectionActions() {}
 
+  private static long getReverseSize(CircuitTransaction xnReverse) {
+    return xnReverse == null ? Action.DEFAULT_RETAINED_SIZE : xnReverse.getRetainedSize();
+  }
+
   /**
    * Code taken from Cornell's version of Logisim: http://www.cs.cornell.edu/courses/cs3410/2015sp/
    */
@@ -223,7 +240,60 @@ public class SelectionActions {
 
   public static Action pasteMaybe(Project proj, Selection sel) {
     final var replacements = getReplacementMap(proj);
-    return new Paste(sel, replacements);
+    if (replacements == null) return null;
+    final var paste = new Paste(sel, replacements);
+    final var comps = paste.computeAdditions(Clipboard.get().getComponents());
+    if (comps.size() >= LARGE_PASTE_SIZE) {
+      paste.copies = copyInBackground(proj, sel, comps);
+    }
+    return paste;
+  }
+
+  /*
+   * Makes the copies for a large paste on a worker thread. A modal dialog shows the progress
+   * meanwhile, which also keeps the user from editing the circuit that the copying reads. Returns
+   * null if the copies could not be made, in which case the paste makes them itself.
+   */
+  private static Collection<Component> copyInBackground(
+      Project proj, Selection sel, Collection<Component> comps) {
+    final var dialog =
+        new JDialog(proj.getFrame(), S.get("pasteProgressTitle"), ModalityType.APPLICATION_MODAL);
+    final var progressBar = new JProgressBar(0, comps.size());
+    final var worker =
+        new SwingWorker<Collection<Component>, Integer>() {
+          @Override
+          protected Collection<Component> doInBackground() {
+            return sel.copyForPaste(comps, count -> publish(count));
+          }
+
+          @Override
+          protected void process(List<Integer> counts) {
+            progressBar.setValue(counts.get(counts.size() - 1));
+          }
+
+          @Override
+          protected void done() {
+            dialog.dispose();
+          }
+        };
+    final var panel = new JPanel(new BorderLayout());
+    panel.add(new JLabel(S.get("pasteProgressMessage", comps.size())), BorderLayout.PAGE_START);
+    panel.add(progressBar, BorderLayout.CENTER);
+    dialog.add(panel);
+    dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+    dialog.pack();
+    dialog.setLocationRelativeTo(proj.getFrame());
+    worker.execute();
+    // done() runs on this thread, so it closes the dialog once it is shown
+    if (!worker.isDone()) dialog.setVisible(true);
+    try {
+      return worker.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      return null;
+    }
   }
 
   public static Action translate(Selection sel, int dx, int dy, ReplacementMap repl) {
@@ -275,6 +345,11 @@ public class SelectionActions {
       return otherAfter != null && otherAfter.equals(this.before);
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       xnReverse.execute();
@@ -333,6 +408,11 @@ public class SelectionActions {
       return S.get("cutSelectionAction");
     }
 
+    @Override
+    public long getRetainedSize() {
+      return second.getRetainedSize();
+    }
+
     @Override
     public void undo(Project proj) {
       second.undo(proj);
@@ -362,6 +442,11 @@ public class SelectionActions {
       return S.get("deleteSelectionAction");
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       xnReverse.execute();
@@ -422,6 +507,11 @@ public class SelectionActions {
       return otherAfter != null && otherAfter.equals(this.before);
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       xnReverse.execute();
@@ -453,6 +543,11 @@ public class SelectionActions {
       return S.get("duplicateSelectionAction");
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       xnReverse.execute();
@@ -464,6 +559,8 @@ public class SelectionActions {
     private final HashMap<Component, Component> componentReplacements;
     private CircuitTransaction xnReverse;
     private SelectionSave after;
+    // copies made in advance, used by the first doIt only
+    private Collection<Component> copies;
 
     Paste(Selection sel, HashMap<Component, Component> replacements) {
       this.sel = sel;
@@ -510,7 +607,12 @@ public class SelectionActions {
       }
 
       if (!toAdd.isEmpty()) {
-        sel.pasteHelper(xn, toAdd);
+        if (copies != null) {
+          sel.pasteCopiesHelper(xn, copies);
+          copies = null;
+        } else {
+          sel.pasteHelper(xn, toAdd);
+        }
         final var result = xn.execute();
         xnReverse = result.getReverseTransaction();
         after = SelectionSave.create(sel);
@@ -524,6 +626,11 @@ public class SelectionActions {
       return S.get("pasteClipboardAction");
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       if (xnReverse != null) {
@@ -582,6 +689,11 @@ public class SelectionActions {
       return otherAfter != null && otherAfter.equals(this.before);
     }
 
+    @Override
+    public long getRetainedSize() {
+      return getReverseSize(xnReverse);
+    }
+
     @Override
     public void undo(Project proj) {
       xnReverse.execute();
@@ -27,12 +27,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class SelectionBase {
 
   static final Logger logger = LoggerFactory.getLogger(SelectionBase.class);
+  static final int PROGRESS_STEP = 256;
   static final Set<Component> NO_COMPONENTS = Collections.emptySet();
   final HashSet<Component> selected = new HashSet<>(); // of selected
   // Components in circuit
@@ -127,7 +129,8 @@ class SelectionBase {
     }
   }
 
-  private HashMap<Component, Component> copyComponents(Collection<Component> components, boolean translate) {
+  private HashMap<Component, Component> copyComponents(Collection<Component> components,
+      boolean translate, IntConsumer progress) {
     // determine translation offset where we can legally place the clipboard
     int dx;
     int dy;
@@ -165,12 +168,17 @@ class SelectionBase {
       if (bds.getX() + dx >= 0
           && bds.getY() + dy >= 0
           && !hasConflictTranslated(components, dx, dy, true)) {
-        return copyComponents(components, dx, dy, translate);
+        return copyComponents(components, dx, dy, translate, progress);
       }
     }
   }
 
   private HashMap<Component, Component> copyComponents(Collection<Component> components, int dx, int dy, boolean translate) {
+    return copyComponents(components, dx, dy, translate, null);
+  }
+
+  private HashMap<Component, Component> copyComponents(Collection<Component> components,
+      int dx, int dy, boolean translate, IntConsumer progress) {
     final var ret = new HashMap<Component, Component>();
     for (final var comp : components) {
       final var oldLoc = comp.getLocation();
@@ -188,6 +196,7 @@ class SelectionBase {
       final var newLoc = Location.create(newX, newY, false);
       final var copy = comp.getFactory().createComponent(newLoc, attrs);
       ret.put(comp, copy);
+      if (progress != null && ret.size() % PROGRESS_STEP == 0) progress.accept(ret.size());
     }
     return ret;
   }
@@ -281,11 +290,22 @@ class SelectionBase {
     return hasConflictTranslated(unionSet, dx, dy, false);
   }
 
+  /*
+   * Makes the copies of the components that a paste lifts into the selection. It only reads the
+   * circuit, so it may run outside the event thread as long as the circuit is not edited meanwhile;
+   * the progress, if any, is told how many copies have been made so far.
+   */
+  Collection<Component> copyForPaste(Collection<Component> comps, IntConsumer progress) {
+    return copyComponents(comps, false, progress).values();
+  }
+
   void pasteHelper(CircuitMutation xn, Collection<Component> comps) {
-    clear(xn);
+    pasteCopiesHelper(xn, copyForPaste(comps, null));
+  }
 
-    final var newLifted = copyComponents(comps, false);
-    lifted.addAll(newLifted.values());
+  void pasteCopiesHelper(CircuitMutation xn, Collection<Component> copies) {
+    clear(xn);
+    lifted.addAll(copies);
     fireSelectionChanged();
   }
 
@@ -54,6 +54,14 @@ public class ToolAttributeAction extends Action {
     return S.get("changeToolAttrAction");
   }
 
+  @Override
+  public long getRetainedSize() {
+    var ret = DEFAULT_RETAINED_SIZE;
+    for (final var value : config.getAttributeValues().values()) ret += getValueSize(value);
+    for (final var value : oldValues.values()) ret += getValueSize(value);
+    return ret;
+  }
+
   @Override
   public void doIt(Project proj) {
     if (affectsAppearance()) {
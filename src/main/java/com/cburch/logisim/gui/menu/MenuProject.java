@@ -42,6 +42,7 @@ class MenuProject extends Menu {
       new MenuItemImpl(this, LogisimMenuBar.TOGGLE_APPEARANCE);
   private final MenuItemImpl analyze = new MenuItemImpl(this, LogisimMenuBar.ANALYZE_CIRCUIT);
   private final MenuItemImpl stats = new MenuItemImpl(this, LogisimMenuBar.CIRCUIT_STATS);
+  private final JMenuItem equivalence = new JMenuItem();
   private final JMenuItem options = new JMenuItem();
 
   MenuProject(LogisimMenuBar menubar) {
@@ -70,6 +71,7 @@ class MenuProject extends Menu {
     menubar.registerItem(LogisimMenuBar.TOGGLE_APPEARANCE, toggleLayoutAppearance);
     menubar.registerItem(LogisimMenuBar.ANALYZE_CIRCUIT, analyze);
     menubar.registerItem(LogisimMenuBar.CIRCUIT_STATS, stats);
+    equivalence.addActionListener(myListener);
     options.addActionListener(myListener);
 
     loadLibrary.add(loadBuiltin);
@@ -95,6 +97,7 @@ class MenuProject extends Menu {
     add(appearance);
     addSeparator();
     add(analyze);
+    add(equivalence);
     add(stats);
     addSeparator();
     add(options);
@@ -105,6 +108,7 @@ class MenuProject extends Menu {
     loadLogisim.setEnabled(known);
     loadJar.setEnabled(known);
     unload.setEnabled(known);
+    equivalence.setEnabled(known);
     options.setEnabled(known);
     computeEnabled();
   }
@@ -154,6 +158,7 @@ class MenuProject extends Menu {
     appearance.setText(S.get("projectEditCircuitAppearanceItem"));
     toggleLayoutAppearance.setText(S.get("projectToggleCircuitAppearanceItem"));
     analyze.setText(S.get("projectAnalyzeCircuitItem"));
+    equivalence.setText(S.get("projectCheckEquivalenceItem"));
     stats.setText(S.get("projectGetCircuitStatisticsItem"));
     options.setText(S.get("projectOptionsItem"));
   }
@@ -174,6 +179,8 @@ class MenuProject extends Menu {
         ProjectLibraryActions.doLoadJarLibrary(proj);
       } else if (src == unload) {
         ProjectLibraryActions.doUnloadLibraries(proj);
+      } else if (src == equivalence) {
+        ProjectCircuitActions.doCheckEquivalence(proj, proj.getCurrentCircuit());
       } else if (src == options) {
         proj.getOptionsFrame().setVisible(true);
       }
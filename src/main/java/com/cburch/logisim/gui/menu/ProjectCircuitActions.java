@@ -19,6 +19,8 @@ import com.cburch.logisim.analyze.model.Var;
 import com.cburch.logisim.circuit.Analyze;
 import com.cburch.logisim.circuit.AnalyzeException;
 import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.EquivalenceChecker;
+import com.cburch.logisim.file.LoadedLibrary;
 import com.cburch.logisim.file.LogisimFile;
 import com.cburch.logisim.file.LogisimFileActions;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
@@ -36,14 +38,20 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.JTextField;
 
 public class ProjectCircuitActions {
+  // larger sums of products are not shown in the symbolic analysis
+  private static final int MAX_SYMBOLIC_PRODUCTS = 1024;
+
   private ProjectCircuitActions() {
     // dummy, private
   }
@@ -176,8 +184,13 @@ public class ProjectCircuitActions {
         numOutputs += width;
       }
     }
+    if (numInputs > AnalyzerModel.MAX_SYMBOLIC_INPUTS) {
+      analyzeError(
+          proj, S.get("analyzeTooManyInputsError", "" + AnalyzerModel.MAX_SYMBOLIC_INPUTS));
+      return;
+    }
     if (numInputs > AnalyzerModel.MAX_INPUTS) {
-      analyzeError(proj, S.get("analyzeTooManyInputsError", "" + AnalyzerModel.MAX_INPUTS));
+      showSymbolicAnalysis(proj, circuit, pinNames);
       return;
     }
     if (numOutputs > AnalyzerModel.MAX_OUTPUTS) {
@@ -194,6 +207,100 @@ public class ProjectCircuitActions {
     analyzer.toFront();
   }
 
+  /**
+   * Shows the outputs of a circuit with too many inputs for a truth table, computed as decision
+   * diagrams and minimized to sums of products.
+   */
+  private static void showSymbolicAnalysis(
+      Project proj, Circuit circuit, Map<Instance, String> pinNames) {
+    final Analyze.BddFunctions functions;
+    try {
+      functions = Analyze.computeBdd(circuit, pinNames);
+    } catch (AnalyzeException e) {
+      analyzeError(proj, e.getMessage());
+      return;
+    }
+    final var bdd = functions.bdd();
+    final var text = new StringBuilder();
+    text.append(S.get("analyzeSymbolicIntro", "" + AnalyzerModel.MAX_INPUTS));
+    for (final var output : functions.outputs().entrySet()) {
+      final var function = output.getValue();
+      text.append("\n\n").append(output.getKey()).append(" = ");
+      if (function == Analyze.NO_DRIVER) {
+        text.append(S.get("analyzeSymbolicNoDriver"));
+        continue;
+      }
+      final var sum =
+          bdd.toSumOfProducts(function, functions.inputs(), MAX_SYMBOLIC_PRODUCTS);
+      if (sum != null) {
+        text.append(sum);
+      } else {
+        text.append(
+            S.get(
+                "analyzeSymbolicTooManyProducts",
+                "" + MAX_SYMBOLIC_PRODUCTS,
+                "" + bdd.countNodes(function)));
+      }
+    }
+    final var area = new JTextArea(text.toString(), 20, 60);
+    area.setEditable(false);
+    area.setLineWrap(true);
+    area.setWrapStyleWord(true);
+    OptionPane.showMessageDialog(
+        proj.getFrame(),
+        new JScrollPane(area),
+        S.get("analyzeSymbolicTitle"),
+        OptionPane.INFORMATION_MESSAGE);
+  }
+
+  /**
+   * Checks whether a circuit is equivalent to another circuit of the project or of a loaded Logisim
+   * library, such as a reference solution, and shows the outcome.
+   */
+  public static void doCheckEquivalence(Project proj, Circuit circuit) {
+    if (circuit == null) return;
+    final var candidates = new LinkedHashMap<String, Circuit>();
+    for (final var other : proj.getLogisimFile().getCircuits()) {
+      if (other != circuit) candidates.put(other.getName(), other);
+    }
+    for (final var lib : proj.getLogisimFile().getLibraries()) {
+      if (lib instanceof LoadedLibrary loaded && loaded.getBase() instanceof LogisimFile file) {
+        for (final var other : file.getCircuits()) {
+          candidates.put(lib.getDisplayName() + ": " + other.getName(), other);
+        }
+      }
+    }
+    if (candidates.isEmpty()) {
+      analyzeError(proj, S.get("equivalenceNoReferenceError"));
+      return;
+    }
+    final var names = candidates.keySet().toArray(new String[0]);
+    final var choice =
+        OptionPane.showInputDialog(
+            proj.getFrame(),
+            S.get("equivalenceReferencePrompt", circuit.getName()),
+            S.get("equivalenceTitle"),
+            OptionPane.QUESTION_MESSAGE,
+            null,
+            names,
+            names[0]);
+    if (choice == null) return;
+    final EquivalenceChecker.Result result;
+    try {
+      result = EquivalenceChecker.check(circuit, candidates.get(choice));
+    } catch (AnalyzeException e) {
+      analyzeError(proj, e.getMessage());
+      return;
+    }
+    final var area = new JTextArea(result.describe(), Math.min(20, result.inputs().size() + 4), 40);
+    area.setEditable(false);
+    OptionPane.showMessageDialog(
+        proj.getFrame(),
+        new JScrollPane(area),
+        S.get("equivalenceTitle"),
+        result.isEquivalent() ? OptionPane.INFORMATION_MESSAGE : OptionPane.WARNING_MESSAGE);
+  }
+
   public static void doMoveCircuit(Project proj, Circuit cur, int delta) {
     final var tool = proj.getLogisimFile().getAddTool(cur);
     if (tool != null) {
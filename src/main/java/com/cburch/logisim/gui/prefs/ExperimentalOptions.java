@@ -23,6 +23,7 @@ class ExperimentalOptions extends OptionsPanel {
   private static final long serialVersionUID = 1L;
   private final JLabel accelRestart = new JLabel();
   private final PrefOptionList accel;
+  private final PrefOptionList memContents;
 
   public ExperimentalOptions(PreferencesFrame window) {
     super(window);
@@ -46,9 +47,24 @@ class ExperimentalOptions extends OptionsPanel {
     final var accelPanel2 = new JPanel();
     accelPanel2.add(accelPanel);
 
+    memContents =
+        new PrefOptionList(
+            AppPreferences.MEMORY_CONTENTS_STORAGE,
+            S.getter("memContentsLabel"),
+            new PrefOption[] {
+              new PrefOption(AppPreferences.MEM_CONTENTS_TEXT, S.getter("memContentsText")),
+              new PrefOption(
+                  AppPreferences.MEM_CONTENTS_COMPRESSED, S.getter("memContentsCompressed")),
+              new PrefOption(AppPreferences.MEM_CONTENTS_EXTERNAL, S.getter("memContentsExternal")),
+            });
+    final var memContentsPanel = new JPanel();
+    memContentsPanel.add(memContents.getJLabel());
+    memContentsPanel.add(memContents.getJComboBox());
+
     setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
     add(Box.createGlue());
     add(accelPanel2);
+    add(memContentsPanel);
     add(Box.createGlue());
   }
 
@@ -65,6 +81,7 @@ class ExperimentalOptions extends OptionsPanel {
   @Override
   public void localeChanged() {
     accel.localeChanged();
+    memContents.localeChanged();
     accelRestart.setText(S.get("accelRestartLabel"));
   }
 }
@@ -16,6 +16,7 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.proj.Projects;
+import com.cburch.logisim.util.StringUtil;
 import com.cburch.logisim.util.TableLayout;
 import java.util.prefs.PreferenceChangeEvent;
 import java.util.prefs.PreferenceChangeListener;
@@ -27,6 +28,7 @@ class LayoutOptions extends OptionsPanel {
   private final PrefOptionList afterAdd;
   private final PrefOptionList defaultAppearance;
   private final PrefOptionList prefPinAppearance;
+  private final PrefOptionList undoMemory;
   private PrefOptionList radix1;
   private PrefOptionList radix2;
 
@@ -101,6 +103,14 @@ class LayoutOptions extends OptionsPanel {
                   AppPreferences.PIN_APPEAR_DOT_BIGGER, S.getter("layoutPinAppearanceDotBigger"))
             });
 
+    final var memoryItems = new PrefOption[AppPreferences.UNDO_MEMORY_OPTIONS.length];
+    for (var i = 0; i < memoryItems.length; i++) {
+      final var value = AppPreferences.UNDO_MEMORY_OPTIONS[i];
+      memoryItems[i] = new PrefOption(value, StringUtil.constantGetter(value + " MB"));
+    }
+    undoMemory =
+        new PrefOptionList(AppPreferences.UNDO_MEMORY, S.getter("layoutUndoMemory"), memoryItems);
+
     final var panel = new JPanel(new TableLayout(2));
     panel.add(defaultAppearance.getJLabel());
     panel.add(defaultAppearance.getJComboBox());
@@ -112,6 +122,8 @@ class LayoutOptions extends OptionsPanel {
     panel.add(radix2.getJComboBox());
     panel.add(prefPinAppearance.getJLabel());
     panel.add(prefPinAppearance.getJComboBox());
+    panel.add(undoMemory.getJLabel());
+    panel.add(undoMemory.getJComboBox());
 
     setLayout(new TableLayout(1));
     for (final var check : checks) {
@@ -139,6 +151,7 @@ class LayoutOptions extends OptionsPanel {
     radix2.localeChanged();
     afterAdd.localeChanged();
     defaultAppearance.localeChanged();
+    undoMemory.localeChanged();
   }
 
   private static class MyListener implements PreferenceChangeListener {
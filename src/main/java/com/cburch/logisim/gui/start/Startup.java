@@ -12,6 +12,9 @@ package com.cburch.logisim.gui.start;
 import static com.cburch.logisim.gui.Strings.S;
 
 import com.cburch.logisim.Main;
+import com.cburch.logisim.circuit.AnalyzeException;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.EquivalenceChecker;
 import com.cburch.logisim.file.LoadFailedException;
 import com.cburch.logisim.file.Loader;
 import com.cburch.logisim.fpga.download.Download;
@@ -23,6 +26,7 @@ import com.cburch.logisim.gui.icons.ErrorIcon;
 import com.cburch.logisim.gui.icons.InfoIcon;
 import com.cburch.logisim.gui.icons.QuestionIcon;
 import com.cburch.logisim.gui.icons.WarningIcon;
+import com.cburch.logisim.gui.main.ExportImage;
 import com.cburch.logisim.gui.main.Print;
 import com.cburch.logisim.gui.menu.LogisimMenuBar;
 import com.cburch.logisim.gui.menu.WindowManagers;
@@ -95,6 +99,7 @@ public class Startup implements AWTEventListener {
   private boolean templPlain = false;
   private String testVector = null;
   private String circuitToTest = null;
+  private File equivalenceReference = null;
   private boolean exitAfterStartup = false;
   private boolean showSplash;
   private File loadFile;
@@ -120,6 +125,11 @@ public class Startup implements AWTEventListener {
   /* Testing Xml (circ file) Variable */
   private String testCircPathInput = null;
   private String testCircPathOutput = null;
+  // Variables for headless export of circuit images
+  private int exportFormat = -1;
+  private File exportDirectory = null;
+  private List<String> exportCircuits = null;
+  private double exportScale = 1.0;
 
   private Startup(boolean isTty) {
     this.isTty = isTty;
@@ -168,6 +178,10 @@ public class Startup implements AWTEventListener {
   private static final String ARG_TEST_VECTOR_LONG = "test-vector";
   private static final String ARG_NO_SPLASH_LONG = "no-splash";
   private static final String ARG_MAIN_CIRCUIT = "toplevel-circuit";
+  private static final String ARG_EQUIVALENCE_LONG = "equivalence";
+  private static final String ARG_EXPORT_LONG = "export";
+  private static final String ARG_EXPORT_CIRCUITS_LONG = "export-circuits";
+  private static final String ARG_EXPORT_SCALE_LONG = "export-scale";
 
   /**
    * Parses provided string expecting it represent boolean option. Accepted values
@@ -326,6 +340,10 @@ public class Startup implements AWTEventListener {
     addOption(opts, "argNoSplashOption", ARG_NO_SPLASH_LONG);
     addOption(opts, "argMainCircuitOption", ARG_MAIN_CIRCUIT, 1);
     addOption(opts, "argTestVectorOption", ARG_TEST_VECTOR_LONG, ARG_TEST_VECTOR_SHORT, 2);
+    addOption(opts, "argEquivalenceOption", ARG_EQUIVALENCE_LONG, 2);
+    addOption(opts, "argExportOption", ARG_EXPORT_LONG, 2);
+    addOption(opts, "argExportCircuitsOption", ARG_EXPORT_CIRCUITS_LONG, 1);
+    addOption(opts, "argExportScaleOption", ARG_EXPORT_SCALE_LONG, 1);
     addOption(opts, "argTestCircuitOption", ARG_TEST_CIRCUIT_LONG, ARG_TEST_CIRCUIT_SHORT, 1);     // FIXME add "Option" suffix to key name
     addOption(opts, "argTestCircGenOption", ARG_TEST_CIRC_GEN_LONG, ARG_TEST_CIRC_GEN_SHORT, 2);   // FIXME add "Option" suffix to key name
 
@@ -346,7 +364,8 @@ public class Startup implements AWTEventListener {
     // see whether we'll be using any graphics
     var isTty = false;
     var shallClearPreferences = false;
-    if (cmd.hasOption(ARG_TTY_SHORT) || cmd.hasOption(ARG_TEST_FGPA_SHORT) || cmd.hasOption(ARG_TEST_FGPA_LONG)) {
+    if (cmd.hasOption(ARG_TTY_SHORT) || cmd.hasOption(ARG_TEST_FGPA_SHORT) || cmd.hasOption(ARG_TEST_FGPA_LONG)
+        || cmd.hasOption(ARG_EXPORT_LONG)) {
       isTty = true;
       Main.headless = true;
     } else {
@@ -391,6 +410,10 @@ public class Startup implements AWTEventListener {
         case ARG_TEMPLATE_LONG -> handleArgTemplate(startup, opt);
         case ARG_NO_SPLASH_LONG -> handleArgNoSplash(startup, opt);
         case ARG_TEST_VECTOR_LONG -> handleArgTestVector(startup, opt);
+        case ARG_EQUIVALENCE_LONG -> handleArgEquivalence(startup, opt);
+        case ARG_EXPORT_LONG -> handleArgExport(startup, opt);
+        case ARG_EXPORT_CIRCUITS_LONG -> handleArgExportCircuits(startup, opt);
+        case ARG_EXPORT_SCALE_LONG -> handleArgExportScale(startup, opt);
         case ARG_TEST_FGPA_LONG -> handleArgTestFpga(startup, opt);
         case ARG_TEST_CIRCUIT_LONG -> handleArgTestCircuit(startup, opt);
         case ARG_TEST_CIRC_GEN_LONG -> handleArgTestCircGen(startup, opt);
@@ -631,6 +654,53 @@ public class Startup implements AWTEventListener {
     return RC.OK;
   }
 
+  private static RC handleArgEquivalence(Startup startup, Option opt) {
+    startup.circuitToTest = opt.getValues()[0];
+    startup.equivalenceReference = new File(opt.getValues()[1]);
+    startup.showSplash = false;
+    startup.exitAfterStartup = true;
+    // Returns 0 if the circuits are equivalent, 1 if they differ and -1 if they cannot be compared.
+    return RC.OK;
+  }
+
+  private static RC handleArgExport(Startup startup, Option opt) {
+    startup.exportFormat = switch (opt.getValues()[0].toLowerCase()) {
+      case "png" -> ExportImage.FORMAT_PNG;
+      case "gif" -> ExportImage.FORMAT_GIF;
+      case "jpg", "jpeg" -> ExportImage.FORMAT_JPG;
+      case "svg" -> ExportImage.FORMAT_SVG;
+      case "tikz", "tex" -> ExportImage.FORMAT_TIKZ;
+      default -> -1;
+    };
+    if (startup.exportFormat < 0) {
+      logger.error(S.get("argExportFormatError"));
+      return RC.QUIT;
+    }
+    startup.exportDirectory = new File(opt.getValues()[1]);
+    return RC.OK;
+  }
+
+  private static RC handleArgExportCircuits(Startup startup, Option opt) {
+    startup.exportCircuits = new ArrayList<>();
+    for (final var name : opt.getValue().split(",")) {
+      if (!name.isBlank()) startup.exportCircuits.add(name.trim());
+    }
+    return RC.OK;
+  }
+
+  private static RC handleArgExportScale(Startup startup, Option opt) {
+    try {
+      startup.exportScale = Double.parseDouble(opt.getValue());
+    } catch (NumberFormatException e) {
+      startup.exportScale = -1;
+    }
+    if (!(startup.exportScale > 0)) {
+      logger.error(S.get("argExportScaleError"));
+      return RC.QUIT;
+    }
+    return RC.OK;
+  }
+
   private static RC handleArgMainCircuit(Startup startup, Option opt) {
     startup.circuitToTest = opt.getValues()[0];
     return RC.OK;
@@ -801,6 +871,38 @@ public class Startup implements AWTEventListener {
     return ttyFormat;
   }
 
+  boolean isExport() {
+    return exportFormat >= 0;
+  }
+
+  /**
+   * Writes the circuits named on the command line, or all circuits of the project, as images in
+   * the export directory and returns the exit code.
+   */
+  int exportCircuits(Project proj) {
+    final var file = proj.getLogisimFile();
+    final var circuits = new ArrayList<Circuit>();
+    if (exportCircuits == null) {
+      circuits.addAll(file.getCircuits());
+    } else {
+      for (final var name : exportCircuits) {
+        final var circuit = file.getCircuit(name);
+        if (circuit == null) {
+          logger.error(S.get("equivalenceNoCircuitError", name));
+          return -1;
+        }
+        circuits.add(circuit);
+      }
+    }
+    if (!exportDirectory.isDirectory() && !exportDirectory.mkdirs()) {
+      logger.error(S.get("exportNewDirectoryErrorMessage"));
+      return -1;
+    }
+    final var failures =
+        ExportImage.exportCircuits(proj, circuits, exportDirectory, exportFormat, exportScale, true);
+    return failures == 0 ? 0 : -1;
+  }
+
   boolean isFpgaDownload() {
     return doFpgaDownload;
   }
@@ -1009,6 +1111,9 @@ public class Startup implements AWTEventListener {
           if (testVector != null) {
             proj = ProjectActions.doOpenNoWindow(monitor, fileToOpen);
             proj.doTestVector(testVector, circuitToTest);
+          } else if (equivalenceReference != null) {
+            proj = ProjectActions.doOpenNoWindow(monitor, fileToOpen);
+            System.exit(checkEquivalence(proj));
           } else if (testCircPathInput != null && testCircPathOutput != null) {
             /* This part of the function will create a new circuit file (
              * XML) which will be open and saved again using the  */
@@ -1056,6 +1161,30 @@ public class Startup implements AWTEventListener {
     }
   }
 
+  /**
+   * Compares the circuit to test with the circuit of the same name in the reference file, or with
+   * the main circuit of the reference file if it has no circuit of that name.
+   */
+  private int checkEquivalence(Project proj) {
+    final var circuit = proj.getLogisimFile().getCircuit(circuitToTest);
+    if (circuit == null) {
+      logger.error(S.get("equivalenceNoCircuitError", circuitToTest));
+      return -1;
+    }
+    try {
+      final var reference = ProjectActions.doOpenNoWindow(monitor, equivalenceReference);
+      final var referenceFile = reference.getLogisimFile();
+      var referenceCircuit = referenceFile.getCircuit(circuitToTest);
+      if (referenceCircuit == null) referenceCircuit = referenceFile.getMainCircuit();
+      final var result = EquivalenceChecker.check(circuit, referenceCircuit);
+      System.out.println(result.describe());
+      return result.isEquivalent() ? 0 : 1;
+    } catch (LoadFailedException | AnalyzeException e) {
+      logger.error("{} : {}", equivalenceReference.getName(), e.getMessage());
+      return -1;
+    }
+  }
+
   private boolean hasIcon(Component comp) {
     var result = false;
     if (comp instanceof JOptionPane pane) {
@@ -281,6 +281,9 @@ public class TtyInterface {
     if (args.isFpgaDownload()) {
       if (!args.fpgaDownload(proj)) System.exit(-1);
     }
+    if (args.isExport()) {
+      System.exit(args.exportCircuits(proj));
+    }
 
     final var circuitToTest = args.getCircuitToTest();
     final var circuit = (circuitToTest == null || circuitToTest.length() == 0)
@@ -42,6 +42,8 @@ import java.util.HashSet;
 import java.util.List;
 
 public final class InstanceComponent implements Component, AttributeListener, ToolTipMaker {
+  private static final InstanceEvaluator NO_EVALUATOR = state -> {};
+
   private EventSourceWeakSupport<ComponentListener> listeners;
   private InstanceFactory factory;
   private final Instance instance;
@@ -58,6 +60,9 @@ public final class InstanceComponent implements Component, AttributeListener, To
   private InstanceStateImpl instanceState;
   private boolean doMarkInstance;
   private boolean doMarkLabel;
+  // built on the first propagation, dropped when the attributes or ports change
+  private volatile InstanceEvaluator evaluator;
+  private int evaluatorVersion;
 
   public InstanceComponent(InstanceFactory factory, Location loc, AttributeSet attrs) {
     this.listeners = null;
@@ -125,6 +130,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
   @Override
   public void attributeValueChanged(AttributeEvent e) {
     final var attr = e.getAttribute();
+    dropEvaluator();
     if (e.getAttribute().equals(StdAttr.LABEL)) {
       @SuppressWarnings("unchecked")
       final var lAttr = (Attribute<String>) e.getAttribute();
@@ -151,6 +157,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
   }
 
   private void computeEnds() {
+    dropEvaluator();
     final var ports = portList;
     final var esOld = endArray;
     final var esOldLength = esOld == null ? 0 : esOld.length;
@@ -357,6 +364,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
   @Override
   public void setFactory(ComponentFactory fact) {
     factory = (InstanceFactory) fact;
+    dropEvaluator();
   }
 
   @Override
@@ -411,7 +419,33 @@ public final class InstanceComponent implements Component, AttributeListener, To
 
   @Override
   public void propagate(CircuitState state) {
-    factory.propagate(state.getInstanceState(this));
+    var eval = evaluator;
+    if (eval == null) eval = createEvaluator();
+    if (eval == NO_EVALUATOR) {
+      factory.propagate(state.getInstanceState(this));
+    } else {
+      eval.evaluate(state);
+    }
+  }
+
+  private InstanceEvaluator createEvaluator() {
+    final int version;
+    synchronized (this) {
+      version = evaluatorVersion;
+    }
+    // without attribute events the evaluator could not be dropped when it gets stale
+    final var listening = attrListenRequested || widthAttrs != null;
+    var eval = listening ? factory.createEvaluator(instance, new PortSlots(this)) : null;
+    if (eval == null) eval = NO_EVALUATOR;
+    synchronized (this) {
+      if (version == evaluatorVersion) evaluator = eval;
+    }
+    return eval;
+  }
+
+  private synchronized void dropEvaluator() {
+    evaluatorVersion++;
+    evaluator = null;
   }
 
   void recomputeBounds() {
@@ -0,0 +1,23 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.instance;
+
+import com.cburch.logisim.circuit.CircuitState;
+
+/**
+ * A precompiled propagation of one instance, see {@link InstanceFactory#createEvaluator}. It holds
+ * the attributes the factory decoded and the {@link PortSlots} of the instance, so propagating the
+ * instance needs neither attribute lookups nor an {@link InstanceState}.
+ */
+@FunctionalInterface
+public interface InstanceEvaluator {
+  /** Computes the outputs of the instance in the given state, as {@code propagate} would. */
+  void evaluate(CircuitState state);
+}
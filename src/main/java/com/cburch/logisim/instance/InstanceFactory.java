@@ -147,6 +147,19 @@ public abstract class InstanceFactory extends AbstractComponentFactory {
     return ret;
   }
 
+  /**
+   * Returns an evaluator that propagates the instance in place of {@link #propagate}, or null to
+   * keep using propagate, which is what this implementation does. The evaluator is created when the
+   * instance is first propagated and dropped whenever its attributes or ports change, so it may
+   * keep whatever it decoded from them; it is only used while the instance receives attribute
+   * events, that is when it has a port whose width is an attribute or the factory called {@link
+   * Instance#addAttributeListener}. An evaluator is shared by all the circuit states of the
+   * instance, possibly on several threads, so it must not keep anything that depends on a state.
+   */
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    return null;
+  }
+
   public final InstanceState createInstanceState(CircuitState state, Component comp) {
     return createInstanceState(state, ((InstanceComponent) comp).getInstance());
   }
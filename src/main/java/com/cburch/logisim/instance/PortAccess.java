@@ -0,0 +1,58 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.instance;
+
+import com.cburch.logisim.data.Value;
+
+/**
+ * The ports and data of an instance, as seen from a state of type {@code S}. Both {@link
+ * InstanceState} (through {@link #INSTANCE_STATE}) and the {@link PortSlots} of an {@link
+ * InstanceEvaluator} give this view, so a factory can write its propagation once and use it from
+ * {@link InstanceFactory#propagate} and from its evaluator.
+ */
+public interface PortAccess<S> {
+  PortAccess<InstanceState> INSTANCE_STATE =
+      new PortAccess<>() {
+        @Override
+        public InstanceData getData(InstanceState state) {
+          return state.getData();
+        }
+
+        @Override
+        public Value getValue(InstanceState state, int index) {
+          return state.getPortValue(index);
+        }
+
+        @Override
+        public boolean isConnected(InstanceState state, int index) {
+          return state.isPortConnected(index);
+        }
+
+        @Override
+        public void setData(InstanceState state, InstanceData data) {
+          state.setData(data);
+        }
+
+        @Override
+        public void setValue(InstanceState state, int index, Value value, int delay) {
+          state.setPort(index, value, delay);
+        }
+      };
+
+  InstanceData getData(S state);
+
+  Value getValue(S state, int index);
+
+  boolean isConnected(S state, int index);
+
+  void setData(S state, InstanceData data);
+
+  void setValue(S state, int index, Value value, int delay);
+}
@@ -0,0 +1,62 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.instance;
+
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+
+/**
+ * The locations of the ports of an instance, resolved once for its {@link InstanceEvaluator}. The
+ * methods go straight to the values of a circuit state and mirror those of {@link InstanceState}.
+ */
+public final class PortSlots implements PortAccess<CircuitState> {
+  private final Component component;
+  private final Location[] locations;
+
+  PortSlots(InstanceComponent component) {
+    this.component = component;
+    final var ends = component.getEnds();
+    locations = new Location[ends.size()];
+    for (var i = 0; i < locations.length; i++) {
+      locations[i] = ends.get(i).getLocation();
+    }
+  }
+
+  @Override
+  public InstanceData getData(CircuitState state) {
+    return (InstanceData) state.getData(component);
+  }
+
+  @Override
+  public Value getValue(CircuitState state, int index) {
+    return state.getValue(locations[index]);
+  }
+
+  @Override
+  public boolean isConnected(CircuitState state, int index) {
+    return state.getCircuit().isConnected(locations[index], component);
+  }
+
+  @Override
+  public void setData(CircuitState state, InstanceData data) {
+    state.setData(component, data);
+  }
+
+  @Override
+  public void setValue(CircuitState state, int index, Value value, int delay) {
+    state.setValue(locations[index], value, component, delay);
+  }
+
+  public int size() {
+    return locations.length;
+  }
+}
@@ -508,6 +508,8 @@ public class AppPreferences {
       create(new PrefMonitorBoolean("NoOpenPinWarnings", false));
   public static final PrefMonitor<Boolean> VhdlKeywordsUpperCase =
       create(new PrefMonitorBoolean("VhdlKeywordsUpperCase", true));
+  public static final PrefMonitor<Boolean> HdlMemoryInitFiles =
+      create(new PrefMonitorBoolean("HdlMemoryInitFiles", false));
   //file preferences
   public static final PrefMonitor<Boolean> REMOVE_UNUSED_LIBRARIES =
       create(new PrefMonitorBoolean("removeUnusedLibs", false));
@@ -642,6 +644,16 @@ public class AppPreferences {
           new PrefMonitorStringOpts(
               "afterAdd", new String[] {ADD_AFTER_EDIT, ADD_AFTER_UNCHANGED}, ADD_AFTER_EDIT));
 
+  // memory for the undo history of a project, in MiB
+  public static final String[] UNDO_MEMORY_OPTIONS = {"16", "64", "256", "1024"};
+  public static final PrefMonitor<String> UNDO_MEMORY =
+      create(new PrefMonitorStringOpts("undoMemory", UNDO_MEMORY_OPTIONS, "64"));
+
+  /** Returns the memory for the undo history of a project in bytes. */
+  public static long getUndoMemory() {
+    return Long.parseLong(UNDO_MEMORY.get()) << 20;
+  }
+
   public static final String PIN_APPEAR_DOT_SMALL = "dot-small";
   public static final String PIN_APPEAR_DOT_MEDIUM = "dot-medium";
   public static final String PIN_APPEAR_DOT_BIG = "dot-big";
@@ -780,6 +792,18 @@ public class AppPreferences {
               "graphicsAcceleration",
               new String[] {ACCEL_DEFAULT, ACCEL_NONE, ACCEL_OPENGL, ACCEL_D3D},
               ACCEL_DEFAULT));
+  public static final String MEM_CONTENTS_TEXT = "text";
+
+  public static final String MEM_CONTENTS_COMPRESSED = "compressed";
+
+  public static final String MEM_CONTENTS_EXTERNAL = "external";
+
+  public static final PrefMonitor<String> MEMORY_CONTENTS_STORAGE =
+      create(
+          new PrefMonitorStringOpts(
+              "memContentsStorage",
+              new String[] {MEM_CONTENTS_TEXT, MEM_CONTENTS_COMPRESSED, MEM_CONTENTS_EXTERNAL},
+              MEM_CONTENTS_TEXT));
   public static final PrefMonitor<Boolean> AntiAliassing =
       create(new PrefMonitorBoolean("AntiAliassing", true));
 
@@ -9,7 +9,12 @@
 
 package com.cburch.logisim.proj;
 
+import com.cburch.logisim.std.memory.MemContents;
+
 public abstract class Action {
+  /** The estimate of {@link #getRetainedSize} for actions that do not tell. */
+  public static final long DEFAULT_RETAINED_SIZE = 256;
+
   public Action append(Action other) {
     return new JoinedAction(this, other);
   }
@@ -18,6 +23,25 @@ public abstract class Action {
 
   public abstract String getName();
 
+  /**
+   * Returns an estimate of the memory, in bytes, that the action holds on to for being undone and
+   * redone once it was done. The undo history of a project is limited by the sum of these.
+   */
+  public long getRetainedSize() {
+    return DEFAULT_RETAINED_SIZE;
+  }
+
+  /**
+   * Returns an estimate of the memory, in bytes, held by an attribute value that an action keeps
+   * for undoing or redoing, such as the contents of a ROM.
+   */
+  public static long getValueSize(Object value) {
+    if (value instanceof MemContents contents) return contents.getRetainedSize();
+    if (value instanceof String str) return 40 + 2L * str.length();
+    if (value instanceof long[] values) return 16 + 8L * values.length;
+    return 0;
+  }
+
   public boolean isModification() {
     return true;
   }
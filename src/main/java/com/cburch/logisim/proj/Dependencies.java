@@ -13,7 +13,7 @@ import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitEvent;
 import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.SubcircuitFactory;
-import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
 import com.cburch.logisim.file.LibraryEvent;
 import com.cburch.logisim.file.LibraryListener;
 import com.cburch.logisim.file.LogisimFile;
@@ -21,43 +21,42 @@ import com.cburch.logisim.tools.AddTool;
 import com.cburch.logisim.util.Dag;
 import com.cburch.logisim.vhdl.base.VhdlContent;
 import com.cburch.logisim.vhdl.base.VhdlEntity;
+import java.util.HashSet;
 
 public class Dependencies {
   private class MyListener implements LibraryListener, CircuitListener {
     @Override
     public void circuitChanged(CircuitEvent e) {
-      Component comp;
       switch (e.getAction()) {
-        case CircuitEvent.ACTION_ADD -> {
-          comp = (Component) e.getData();
-          if (comp.getFactory() instanceof SubcircuitFactory factory) {
-            depends.addEdge(e.getCircuit(), factory.getSubcircuit());
-          } else if (comp.getFactory() instanceof VhdlEntity factory) {
-            depends.addEdge(e.getCircuit(), factory.getContent());
+        case CircuitEvent.ACTION_ADD, CircuitEvent.ACTION_ADD_ALL -> {
+          for (final var comp : e.getComponents()) {
+            if (comp.getFactory() instanceof SubcircuitFactory factory) {
+              depends.addEdge(e.getCircuit(), factory.getSubcircuit());
+            } else if (comp.getFactory() instanceof VhdlEntity factory) {
+              depends.addEdge(e.getCircuit(), factory.getContent());
+            }
           }
         }
-        case CircuitEvent.ACTION_REMOVE -> {
-          comp = (Component) e.getData();
-          if (comp.getFactory() instanceof SubcircuitFactory factory) {
-            var found = false;
-            for (final var o : e.getCircuit().getNonWires()) {
-              if (o.getFactory() == factory) {
-                found = true;
-                break;
-              }
+        case CircuitEvent.ACTION_REMOVE, CircuitEvent.ACTION_REMOVE_ALL -> {
+          // look for the remaining uses of the removed factories in a single pass
+          final var removed = new HashSet<ComponentFactory>();
+          for (final var comp : e.getComponents()) {
+            if (comp.getFactory() instanceof SubcircuitFactory
+                || comp.getFactory() instanceof VhdlEntity) {
+              removed.add(comp.getFactory());
             }
-            if (!found)
-              depends.removeEdge(e.getCircuit(), factory.getSubcircuit());
-          } else if (comp.getFactory() instanceof VhdlEntity factory) {
-            var found = false;
+          }
+          if (!removed.isEmpty()) {
             for (final var o : e.getCircuit().getNonWires()) {
-              if (o.getFactory() == factory) {
-                found = true;
-                break;
-              }
+              removed.remove(o.getFactory());
+            }
+          }
+          for (final var factory : removed) {
+            if (factory instanceof SubcircuitFactory sub) {
+              depends.removeEdge(e.getCircuit(), sub.getSubcircuit());
+            } else if (factory instanceof VhdlEntity vhdl) {
+              depends.removeEdge(e.getCircuit(), vhdl.getContent());
             }
-            if (!found)
-              depends.removeEdge(e.getCircuit(), factory.getContent());
           }
         }
         case CircuitEvent.ACTION_CLEAR -> depends.removeNode(e.getCircuit());
@@ -53,6 +53,15 @@ public class JoinedAction extends Action {
     return todo[0].getName();
   }
 
+  @Override
+  public long getRetainedSize() {
+    var ret = 0L;
+    for (final var act : todo) {
+      ret += act.getRetainedSize();
+    }
+    return ret;
+  }
+
   @Override
   public boolean isModification() {
     for (final var act : todo) {
@@ -26,6 +26,7 @@ import com.cburch.logisim.gui.main.SelectionActions;
 import com.cburch.logisim.gui.opts.OptionsFrame;
 import com.cburch.logisim.gui.test.TestFrame;
 import com.cburch.logisim.gui.test.TestThread;
+import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.AddTool;
 import com.cburch.logisim.tools.Library;
 import com.cburch.logisim.tools.Tool;
@@ -44,6 +45,7 @@ public class Project {
     final CircuitState circuitState;
     final HdlModel hdlModel;
     final Action action;
+    long size;
 
     public ActionData(CircuitState circuitState, HdlModel hdlModel, Action action) {
       this.circuitState = circuitState;
@@ -100,6 +102,7 @@ public class Project {
   private final LinkedList<ActionData> undoLog = new LinkedList<>();
   private int undoMods = 0;
   private final LinkedList<ActionData> redoLog = new LinkedList<>();
+  private long historySize = 0; // estimated bytes held by the undo and redo logs
   private final EventSourceWeakSupport<ProjectListener> projectListeners =
       new EventSourceWeakSupport<>();
   private final EventSourceWeakSupport<LibraryListener> fileListeners =
@@ -150,17 +153,20 @@ public class Project {
     }
     Action toAdd = act;
     startupScreen = false;
-    redoLog.clear();
+    clearRedoLog();
 
     if (!undoLog.isEmpty() && act.shouldAppendTo(getLastAction())) {
       final var firstData = undoLog.removeLast();
+      historySize -= firstData.size;
       final var first = firstData.action;
       if (first.isModification()) {
         --undoMods;
       }
       toAdd = first.append(act);
+      ActionData data = null;
       if (toAdd != null) {
-        undoLog.add(new ActionData(circuitState, hdlModel, toAdd));
+        data = new ActionData(circuitState, hdlModel, toAdd);
+        undoLog.add(data);
         if (toAdd.isModification()) ++undoMods;
       }
       fireEvent(new ProjectEvent(ProjectEvent.ACTION_START, this, act));
@@ -179,12 +185,14 @@ public class Project {
         System.out.println("  with mutator: " + e.getCircuitMutator());
         throw e;
       }
+      if (data != null) addToHistory(data);
       file.setDirty(isFileDirty());
       fireEvent(new ProjectEvent(ProjectEvent.ACTION_COMPLETE, this, act));
       fireEvent(new ProjectEvent(ProjectEvent.ACTION_MERGE, this, first, toAdd));
       return;
     }
-    undoLog.add(new ActionData(circuitState, hdlModel, toAdd));
+    final var data = new ActionData(circuitState, hdlModel, toAdd);
+    undoLog.add(data);
     fireEvent(new ProjectEvent(ProjectEvent.ACTION_START, this, act));
     try {
       act.doIt(this);
@@ -201,9 +209,7 @@ public class Project {
       System.out.println("  with mutator: " + e.getCircuitMutator());
       throw e;
     }
-    while (undoLog.size() > MAX_UNDO_SIZE) {
-      undoLog.removeFirst();
-    }
+    addToHistory(data);
     if (toAdd.isModification()) {
       ++undoMods;
     }
@@ -211,6 +217,27 @@ public class Project {
     fireEvent(new ProjectEvent(ProjectEvent.ACTION_COMPLETE, this, act));
   }
 
+  /*
+   * Accounts for an action that has been done and drops the oldest actions from the undo log while
+   * it has more than MAX_UNDO_SIZE actions or the history holds more than the memory set in the
+   * preferences. The last action is always kept.
+   */
+  private void addToHistory(ActionData data) {
+    data.size = data.action.getRetainedSize();
+    historySize += data.size;
+    final var budget = AppPreferences.getUndoMemory();
+    while ((undoLog.size() > MAX_UNDO_SIZE || historySize > budget) && undoLog.size() > 1) {
+      historySize -= undoLog.removeFirst().size;
+    }
+  }
+
+  private void clearRedoLog() {
+    for (final var data : redoLog) {
+      historySize -= data.size;
+    }
+    redoLog.clear();
+  }
+
   public int doTestVector(String vectorname, String name) {
     final var circuit = (name == null ? file.getMainCircuit() : file.getCircuit(name));
     if (circuit == null) {
@@ -541,6 +568,7 @@ public class Project {
     depends = new Dependencies(file);
     undoLog.clear();
     redoLog.clear();
+    historySize = 0;
     undoMods = 0;
     fireEvent(ProjectEvent.ACTION_SET_FILE, old, file);
     setCurrentCircuit(file.getMainCircuit());
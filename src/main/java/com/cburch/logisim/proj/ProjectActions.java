@@ -486,7 +486,8 @@ public final class ProjectActions {
     } while (!validFilename);
 
     var selectedFile = chooser.getSelectedFile();
-    if (!selectedFile.getName().endsWith(Loader.LOGISIM_EXTENSION)) {
+    if (!selectedFile.getName().endsWith(Loader.LOGISIM_EXTENSION)
+        && !Loader.isBinaryProjectFile(selectedFile)) {
       var old = selectedFile.getName();
       int ext0 = old.lastIndexOf('.');
       if (ext0 < 0 || !Pattern.matches("\\.\\p{L}{2,}\\d?", old.substring(ext0))) {
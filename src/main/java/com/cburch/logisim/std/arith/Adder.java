@@ -20,10 +20,14 @@ import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceEvaluator;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.Port;
+import com.cburch.logisim.instance.PortAccess;
+import com.cburch.logisim.instance.PortSlots;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.key.BitWidthConfigurator;
@@ -122,6 +126,12 @@ public class Adder extends InstanceFactory {
     setPorts(ps);
   }
 
+  @Override
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    final var dataWidth = instance.getAttributeValue(StdAttr.WIDTH);
+    return state -> propagate(ports, state, dataWidth);
+  }
+
   @Override
   public String getHDLName(AttributeSet attrs) {
     final var nrOfBits = attrs.getValue(StdAttr.WIDTH).getWidth();
@@ -152,18 +162,19 @@ public class Adder extends InstanceFactory {
 
   @Override
   public void propagate(InstanceState state) {
-    // get attributes
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
+    propagate(PortAccess.INSTANCE_STATE, state, state.getAttributeValue(StdAttr.WIDTH));
+  }
 
+  private static <S> void propagate(PortAccess<S> ports, S state, BitWidth dataWidth) {
     // compute outputs
-    Value a = state.getPortValue(IN0);
-    Value b = state.getPortValue(IN1);
-    Value cIn = state.getPortValue(C_IN);
-    Value[] outs = Adder.computeSum(dataWidth, a, b, cIn);
+    final var a = ports.getValue(state, IN0);
+    final var b = ports.getValue(state, IN1);
+    final var cIn = ports.getValue(state, C_IN);
+    final var outs = computeSum(dataWidth, a, b, cIn);
 
     // propagate them
-    int delay = (dataWidth.getWidth() + 2) * PER_DELAY;
-    state.setPort(OUT, outs[0], delay);
-    state.setPort(C_OUT, outs[1], delay);
+    final var delay = (dataWidth.getWidth() + 2) * PER_DELAY;
+    ports.setValue(state, OUT, outs[0], delay);
+    ports.setValue(state, C_OUT, outs[1], delay);
   }
 }
@@ -19,10 +19,14 @@ import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceEvaluator;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.Port;
+import com.cburch.logisim.instance.PortAccess;
+import com.cburch.logisim.instance.PortSlots;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.key.BitWidthConfigurator;
@@ -95,21 +99,28 @@ public class Subtractor extends InstanceFactory {
     GraphicsUtil.switchToWidth(gfx, 1);
   }
 
+  @Override
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    final var data = instance.getAttributeValue(StdAttr.WIDTH);
+    return state -> propagate(ports, state, data);
+  }
+
   @Override
   public void propagate(InstanceState state) {
-    // get attributes
-    BitWidth data = state.getAttributeValue(StdAttr.WIDTH);
+    propagate(PortAccess.INSTANCE_STATE, state, state.getAttributeValue(StdAttr.WIDTH));
+  }
 
+  private static <S> void propagate(PortAccess<S> ports, S state, BitWidth data) {
     // compute outputs
-    final var a = state.getPortValue(IN0);
-    final var b = state.getPortValue(IN1);
-    var bIn = state.getPortValue(B_IN);
+    final var a = ports.getValue(state, IN0);
+    final var b = ports.getValue(state, IN1);
+    var bIn = ports.getValue(state, B_IN);
     if (bIn == Value.UNKNOWN || bIn == Value.NIL) bIn = Value.FALSE;
     final var outs = Adder.computeSum(data, a, b.not(), bIn.not());
 
     // propagate them
     final var delay = (data.getWidth() + 4) * Adder.PER_DELAY;
-    state.setPort(OUT, outs[0], delay);
-    state.setPort(B_OUT, outs[1].not(), delay);
+    ports.setValue(state, OUT, outs[0], delay);
+    ports.setValue(state, B_OUT, outs[1].not(), delay);
   }
 }
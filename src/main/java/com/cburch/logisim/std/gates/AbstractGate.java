@@ -12,6 +12,7 @@ package com.cburch.logisim.std.gates;
 import com.cburch.logisim.LogisimVersion;
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
+import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.circuit.ExpressionComputer;
 import com.cburch.logisim.comp.TextField;
 import com.cburch.logisim.data.Attribute;
@@ -20,14 +21,16 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.file.Options;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceEvaluator;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.Port;
+import com.cburch.logisim.instance.PortAccess;
+import com.cburch.logisim.instance.PortSlots;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.WireRepair;
@@ -41,6 +44,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.font.TextLayout;
+import java.util.function.BinaryOperator;
 
 abstract class AbstractGate extends InstanceFactory {
   static Value pullOutput(Value value, Object outType) {
@@ -539,14 +543,39 @@ abstract class AbstractGate extends InstanceFactory {
 
   protected abstract void paintShape(InstancePainter painter, int width, int height);
 
+  /**
+   * Returns the operation that combines two inputs, for a gate whose output is the fold of its
+   * inputs (inverted if {@link #isFoldInverted} says so), or null if the output needs all inputs
+   * at once. A gate with a fold is evaluated without collecting its inputs into an array.
+   */
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return null;
+  }
+
+  protected boolean isFoldInverted() {
+    return false;
+  }
+
+  @Override
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    final var attrs = (GateAttributes) instance.getAttributeSet();
+    final var fold = getInputFold(attrs);
+    return fold == null ? null : new FoldEvaluator(attrs, fold, isFoldInverted(), ports);
+  }
+
   @Override
   public void propagate(InstanceState state) {
     final var attrs = (GateAttributes) state.getAttributeSet();
+    final var errorIfUndefined = state.getProject().getOptions().isGateUndefinedError();
+    final var fold = getInputFold(attrs);
+    if (fold != null) {
+      propagateFold(
+          PortAccess.INSTANCE_STATE, state, attrs, fold, isFoldInverted(), errorIfUndefined);
+      return;
+    }
+
     final var inputCount = attrs.inputs;
     final var negated = attrs.negated;
-    final var opts = state.getProject().getOptions().getAttributeSet();
-    final var errorIfUndefined =
-        opts.getValue(Options.ATTR_GATE_UNDEFINED).equals(Options.GATE_UNDEFINED_ERROR);
 
     final var inputs = new Value[inputCount];
     var numInputs = 0;
@@ -592,4 +621,52 @@ abstract class AbstractGate extends InstanceFactory {
   protected boolean shouldRepairWire(Instance instance, WireRepairData data) {
     return false;
   }
+
+  /* the propagation of a gate whose output is a fold of its inputs, see getInputFold */
+  private static <S> void propagateFold(
+      PortAccess<S> ports,
+      S state,
+      GateAttributes attrs,
+      BinaryOperator<Value> fold,
+      boolean inverted,
+      boolean errorIfUndefined) {
+    final var negated = attrs.negated;
+    Value folded = null;
+    for (var i = 1; i <= attrs.inputs; i++) {
+      if (ports.isConnected(state, i)) {
+        var value = ports.getValue(state, i);
+        if (((negated >> (i - 1)) & 1) == 1) value = value.not();
+        folded = folded == null ? value : fold.apply(folded, value);
+      } else if (errorIfUndefined) {
+        folded = null;
+        break;
+      }
+    }
+    final var result =
+        folded == null
+            ? Value.createError(attrs.width)
+            : pullOutput(inverted ? folded.not() : folded, attrs.out);
+    ports.setValue(state, 0, result, GateAttributes.DELAY);
+  }
+
+  private static final class FoldEvaluator implements InstanceEvaluator {
+    private final GateAttributes attrs;
+    private final BinaryOperator<Value> fold;
+    private final boolean inverted;
+    private final PortSlots ports;
+
+    FoldEvaluator(
+        GateAttributes attrs, BinaryOperator<Value> fold, boolean inverted, PortSlots ports) {
+      this.attrs = attrs;
+      this.fold = fold;
+      this.inverted = inverted;
+      this.ports = ports;
+    }
+
+    @Override
+    public void evaluate(CircuitState state) {
+      final var errorIfUndefined = state.getProject().getOptions().isGateUndefinedError();
+      propagateFold(ports, state, attrs, fold, inverted, errorIfUndefined);
+    }
+  }
 }
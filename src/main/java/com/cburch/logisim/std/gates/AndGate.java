@@ -21,6 +21,7 @@ import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.LineBuffer;
 
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class AndGate extends AbstractGate {
   private static class AndGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -74,6 +75,11 @@ class AndGate extends AbstractGate {
     return GateFunctions.computeAnd(inputs, numInputs);
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::and;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.TRUE;
@@ -18,6 +18,7 @@ import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.util.LineBuffer;
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class EvenParityGate extends AbstractGate {
   private static class XNorGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -49,6 +50,16 @@ class EvenParityGate extends AbstractGate {
     return GateFunctions.computeOddParity(inputs, numInputs).not();
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::xor;
+  }
+
+  @Override
+  protected boolean isFoldInverted() {
+    return true;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -20,6 +20,7 @@ import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.util.LineBuffer;
 
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class NandGate extends AbstractGate {
 
@@ -80,6 +81,16 @@ class NandGate extends AbstractGate {
     return GateFunctions.computeAnd(inputs, numInputs).not();
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::and;
+  }
+
+  @Override
+  protected boolean isFoldInverted() {
+    return true;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.TRUE;
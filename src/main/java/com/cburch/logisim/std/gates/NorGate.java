@@ -22,6 +22,7 @@ import com.cburch.logisim.tools.WireRepairData;
 import com.cburch.logisim.util.LineBuffer;
 
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class NorGate extends AbstractGate {
   private static class NorGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -77,6 +78,16 @@ class NorGate extends AbstractGate {
     return GateFunctions.computeOr(inputs, numInputs).not();
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::or;
+  }
+
+  @Override
+  protected boolean isFoldInverted() {
+    return true;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
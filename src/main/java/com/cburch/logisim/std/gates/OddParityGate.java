@@ -18,6 +18,7 @@ import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.util.LineBuffer;
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class OddParityGate extends AbstractGate {
   private static class XorGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -49,6 +50,11 @@ class OddParityGate extends AbstractGate {
     return GateFunctions.computeOddParity(inputs, numInputs);
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::xor;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -23,6 +23,7 @@ import com.cburch.logisim.util.LineBuffer;
 
 import java.awt.Graphics2D;
 import java.awt.geom.GeneralPath;
+import java.util.function.BinaryOperator;
 
 class OrGate extends AbstractGate {
   private static class OrGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -72,6 +73,11 @@ class OrGate extends AbstractGate {
     return GateFunctions.computeOr(inputs, numInputs);
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    return Value::or;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -21,6 +21,7 @@ import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.tools.WireRepairData;
 import com.cburch.logisim.util.LineBuffer;
 import java.awt.Graphics2D;
+import java.util.function.BinaryOperator;
 
 class XnorGate extends AbstractGate {
   private static class XNorGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -58,6 +59,17 @@ class XnorGate extends AbstractGate {
     }
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    // only the odd parity behavior is a fold, exactly one high input needs all of them
+    return attrs.xorBehave == GateAttributes.XOR_ODD ? Value::xor : null;
+  }
+
+  @Override
+  protected boolean isFoldInverted() {
+    return true;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
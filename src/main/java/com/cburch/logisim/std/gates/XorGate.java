@@ -23,6 +23,7 @@ import com.cburch.logisim.util.LineBuffer;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
+import java.util.function.BinaryOperator;
 
 class XorGate extends AbstractGate {
   private static class XorGateHdlGeneratorFactory extends AbstractGateHdlGenerator {
@@ -70,6 +71,12 @@ class XorGate extends AbstractGate {
     }
   }
 
+  @Override
+  protected BinaryOperator<Value> getInputFold(GateAttributes attrs) {
+    // only the odd parity behavior is a fold, exactly one high input needs all of them
+    return attrs.xorBehave == GateAttributes.XOR_ODD ? Value::xor : null;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
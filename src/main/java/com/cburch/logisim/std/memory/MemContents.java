@@ -14,13 +14,14 @@ import com.cburch.hex.HexModelListener;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.EventSourceWeakSupport;
 import java.util.Arrays;
+import java.util.function.Consumer;
 
 public class MemContents implements Cloneable, HexModel {
   public static MemContents create(int addrBits, int width, boolean randomize) {
     return new MemContents(addrBits, width, randomize);
   }
 
-  private static final int PAGE_SIZE_BITS = 12;
+  static final int PAGE_SIZE_BITS = 12;
   private static final int PAGE_SIZE = 1 << PAGE_SIZE_BITS;
 
   private static final int PAGE_MASK = PAGE_SIZE - 1;
@@ -212,6 +213,23 @@ public class MemContents implements Cloneable, HexModel {
     return pages[page].get(offs) & mask;
   }
 
+  /** Returns the values of length consecutive addresses; addresses beyond the memory read as 0. */
+  public long[] get(long start, int length) {
+    final var ret = new long[length];
+    var pos = 0;
+    while (pos < length) {
+      final var addr = start + pos;
+      final var page = (int) (addr >>> PAGE_SIZE_BITS);
+      final var offs = (int) (addr & PAGE_MASK);
+      final var n = Math.min(length - pos, PAGE_SIZE - offs);
+      if (page >= 0 && page < pages.length && pages[page] != null) {
+        for (var i = 0; i < n; i++) ret[pos + i] = pages[page].get(offs + i) & mask;
+      }
+      pos += n;
+    }
+    return ret;
+  }
+
   @Override
   public long getFirstOffset() {
     return 0;
@@ -222,6 +240,30 @@ public class MemContents implements Cloneable, HexModel {
     return (1L << addrBits) - 1;
   }
 
+  /* the number of pages, the page at index i starts at address i << PAGE_SIZE_BITS */
+  int getPageCount() {
+    return pages.length;
+  }
+
+  /* the values of the page, or null if it was never written */
+  long[] getPageValues(int index) {
+    final var page = pages[index];
+    if (page == null) return null;
+    final var values = page.get(0, page.getLength());
+    for (var i = 0; i < values.length; i++) values[i] &= mask;
+    return values;
+  }
+
+  /** Returns an estimate of the memory, in bytes, taken by the pages that are not all zero. */
+  public long getRetainedSize() {
+    final var wordSize = width <= 8 ? 1 : width <= 16 ? 2 : width <= 32 ? 4 : 8;
+    var ret = 0L;
+    for (final var page : pages) {
+      if (page != null) ret += (long) PAGE_SIZE * wordSize;
+    }
+    return ret;
+  }
+
   public int getLogLength() {
     return addrBits;
   }
@@ -397,6 +439,23 @@ public class MemContents implements Cloneable, HexModel {
     fireBytesChanged(0, 1 << addrBits, null); /* update my listeners */
   }
 
+  /**
+   * Clears the memory and lets the loader fill it, typically through {@link #set(long, long[])}.
+   * As with {@link #copyFrom}, the listeners are told once about the whole memory afterwards
+   * instead of about every page the loader stores.
+   */
+  public void load(Consumer<MemContents> loader) {
+    final var saved = listeners;
+    listeners = null;
+    try {
+      clear();
+      loader.accept(this);
+    } finally {
+      listeners = saved;
+    }
+    fireBytesChanged(0, 1 << addrBits, null); /* update my listeners */
+  }
+
   public void setDimensions(int addrBits, int width) {
     if (addrBits == this.addrBits && width == this.width) return;
     this.addrBits = addrBits;
@@ -0,0 +1,279 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.std.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact representations of memory contents in a project file. Besides the "v2.0 raw" text of
+ * {@link com.cburch.logisim.gui.hex.HexFile}, the contents of a memory can be stored as
+ *
+ * <ul>
+ *   <li>{@value #COMPRESSED}: the base64 text of the deflated pages that hold a value other than
+ *       zero, each preceded by its index;
+ *   <li>{@value #EXTERNAL}: the path of a raw binary image next to the project file, each word
+ *       stored as the least number of bytes, little endian.
+ * </ul>
+ *
+ * <p>The kind is added to the "addr/data:" header of the attribute value.
+ */
+public final class MemContentsCodec {
+
+  public static final String COMPRESSED = "deflate";
+  public static final String EXTERNAL = "file";
+  public static final String HEADER = "addr/data:";
+
+  private MemContentsCodec() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /** Returns the header line of the attribute value, kind is null for the text format. */
+  public static String getHeader(MemContents contents, String kind) {
+    final var header = HEADER + " " + contents.getLogLength() + " " + contents.getWidth();
+    return (kind == null ? header : header + " " + kind) + "\n";
+  }
+
+  public static String toCompressedString(MemContents contents) {
+    return getHeader(contents, COMPRESSED)
+        + Base64.getMimeEncoder(76, new byte[] {'\n'}).encodeToString(deflate(contents))
+        + "\n";
+  }
+
+  public static MemContents fromCompressedString(String src, int addrBits, int width)
+      throws IOException {
+    final var ret = MemContents.create(addrBits, width, false);
+    final byte[] data;
+    try {
+      data = Base64.getMimeDecoder().decode(src.getBytes(StandardCharsets.US_ASCII));
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage());
+    }
+    final var pageLength = getPageLength(ret);
+    final var bytes = new byte[pageLength * getBytesPerWord(width)];
+    final var values = new long[pageLength];
+    try (final var in =
+        new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+      while (true) {
+        final int index;
+        try {
+          index = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        if (index < 0 || index >= ret.getPageCount()) throw new IOException("page " + index);
+        in.readFully(bytes);
+        decode(ByteBuffer.wrap(bytes), width, values);
+        ret.set((long) index << MemContents.PAGE_SIZE_BITS, values);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Writes the contents as a raw binary image into the directory, unless it already holds it, and
+   * returns the header line followed by its path relative to the base directory. The file name is
+   * derived from the contents, so the images of equal memories are shared and an image is only
+   * written again when the contents changed.
+   */
+  public static String toExternalString(MemContents contents, Path dir, Path baseDir)
+      throws IOException {
+    final var file = dir.resolve(getDigest(contents) + ".bin");
+    final var length = (1L << contents.getLogLength()) * getBytesPerWord(contents.getWidth());
+    if (!Files.isRegularFile(file) || Files.size(file) != length) {
+      Files.createDirectories(dir);
+      writeBinary(contents, file);
+    }
+    final var path = baseDir.toAbsolutePath().relativize(file.toAbsolutePath());
+    return getHeader(contents, EXTERNAL) + path.toString().replace(File.separatorChar, '/') + "\n";
+  }
+
+  /**
+   * Makes the path of an external image in the attribute value absolute, resolving it against the
+   * directory of the project file. Other values are returned unchanged.
+   *
+   * @throws IOException when the path is absolute or leaves the directory, or there is no directory
+   */
+  public static String resolveExternal(String value, String baseDir) throws IOException {
+    final var lineBreak = value.indexOf('\n');
+    if (!value.startsWith(HEADER) || lineBreak < 0) return value;
+    if (!value.substring(0, lineBreak).trim().endsWith(" " + EXTERNAL)) return value;
+    final var name = value.substring(lineBreak + 1).trim();
+    final Path path;
+    try {
+      path = Paths.get(name);
+    } catch (InvalidPathException e) {
+      throw new IOException(name);
+    }
+    if (baseDir == null || path.getRoot() != null) throw new IOException(name);
+    for (final var element : path) {
+      if (element.toString().equals("..")) throw new IOException(name);
+    }
+    return value.substring(0, lineBreak + 1) + Paths.get(baseDir).resolve(path) + "\n";
+  }
+
+  public static void writeBinary(MemContents contents, Path file) throws IOException {
+    final var width = contents.getWidth();
+    final var bytesPerWord = getBytesPerWord(width);
+    final var pageLength = getPageLength(contents);
+    final var buffer =
+        ByteBuffer.allocate(pageLength * bytesPerWord).order(ByteOrder.LITTLE_ENDIAN);
+    final var zeros = new long[pageLength];
+    try (final var channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (var index = 0; index < contents.getPageCount(); index++) {
+        final var values = contents.getPageValues(index);
+        buffer.clear();
+        encode(values == null ? zeros : values, pageLength, bytesPerWord, buffer);
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+      }
+    }
+  }
+
+  /** Reads a raw binary image, the pages that only hold zeros are not stored. */
+  public static MemContents readBinary(Path file, int addrBits, int width) throws IOException {
+    final var ret = MemContents.create(addrBits, width, false);
+    final var pageLength = getPageLength(ret);
+    final var buffer =
+        ByteBuffer.allocate(pageLength * getBytesPerWord(width)).order(ByteOrder.LITTLE_ENDIAN);
+    final var values = new long[pageLength];
+    try (final var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      for (var index = 0; index < ret.getPageCount(); index++) {
+        buffer.clear();
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+          // keep reading until the page is complete or the file ends
+        }
+        if (buffer.position() == 0) break;
+        while (buffer.hasRemaining()) buffer.put((byte) 0);
+        buffer.flip();
+        if (decode(buffer, width, values)) {
+          ret.set((long) index << MemContents.PAGE_SIZE_BITS, values);
+        }
+      }
+    }
+    return ret;
+  }
+
+  /* the index and the encoded values of each page that holds a value other than zero */
+  private static void writePages(MemContents contents, DataOutputStream out) throws IOException {
+    final var bytesPerWord = getBytesPerWord(contents.getWidth());
+    final var pageLength = getPageLength(contents);
+    final var buffer =
+        ByteBuffer.allocate(pageLength * bytesPerWord).order(ByteOrder.LITTLE_ENDIAN);
+    for (var index = 0; index < contents.getPageCount(); index++) {
+      final var values = contents.getPageValues(index);
+      if (values == null || isClear(values)) continue;
+      buffer.clear();
+      encode(values, pageLength, bytesPerWord, buffer);
+      out.writeInt(index);
+      out.write(buffer.array(), 0, buffer.position());
+    }
+  }
+
+  private static byte[] deflate(MemContents contents) {
+    final var data = new ByteArrayOutputStream();
+    try (final var out = new DataOutputStream(new DeflaterOutputStream(data))) {
+      writePages(contents, out);
+    } catch (IOException e) {
+      // cannot happen for an in-memory stream
+      throw new IllegalStateException(e);
+    }
+    return data.toByteArray();
+  }
+
+  private static void encode(long[] values, int length, int bytesPerWord, ByteBuffer buffer) {
+    for (var i = 0; i < length; i++) {
+      var value = i < values.length ? values[i] : 0L;
+      for (var b = 0; b < bytesPerWord; b++) {
+        buffer.put((byte) value);
+        value >>>= 8;
+      }
+    }
+  }
+
+  /* decodes the buffer into values and returns whether any of them differs from zero */
+  private static boolean decode(ByteBuffer buffer, int width, long[] values) {
+    final var bytesPerWord = getBytesPerWord(width);
+    final var mask = width == 64 ? -1L : (1L << width) - 1;
+    var nonZero = false;
+    for (var i = 0; i < values.length; i++) {
+      var value = 0L;
+      for (var b = 0; b < bytesPerWord; b++) {
+        value |= (buffer.get() & 0xffL) << (8 * b);
+      }
+      values[i] = value & mask;
+      nonZero |= values[i] != 0;
+    }
+    return nonZero;
+  }
+
+  private static boolean isClear(long[] values) {
+    for (final var value : values) {
+      if (value != 0) return false;
+    }
+    return true;
+  }
+
+  private static int getBytesPerWord(int width) {
+    return (width + 7) / 8;
+  }
+
+  private static int getPageLength(MemContents contents) {
+    return 1 << Math.min(contents.getLogLength(), MemContents.PAGE_SIZE_BITS);
+  }
+
+  /* a digest of the pages as they are deflated, without compressing them */
+  private static String getDigest(MemContents contents) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+    digest.update(getHeader(contents, null).getBytes(StandardCharsets.US_ASCII));
+    try (final var out =
+        new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      writePages(contents, out);
+    } catch (IOException e) {
+      // cannot happen for a stream that discards its data
+      throw new IllegalStateException(e);
+    }
+    final var ret = new StringBuilder();
+    for (final var b : digest.digest()) ret.append(String.format("%02x", b));
+    return ret.substring(0, 32);
+  }
+}
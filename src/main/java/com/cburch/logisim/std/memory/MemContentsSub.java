@@ -157,7 +157,7 @@ class MemContentsSub {
        * Bugfix in memory writing (by Roy77)
        * https://github.com/roy77
        */
-      for (var i = (int) start; i < n; i++) {
+      for (var i = 0; i < n; i++) {
         data[(int) start + i] = (short) (values[i] & mask);
       }
     }
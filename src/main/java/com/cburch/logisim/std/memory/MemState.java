@@ -23,7 +23,9 @@ class MemState implements InstanceData, Cloneable, HexModelListener {
   private MemContents contents;
   private long curScroll = 0;
   private long cursorLoc = -1;
-  private long curAddr = -1;
+  // set by the propagation, the display only catches up with it when it is painted
+  private volatile long curAddr = -1;
+  private long shownAddr = -1;
   private boolean recalculateParameters = true;
   private int NrOfLines = 1;
   private int nrDataSymbolsEachLine = 1;
@@ -209,6 +211,11 @@ class MemState implements InstanceData, Cloneable, HexModelListener {
       int nrItemsToHighlight) {
     if (recalculateParameters || windowChanged(offsetX, offsetY, displayWidth, displayHeight))
       calculateDisplayParameters(g, offsetX, offsetY, displayWidth, displayHeight);
+    final var current = curAddr;
+    if (current != shownAddr) {
+      shownAddr = current;
+      scrollToShow(current);
+    }
     final var blockHeight = NrOfLines * (CharHeight + 2);
     final var totalNrOfEntries = (1 << getAddrBits());
     g.setColor(Color.LIGHT_GRAY);
@@ -274,7 +281,8 @@ class MemState implements InstanceData, Cloneable, HexModelListener {
   }
 
   private boolean highLight(int addr, int nrItemsToHighlight) {
-    return (addr >= curAddr) && (addr < curAddr + nrItemsToHighlight);
+    final var current = curAddr;
+    return (addr >= current) && (addr < current + nrItemsToHighlight);
   }
 
   private Bounds getDataBound(int xoff, int yoff, int line, int column) {
@@ -327,6 +335,7 @@ class MemState implements InstanceData, Cloneable, HexModelListener {
     }
     cursorLoc = -1;
     curAddr = -1;
+    shownAddr = -1;
     curScroll = 0;
   }
 
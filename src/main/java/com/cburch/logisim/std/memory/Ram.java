@@ -226,8 +226,17 @@ public class Ram extends Mem {
 
   @Override
   public void propagate(InstanceState state) {
-    final var attrs = state.getAttributeSet();
     final var myState = (RamState) getState(state);
+    myState.beginPropagation();
+    try {
+      propagate(state, myState);
+    } finally {
+      myState.endPropagation();
+    }
+  }
+
+  private void propagate(InstanceState state, RamState myState) {
+    final var attrs = state.getAttributeSet();
 
     // first we check the clear pin
     if (attrs.getValue(RamAttributes.CLEAR_PIN)) {
@@ -253,20 +262,19 @@ public class Ram extends Mem {
     final var goodAddr = addrValue.isFullyDefined() && addr >= 0;
     if (goodAddr && addr != myState.getCurrent()) {
       myState.setCurrent(addr);
-      myState.scrollToShow(addr);
     }
 
     // now we handle the two different behaviors, line-enables or byte-enables
     if (attrs.getValue(Mem.ENABLES_ATTR).equals(Mem.USELINEENABLES)) {
-      propagateLineEnables(state, addr, goodAddr, addrValue.isErrorValue());
+      propagateLineEnables(state, myState, addr, goodAddr, addrValue.isErrorValue());
     } else {
-      propagateByteEnables(state, addr, goodAddr, addrValue.isErrorValue());
+      propagateByteEnables(state, myState, addr, goodAddr, addrValue.isErrorValue());
     }
   }
 
-  private void propagateLineEnables(InstanceState state, long addr, boolean goodAddr, boolean errorValue) {
+  private void propagateLineEnables(
+      InstanceState state, RamState myState, long addr, boolean goodAddr, boolean errorValue) {
     final var attrs = state.getAttributeSet();
-    final var myState = (RamState) getState(state);
     final var separate = isSeparate(attrs);
 
     final var dataLines = Math.max(1, RamAppearance.getNrLEPorts(attrs));
@@ -306,9 +314,9 @@ public class Ram extends Mem {
     }
   }
 
-  private void propagateByteEnables(InstanceState state, long addr, boolean goodAddr, boolean errorValue) {
+  private void propagateByteEnables(
+      InstanceState state, RamState myState, long addr, boolean goodAddr, boolean errorValue) {
     final var attrs = state.getAttributeSet();
-    final var myState = (RamState) getState(state);
     final var separate = isSeparate(attrs);
     long oldMemValue = myState.getContents().get(myState.getCurrent());
     long newMemValue = oldMemValue;
@@ -9,6 +9,7 @@
 
 package com.cburch.logisim.std.memory;
 
+import com.cburch.hex.HexModel;
 import com.cburch.logisim.data.AttributeEvent;
 import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.data.AttributeSet;
@@ -22,6 +23,8 @@ public class RamState extends MemState implements AttributeListener {
   private Instance parent;
   private final MemListener listener;
   private ClockState clockState;
+  // the thread propagating the RAM, whose writes need not invalidate it again
+  private volatile Thread propagator;
 
   RamState(Instance parent, MemContents contents, MemListener listener) {
     super(contents);
@@ -31,7 +34,23 @@ public class RamState extends MemState implements AttributeListener {
     if (parent != null) {
       parent.getAttributeSet().addAttributeListener(this);
     }
-    contents.addHexModelListener(listener);
+  }
+
+  void beginPropagation() {
+    propagator = Thread.currentThread();
+  }
+
+  void endPropagation() {
+    propagator = null;
+  }
+
+  @Override
+  public void bytesChanged(HexModel source, long start, long numBytes, long[] oldValues) {
+    // the propagation already sets the outputs for its own writes, only other changes such as
+    // those of the hex editor have to invalidate the RAM
+    if (propagator != Thread.currentThread()) {
+      listener.bytesChanged(source, start, numBytes, oldValues);
+    }
   }
 
   @Override
@@ -47,7 +66,7 @@ public class RamState extends MemState implements AttributeListener {
     RamState ret = (RamState) super.clone();
     ret.parent = null;
     ret.clockState = this.clockState.clone();
-    ret.getContents().addHexModelListener(listener);
+    ret.propagator = null;
     return ret;
   }
 
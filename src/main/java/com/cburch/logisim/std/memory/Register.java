@@ -25,10 +25,13 @@ import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceEvaluator;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.Port;
+import com.cburch.logisim.instance.PortAccess;
+import com.cburch.logisim.instance.PortSlots;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.key.BitWidthConfigurator;
@@ -321,26 +324,42 @@ public class Register extends InstanceFactory implements DynamicElementProvider
     }
   }
 
+  @Override
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    final var dataWidth = instance.getAttributeValue(StdAttr.WIDTH);
+    final var triggerType = instance.getAttributeValue(StdAttr.TRIGGER);
+    final var cleared = Value.createKnown(dataWidth, 0);
+    return state -> propagate(ports, state, dataWidth, triggerType, cleared);
+  }
+
   @Override
   public void propagate(InstanceState state) {
     final var dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    Object triggerType = state.getAttributeValue(StdAttr.TRIGGER);
-    var data = (RegisterData) state.getData();
+    propagate(
+        PortAccess.INSTANCE_STATE,
+        state,
+        dataWidth,
+        state.getAttributeValue(StdAttr.TRIGGER),
+        Value.createKnown(dataWidth, 0));
+  }
 
+  private static <S> void propagate(
+      PortAccess<S> ports, S state, BitWidth dataWidth, Object triggerType, Value cleared) {
+    var data = (RegisterData) ports.getData(state);
     if (data == null) {
       data = new RegisterData(dataWidth);
-      state.setData(data);
+      ports.setData(state, data);
     }
 
-    final var triggered = data.updateClock(state.getPortValue(CK), triggerType);
+    final var triggered = data.updateClock(ports.getValue(state, CK), triggerType);
 
-    if (state.getPortValue(CLR) == Value.TRUE) {
-      data.value = Value.createKnown(dataWidth, 0);
-    } else if (triggered && state.getPortValue(EN) != Value.FALSE) {
-      data.value = state.getPortValue(IN);
+    if (ports.getValue(state, CLR) == Value.TRUE) {
+      data.value = cleared;
+    } else if (triggered && ports.getValue(state, EN) != Value.FALSE) {
+      data.value = ports.getValue(state, IN);
     }
 
-    state.setPort(OUT, data.value, DELAY);
+    ports.setValue(state, OUT, data.value, DELAY);
   }
 
   @Override
@@ -32,6 +32,8 @@ import com.cburch.logisim.proj.Project;
 import java.awt.Window;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.NoSuchElementException;
 import java.util.StringTokenizer;
 import java.util.WeakHashMap;
@@ -70,11 +72,24 @@ public class Rom extends Mem {
       final var toks = new StringTokenizer(first);
       try {
         final var header = toks.nextToken();
-        if (!header.equals("addr/data:")) return null;
+        if (!header.equals(MemContentsCodec.HEADER)) return null;
         final var addr = Integer.parseInt(toks.nextToken());
         final var data = Integer.parseInt(toks.nextToken());
-        return HexFile.parseFromCircFile(rest, addr, data);
-      } catch (IOException | NoSuchElementException | NumberFormatException e) {
+        final var kind = toks.hasMoreTokens() ? toks.nextToken() : "";
+        return switch (kind) {
+          case MemContentsCodec.COMPRESSED ->
+              MemContentsCodec.fromCompressedString(rest, addr, data);
+          case MemContentsCodec.EXTERNAL -> {
+            // XmlReader resolves the path against the directory of the project file
+            final var path = Paths.get(rest.trim());
+            yield path.isAbsolute() ? MemContentsCodec.readBinary(path, addr, data) : null;
+          }
+          default -> HexFile.parseFromCircFile(rest, addr, data);
+        };
+      } catch (IOException
+          | InvalidPathException
+          | NoSuchElementException
+          | NumberFormatException e) {
         return null;
       }
     }
@@ -84,12 +99,10 @@ public class Rom extends Mem {
       return S.get("romContentsValue");
     }
 
+    /** Returns the text format; XmlWriter chooses how the contents are stored in a project. */
     @Override
     public String toStandardString(MemContents state) {
-      final var addr = state.getLogLength();
-      final var data = state.getWidth();
-      final var contents = HexFile.saveToString(state);
-      return "addr/data: " + addr + " " + data + "\n" + contents;
+      return MemContentsCodec.getHeader(state, null) + HexFile.saveToString(state);
     }
   }
 
@@ -233,7 +246,6 @@ public class Rom extends Mem {
     }
     if (addr != myState.getCurrent()) {
       myState.setCurrent(addr);
-      myState.scrollToShow(addr);
     }
 
     boolean misaligned = addr % nrDataLines != 0;
@@ -76,6 +76,11 @@ class RomContentsListener implements HexModelListener {
       return S.get("romChangeAction");
     }
 
+    @Override
+    public long getRetainedSize() {
+      return DEFAULT_RETAINED_SIZE + getValueSize(oldValues) + getValueSize(newValues);
+    }
+
     @Override
     public boolean shouldAppendTo(Action other) {
       if (other instanceof Change o) {
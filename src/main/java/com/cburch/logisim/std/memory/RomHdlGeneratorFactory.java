@@ -12,11 +12,15 @@ package com.cburch.logisim.std.memory;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
+import com.cburch.logisim.fpga.file.FileWriter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.fpga.hdlgenerator.InlinedHdlGeneratorFactory;
 import com.cburch.logisim.fpga.hdlgenerator.WithSelectHdlGenerator;
 import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.LineBuffer;
+import java.io.IOException;
+import java.io.Writer;
 
 public class RomHdlGeneratorFactory extends InlinedHdlGeneratorFactory {
 
@@ -27,13 +31,20 @@ public class RomHdlGeneratorFactory extends InlinedHdlGeneratorFactory {
     final var addressWidth = attrs.getValue(Mem.ADDR_ATTR).getWidth();
     final var dataWidth = attrs.getValue(Mem.DATA_ATTR).getWidth();
     final var romContents = attrs.getValue(Rom.CONTENTS_ATTR);
+    final var label = attrs.getValue(StdAttr.LABEL);
+    final var addressName = Hdl.getBusName(componentInfo, RamAppearance.getAddrIndex(0, attrs), nets);
+    final var dataName = Hdl.getBusName(componentInfo, RamAppearance.getDataOutIndex(0, attrs), nets);
+    if (AppPreferences.HdlMemoryInitFiles.getBoolean()) {
+      final var initFile =
+          FileWriter.writeMemoryInitFile(
+              circuitName + "_" + label + (Hdl.isVhdl() ? ".mem" : ".hex"),
+              output -> writeInitData(output, romContents, addressWidth, dataWidth));
+      if (initFile != null) {
+        return getInitFileCode(label, addressName, addressWidth, dataName, dataWidth, initFile);
+      }
+    }
     final var generator =
-        (new WithSelectHdlGenerator(
-                componentInfo.getComponent().getAttributeSet().getValue(StdAttr.LABEL),
-                Hdl.getBusName(componentInfo, RamAppearance.getAddrIndex(0, attrs), nets),
-                addressWidth,
-                Hdl.getBusName(componentInfo, RamAppearance.getDataOutIndex(0, attrs), nets),
-                dataWidth))
+        (new WithSelectHdlGenerator(label, addressName, addressWidth, dataName, dataWidth))
             .setDefault(0L);
     for (var addr = 0L; addr < (1L << addressWidth); addr++) {
       final var romValue = romContents.get(addr);
@@ -42,6 +53,69 @@ public class RomHdlGeneratorFactory extends InlinedHdlGeneratorFactory {
     return LineBuffer.getBuffer().add(generator.getHdlCode());
   }
 
+  /*
+   * One word per line; hexadecimal for $readmemh in Verilog, binary for the VHDL-93 textio read of
+   * a bit_vector.
+   */
+  private static void writeInitData(Writer output, MemContents contents, int addressWidth,
+      int dataWidth) throws IOException {
+    final var digitBits = Hdl.isVhdl() ? 1 : 4;
+    final var digits = (dataWidth + digitBits - 1) / digitBits;
+    final var line = new char[digits + 1];
+    line[digits] = '\n';
+    for (var addr = 0L; addr < (1L << addressWidth); addr++) {
+      var value = contents.get(addr);
+      for (var digit = digits - 1; digit >= 0; digit--) {
+        line[digit] = Character.forDigit((int) (value & ((1 << digitBits) - 1)), 1 << digitBits);
+        value >>>= digitBits;
+      }
+      output.write(line);
+    }
+  }
+
+  private static LineBuffer getInitFileCode(String label, String addressName, int addressWidth,
+      String dataName, int dataWidth, String initFile) {
+    final var contents = LineBuffer.getHdlBuffer()
+        .pair("label", label)
+        .pair("addrName", addressName)
+        .pair("dataName", dataName)
+        .pair("dataBits", dataWidth - 1)
+        .pair("lastAddr", (1L << addressWidth) - 1)
+        .pair("initFile", initFile);
+    if (Hdl.isVhdl()) {
+      contents.addVhdlKeywords().add("""
+          {{label}}Rom : {{block}}
+             {{type}} t_rom {{is}} {{array}} (0 {{to}} {{lastAddr}}) {{of}} std_logic_vector({{dataBits}} {{downto}} 0);
+             {{impure}} {{function}} f_readRom {{return}} t_rom {{is}}
+                {{file}} f_init : std.textio.text {{open}} read_mode {{is}} "{{initFile}}";
+                {{variable}} v_line : std.textio.line;
+                {{variable}} v_word : bit_vector({{dataBits}} {{downto}} 0);
+                {{variable}} v_rom  : t_rom;
+             {{begin}}
+                {{for}} n {{in}} t_rom'range {{loop}}
+                   std.textio.readline(f_init, v_line);
+                   std.textio.read(v_line, v_word);
+                   v_rom(n) := to_stdlogicvector(v_word);
+                {{end}} {{loop}};
+                {{return}} v_rom;
+             {{end}} f_readRom;
+             {{constant}} c_rom : t_rom := f_readRom;
+          {{begin}}
+          """);
+      contents.add(dataWidth == 1
+          ? "   {{dataName}} <= c_rom(to_integer(unsigned({{addrName}})))(0);"
+          : "   {{dataName}} <= c_rom(to_integer(unsigned({{addrName}})));");
+      contents.add("{{end}} {{block}} {{label}}Rom;");
+    } else {
+      contents.add("""
+          reg [{{dataBits}}:0] s_{{label}}_rom [0:{{lastAddr}}];
+          initial $readmemh("{{initFile}}", s_{{label}}_rom);
+          assign {{dataName}} = s_{{label}}_rom[{{addrName}}];
+          """);
+    }
+    return contents;
+  }
+
   @Override
   public boolean isHdlSupportedTarget(AttributeSet attrs) {
     if (attrs == null) return false;
@@ -22,10 +22,13 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.PlexerIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceEvaluator;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.Port;
+import com.cburch.logisim.instance.PortAccess;
+import com.cburch.logisim.instance.PortSlots;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.tools.key.BitWidthConfigurator;
@@ -260,31 +263,62 @@ public class Multiplexer extends InstanceFactory {
     painter.drawPorts();
   }
 
+  @Override
+  public InstanceEvaluator createEvaluator(Instance instance, PortSlots ports) {
+    final var data = instance.getAttributeValue(StdAttr.WIDTH);
+    final var inputs = 1 << instance.getAttributeValue(PlexersLibrary.ATTR_SELECT).getWidth();
+    final var enable = instance.getAttributeValue(PlexersLibrary.ATTR_ENABLE);
+    final var disabled =
+        getDisabledValue(data, instance.getAttributeValue(PlexersLibrary.ATTR_DISABLED));
+    final var error = Value.createError(data);
+    final var unknown = Value.createUnknown(data);
+    return state -> propagate(ports, state, inputs, enable, disabled, error, unknown);
+  }
+
+  private static Value getDisabledValue(BitWidth data, Object opt) {
+    final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
+    return Value.repeat(base, data.getWidth());
+  }
+
   @Override
   public void propagate(InstanceState state) {
     final var data = state.getAttributeValue(StdAttr.WIDTH);
     final var select = state.getAttributeValue(PlexersLibrary.ATTR_SELECT);
-    final var enable = state.getAttributeValue(PlexersLibrary.ATTR_ENABLE);
-    final var inputs = 1 << select.getWidth();
-    final var en = enable ? state.getPortValue(inputs + 1) : Value.TRUE;
+    propagate(
+        PortAccess.INSTANCE_STATE,
+        state,
+        1 << select.getWidth(),
+        state.getAttributeValue(PlexersLibrary.ATTR_ENABLE),
+        getDisabledValue(data, state.getAttributeValue(PlexersLibrary.ATTR_DISABLED)),
+        Value.createError(data),
+        Value.createUnknown(data));
+  }
+
+  private static <S> void propagate(
+      PortAccess<S> ports,
+      S state,
+      int inputs,
+      boolean enable,
+      Value disabled,
+      Value error,
+      Value unknown) {
+    final var en = enable ? ports.getValue(state, inputs + 1) : Value.TRUE;
     Value out;
     if (en == Value.FALSE) {
-      Object opt = state.getAttributeValue(PlexersLibrary.ATTR_DISABLED);
-      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
-      out = Value.repeat(base, data.getWidth());
-    } else if (en == Value.ERROR && state.isPortConnected(inputs + 1)) {
-      out = Value.createError(data);
+      out = disabled;
+    } else if (en == Value.ERROR && ports.isConnected(state, inputs + 1)) {
+      out = error;
     } else {
-      final var sel = state.getPortValue(inputs);
+      final var sel = ports.getValue(state, inputs);
       if (sel.isFullyDefined()) {
-        out = state.getPortValue((int) sel.toLongValue());
+        out = ports.getValue(state, (int) sel.toLongValue());
       } else if (sel.isErrorValue()) {
-        out = Value.createError(data);
+        out = error;
       } else {
-        out = Value.createUnknown(data);
+        out = unknown;
       }
     }
-    state.setPort(inputs + (enable ? 2 : 1), out, PlexersLibrary.DELAY);
+    ports.setValue(state, inputs + (enable ? 2 : 1), out, PlexersLibrary.DELAY);
   }
 
   private void updatePorts(Instance instance) {
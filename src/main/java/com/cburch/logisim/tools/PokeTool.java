@@ -50,6 +50,7 @@ public class PokeTool extends Tool {
       if (event.getCircuit() == circ
           && circ != null
           && (event.getAction() == CircuitEvent.ACTION_REMOVE
+              || event.getAction() == CircuitEvent.ACTION_REMOVE_ALL
               || event.getAction() == CircuitEvent.ACTION_CLEAR)
           && !circ.contains(pokedComponent)) {
         removeCaret(false);
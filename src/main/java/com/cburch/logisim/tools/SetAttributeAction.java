@@ -68,6 +68,17 @@ public class SetAttributeAction extends Action {
     return nameGetter.toString();
   }
 
+  @Override
+  public long getRetainedSize() {
+    // the values set through the circuit are accounted for by the reverse transaction
+    var ret = xnReverse == null ? DEFAULT_RETAINED_SIZE : xnReverse.getRetainedSize();
+    for (var i = 0; i < oldValues.size(); i++) {
+      final var old = oldValues.get(i);
+      if (old != null) ret += getValueSize(old) + getValueSize(values.get(i));
+    }
+    return ret;
+  }
+
   public boolean isEmpty() {
     return comps.isEmpty();
   }
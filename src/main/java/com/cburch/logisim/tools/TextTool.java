@@ -49,8 +49,8 @@ public class TextTool extends Tool {
         return;
       }
       final var action = event.getAction();
-      if (action == CircuitEvent.ACTION_REMOVE) {
-        if (event.getData() == caretComponent) {
+      if (action == CircuitEvent.ACTION_REMOVE || action == CircuitEvent.ACTION_REMOVE_ALL) {
+        if (caretComponent != null && event.getComponents().contains(caretComponent)) {
           caret.cancelEditing();
         }
       } else if (action == CircuitEvent.ACTION_CLEAR) {
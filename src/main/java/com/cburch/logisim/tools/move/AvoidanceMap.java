@@ -11,6 +11,7 @@ package com.cburch.logisim.tools.move;
 
 import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
 import java.io.PrintStream;
 import java.util.ArrayList;
@@ -19,26 +20,107 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Set;
 
+/**
+ * Tells for the locations of a circuit in which directions a new wire may pass them. The grid
+ * points within the bounds of the elements the map was created from are stored as two bits each in
+ * a bit set, which makes looking up and cloning cheap; any other location goes to a hash map.
+ */
 public final class AvoidanceMap {
 
-  private final HashMap<Location, String> avoidanceMap;
+  private static final int GRID_SIZE = 10;
+  // grid points around the elements, where the searched paths are most likely to pass
+  private static final int GRID_MARGIN = 20;
+  private static final long MAX_GRID_POINTS = 1L << 24;
+  // the values by their two bit code in the grid
+  private static final String[] VALUES = {
+    null, Connector.ALLOW_VERTICAL, Connector.ALLOW_HORIZONTAL, Connector.ALLOW_NEITHER
+  };
+
+  private final int gridX;
+  private final int gridY;
+  private final int columns;
+  private final int rows;
+  private final long[] grid;
+  private final HashMap<Location, String> overflow;
 
-  private AvoidanceMap(HashMap<Location, String> map) {
-    avoidanceMap = map;
+  private AvoidanceMap(int gridX, int gridY, int columns, int rows, long[] grid,
+      HashMap<Location, String> overflow) {
+    this.gridX = gridX;
+    this.gridY = gridY;
+    this.columns = columns;
+    this.rows = rows;
+    this.grid = grid;
+    this.overflow = overflow;
   }
 
   static AvoidanceMap create(Collection<Component> elements, int dx, int dy) {
-    final var ret = new AvoidanceMap(new HashMap<>());
+    var bds = Bounds.EMPTY_BOUNDS;
+    for (final var element : elements) bds = bds.add(element.getBounds());
+    final AvoidanceMap ret;
+    if (bds == Bounds.EMPTY_BOUNDS) {
+      ret = new AvoidanceMap(0, 0, 0, 0, new long[0], new HashMap<>());
+    } else {
+      final var x = Math.floorDiv(bds.getX() + dx, GRID_SIZE) - GRID_MARGIN;
+      final var y = Math.floorDiv(bds.getY() + dy, GRID_SIZE) - GRID_MARGIN;
+      var columns = bds.getWidth() / GRID_SIZE + 2 * GRID_MARGIN + 2;
+      var rows = bds.getHeight() / GRID_SIZE + 2 * GRID_MARGIN + 2;
+      if ((long) columns * rows > MAX_GRID_POINTS) {
+        columns = 0;
+        rows = 0;
+      }
+      ret = new AvoidanceMap(x * GRID_SIZE, y * GRID_SIZE, columns, rows,
+          new long[(columns * rows + 31) / 32], new HashMap<>());
+    }
     ret.markAll(elements, dx, dy);
     return ret;
   }
 
   public AvoidanceMap cloneMap() {
-    return new AvoidanceMap(new HashMap<>(avoidanceMap));
+    return new AvoidanceMap(gridX, gridY, columns, rows, grid.clone(), new HashMap<>(overflow));
+  }
+
+  /* returns the index of the location in the grid, or -1 if it is not part of it */
+  private int getIndex(Location loc) {
+    final var x = loc.getX() - gridX;
+    final var y = loc.getY() - gridY;
+    if (x < 0 || y < 0 || x % GRID_SIZE != 0 || y % GRID_SIZE != 0) return -1;
+    final var column = x / GRID_SIZE;
+    final var row = y / GRID_SIZE;
+    return column < columns && row < rows ? row * columns + column : -1;
+  }
+
+  private String getValue(int index) {
+    return VALUES[(int) (grid[index >>> 5] >>> ((index & 31) << 1)) & 3];
+  }
+
+  private void setValue(int index, String value) {
+    var code = 0;
+    while (VALUES[code] != value) code++;
+    final var shift = (index & 31) << 1;
+    grid[index >>> 5] = (grid[index >>> 5] & ~(3L << shift)) | ((long) code << shift);
   }
 
   public Object get(Location loc) {
-    return avoidanceMap.get(loc);
+    final var index = getIndex(loc);
+    return index < 0 ? overflow.get(loc) : getValue(index);
+  }
+
+  /* same as Map.put, value is one of the ALLOW constants of Connector */
+  private String put(Location loc, String value) {
+    final var index = getIndex(loc);
+    if (index < 0) return overflow.put(loc, value);
+    final var ret = getValue(index);
+    setValue(index, value);
+    return ret;
+  }
+
+  /* same as Map.remove */
+  private String remove(Location loc) {
+    final var index = getIndex(loc);
+    if (index < 0) return overflow.remove(loc);
+    final var ret = getValue(index);
+    setValue(index, null);
+    return ret;
   }
 
   public void markAll(Collection<Component> elements, int dx, int dy) {
@@ -54,7 +136,6 @@ public final class AvoidanceMap {
   }
 
   public void markComponent(Component comp, int dx, int dy) {
-    final var avoid = this.avoidanceMap;
     final var translated = dx != 0 || dy != 0;
     final var bds = comp.getBounds();
     var x0 = bds.getX() + dx;
@@ -69,14 +150,14 @@ public final class AvoidanceMap {
         // loc is most likely in the component, so go ahead and
         // put it into the map as if it is - and in the rare event
         // that loc isn't in the component, we can remove it.
-        final var prev = avoid.put(loc, Connector.ALLOW_NEITHER);
+        final var prev = put(loc, Connector.ALLOW_NEITHER);
         if (!Connector.ALLOW_NEITHER.equals(prev)) {
           final var baseLoc = translated ? loc.translate(-dx, -dy) : loc;
           if (!comp.contains(baseLoc)) {
             if (prev == null) {
-              avoid.remove(loc);
+              remove(loc);
             } else {
-              avoid.put(loc, prev);
+              put(loc, prev);
             }
           }
         }
@@ -85,7 +166,6 @@ public final class AvoidanceMap {
   }
 
   public void markWire(Wire w, int dx, int dy) {
-    final var avoid = this.avoidanceMap;
     final var translated = dx != 0 || dy != 0;
     var loc0 = w.getEnd0();
     var loc1 = w.getEnd1();
@@ -93,8 +173,8 @@ public final class AvoidanceMap {
       loc0 = loc0.translate(dx, dy);
       loc1 = loc1.translate(dx, dy);
     }
-    avoid.put(loc0, Connector.ALLOW_NEITHER);
-    avoid.put(loc1, Connector.ALLOW_NEITHER);
+    put(loc0, Connector.ALLOW_NEITHER);
+    put(loc1, Connector.ALLOW_NEITHER);
     final var x0 = loc0.getX();
     final var y0 = loc0.getY();
     final var x1 = loc1.getX();
@@ -102,17 +182,17 @@ public final class AvoidanceMap {
     if (x0 == x1) {
       // vertical wire
       for (final var loc : Wire.create(loc0, loc1)) {
-        final var prev = avoid.put(loc, Connector.ALLOW_HORIZONTAL);
+        final var prev = put(loc, Connector.ALLOW_HORIZONTAL);
         if (Connector.ALLOW_NEITHER.equals(prev) || Connector.ALLOW_VERTICAL.equals(prev)) {
-          avoid.put(loc, Connector.ALLOW_NEITHER);
+          put(loc, Connector.ALLOW_NEITHER);
         }
       }
     } else if (y0 == y1) {
       // horizontal wire
       for (final var loc : Wire.create(loc0, loc1)) {
-        final var prev = avoid.put(loc, Connector.ALLOW_VERTICAL);
+        final var prev = put(loc, Connector.ALLOW_VERTICAL);
         if (Connector.ALLOW_NEITHER.equals(prev) || Connector.ALLOW_HORIZONTAL.equals(prev)) {
-          avoid.put(loc, Connector.ALLOW_NEITHER);
+          put(loc, Connector.ALLOW_NEITHER);
         }
       }
     } else {
@@ -122,22 +202,31 @@ public final class AvoidanceMap {
   }
 
   public void print(PrintStream stream) {
-    ArrayList<Location> list = new ArrayList<>(avoidanceMap.keySet());
+    final var values = new HashMap<>(overflow);
+    for (var index = 0; index < columns * rows; index++) {
+      final var value = getValue(index);
+      if (value != null) {
+        final var x = gridX + (index % columns) * GRID_SIZE;
+        final var y = gridY + (index / columns) * GRID_SIZE;
+        values.put(Location.create(x, y, false), value);
+      }
+    }
+    ArrayList<Location> list = new ArrayList<>(values.keySet());
     Collections.sort(list);
     for (Location location : list) {
-      stream.println(location + ": " + avoidanceMap.get(location));
+      stream.println(location + ": " + values.get(location));
     }
   }
 
   public void unmarkLocation(Location loc) {
-    avoidanceMap.remove(loc);
+    remove(loc);
   }
 
   public void unmarkWire(Wire w, Location deletedEnd, Set<Location> unmarkable) {
     final var loc0 = w.getEnd0();
     final var loc1 = w.getEnd1();
     if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-      avoidanceMap.remove(deletedEnd);
+      remove(deletedEnd);
     }
     final var x0 = loc0.getX();
     final var y0 = loc0.getY();
@@ -147,9 +236,9 @@ public final class AvoidanceMap {
       // vertical wire
       for (final var loc : w) {
         if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-          final var prev = avoidanceMap.remove(loc);
+          final var prev = remove(loc);
           if (Connector.ALLOW_HORIZONTAL.equals(prev)) {
-            avoidanceMap.put(loc, Connector.ALLOW_VERTICAL);
+            put(loc, Connector.ALLOW_VERTICAL);
           }
         }
       }
@@ -157,9 +246,9 @@ public final class AvoidanceMap {
       // horizontal wire
       for (final var loc : w) {
         if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-          final var prev = avoidanceMap.remove(loc);
+          final var prev = remove(loc);
           if (!Connector.ALLOW_VERTICAL.equals(prev)) {
-            avoidanceMap.put(loc, Connector.ALLOW_HORIZONTAL);
+            put(loc, Connector.ALLOW_HORIZONTAL);
           }
         }
       }
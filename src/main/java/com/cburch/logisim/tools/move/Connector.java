@@ -53,7 +53,6 @@ class Connector {
       initNodes.put(conn, connNodes);
     }
 
-    MoveResult bestResult = null;
     final var tries = switch (baseConnects.size()) {
       case 0 -> 0;
       case 1 -> 1;
@@ -61,9 +60,8 @@ class Connector {
       case 3 -> 8;
       default -> MAX_ORDERING_TRIES;
     };
-    final var stopTime = System.currentTimeMillis() + MAX_SECONDS * 1000;
-    for (var tryNum = 0; tryNum < tries && stopTime - System.currentTimeMillis() > 0; tryNum++) {
-      if (ConnectorThread.isOverrideRequested()) return null;
+    final var orderings = new ArrayList<List<ConnectionData>>();
+    for (var tryNum = 0; tryNum < tries; tryNum++) {
       final var connects = new ArrayList<>(baseConnects);
       if (tryNum < 2) {
         sortConnects(connects, dx, dy);
@@ -71,8 +69,17 @@ class Connector {
       } else {
         Collections.shuffle(connects);
       }
+      orderings.add(connects);
+    }
 
-      final var candidate = tryList(req, gesture, connects, dx, dy, pathLocs, initNodes, stopTime);
+    // the orderings are independent of each other, so they are tried in parallel
+    final var stopTime = System.currentTimeMillis() + MAX_SECONDS * 1000;
+    final var candidates =
+        orderings.parallelStream()
+            .map(connects -> tryList(req, gesture, connects, dx, dy, pathLocs, initNodes, stopTime))
+            .toList();
+    MoveResult bestResult = null;
+    for (final var candidate : candidates) {
       if (candidate == null) {
         return null;
       } else if (bestResult == null) {
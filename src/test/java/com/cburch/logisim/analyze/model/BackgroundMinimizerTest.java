@@ -0,0 +1,49 @@
+package com.cburch.logisim.analyze.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BackgroundMinimizerTest {
+
+  private static AnalyzerModel createModel(String vars, String expr) throws ParserException {
+    final var model = new AnalyzerModel();
+    for (final var variable : vars.split(",")) model.getInputs().add(Var.parse(variable));
+    model.getOutputs().add(Var.parse("x"));
+    model.getOutputExpressions().setExpression("x", Parser.parse(expr, model));
+    return model;
+  }
+
+  /** Functions of more than 6 inputs are minimized automatically, and the result remembered. */
+  @Test
+  public void testAutomaticAboveExactLimit() throws ParserException {
+    final var model = createModel("a,b,c,d,e,f,g,h", "a b'c + d e f'g + a'h + b c d'e' + f g h'");
+    final var job =
+        BackgroundMinimizer.createJob(
+            AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, AnalyzerModel.MINIMIZER_AUTOMATIC, model, "x");
+    final var result = BackgroundMinimizer.compute(job, "x", null);
+    assertFalse(result.isEmpty());
+
+    // a job for the same contents finds the result by the digest of the column
+    final var again =
+        BackgroundMinimizer.createJob(
+            AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, AnalyzerModel.MINIMIZER_AUTOMATIC, model, "x");
+    assertEquals(job.key(), again.key());
+    assertSame(result, BackgroundMinimizer.getCached(again));
+  }
+
+  /** The exact minimizer skips this many inputs, and that empty result is not remembered. */
+  @Test
+  public void testEmptyResultNotCached() throws ParserException {
+    final var model = createModel("a,b,c,d,e,f,g", "a b c d e f g + a'b'c'd'e'f'g'");
+    final var job =
+        BackgroundMinimizer.createJob(
+            AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, AnalyzerModel.MINIMIZER_EXACT, model, "x");
+    assertTrue(BackgroundMinimizer.compute(job, "x", null).isEmpty());
+    assertNull(BackgroundMinimizer.getCached(job));
+  }
+}
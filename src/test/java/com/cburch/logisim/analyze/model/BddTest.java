@@ -0,0 +1,84 @@
+package com.cburch.logisim.analyze.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BddTest {
+
+  private static final List<String> VARIABLES = List.of("a", "b", "c", "d", "e", "f", "g");
+
+  private static Expression var(String name) {
+    return Expressions.variable(name);
+  }
+
+  private static List<Expression> expressions() {
+    final var a = var("a");
+    final var b = var("b");
+    final var c = var("c");
+    final var d = var("d");
+    final var g = var("g");
+    return List.of(
+        Expressions.or(Expressions.and(a, b), Expressions.and(Expressions.not(a), c)),
+        Expressions.xor(Expressions.xor(a, b), Expressions.xnor(c, g)),
+        Expressions.and(Expressions.or(a, Expressions.not(b)), Expressions.or(c, d)),
+        Expressions.and(a, Expressions.not(a)),
+        Expressions.or(g, Expressions.not(g)),
+        Expressions.constant(1));
+  }
+
+  @Test
+  public void testTruthTableMatchesExpression() {
+    for (final var expr : expressions()) {
+      final var bdd = new Bdd(VARIABLES.size());
+      final var bits = bdd.toBits(bdd.fromExpression(expr, VARIABLES));
+      assertArrayEquals(expr.evaluateAll(VARIABLES), bits, expr.toString());
+    }
+  }
+
+  @Test
+  public void testSumOfProductsIsEquivalent() {
+    for (final var expr : expressions()) {
+      final var bdd = new Bdd(VARIABLES.size());
+      final var function = bdd.fromExpression(expr, VARIABLES);
+      final var sum = bdd.toSumOfProducts(function, VARIABLES);
+      assertEquals(function, bdd.fromExpression(sum, VARIABLES), expr.toString());
+    }
+  }
+
+  @Test
+  public void testWideFunctions() {
+    // two ways to compute the carry out of a 32 bit adder give the same diagram
+    final var bdd = new Bdd(64);
+    var carry = Bdd.ZERO;
+    var otherCarry = Bdd.ZERO;
+    for (var i = 31; i >= 0; i--) {
+      final var x = bdd.variable(2 * i);
+      final var y = bdd.variable(2 * i + 1);
+      carry = bdd.or(bdd.and(x, y), bdd.and(carry, bdd.xor(x, y)));
+      otherCarry = bdd.ite(otherCarry, bdd.or(x, y), bdd.and(x, y));
+    }
+    assertEquals(carry, otherCarry);
+    assertNotEquals(Bdd.ZERO, carry);
+
+    final var assignment = bdd.findSatisfying(carry);
+    assertTrue(bdd.evaluate(carry, assignment));
+    assertNull(bdd.findSatisfying(bdd.and(carry, bdd.not(otherCarry))));
+
+    // parity needs exponentially many products
+    final var names = new ArrayList<String>();
+    var parity = Bdd.ZERO;
+    for (var i = 0; i < 64; i++) {
+      names.add("x" + i);
+      parity = bdd.xor(parity, bdd.variable(i));
+    }
+    assertNull(bdd.toSumOfProducts(parity, names, 1000));
+  }
+}
@@ -3,11 +3,13 @@ package com.cburch.logisim.analyze.model;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.stream.Stream;
 
-import javax.swing.JTextArea;
-
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -43,8 +45,8 @@ public class ImplicantTest {
   }
   
   /** Test method for
-   * {@link com.cburch.logisim.analyze.model.Implicant#computeMinimal(int,
-   * AnalyzerModel, String, javax.swing.JTextArea)}.
+   * {@link com.cburch.logisim.analyze.model.Implicant#computeMinimal(int, int,
+   * AnalyzerModel, String, StringBuilder)}.
    *
    * @param vars Names of the variables in Expression, seperated by commas
    * @param expr String representation of the Expression, must be parsable by
@@ -56,6 +58,42 @@ public class ImplicantTest {
   @ParameterizedTest
   @MethodSource("expressionProvider")
   public void testComputeMinimal(String vars, String expr, int cost, int format) {
+    final var res =
+        minimize(vars, expr, format, AnalyzerModel.MINIMIZER_EXACT, new StringBuilder());
+
+    // Check if the minimized Expression has the expected amount of primes
+    assertEquals(cost, res.size(),
+        "The amount of primes in the result does not match the expected value.");
+  }
+
+  /** The heuristic minimizer must give an equivalent expression, but may use more primes. */
+  @ParameterizedTest
+  @MethodSource("expressionProvider")
+  public void testComputeHeuristicMinimal(String vars, String expr, int cost, int format) {
+    final var res =
+        minimize(vars, expr, format, AnalyzerModel.MINIMIZER_HEURISTIC, new StringBuilder());
+    assertTrue(res.size() >= cost, "The heuristic found fewer primes than the exact minimum.");
+  }
+
+  /** Without a report, functions of more than 6 inputs are still minimized by the heuristic. */
+  @Test
+  public void testAutomaticAboveExactLimit() {
+    final var vars = "a,b,c,d,e,f,g,h";
+    final var expr = "a b'c + d e f'g + a'h + b c d'e' + f g h'";
+    for (final var format :
+        new int[] {AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, AnalyzerModel.FORMAT_PRODUCT_OF_SUMS}) {
+      for (final var minimizer :
+          new int[] {AnalyzerModel.MINIMIZER_AUTOMATIC, AnalyzerModel.MINIMIZER_HEURISTIC}) {
+        final var res = minimize(vars, expr, format, minimizer, null);
+        assertFalse(res.isEmpty(), "The automatic minimization gave no cover.");
+      }
+      // the exact minimizer is only run on request for this many inputs
+      assertTrue(minimize(vars, expr, format, AnalyzerModel.MINIMIZER_EXACT, null).isEmpty());
+    }
+  }
+
+  private static List<Implicant> minimize(
+      String vars, String expr, int format, int minimizer, StringBuilder outputArea) {
     // Create analyzer model
     final AnalyzerModel model = new AnalyzerModel();
     
@@ -78,8 +116,10 @@ public class ImplicantTest {
         () -> model.getOutputExpressions().setExpression("x", Parser.parse(expr, model)),
         "Failed to parse expression '" + expr + "'!");
     
-    // Minimize Expression (use outputArea to allow for larger expressions)
-    final var res = Implicant.computeMinimal(format, model, "x", new JTextArea());
+    // Minimize Expression (an outputArea allows for larger expressions)
+    final var res = Implicant.computeMinimal(format, minimizer, model, "x", outputArea);
+    // an automatic minimization that was not run has nothing to compare
+    if (outputArea == null && res.isEmpty()) return res;
     
     // Add new Expression to the analyzer model (needed to verify Expression is equivalent)
     model.getOutputExpressions().setExpression("y", Implicant.toExpression(format, model, res));
@@ -87,9 +127,6 @@ public class ImplicantTest {
     // Compare outputs of old and minimized Expression to verify they are the same
     assertArrayEquals(model.getTruthTable().getOutputColumn(0),
         model.getTruthTable().getOutputColumn(1), "The truth table changed during minimization");
-    
-    // Check if the minimized Expression has the expected amount of primes
-    assertEquals(cost, res.size(),
-        "The amount of primes in the result does not match the expected value.");
+    return res;
   }
-}
\ No newline at end of file
+}
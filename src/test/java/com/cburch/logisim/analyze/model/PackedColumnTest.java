@@ -0,0 +1,48 @@
+package com.cburch.logisim.analyze.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+public class PackedColumnTest {
+
+  @Test
+  public void testEntries() {
+    final var entries =
+        new Entry[] {
+          Entry.ZERO, Entry.ONE, Entry.DONT_CARE, Entry.BUS_ERROR, Entry.OSCILLATE_ERROR
+        };
+    final var column = PackedColumn.of(entries);
+    assertArrayEquals(entries, column.toArray());
+    assertEquals(column, column.copy());
+  }
+
+  @Test
+  public void testViewFollowsChanges() {
+    final var column = new PackedColumn(100, Entry.DONT_CARE);
+    final var view = column.view();
+    assertSame(view, column.view());
+    column.set(70, Entry.ONE);
+    assertEquals(Entry.ONE, view[70]);
+
+    // a copy is a snapshot, it does not change the view of the original
+    final var copy = column.copy();
+    copy.set(70, Entry.ZERO);
+    assertEquals(Entry.ONE, view[70]);
+    assertEquals(Entry.ZERO, copy.view()[70]);
+  }
+
+  @Test
+  public void testDigest() {
+    final var column = new PackedColumn(200, Entry.ZERO);
+    column.set(130, Entry.ONE);
+    final var copy = column.copy();
+    assertEquals(column.digest(), copy.digest());
+    copy.set(131, Entry.DONT_CARE);
+    assertNotEquals(column.digest(), copy.digest());
+    assertNotEquals(column.digest(), new PackedColumn(201, Entry.ZERO).digest());
+  }
+}
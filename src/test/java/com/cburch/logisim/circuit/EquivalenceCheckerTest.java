@@ -0,0 +1,66 @@
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.analyze.model.Bdd;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class EquivalenceCheckerTest {
+
+  private static final List<String> INPUTS = List.of("a", "b");
+
+  @Test
+  public void testEquivalent() throws AnalyzeException {
+    final var bdd = new Bdd(INPUTS.size());
+    final var a = bdd.variable(0);
+    final var b = bdd.variable(1);
+    final var nand = bdd.not(bdd.and(a, b));
+    final var deMorgan = bdd.or(bdd.not(a), bdd.not(b));
+    final var result =
+        EquivalenceChecker.compare(bdd, INPUTS, Map.of("x", nand), Map.of("x", deMorgan));
+    assertTrue(result.isEquivalent());
+  }
+
+  @Test
+  public void testCounterexample() throws AnalyzeException {
+    final var bdd = new Bdd(INPUTS.size());
+    final var a = bdd.variable(0);
+    final var b = bdd.variable(1);
+    final var result =
+        EquivalenceChecker.compare(
+            bdd, INPUTS, Map.of("x", bdd.and(a, b)), Map.of("x", bdd.or(a, b)));
+    assertFalse(result.isEquivalent());
+    final var counterexample = result.counterexample();
+    assertTrue(counterexample[0] != counterexample[1]);
+    assertEquals(Map.of("x", false), result.differingOutputs());
+  }
+
+  @Test
+  public void testFloatingOutputIsNotComparable() {
+    final var bdd = new Bdd(INPUTS.size());
+    final var a = bdd.variable(0);
+    // a floating output used to be taken as zero, and equal to a constant zero output
+    assertThrows(
+        AnalyzeException.class,
+        () ->
+            EquivalenceChecker.compare(
+                bdd,
+                INPUTS,
+                Map.of("x", a, "y", Analyze.NO_DRIVER),
+                Map.of("x", a, "y", Bdd.ZERO)));
+    assertThrows(
+        AnalyzeException.class,
+        () ->
+            EquivalenceChecker.compare(
+                bdd,
+                INPUTS,
+                Map.of("x", a, "y", Analyze.NO_DRIVER),
+                Map.of("x", a, "y", Analyze.NO_DRIVER)));
+  }
+}
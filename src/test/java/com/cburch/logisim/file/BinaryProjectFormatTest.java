@@ -0,0 +1,76 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.util.XmlUtil;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+public class BinaryProjectFormatTest {
+
+  private static final String PROJECT =
+      """
+      <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+      <project source="3.8.0" version="1.0">
+        <lib desc="#Wiring" name="0"/>
+        <main name="main"/>
+        <circuit name="main">
+          <comp lib="0" loc="(100,100)" name="Pin"><a name="label" val="a &amp; &lt;b&gt;"/></comp>
+          <wire from="(100,100)" to="(200,100)"/>
+        </circuit>
+        <circuit name="sub"><wire from="(0,0)" to="(10,0)"/></circuit>
+        <vhdl name="e"><![CDATA[entity e is
+      end e;]]></vhdl>
+      </project>
+      """;
+
+  private static Document parse(String xml) throws Exception {
+    final var builder = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder();
+    return builder.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String toXml(Document doc) throws Exception {
+    final var out = new StringWriter();
+    TransformerFactory.newInstance()
+        .newTransformer()
+        .transform(new DOMSource(doc), new StreamResult(out));
+    return out.toString();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final var doc = parse(PROJECT);
+    final var out = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, out);
+
+    final var in = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+    assertTrue(BinaryProjectFormat.isBinary(in));
+    assertEquals(toXml(doc), toXml(BinaryProjectFormat.read(in)));
+  }
+
+  @Test
+  public void testXmlIsNotBinary() throws Exception {
+    final var in =
+        new BufferedInputStream(new ByteArrayInputStream(PROJECT.getBytes(StandardCharsets.UTF_8)));
+    assertFalse(BinaryProjectFormat.isBinary(in));
+  }
+}
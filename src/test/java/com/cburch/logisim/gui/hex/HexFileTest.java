@@ -5,13 +5,16 @@ import com.cburch.logisim.std.memory.MemContents;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HexFileTest {
@@ -130,4 +133,50 @@ public class HexFileTest {
       compare(false, "v3.0 hex bytes plain " + endian, plainFile, addressSize, wordSize, values);
     }
   }
+
+  /** Large images are decoded in parallel chunks, see {@link FastHexFile}. */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "v3.0 hex words addressed",
+        "v3.0 hex words plain",
+        "Binary data big-endian",
+        "Binary data little-endian"
+      })
+  public final void testSaveLoadLargeMemoryContents(String desc) throws IOException {
+    final var addressSize = 20;
+    final var wordSize = 24;
+    final var rng = new Random(desc.hashCode());
+    final var memoryContents = MemContents.create(addressSize, wordSize, false);
+    final var values = new HashMap<Long, Long>();
+    for (var a = 0L; a < (1L << addressSize); a += 1 + rng.nextInt(8)) {
+      final var v = rng.nextLong() & ((1L << wordSize) - 1);
+      values.put(a, v);
+      memoryContents.set(a, v);
+    }
+    final var tempFile = new File(tempDir, "large.dat");
+    HexFile.save(tempFile, memoryContents, desc);
+    compare(!desc.startsWith("Binary"), desc, tempFile, addressSize, wordSize, values);
+  }
+
+  /** A word of more than 64 bits is left to the regular reader, which reports it. */
+  @ParameterizedTest
+  @ValueSource(strings = {"v3.0 hex words addressed", "v3.0 hex words plain"})
+  public final void testFastReadWordTooLong(String desc) throws IOException {
+    final var file = new File(tempDir, "long.txt");
+    final var words = "0001 10000000000000000 0002\n";
+    Files.writeString(file.toPath(), desc.endsWith("addressed") ? "0: " + words : words);
+    final var memory = MemContents.create(4, 64, false);
+    memory.set(3, 42);
+    assertFalse(FastHexFile.read(memory, file, desc));
+    // the target is not touched when giving up
+    assertEquals(42, memory.get(3));
+    assertEquals(0, memory.get(0));
+
+    // leading zeros do not count
+    Files.writeString(file.toPath(), words.replace("10000000000000000", "0ffffffffffffffff"));
+    assertTrue(FastHexFile.read(memory, file, "v3.0 hex words plain"));
+    assertEquals(-1L, memory.get(1));
+    assertEquals(0, memory.get(3));
+  }
 }
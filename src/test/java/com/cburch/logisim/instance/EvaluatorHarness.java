@@ -0,0 +1,92 @@
+package com.cburch.logisim.instance;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.AttributeSet;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.proj.Project;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A circuit state holding the values around one component, for running it through {@link
+ * InstanceFactory#propagate} or through its {@link InstanceEvaluator}. A null port value leaves the
+ * port unconnected. Each run returns what was set, as lists of location, value and delay.
+ */
+public final class EvaluatorHarness {
+  private final Map<Location, Value> values = new HashMap<>();
+  private final Map<Component, Object> data = new HashMap<>();
+  private final List<List<Object>> outputs = new ArrayList<>();
+  private final CircuitState state;
+
+  public EvaluatorHarness(boolean errorIfUndefined) {
+    final var options = new Options();
+    options
+        .getAttributeSet()
+        .setValue(
+            Options.ATTR_GATE_UNDEFINED,
+            errorIfUndefined ? Options.GATE_UNDEFINED_ERROR : Options.GATE_UNDEFINED_IGNORE);
+    final var project = mock(Project.class);
+    when(project.getOptions()).thenReturn(options);
+    final var circuit = mock(Circuit.class);
+    when(circuit.isConnected(any(), any()))
+        .thenAnswer(inv -> values.containsKey(inv.<Location>getArgument(0)));
+    state = mock(CircuitState.class);
+    when(state.getProject()).thenReturn(project);
+    when(state.getCircuit()).thenReturn(circuit);
+    when(state.getValue(any()))
+        .thenAnswer(inv -> values.getOrDefault(inv.<Location>getArgument(0), Value.UNKNOWN));
+    when(state.getData(any())).thenAnswer(inv -> data.get(inv.<Component>getArgument(0)));
+    doAnswer(inv -> data.put(inv.getArgument(0), inv.getArgument(1)))
+        .when(state)
+        .setData(any(), any());
+    doAnswer(
+            inv ->
+                outputs.add(List.of(inv.getArgument(0), inv.getArgument(1), inv.getArgument(3))))
+        .when(state)
+        .setValue(any(), any(), any(), anyInt());
+  }
+
+  public static InstanceComponent create(InstanceFactory factory, Consumer<AttributeSet> setup) {
+    final var attrs = factory.createAttributeSet();
+    setup.accept(attrs);
+    return (InstanceComponent) factory.createComponent(Location.create(100, 100, true), attrs);
+  }
+
+  public static InstanceEvaluator createEvaluator(InstanceComponent comp) {
+    final var factory = (InstanceFactory) comp.getFactory();
+    return factory.createEvaluator(comp.getInstance(), new PortSlots(comp));
+  }
+
+  public List<List<Object>> propagate(InstanceComponent comp, Value... ports) {
+    final var factory = (InstanceFactory) comp.getFactory();
+    return run(comp, ports, s -> factory.propagate(new InstanceStateImpl(s, comp)));
+  }
+
+  public List<List<Object>> evaluate(
+      InstanceComponent comp, InstanceEvaluator evaluator, Value... ports) {
+    return run(comp, ports, evaluator::evaluate);
+  }
+
+  private List<List<Object>> run(Component comp, Value[] ports, Consumer<CircuitState> propagate) {
+    values.clear();
+    outputs.clear();
+    for (var i = 0; i < ports.length; i++) {
+      if (ports[i] != null) values.put(comp.getEnd(i).getLocation(), ports[i]);
+    }
+    propagate.accept(state);
+    return new ArrayList<>(outputs);
+  }
+}
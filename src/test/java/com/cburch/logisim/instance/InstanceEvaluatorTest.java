@@ -0,0 +1,89 @@
+package com.cburch.logisim.instance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.std.arith.Adder;
+import com.cburch.logisim.std.memory.Register;
+import com.cburch.logisim.std.plexers.Multiplexer;
+import com.cburch.logisim.std.plexers.PlexersLibrary;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that an instance propagates the same through its evaluator as through propagate. The gates
+ * share that code between both paths, so GateEvaluatorTest checks them against their functions.
+ */
+public class InstanceEvaluatorTest {
+
+  /* runs each step through both paths, each with its own state, and compares what they set */
+  private static void assertSamePropagation(
+      InstanceComponent comp, boolean errorIfUndefined, Value[]... steps) {
+    final var evaluator = EvaluatorHarness.createEvaluator(comp);
+    assertNotNull(evaluator);
+    final var viaState = new EvaluatorHarness(errorIfUndefined);
+    final var viaEvaluator = new EvaluatorHarness(errorIfUndefined);
+    for (final var step : steps) {
+      assertEquals(viaState.propagate(comp, step), viaEvaluator.evaluate(comp, evaluator, step));
+    }
+  }
+
+  private static Value[] ports(Value... values) {
+    return values;
+  }
+
+  @Test
+  public void testAdder() {
+    final var adder =
+        EvaluatorHarness.create(
+            new Adder(), attrs -> attrs.setValue(StdAttr.WIDTH, BitWidth.create(8)));
+    final var a = Value.createKnown(8, 200);
+    final var b = Value.createKnown(8, 100);
+    assertSamePropagation(
+        adder,
+        false,
+        ports(a, b, null, Value.TRUE, null),
+        ports(a, b, null, null, null),
+        ports(a, Value.createUnknown(BitWidth.create(8)), null, Value.FALSE, null));
+  }
+
+  @Test
+  public void testMultiplexer() {
+    final var mux =
+        EvaluatorHarness.create(
+            new Multiplexer(),
+            attrs -> {
+              attrs.setValue(StdAttr.WIDTH, BitWidth.create(4));
+              attrs.setValue(PlexersLibrary.ATTR_ENABLE, true);
+            });
+    final var a = Value.createKnown(4, 3);
+    final var b = Value.createKnown(4, 12);
+    assertSamePropagation(
+        mux,
+        false,
+        ports(a, b, Value.TRUE, Value.TRUE, null),
+        ports(a, b, Value.FALSE, null, null),
+        ports(a, b, Value.TRUE, Value.FALSE, null),
+        ports(a, b, Value.TRUE, Value.ERROR, null),
+        ports(a, b, Value.ERROR, Value.TRUE, null),
+        ports(a, b, null, Value.TRUE, null));
+  }
+
+  @Test
+  public void testRegister() {
+    final var register =
+        EvaluatorHarness.create(
+            new Register(), attrs -> attrs.setValue(StdAttr.WIDTH, BitWidth.create(8)));
+    final var in = Value.createKnown(8, 42);
+    // the clock edge is found from the data kept in the state between steps
+    assertSamePropagation(
+        register,
+        false,
+        ports(null, in, Value.FALSE, Value.FALSE, Value.TRUE),
+        ports(null, in, Value.TRUE, Value.FALSE, Value.TRUE),
+        ports(null, Value.createKnown(8, 7), Value.FALSE, Value.FALSE, Value.FALSE),
+        ports(null, in, Value.FALSE, Value.TRUE, Value.TRUE));
+  }
+}
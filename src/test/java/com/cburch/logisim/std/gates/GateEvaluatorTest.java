@@ -0,0 +1,129 @@
+package com.cburch.logisim.std.gates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.cburch.logisim.data.AttributeSet;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.instance.EvaluatorHarness;
+import com.cburch.logisim.instance.InstanceFactory;
+import com.cburch.logisim.instance.StdAttr;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the output of the gates, through propagate and through their evaluator, against the gate
+ * functions applied to the connected inputs, for every combination of the given input values
+ * (null meaning unconnected).
+ */
+public class GateEvaluatorTest {
+
+  private static final Value[] BITS = {Value.FALSE, Value.TRUE, Value.UNKNOWN, Value.ERROR, null};
+
+  /*
+   * The output the gate is defined to have: an error when no input is connected, or when one is
+   * not and undefined inputs are errors, otherwise the function of the connected inputs, with the
+   * negated inputs inverted and the output inverted for the inverting gates.
+   */
+  private static Value expected(
+      BiFunction<Value[], Integer, Value> function,
+      boolean inverted,
+      long negated,
+      BitWidth width,
+      boolean errorIfUndefined,
+      Value[] ports) {
+    final var inputs = new Value[ports.length - 1];
+    var numInputs = 0;
+    for (var i = 1; i < ports.length; i++) {
+      if (ports[i] != null) {
+        inputs[numInputs++] = ((negated >> (i - 1)) & 1) == 1 ? ports[i].not() : ports[i];
+      } else if (errorIfUndefined) {
+        return Value.createError(width);
+      }
+    }
+    if (numInputs == 0) return Value.createError(width);
+    final var out = function.apply(inputs, numInputs);
+    return inverted ? out.not() : out;
+  }
+
+  private static void assertGate(
+      InstanceFactory factory,
+      Consumer<AttributeSet> setup,
+      BiFunction<Value[], Integer, Value> function,
+      boolean inverted,
+      long negated,
+      Value[] candidates) {
+    final var comp = EvaluatorHarness.create(factory, setup);
+    final var attrs = (GateAttributes) comp.getAttributeSet();
+    final var evaluator = EvaluatorHarness.createEvaluator(comp);
+    assertNotNull(evaluator);
+    final var out = comp.getEnd(0).getLocation();
+    for (final var errorIfUndefined : new boolean[] {false, true}) {
+      final var harness = new EvaluatorHarness(errorIfUndefined);
+      final var combinations = (int) Math.pow(candidates.length, attrs.inputs);
+      for (var n = 0; n < combinations; n++) {
+        final var ports = new Value[attrs.inputs + 1];
+        for (int i = 1, rest = n; i < ports.length; i++, rest /= candidates.length) {
+          ports[i] = candidates[rest % candidates.length];
+        }
+        final var value =
+            expected(function, inverted, negated, attrs.width, errorIfUndefined, ports);
+        final var expected = List.of(List.<Object>of(out, value, GateAttributes.DELAY));
+        assertEquals(expected, harness.propagate(comp, ports));
+        assertEquals(expected, harness.evaluate(comp, evaluator, ports));
+      }
+    }
+  }
+
+  @Test
+  public void testAndGates() {
+    assertGate(
+        AndGate.FACTORY,
+        attrs -> {
+          attrs.setValue(GateAttributes.ATTR_INPUTS, 3);
+          attrs.setValue(new NegateAttribute(1, null), true);
+        },
+        GateFunctions::computeAnd,
+        false,
+        0b010,
+        BITS);
+    assertGate(NandGate.FACTORY, attrs -> {}, GateFunctions::computeAnd, true, 0, BITS);
+  }
+
+  @Test
+  public void testOrGates() {
+    final var width = BitWidth.create(4);
+    final var words =
+        new Value[] {
+          Value.createKnown(4, 0b0101),
+          Value.createKnown(4, 0b0011),
+          Value.createUnknown(width),
+          null
+        };
+    assertGate(
+        OrGate.FACTORY,
+        attrs -> attrs.setValue(StdAttr.WIDTH, width),
+        GateFunctions::computeOr,
+        false,
+        0,
+        words);
+    assertGate(NorGate.FACTORY, attrs -> {}, GateFunctions::computeOr, true, 0, BITS);
+  }
+
+  @Test
+  public void testParityGates() {
+    final Consumer<AttributeSet> odd =
+        attrs -> {
+          attrs.setValue(GateAttributes.ATTR_INPUTS, 3);
+          attrs.setValue(GateAttributes.ATTR_XOR, GateAttributes.ATTR_XOR.parse("odd"));
+        };
+    assertGate(XorGate.FACTORY, odd, GateFunctions::computeOddParity, false, 0, BITS);
+    assertGate(XnorGate.FACTORY, odd, GateFunctions::computeOddParity, true, 0, BITS);
+    assertGate(OddParityGate.FACTORY, attrs -> {}, GateFunctions::computeOddParity, false, 0, BITS);
+    assertGate(EvenParityGate.FACTORY, attrs -> {}, GateFunctions::computeOddParity, true, 0, BITS);
+  }
+}
@@ -0,0 +1,73 @@
+package com.cburch.logisim.std.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class MemContentsCodecTest {
+
+  @TempDir Path tempDir;
+
+  private static MemContents randomContents(int addrBits, int width) {
+    final var ret = MemContents.create(addrBits, width, false);
+    final var random = new Random(addrBits * 64L + width);
+    for (var i = 0; i < 100; i++) ret.set(random.nextInt(1 << addrBits), random.nextLong());
+    return ret;
+  }
+
+  private static void assertSameContents(MemContents expected, MemContents actual) {
+    assertEquals(expected.getLogLength(), actual.getLogLength());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    for (var addr = 0L; addr <= expected.getLastOffset(); addr++) {
+      assertEquals(expected.get(addr), actual.get(addr), "address " + addr);
+    }
+  }
+
+  private static String getBody(String value) {
+    return value.substring(value.indexOf('\n') + 1);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 1", "4, 8", "12, 13", "16, 32", "18, 64"})
+  public void testCompressed(int addrBits, int width) throws IOException {
+    final var contents = randomContents(addrBits, width);
+    final var value = MemContentsCodec.toCompressedString(contents);
+    final var header = MemContentsCodec.getHeader(contents, MemContentsCodec.COMPRESSED);
+    assertTrue(value.startsWith(header));
+    assertSameContents(
+        contents, MemContentsCodec.fromCompressedString(getBody(value), addrBits, width));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 1", "4, 8", "12, 13", "16, 32", "18, 64"})
+  public void testExternal(int addrBits, int width) throws IOException {
+    final var contents = randomContents(addrBits, width);
+    final var value =
+        MemContentsCodec.toExternalString(contents, tempDir.resolve("memory"), tempDir);
+    // the stored path is relative to the project directory
+    assertTrue(getBody(value).startsWith("memory/"));
+    final var resolved = MemContentsCodec.resolveExternal(value, tempDir.toString());
+    final var file = Paths.get(getBody(resolved).trim());
+    assertSameContents(contents, MemContentsCodec.readBinary(file, addrBits, width));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"../memory/image.bin", "memory/../../image.bin", "/tmp/image.bin"})
+  public void testExternalOutsideProject(String path) {
+    final var value =
+        MemContentsCodec.getHeader(MemContents.create(4, 8, false), MemContentsCodec.EXTERNAL)
+            + path
+            + "\n";
+    assertThrows(
+        IOException.class, () -> MemContentsCodec.resolveExternal(value, tempDir.toString()));
+  }
+}
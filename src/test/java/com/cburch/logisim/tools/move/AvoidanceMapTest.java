@@ -0,0 +1,64 @@
+package com.cburch.logisim.tools.move;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AvoidanceMapTest {
+
+  private static Location loc(int x, int y) {
+    return Location.create(x, y, false);
+  }
+
+  private static Wire wire(int x0, int y0, int x1, int y1) {
+    return Wire.create(loc(x0, y0), loc(x1, y1));
+  }
+
+  @Test
+  public void testCrossingWires() {
+    final List<Component> wires = List.of(wire(100, 100, 200, 100), wire(150, 50, 150, 150));
+    final var map = AvoidanceMap.create(wires, 0, 0);
+    assertEquals(Connector.ALLOW_NEITHER, map.get(loc(100, 100)));
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(loc(120, 100)));
+    assertEquals(Connector.ALLOW_HORIZONTAL, map.get(loc(150, 70)));
+    assertEquals(Connector.ALLOW_NEITHER, map.get(loc(150, 100)));
+    assertNull(map.get(loc(120, 110)));
+    assertNull(map.get(loc(125, 100)));
+  }
+
+  @Test
+  public void testLocationsOutsideOfGrid() {
+    // the far wire lies outside of the grid, the second one is off its grid points
+    final List<Component> wires = List.of(wire(100, 100, 200, 100), wire(105, 305, 105, 405));
+    final var map = AvoidanceMap.create(wires, 0, 0);
+    map.markWire(wire(100000, 100000, 100000, 100100), 0, 0);
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(loc(150, 100)));
+    assertEquals(Connector.ALLOW_HORIZONTAL, map.get(loc(105, 355)));
+    assertEquals(Connector.ALLOW_HORIZONTAL, map.get(loc(100000, 100050)));
+    assertNull(map.get(loc(105, 350)));
+    map.unmarkLocation(loc(100000, 100050));
+    assertNull(map.get(loc(100000, 100050)));
+  }
+
+  @Test
+  public void testTranslatedAndCloned() {
+    final List<Component> wires = List.of(wire(100, 100, 200, 100));
+    final var map = AvoidanceMap.create(wires, 30, -20);
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(loc(150, 80)));
+    assertNull(map.get(loc(150, 100)));
+
+    final var copy = map.cloneMap();
+    copy.markWire(wire(150, 50, 150, 150), 0, 0);
+    copy.unmarkLocation(loc(140, 80));
+    assertEquals(Connector.ALLOW_NEITHER, copy.get(loc(150, 80)));
+    assertNull(copy.get(loc(140, 80)));
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(loc(150, 80)));
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(loc(140, 80)));
+  }
+}